@@ -0,0 +1,56 @@
+package com.SICOIL.benchmarks;
+
+import com.SICOIL.dtos.filtro.FiltrosResponse;
+import com.SICOIL.dtos.producto.PaginaProductoResponse;
+import com.SICOIL.repositories.ClienteRepository;
+import com.SICOIL.repositories.ProductoRepository;
+import com.SICOIL.services.filtro.FiltroService;
+import com.SICOIL.services.producto.ProductoService;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Agrupación en memoria por nombre de 2000 lotes (400 productos de 5 lotes) en el listado paginado
+ * de productos y en la lista de filtros, junto con 800 clientes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgrupacionProductosBenchmark {
+
+    private ProductoService productoService;
+    private FiltroService filtroService;
+
+    @Setup
+    public void preparar() {
+        ProductoRepository productoRepository = Fixtures.repositorio(ProductoRepository.class,
+                Map.of("findAll", Fixtures.productos()));
+        ClienteRepository clienteRepository = Fixtures.repositorio(ClienteRepository.class,
+                Map.of("findAll", Fixtures.clientes()));
+        productoService = new ProductoService(productoRepository, null, null, null);
+        filtroService = new FiltroService(productoRepository, clienteRepository);
+    }
+
+    @Benchmark
+    public PaginaProductoResponse productosTraerTodos() {
+        return productoService.traerTodos(null, 0, 20);
+    }
+
+    @Benchmark
+    public FiltrosResponse filtros() {
+        return filtroService.obtenerFiltros();
+    }
+}
@@ -0,0 +1,47 @@
+package com.SICOIL.benchmarks;
+
+import com.SICOIL.dtos.cartera.CarteraResumenResponse;
+import com.SICOIL.mappers.cartera.CarteraMapperImpl;
+import com.SICOIL.repositories.CarteraRepository;
+import com.SICOIL.services.cartera.CarteraService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Totales de cartera por cliente. La suma se hace en la consulta, así que lo que queda en la JVM es
+ * convertir las 800 filas agregadas a {@link CarteraResumenResponse}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarteraPendientesBenchmark {
+
+    private CarteraService carteraService;
+
+    @Setup
+    public void preparar() {
+        CarteraRepository carteraRepository = Fixtures.repositorio(CarteraRepository.class,
+                Map.of("resumenPendientesPorCliente", Fixtures.pendientesPorCliente()));
+        carteraService = new CarteraService(carteraRepository, null, new CarteraMapperImpl(), null, null, null,
+                null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<CarteraResumenResponse> totalesPorCliente() {
+        return carteraService.listarPendientes(null, null, null);
+    }
+}
@@ -0,0 +1,173 @@
+package com.SICOIL.benchmarks;
+
+import com.SICOIL.dtos.venta.DetalleVentaRequest;
+import com.SICOIL.dtos.venta.VentaRequest;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.DetalleVenta;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.models.Usuario;
+import com.SICOIL.models.Venta;
+import com.SICOIL.repositories.CarteraPendienteCliente;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Datos sintéticos de tamaño realista para los benchmarks. Se generan con semilla fija para que dos
+ * ejecuciones midan exactamente el mismo trabajo.
+ */
+final class Fixtures {
+
+    static final int PRODUCTOS_DISTINTOS = 400;
+    static final int LOTES_POR_PRODUCTO = 5;
+    static final int CLIENTES = 800;
+    static final int LINEAS_POR_VENTA = 15;
+    static final int VENTAS_POR_PAGINA = 50;
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    private Fixtures() {
+    }
+
+    static List<Producto> productos() {
+        Random random = new Random(42);
+        List<Producto> productos = new ArrayList<>(PRODUCTOS_DISTINTOS * LOTES_POR_PRODUCTO);
+        long id = 1;
+        for (int lote = 0; lote < LOTES_POR_PRODUCTO; lote++) {
+            for (int i = 0; i < PRODUCTOS_DISTINTOS; i++) {
+                productos.add(Producto.builder()
+                        .id(id++)
+                        .nombre(nombreProducto(i))
+                        .precioCompra(Dinero.de(10_000d + random.nextInt(90_000)))
+                        .cantidadPorCajas(12)
+                        .stock(random.nextInt(200))
+                        .fechaRegistro(INICIO.plusDays(lote * 30L).plusMinutes(i))
+                        .comentario(lote == 0 ? null : "Lote " + lote)
+                        .build());
+            }
+        }
+        return productos;
+    }
+
+    static List<Producto> lotes(String nombre) {
+        List<Producto> lotes = new ArrayList<>(LOTES_POR_PRODUCTO);
+        for (int lote = 0; lote < LOTES_POR_PRODUCTO; lote++) {
+            lotes.add(Producto.builder()
+                    .id((long) lote + 1)
+                    .nombre(nombre)
+                    .precioCompra(Dinero.de(20_000d + lote * 500))
+                    .cantidadPorCajas(12)
+                    .stock(3)
+                    .fechaRegistro(INICIO.plusDays(lote * 30L))
+                    .build());
+        }
+        return lotes;
+    }
+
+    static List<Cliente> clientes() {
+        List<Cliente> clientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(Cliente.builder().id((long) i + 1).nombre("Cliente " + i).build());
+        }
+        return clientes;
+    }
+
+    static Usuario usuario() {
+        return Usuario.builder().id(1L).usuario("cajero").contrasena("x").build();
+    }
+
+    /**
+     * Solicitud de venta cuyas líneas piden más de un lote, para que el mapper recorra varios.
+     */
+    static VentaRequest ventaRequest() {
+        List<DetalleVentaRequest> items = new ArrayList<>(LINEAS_POR_VENTA);
+        for (int i = 0; i < LINEAS_POR_VENTA; i++) {
+            DetalleVentaRequest item = new DetalleVentaRequest();
+            item.setNombreProducto(nombreProducto(i));
+            item.setCantidad(7);
+            item.setSubtotal(25_350.5d);
+            items.add(item);
+        }
+        VentaRequest request = new VentaRequest();
+        request.setClienteId(1L);
+        request.setTipoVenta(TipoVenta.CREDITO);
+        request.setItems(items);
+        return request;
+    }
+
+    static List<Venta> ventas(int cantidad) {
+        List<Producto> productos = productos();
+        List<Cliente> clientes = clientes();
+        Usuario usuario = usuario();
+        List<Venta> ventas = new ArrayList<>(cantidad);
+        for (int v = 0; v < cantidad; v++) {
+            Venta venta = new Venta();
+            venta.setId((long) v + 1);
+            venta.setCliente(clientes.get(v % clientes.size()));
+            venta.setUsuario(usuario);
+            venta.setTipoVenta(v % 3 == 0 ? TipoVenta.CONTADO : TipoVenta.CREDITO);
+            venta.setActiva(true);
+            venta.setFechaRegistro(INICIO.plusHours(v));
+            List<DetalleVenta> detalles = new ArrayList<>(LINEAS_POR_VENTA);
+            Dinero.Acumulador total = new Dinero.Acumulador();
+            for (int i = 0; i < LINEAS_POR_VENTA; i++) {
+                DetalleVenta detalle = new DetalleVenta();
+                detalle.setId((long) v * LINEAS_POR_VENTA + i);
+                detalle.setProducto(productos.get((v * 7 + i) % productos.size()));
+                detalle.setCantidad(1 + i % 4);
+                detalle.setSubtotal(Dinero.de(25_000d).multiplicar(detalle.getCantidad()));
+                detalle.setVenta(venta);
+                detalles.add(detalle);
+                total.agregar(detalle.getSubtotal());
+            }
+            venta.setDetalles(detalles);
+            venta.setTotal(total.total());
+            ventas.add(venta);
+        }
+        return ventas;
+    }
+
+    static List<CarteraPendienteCliente> pendientesPorCliente() {
+        List<CarteraPendienteCliente> pendientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            long id = i + 1;
+            String nombre = "Cliente " + i;
+            double creditos = 150_000d + i * 1_000;
+            double abonos = 50_000d + i * 250;
+            LocalDateTime actualizacion = INICIO.plusDays(i % 120);
+            pendientes.add(new CarteraPendienteCliente() {
+                public Long getClienteId() { return id; }
+                public String getClienteNombre() { return nombre; }
+                public Double getSaldoPendiente() { return creditos - abonos; }
+                public Double getTotalCreditos() { return creditos; }
+                public Double getTotalAbonos() { return abonos; }
+                public LocalDateTime getUltimaActualizacion() { return actualizacion; }
+            });
+        }
+        return pendientes;
+    }
+
+    /**
+     * Repositorio falso que responde con un valor fijo según el nombre del método, sin la sobrecarga
+     * de un framework de mocks dentro de la medición.
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R repositorio(Class<R> tipo, Map<String, Object> respuestas) {
+        return (R) Proxy.newProxyInstance(Fixtures.class.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, args) -> {
+                    if (!respuestas.containsKey(metodo.getName())) {
+                        throw new UnsupportedOperationException(metodo.getName());
+                    }
+                    return respuestas.get(metodo.getName());
+                });
+    }
+
+    private static String nombreProducto(int indice) {
+        return "Aceite " + (indice % 7 == 0 ? "Sintético " : "Mineral ") + "SAE " + (5 + indice % 9) * 5 + "W-" + indice;
+    }
+}
@@ -0,0 +1,67 @@
+package com.SICOIL.benchmarks;
+
+import com.SICOIL.dtos.venta.VentaListadoResponse;
+import com.SICOIL.dtos.venta.VentaRequest;
+import com.SICOIL.mappers.venta.VentaMapper;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.Usuario;
+import com.SICOIL.models.Venta;
+import com.SICOIL.repositories.ProductoRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Construcción de la entidad de una venta de 15 líneas (con reparto FIFO en memoria entre los lotes
+ * de una sola consulta) y conversión de una página de 50 ventas al DTO del listado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VentaMapperBenchmark {
+
+    private VentaMapper ventaMapper;
+    private VentaRequest request;
+    private Usuario usuario;
+    private Cliente cliente;
+    private List<Venta> pagina;
+
+    @Setup
+    public void preparar() {
+        request = Fixtures.ventaRequest();
+        List<Producto> lotes = request.getItems().stream()
+                .flatMap(item -> Fixtures.lotes(item.getNombreProducto()).stream())
+                .toList();
+        ventaMapper = new VentaMapper();
+        ReflectionTestUtils.setField(ventaMapper, "productoRepository", Fixtures.repositorio(ProductoRepository.class,
+                Map.of("findLotesFifoPorNombres", lotes)));
+        usuario = Fixtures.usuario();
+        cliente = Fixtures.clientes().get(0);
+        pagina = Fixtures.ventas(Fixtures.VENTAS_POR_PAGINA);
+    }
+
+    @Benchmark
+    public Venta requestToEntity() {
+        return ventaMapper.requestToEntity(request, usuario, cliente);
+    }
+
+    @Benchmark
+    public List<VentaListadoResponse> toListadoPagina() {
+        return pagina.stream().map(ventaMapper::toListado).toList();
+    }
+}
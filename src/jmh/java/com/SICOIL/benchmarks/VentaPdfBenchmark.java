@@ -0,0 +1,44 @@
+package com.SICOIL.benchmarks;
+
+import com.SICOIL.models.Venta;
+import com.SICOIL.repositories.VentaRepository;
+import com.SICOIL.services.venta.VentaPdfService;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generación del comprobante PDF de una venta de 15 líneas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VentaPdfBenchmark {
+
+    private VentaPdfService ventaPdfService;
+
+    @Setup
+    public void preparar() {
+        Venta venta = Fixtures.ventas(1).get(0);
+        ventaPdfService = new VentaPdfService(Fixtures.repositorio(VentaRepository.class,
+                Map.of("findByIdWithDetalleAndRelations", Optional.of(venta))));
+    }
+
+    @Benchmark
+    public byte[] generarComprobante() {
+        return ventaPdfService.generarComprobante(1L);
+    }
+}
@@ -0,0 +1,86 @@
+package com.SICOIL.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Ejecutor general de la aplicación (respuestas asíncronas de Spring MVC, como las exportaciones
+     * en streaming). Se declara explícitamente porque Spring Boot deja de crearlo en cuanto existe
+     * otro {@link Executor} en el contexto.
+     */
+    @Primary
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Ejecutor acotado para consultas de apoyo que se resuelven fuera del hilo de la petición,
+     * como los totales aproximados de los listados. Cuando la cola se llena, la tarea se ejecuta
+     * en el hilo llamador para no descartar trabajo ni crecer sin límite.
+     */
+    @Bean(name = "consultasExecutor")
+    public Executor consultasExecutor(
+            @Value("${sicoil.consultas.executor.hilos:2}") int hilos,
+            @Value("${sicoil.consultas.executor.cola:50}") int cola
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("consultas-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Ejecutor acotado en el que se lanzan en paralelo las consultas del resumen de capital.
+     * Cada hilo ocupa una conexión mientras consulta, así que su tamaño debe ser menor al del pool.
+     */
+    @Bean(name = "resumenExecutor")
+    public Executor resumenExecutor(
+            @Value("${sicoil.capital.resumen.hilos:4}") int hilos,
+            @Value("${sicoil.capital.resumen.cola:100}") int cola
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setThreadNamePrefix("resumen-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Ejecutor que envía los eventos del tablero a las conexiones abiertas. Cada conexión tiene a lo
+     * sumo una tarea pendiente, así que la cola se dimensiona con el máximo de conexiones; si aun así se
+     * rechaza una tarea, esa conexión se cierra y el navegador se reconecta.
+     */
+    @Bean(name = "tableroExecutor")
+    public Executor tableroExecutor(
+            @Value("${sicoil.tablero.eventos.hilos:2}") int hilos,
+            @Value("${sicoil.tablero.eventos.max-conexiones:50}") int maxConexiones
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(maxConexiones);
+        executor.setThreadNamePrefix("tablero-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,105 @@
+package com.SICOIL.config;
+
+import com.SICOIL.exceptions.ErrorResponse;
+import com.SICOIL.services.limite.ClaseEndpoint;
+import com.SICOIL.services.limite.LimiteConsumoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Aplica los límites de {@link LimiteConsumoService} a la API y responde 429 con {@code Retry-After}
+ * cuando se exceden. El cupo de un reporte se libera al terminar la respuesta, incluidas las
+ * exportaciones en streaming que terminan en un despacho asíncrono posterior.
+ */
+@Component
+@RequiredArgsConstructor
+public class LimiteConsumoInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATRIBUTO_CUPO_REPORTE = LimiteConsumoInterceptor.class.getName() + ".cupoReporte";
+
+    private static final List<String> RUTAS_REPORTE = List.of(
+            "/api/capital/resumen",
+            "/api/capital/top/**",
+            "/api/capital/movimientos/exportar",
+            "/api/ventas/serie",
+            "/api/ventas/*/comprobante",
+            "/api/cartera/antiguedad",
+            "/api/kardex/exportar",
+            "/api/filtros/**");
+
+    private static final AntPathMatcher RUTAS = new AntPathMatcher();
+
+    private final LimiteConsumoService limiteConsumoService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        ClaseEndpoint clase = clasificar(request.getRequestURI().substring(request.getContextPath().length()));
+        long espera = limiteConsumoService.consumir(identificarUsuario(request), clase);
+        if (espera > 0) {
+            rechazar(response, espera, "Demasiadas solicitudes. Intente de nuevo en " + espera + " segundos.");
+            return false;
+        }
+        if (clase == ClaseEndpoint.REPORTE) {
+            if (!limiteConsumoService.ocuparReporte()) {
+                rechazar(response, 1, "Hay demasiados reportes en curso. Intente de nuevo en unos segundos.");
+                return false;
+            }
+            request.setAttribute(ATRIBUTO_CUPO_REPORTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ATRIBUTO_CUPO_REPORTE) != null) {
+            request.removeAttribute(ATRIBUTO_CUPO_REPORTE);
+            limiteConsumoService.liberarReporte();
+        }
+    }
+
+    static ClaseEndpoint clasificar(String ruta) {
+        for (String patron : RUTAS_REPORTE) {
+            if (RUTAS.match(patron, ruta)) {
+                return ClaseEndpoint.REPORTE;
+            }
+        }
+        return ClaseEndpoint.GENERAL;
+    }
+
+    private String identificarUsuario(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void rechazar(HttpServletResponse response, long segundos, String mensaje) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), ErrorResponse.builder().error(mensaje).build());
+    }
+}
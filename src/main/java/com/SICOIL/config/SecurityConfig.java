@@ -1,8 +1,9 @@
 package com.SICOIL.config;
 
-import com.SICOIL.services.security.CustomUserDetailsService;
+import com.SICOIL.services.security.CredencialesCacheadasAuthenticationProvider;
+import com.SICOIL.services.security.TokenAutenticacionFilter;
+import com.SICOIL.services.security.TokenAutenticacionService;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,6 +16,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -22,13 +24,13 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 @Configuration
 @EnableWebSecurity
-@RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final CustomUserDetailsService userDetailsService;
-
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   CredencialesCacheadasAuthenticationProvider authenticationProvider,
+                                                   TokenAutenticacionService tokenAutenticacionService)
+            throws Exception {
         HttpSessionSecurityContextRepository contextRepository = new HttpSessionSecurityContextRepository();
         contextRepository.setDisableUrlRewriting(true);
 
@@ -36,14 +38,18 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/auth/login", "/auth/logout", "/api/usuarios")
+                        .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/auth/login", "/auth/refresh", "/auth/logout", "/api/usuarios",
+                                "/actuator/health")
                         .permitAll()
                         .anyRequest()
                         .authenticated())
                 .httpBasic(Customizer.withDefaults())
-                .userDetailsService(userDetailsService)
+                .authenticationProvider(authenticationProvider)
+                .addFilterBefore(new TokenAutenticacionFilter(tokenAutenticacionService), BasicAuthenticationFilter.class)
                 .securityContext(context -> context.securityContextRepository(contextRepository))
-                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED));
+                .sessionManagement(session -> session.sessionCreationPolicy(tokenAutenticacionService.isHabilitado()
+                        ? SessionCreationPolicy.STATELESS
+                        : SessionCreationPolicy.IF_REQUIRED));
 
         return http.build();
     }
@@ -64,7 +70,7 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("http://localhost:4200"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Last-Event-ID"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
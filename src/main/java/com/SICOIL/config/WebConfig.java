@@ -3,13 +3,14 @@ package com.SICOIL.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig {
 
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public WebMvcConfigurer corsConfigurer(LimiteConsumoInterceptor limiteConsumoInterceptor) {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
@@ -19,6 +20,12 @@ public class WebConfig {
                         .allowedHeaders("*") // Permite todas las cabeceras
                         .allowCredentials(true); // Permite el envío de credenciales (cookies, etc.)
             }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(limiteConsumoInterceptor)
+                        .addPathPatterns("/api/**"); // Límites por usuario y cupo de reportes simultáneos
+            }
         };
     }
 }
@@ -2,6 +2,9 @@ package com.SICOIL.controllers;
 
 import com.SICOIL.dtos.auth.LoginRequest;
 import com.SICOIL.dtos.auth.LoginResponse;
+import com.SICOIL.dtos.auth.RefrescoTokenRequest;
+import com.SICOIL.services.security.TokenAutenticacionService;
+import com.SICOIL.services.security.TokenAutenticacionService.TokensEmitidos;
 import com.SICOIL.services.security.UsuarioDetails;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
@@ -26,6 +29,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
+    private final TokenAutenticacionService tokenAutenticacionService;
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(
@@ -34,13 +38,17 @@ public class AuthController {
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsuario(), loginRequest.getContrasena());
 
         Authentication authentication = authenticationManager.authenticate(authenticationToken);
+        UsuarioDetails usuarioDetails = (UsuarioDetails) authentication.getPrincipal();
+        if (tokenAutenticacionService.isHabilitado()) {
+            log.info("Usuario {} obtuvo token desde {}", loginRequest.getUsuario(), request.getRemoteAddr());
+            return ResponseEntity.ok(respuestaConTokens(tokenAutenticacionService.emitir(usuarioDetails.getUsuario())));
+        }
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         HttpSession session = request.getSession(true);
         session.setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
                 SecurityContextHolder.getContext());
 
-        UsuarioDetails usuarioDetails = (UsuarioDetails) authentication.getPrincipal();
         log.info(
                 "Usuario {} inició sesión desde {}",
                 loginRequest.getUsuario(),
@@ -61,4 +69,20 @@ public class AuthController {
         SecurityContextHolder.clearContext();
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refrescar(@Valid @RequestBody RefrescoTokenRequest refrescoRequest) {
+        TokensEmitidos tokens = tokenAutenticacionService.refrescar(refrescoRequest.getTokenRefresco());
+        return ResponseEntity.ok(respuestaConTokens(tokens));
+    }
+
+    private LoginResponse respuestaConTokens(TokensEmitidos tokens) {
+        return LoginResponse.builder()
+                .id(tokens.usuarioId())
+                .usuario(tokens.usuario())
+                .tokenAcceso(tokens.acceso())
+                .tokenRefresco(tokens.refresco())
+                .expiraEn(tokens.expiraAcceso())
+                .build();
+    }
 }
@@ -1,18 +1,27 @@
 package com.SICOIL.controllers;
 
+import com.SICOIL.dtos.capital.CapitalClienteResumen;
 import com.SICOIL.dtos.capital.CapitalInyeccionRequest;
 import com.SICOIL.dtos.capital.CapitalMovimientoFiltro;
 import com.SICOIL.dtos.capital.CapitalMovimientoResponse;
+import com.SICOIL.dtos.capital.CapitalProductoResumen;
 import com.SICOIL.dtos.capital.CapitalResumenResponse;
+import com.SICOIL.dtos.consulta.TotalAproximadoResponse;
 import com.SICOIL.models.CapitalOrigen;
+import com.SICOIL.services.capital.CapitalResumenService;
 import com.SICOIL.services.capital.CapitalService;
+import com.SICOIL.services.venta.VentaRankingService;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
 @RestController
@@ -28,15 +38,18 @@ import jakarta.validation.Valid;
 public class CapitalController {
 
     private final CapitalService capitalService;
+    private final CapitalResumenService capitalResumenService;
+    private final VentaRankingService ventaRankingService;
 
     @GetMapping("/movimientos")
-    public ResponseEntity<Page<CapitalMovimientoResponse>> listarMovimientos(
+    public ResponseEntity<Slice<CapitalMovimientoResponse>> listarMovimientos(
             @RequestParam(required = false) CapitalOrigen origen,
             @RequestParam(required = false) Boolean esCredito,
             @RequestParam(required = false) Long referenciaId,
             @RequestParam(required = false) String descripcion,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "true") boolean conTotal,
             @PageableDefault(size = 10) Pageable pageable
     ) {
         CapitalMovimientoFiltro filtro = CapitalMovimientoFiltro.builder()
@@ -48,19 +61,87 @@ public class CapitalController {
                 .hasta(hasta)
                 .build();
 
-        Page<CapitalMovimientoResponse> pagina = capitalService.obtenerMovimientos(filtro, pageable);
+        Slice<CapitalMovimientoResponse> pagina = conTotal
+                ? capitalService.obtenerMovimientos(filtro, pageable)
+                : capitalService.obtenerMovimientosSlice(filtro, pageable);
         return ResponseEntity.ok(pagina);
     }
 
+    @GetMapping("/movimientos/total")
+    public CompletableFuture<TotalAproximadoResponse> contarMovimientos(
+            @RequestParam(required = false) CapitalOrigen origen,
+            @RequestParam(required = false) Boolean esCredito,
+            @RequestParam(required = false) Long referenciaId,
+            @RequestParam(required = false) String descripcion,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        CapitalMovimientoFiltro filtro = CapitalMovimientoFiltro.builder()
+                .origen(origen)
+                .esCredito(esCredito)
+                .referenciaId(referenciaId)
+                .descripcion(descripcion)
+                .desde(desde)
+                .hasta(hasta)
+                .build();
+
+        return capitalService.contarMovimientosAproximado(filtro);
+    }
+
+    @GetMapping(value = "/movimientos/exportar", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportarMovimientos(
+            @RequestParam(required = false) CapitalOrigen origen,
+            @RequestParam(required = false) Boolean esCredito,
+            @RequestParam(required = false) Long referenciaId,
+            @RequestParam(required = false) String descripcion,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        CapitalMovimientoFiltro filtro = CapitalMovimientoFiltro.builder()
+                .origen(origen)
+                .esCredito(esCredito)
+                .referenciaId(referenciaId)
+                .descripcion(descripcion)
+                .desde(desde)
+                .hasta(hasta)
+                .build();
+
+        StreamingResponseBody cuerpo = salida -> capitalService.exportarMovimientosCsv(filtro, salida);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"capital-movimientos-" + LocalDate.now() + ".csv\"")
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(cuerpo);
+    }
+
     @GetMapping("/resumen")
     public ResponseEntity<CapitalResumenResponse> obtenerResumen(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
     ) {
-        CapitalResumenResponse response = capitalService.obtenerResumen(desde, hasta);
+        CapitalResumenResponse response = capitalResumenService.obtenerResumen(desde, hasta);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/top/productos")
+    public ResponseEntity<List<CapitalProductoResumen>> topProductos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(defaultValue = "false") boolean empates
+    ) {
+        return ResponseEntity.ok(ventaRankingService.topProductos(desde, hasta, limite, empates));
+    }
+
+    @GetMapping("/top/clientes")
+    public ResponseEntity<List<CapitalClienteResumen>> topClientes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "10") int limite,
+            @RequestParam(defaultValue = "false") boolean empates
+    ) {
+        return ResponseEntity.ok(ventaRankingService.topClientes(desde, hasta, limite, empates));
+    }
+
     @PostMapping("/inyecciones")
     public ResponseEntity<CapitalMovimientoResponse> registrarInyeccion(
             @Valid @RequestBody CapitalInyeccionRequest request
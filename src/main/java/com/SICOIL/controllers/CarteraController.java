@@ -1,15 +1,26 @@
 package com.SICOIL.controllers;
 
 import com.SICOIL.dtos.cartera.CarteraAbonoDetalleResponse;
-import com.SICOIL.dtos.cartera.CarteraCreditoDetalleResponse;
 import com.SICOIL.dtos.cartera.CarteraAbonoRequest;
+import com.SICOIL.dtos.cartera.CarteraAntiguedadResponse;
+import com.SICOIL.dtos.cartera.CarteraCreditoDetalleResponse;
+import com.SICOIL.dtos.cartera.CarteraPaginaResponse;
 import com.SICOIL.dtos.cartera.CarteraResumenResponse;
+import com.SICOIL.dtos.cartera.CarteraTotalesResponse;
+import com.SICOIL.dtos.cartera.ClienteSaldoResponse;
+import com.SICOIL.dtos.cartera.ConciliacionBancariaResponse;
+import com.SICOIL.services.cartera.CarteraAntiguedadService;
 import com.SICOIL.services.cartera.CarteraService;
+import com.SICOIL.services.cartera.ClienteSaldoService;
+import com.SICOIL.services.cartera.ConciliacionBancariaService;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,6 +30,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 import jakarta.validation.Valid;
 
 @RestController
@@ -27,6 +39,9 @@ import jakarta.validation.Valid;
 public class CarteraController {
 
     private final CarteraService carteraService;
+    private final ClienteSaldoService clienteSaldoService;
+    private final CarteraAntiguedadService carteraAntiguedadService;
+    private final ConciliacionBancariaService conciliacionBancariaService;
 
     @GetMapping("/pendientes")
     public ResponseEntity<List<CarteraResumenResponse>> listarPendientes(
@@ -38,6 +53,20 @@ public class CarteraController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/antiguedad")
+    public ResponseEntity<CarteraAntiguedadResponse> obtenerAntiguedad(
+            @RequestParam(required = false) String cliente
+    ) {
+        CarteraAntiguedadResponse response = carteraAntiguedadService.obtener(cliente);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/clientes/{clienteId}/saldo")
+    public ResponseEntity<ClienteSaldoResponse> obtenerSaldo(@PathVariable Long clienteId) {
+        ClienteSaldoResponse response = clienteSaldoService.obtener(clienteId);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/clientes/{clienteId}/abonos")
     public ResponseEntity<List<CarteraAbonoDetalleResponse>> listarAbonos(
             @PathVariable Long clienteId,
@@ -58,6 +87,46 @@ public class CarteraController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/clientes/{clienteId}/abonos/pagina")
+    public ResponseEntity<CarteraPaginaResponse<CarteraAbonoDetalleResponse>> listarAbonosPaginados(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano
+    ) {
+        return ResponseEntity.ok(carteraService.listarAbonosPaginados(clienteId, desde, hasta, cursor, tamano));
+    }
+
+    @GetMapping("/clientes/{clienteId}/abonos/totales")
+    public ResponseEntity<CarteraTotalesResponse> totalizarAbonos(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        return ResponseEntity.ok(carteraService.totalizarAbonos(clienteId, desde, hasta));
+    }
+
+    @GetMapping("/clientes/{clienteId}/creditos/pagina")
+    public ResponseEntity<CarteraPaginaResponse<CarteraCreditoDetalleResponse>> listarCreditosPaginados(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano
+    ) {
+        return ResponseEntity.ok(carteraService.listarCreditosPaginados(clienteId, desde, hasta, cursor, tamano));
+    }
+
+    @GetMapping("/clientes/{clienteId}/creditos/totales")
+    public ResponseEntity<CarteraTotalesResponse> totalizarCreditos(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        return ResponseEntity.ok(carteraService.totalizarCreditos(clienteId, desde, hasta));
+    }
+
     @PostMapping("/clientes/{clienteId}/abonos")
     public ResponseEntity<List<CarteraAbonoDetalleResponse>> registrarAbono(
             @PathVariable Long clienteId,
@@ -67,6 +136,19 @@ public class CarteraController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/abonos/extracto", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ConciliacionBancariaResponse> conciliarExtracto(
+            @RequestParam("archivo") MultipartFile archivo
+    ) throws IOException {
+        if (archivo.isEmpty()) {
+            throw new IllegalArgumentException("Debe adjuntar el extracto bancario.");
+        }
+        try (InputStream contenido = archivo.getInputStream()) {
+            ConciliacionBancariaResponse response = conciliacionBancariaService.procesarExtracto(contenido);
+            return ResponseEntity.ok(response);
+        }
+    }
+
     @PatchMapping("/clientes/{clienteId}/abonos/{movimientoId}/eliminar")
     public ResponseEntity<Void> eliminarAbono(
             @PathVariable Long clienteId,
@@ -1,22 +1,27 @@
 package com.SICOIL.controllers;
 
 
+import com.SICOIL.dtos.consulta.TotalAproximadoResponse;
 import com.SICOIL.dtos.kardex.KardexResponse;
 import com.SICOIL.models.MovimientoTipo;
 import com.SICOIL.services.kardex.KardexService;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/kardex")
@@ -35,11 +40,13 @@ public class KardexController {
             @RequestParam(required = false) String nombreProducto,
             @RequestParam(required = false) MovimientoTipo tipo,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "true") boolean conTotal
     ) {
 
-        Page<KardexResponse> movimientos =
-                kardexService.buscar(pageable, productoId, usuarioId, nombreProducto, tipo, desde, hasta);
+        Slice<KardexResponse> movimientos = conTotal
+                ? kardexService.buscar(pageable, productoId, usuarioId, nombreProducto, tipo, desde, hasta)
+                : kardexService.buscarSlice(pageable, productoId, usuarioId, nombreProducto, tipo, desde, hasta);
 
         if (movimientos.isEmpty()) {
             return ResponseEntity.noContent().build();
@@ -48,4 +55,34 @@ public class KardexController {
         return ResponseEntity.ok(movimientos);
     }
 
+    @GetMapping("/total")
+    public CompletableFuture<TotalAproximadoResponse> contarKardex(
+            @RequestParam(required = false) Long productoId,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) String nombreProducto,
+            @RequestParam(required = false) MovimientoTipo tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        return kardexService.contarAproximado(productoId, usuarioId, nombreProducto, tipo, desde, hasta);
+    }
+
+    @GetMapping(value = "/exportar", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportarKardex(
+            @RequestParam(required = false) Long productoId,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) String nombreProducto,
+            @RequestParam(required = false) MovimientoTipo tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        StreamingResponseBody cuerpo = salida ->
+                kardexService.exportarCsv(salida, productoId, usuarioId, nombreProducto, tipo, desde, hasta);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"kardex-" + LocalDate.now() + ".csv\"")
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(cuerpo);
+    }
+
 }
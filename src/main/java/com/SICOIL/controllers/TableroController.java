@@ -0,0 +1,33 @@
+package com.SICOIL.controllers;
+
+import com.SICOIL.services.tablero.TableroEventosService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/tablero")
+@RequiredArgsConstructor
+public class TableroController {
+
+    private final TableroEventosService tableroEventosService;
+
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEventoId,
+            @RequestParam(required = false) String desde
+    ) {
+        return tableroEventosService.suscribir(ultimoEventoId != null ? ultimoEventoId : desde);
+    }
+
+    @GetMapping("/eventos/ultimo")
+    public ResponseEntity<String> ultimoEvento() {
+        return ResponseEntity.ok(tableroEventosService.ultimoEventoId());
+    }
+}
@@ -4,6 +4,9 @@ import com.SICOIL.dtos.venta.VentaAnulacionRequest;
 import com.SICOIL.dtos.venta.PaginaVentaResponse;
 import com.SICOIL.dtos.venta.VentaRequest;
 import com.SICOIL.dtos.venta.VentaResponse;
+import com.SICOIL.dtos.venta.VentaSerieResponse;
+import com.SICOIL.models.GranularidadSerie;
+import com.SICOIL.services.venta.VentaSerieService;
 import com.SICOIL.services.venta.VentaService;
 import jakarta.validation.Valid;
 import java.time.LocalDate;
@@ -31,6 +34,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class VentaController {
 
     private final VentaService ventaService;
+    private final VentaSerieService ventaSerieService;
 
     @GetMapping
     public ResponseEntity<PaginaVentaResponse> traerTodos(
@@ -59,6 +63,18 @@ public class VentaController {
         return ResponseEntity.ok(pagina);
     }
 
+    @GetMapping("/serie")
+    public ResponseEntity<VentaSerieResponse> obtenerSerie(
+            @RequestParam(required = false) GranularidadSerie granularidad,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String producto,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) Long usuarioId
+    ) {
+        return ResponseEntity.ok(ventaSerieService.obtenerSerie(granularidad, desde, hasta, producto, clienteId, usuarioId));
+    }
+
     @PostMapping
     public ResponseEntity<VentaResponse> crearVenta(@Valid @RequestBody VentaRequest request) {
         VentaResponse response = ventaService.crearVenta(request);
@@ -1,12 +1,24 @@
 package com.SICOIL.dtos.auth;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 
 @Getter
+@Builder
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class LoginResponse {
 
     private final Long id;
     private final String usuario;
+    private final String tokenAcceso;
+    private final String tokenRefresco;
+    private final Instant expiraEn;
+
+    public LoginResponse(Long id, String usuario) {
+        this(id, usuario, null, null, null);
+    }
 }
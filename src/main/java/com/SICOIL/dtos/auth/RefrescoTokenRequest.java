@@ -0,0 +1,13 @@
+package com.SICOIL.dtos.auth;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class RefrescoTokenRequest {
+
+    @NotBlank
+    private String tokenRefresco;
+}
@@ -3,10 +3,14 @@ package com.SICOIL.dtos.capital;
 import com.SICOIL.models.CapitalOrigen;
 import java.time.LocalDate;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.ToString;
 
 @Getter
 @Builder
+@EqualsAndHashCode
+@ToString
 public class CapitalMovimientoFiltro {
 
     private CapitalOrigen origen;
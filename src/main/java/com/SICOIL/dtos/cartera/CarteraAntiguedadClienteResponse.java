@@ -0,0 +1,17 @@
+package com.SICOIL.dtos.cartera;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CarteraAntiguedadClienteResponse {
+
+    private Long clienteId;
+    private String clienteNombre;
+    private Double hasta30;
+    private Double de31a60;
+    private Double de61a90;
+    private Double mas90;
+    private Double total;
+}
@@ -0,0 +1,19 @@
+package com.SICOIL.dtos.cartera;
+
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CarteraAntiguedadResponse {
+
+    private LocalDate fechaCorte;
+    private double totalHasta30;
+    private double totalDe31a60;
+    private double totalDe61a90;
+    private double totalMas90;
+    private double totalPendiente;
+    private List<CarteraAntiguedadClienteResponse> clientes;
+}
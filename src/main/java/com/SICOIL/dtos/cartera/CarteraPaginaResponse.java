@@ -0,0 +1,14 @@
+package com.SICOIL.dtos.cartera;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CarteraPaginaResponse<T> {
+
+    private List<T> items;
+    private boolean haySiguiente;
+    private String siguienteCursor;
+}
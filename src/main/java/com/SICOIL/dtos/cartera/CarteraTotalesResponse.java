@@ -0,0 +1,12 @@
+package com.SICOIL.dtos.cartera;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class CarteraTotalesResponse {
+
+    private long cantidad;
+    private double total;
+}
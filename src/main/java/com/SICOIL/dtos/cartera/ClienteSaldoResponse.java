@@ -0,0 +1,16 @@
+package com.SICOIL.dtos.cartera;
+
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ClienteSaldoResponse {
+
+    private Long clienteId;
+    private Double saldoPendiente;
+    private Integer creditosAbiertos;
+    private LocalDateTime creditoMasAntiguo;
+    private LocalDateTime ultimoMovimiento;
+}
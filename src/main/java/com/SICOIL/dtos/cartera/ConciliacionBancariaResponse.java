@@ -0,0 +1,16 @@
+package com.SICOIL.dtos.cartera;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class ConciliacionBancariaResponse {
+
+    private int totalLineas;
+    private double totalAplicado;
+    private List<ConciliacionLineaResponse> aplicadas;
+    private List<ConciliacionLineaResponse> ambiguas;
+    private List<ConciliacionLineaResponse> rechazadas;
+}
@@ -0,0 +1,20 @@
+package com.SICOIL.dtos.cartera;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder(toBuilder = true)
+public class ConciliacionLineaResponse {
+
+    private int linea;
+    private String fecha;
+    private String referencia;
+    private String nombre;
+    private Double monto;
+    private Long clienteId;
+    private String clienteNombre;
+    private List<Long> candidatos;
+    private String motivo;
+}
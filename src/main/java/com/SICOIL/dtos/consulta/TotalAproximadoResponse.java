@@ -0,0 +1,13 @@
+package com.SICOIL.dtos.consulta;
+
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TotalAproximadoResponse {
+
+    private long total;
+    private LocalDateTime calculadoEn;
+}
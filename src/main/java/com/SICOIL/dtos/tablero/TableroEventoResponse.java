@@ -0,0 +1,19 @@
+package com.SICOIL.dtos.tablero;
+
+import com.SICOIL.services.tablero.TipoMovimientoTablero;
+import java.time.LocalDateTime;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TableroEventoResponse {
+
+    private String id;
+    private TipoMovimientoTablero tipo;
+    private Long referenciaId;
+    private Long clienteId;
+    private double monto;
+    private String descripcion;
+    private LocalDateTime fecha;
+}
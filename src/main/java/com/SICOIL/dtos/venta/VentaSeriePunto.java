@@ -0,0 +1,15 @@
+package com.SICOIL.dtos.venta;
+
+import java.time.LocalDate;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class VentaSeriePunto {
+
+    private LocalDate inicio;
+    private LocalDate fin;
+    private double total;
+    private long unidades;
+}
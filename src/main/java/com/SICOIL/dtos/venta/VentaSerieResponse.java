@@ -0,0 +1,17 @@
+package com.SICOIL.dtos.venta;
+
+import com.SICOIL.models.GranularidadSerie;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class VentaSerieResponse {
+
+    private GranularidadSerie granularidad;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private List<VentaSeriePunto> puntos;
+}
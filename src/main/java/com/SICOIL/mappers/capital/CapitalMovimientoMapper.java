@@ -15,7 +15,7 @@ public class CapitalMovimientoMapper {
                 .id(movimiento.getId())
                 .origen(movimiento.getOrigen())
                 .referenciaId(movimiento.getReferenciaId())
-                .monto(movimiento.getMonto())
+                .monto(movimiento.getMonto() != null ? movimiento.getMonto().aDouble() : null)
                 .esCredito(movimiento.getEsCredito())
                 .descripcion(movimiento.getDescripcion())
                 .creadoEn(movimiento.getCreadoEn())
@@ -1,11 +1,15 @@
 package com.SICOIL.mappers.cartera;
 
-import com.SICOIL.dtos.cartera.CarteraResumenItem;
+import com.SICOIL.dtos.cartera.CarteraAntiguedadClienteResponse;
 import com.SICOIL.dtos.cartera.CarteraResumenResponse;
+import com.SICOIL.repositories.CarteraAntiguedadCliente;
+import com.SICOIL.repositories.CarteraPendienteCliente;
 import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring")
 public interface CarteraMapper {
 
-    CarteraResumenResponse toResumenResponse(CarteraResumenItem item);
+    CarteraResumenResponse toResumenResponse(CarteraPendienteCliente pendiente);
+
+    CarteraAntiguedadClienteResponse toAntiguedadResponse(CarteraAntiguedadCliente antiguedad);
 }
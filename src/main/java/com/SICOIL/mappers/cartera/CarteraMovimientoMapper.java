@@ -3,6 +3,7 @@ package com.SICOIL.mappers.cartera;
 import com.SICOIL.dtos.cartera.CarteraAbonoDetalleResponse;
 import com.SICOIL.dtos.cartera.CarteraCreditoDetalleResponse;
 import com.SICOIL.models.CarteraMovimiento;
+import com.SICOIL.models.Dinero;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -17,4 +18,8 @@ public interface CarteraMovimientoMapper {
     @Mapping(target = "usuarioNombre", source = "usuario.usuario")
     @Mapping(target = "ventaId", source = "cartera.venta.id")
     CarteraCreditoDetalleResponse toCreditoResponse(CarteraMovimiento movimiento);
+
+    default Double toDouble(Dinero monto) {
+        return monto != null ? monto.aDouble() : null;
+    }
 }
@@ -0,0 +1,16 @@
+package com.SICOIL.mappers.cartera;
+
+import com.SICOIL.dtos.cartera.ClienteSaldoResponse;
+import com.SICOIL.models.ClienteSaldo;
+import com.SICOIL.models.Dinero;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface ClienteSaldoMapper {
+
+    ClienteSaldoResponse toResponse(ClienteSaldo saldo);
+
+    default Double toDouble(Dinero monto) {
+        return monto != null ? monto.aDouble() : null;
+    }
+}
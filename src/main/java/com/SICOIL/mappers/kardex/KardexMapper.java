@@ -2,6 +2,8 @@ package com.SICOIL.mappers.kardex;
 
 import com.SICOIL.dtos.kardex.KardexResponse;
 import com.SICOIL.models.Kardex;
+import com.SICOIL.models.KardexConsolidado;
+import com.SICOIL.models.KardexHistorico;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -13,4 +15,16 @@ public interface KardexMapper {
     @Mapping(target = "usuarioId", source = "usuario.id")
     @Mapping(target = "usuarioNombre", source = "usuario.usuario")
     KardexResponse entityToResponse(Kardex kardex);
+
+    @Mapping(target = "productoId", source = "producto.id")
+    @Mapping(target = "productoNombre", source = "producto.nombre")
+    @Mapping(target = "usuarioId", source = "usuario.id")
+    @Mapping(target = "usuarioNombre", source = "usuario.usuario")
+    KardexResponse entityToResponse(KardexHistorico kardex);
+
+    @Mapping(target = "productoId", source = "producto.id")
+    @Mapping(target = "productoNombre", source = "producto.nombre")
+    @Mapping(target = "usuarioId", source = "usuario.id")
+    @Mapping(target = "usuarioNombre", source = "usuario.usuario")
+    KardexResponse entityToResponse(KardexConsolidado kardex);
 }
@@ -2,6 +2,7 @@ package com.SICOIL.mappers.producto;
 
 import com.SICOIL.dtos.producto.ProductoRequest;
 import com.SICOIL.dtos.producto.ProductoResponse;
+import com.SICOIL.models.Dinero;
 import com.SICOIL.models.Producto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -21,4 +22,12 @@ public interface ProductoMapper {
     void updateEntityFromRequest(ProductoRequest request, @MappingTarget Producto entity);
 
     ProductoResponse entitytoResponse(Producto producto);
+
+    default Dinero toDinero(double valor) {
+        return Dinero.de(valor);
+    }
+
+    default Double toDouble(Dinero monto) {
+        return monto != null ? monto.aDouble() : null;
+    }
 }
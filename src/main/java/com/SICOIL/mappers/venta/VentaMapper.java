@@ -8,6 +8,7 @@ import com.SICOIL.dtos.venta.VentaRequest;
 import com.SICOIL.dtos.venta.VentaResponse;
 import com.SICOIL.models.Cliente;
 import com.SICOIL.models.DetalleVenta;
+import com.SICOIL.models.Dinero;
 import com.SICOIL.models.Producto;
 import com.SICOIL.models.Usuario;
 import com.SICOIL.models.Venta;
@@ -17,7 +18,10 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class VentaMapper {
@@ -39,7 +43,7 @@ public class VentaMapper {
         return VentaListadoResponse.builder()
                 .ventaId(venta.getId())
                 .clienteNombre(venta.getCliente() != null ? venta.getCliente().getNombre() : null)
-                .totalVenta(venta.getTotal())
+                .totalVenta(aDouble(venta.getTotal()))
                 .tipoVenta(venta.getTipoVenta())
                 .activa(venta.isActiva())
                 .motivoAnulacion(venta.getMotivoAnulacion())
@@ -62,17 +66,19 @@ public class VentaMapper {
         venta.setActiva(true);
         venta.setMotivoAnulacion(null);
 
-        double total = 0.0;
+        Dinero.Acumulador total = new Dinero.Acumulador();
         List<DetalleVenta> detallesFinales = new ArrayList<>();
 
+        // 1. Obtener en una sola consulta los lotes de todos los productos, en orden FIFO
+        Map<String, List<Producto>> lotesPorNombre = lotesFifoPorNombre(request.getItems().stream()
+                .map(DetalleVentaRequest::getNombreProducto)
+                .toList());
+
         // Por cada item del request, aplicar FIFO
         for (DetalleVentaRequest item : request.getItems()) {
 
             String nombre = item.getNombreProducto();
-
-            // 1. Obtener todos los lotes de ese producto en orden FIFO
-            List<Producto> lotes = productoRepository
-                    .findByNombreIgnoreCaseOrderByFechaRegistroAsc(nombre);
+            List<Producto> lotes = lotesPorNombre.getOrDefault(clave(nombre), List.of());
 
             if (lotes.isEmpty()) {
                 throw new IllegalArgumentException("No existe ningún lote para el producto: " + nombre);
@@ -94,11 +100,11 @@ public class VentaMapper {
                 DetalleVenta det = new DetalleVenta();
                 det.setProducto(lote);
                 det.setCantidad(aDescontar);
-                det.setSubtotal(aDescontar * item.getSubtotal());
+                det.setSubtotal(Dinero.de(item.getSubtotal()).multiplicar(aDescontar));
                 det.setVenta(venta);
 
                 detallesFinales.add(det);
-                total += det.getSubtotal();
+                total.agregar(det.getSubtotal());
 
                 restante -= aDescontar;
             }
@@ -106,17 +112,38 @@ public class VentaMapper {
             if (restante > 0) {
                 throw new IllegalArgumentException(
                         "Stock insuficiente para el producto '" + nombre +
-                                "'. Faltan " + restante + " unidades."
+                                "'. Faltan " + restante + " unidades del stock disponible."
                 );
             }
         }
 
         venta.setDetalles(detallesFinales);
-        venta.setTotal(total);
+        venta.setTotal(total.total());
 
         return venta;
     }
 
+    /**
+     * Agrupa por nombre (sin distinguir mayúsculas) los lotes de los productos indicados,
+     * conservando dentro de cada grupo el orden FIFO de la consulta.
+     */
+    public Map<String, List<Producto>> lotesFifoPorNombre(List<String> nombres) {
+        List<String> claves = nombres.stream()
+                .filter(nombre -> nombre != null)
+                .map(VentaMapper::clave)
+                .distinct()
+                .toList();
+        if (claves.isEmpty()) {
+            return Map.of();
+        }
+        return productoRepository.findLotesFifoPorNombres(claves).stream()
+                .collect(Collectors.groupingBy(lote -> clave(lote.getNombre())));
+    }
+
+    public static String clave(String nombre) {
+        return nombre == null ? "" : nombre.toLowerCase(Locale.ROOT);
+    }
+
     public VentaResponse entityToResponse(Venta venta) {
         if (venta == null) {
             return null;
@@ -135,7 +162,7 @@ public class VentaMapper {
         response.setTipoVenta(venta.getTipoVenta());
         response.setActiva(venta.isActiva());
         response.setMotivoAnulacion(venta.getMotivoAnulacion());
-        response.setTotal(venta.getTotal());
+        response.setTotal(aDouble(venta.getTotal()));
         response.setFechaRegistro(venta.getFechaRegistro());
 
         List<DetalleVentaResponse> detalleResponses = venta.getDetalles()
@@ -153,7 +180,7 @@ public class VentaMapper {
             response.setProducto(detalle.getProducto().getNombre());
         }
         response.setCantidad(detalle.getCantidad());
-        response.setSubtotal(detalle.getSubtotal());
+        response.setSubtotal(aDouble(detalle.getSubtotal()));
         return response;
     }
 
@@ -161,10 +188,13 @@ public class VentaMapper {
         Producto producto = detalle.getProducto();
         return VentaItemResponse.builder()
                 .productoNombre(producto != null ? producto.getNombre() : null)
-                .precioCompra(producto != null ? producto.getPrecioCompra() : null)
+                .precioCompra(producto != null ? aDouble(producto.getPrecioCompra()) : null)
                 .cantidad(detalle.getCantidad())
-                .precioVenta(detalle.getSubtotal())
+                .precioVenta(aDouble(detalle.getSubtotal()))
                 .build();
     }
 
+    private static Double aDouble(Dinero monto) {
+        return monto != null ? monto.aDouble() : null;
+    }
 }
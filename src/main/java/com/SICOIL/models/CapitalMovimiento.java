@@ -8,6 +8,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -26,7 +27,9 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "capital_movimientos")
+@Table(name = "capital_movimientos", indexes = {
+        @Index(name = "idx_capital_mov_creado_en", columnList = "creado_en")
+})
 public class CapitalMovimiento {
 
     @Id
@@ -43,7 +46,7 @@ public class CapitalMovimiento {
 
     @NotNull
     @Column(name = "monto_total", nullable = false)
-    private Double monto;
+    private Dinero monto;
 
     @NotNull
     @Column(name = "es_credito", nullable = false)
@@ -44,7 +44,7 @@ public class Cartera {
 
     @NotNull
     @Column(nullable = false)
-    private Double saldo;
+    private Dinero saldo;
 
     @Column(name = "ultima_actualizacion", nullable = false)
     private LocalDateTime ultimaActualizacion;
@@ -8,6 +8,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -25,7 +26,11 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "cartera_movimientos")
+@Table(name = "cartera_movimientos", indexes = {
+        @Index(name = "idx_cartera_mov_cliente_motivo_fecha", columnList = "cliente_id, motivo, fecha, id"),
+        @Index(name = "idx_cartera_mov_cliente_fecha", columnList = "cliente_id, fecha, id"),
+        @Index(name = "idx_cartera_mov_fecha", columnList = "fecha")
+})
 public class CarteraMovimiento {
 
     @Id
@@ -36,12 +41,23 @@ public class CarteraMovimiento {
     @JoinColumn(name = "cartera_id", nullable = false)
     private Cartera cartera;
 
+    /**
+     * Copia del cliente de la cartera, para que las consultas por cliente ordenadas por fecha se
+     * resuelvan con un índice de esta tabla sin unir {@code cartera}. Se completa al persistir.
+     */
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private CarteraMovimientoTipo tipo;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private CarteraMovimientoMotivo motivo;
+
     @Column(nullable = false)
-    private Double monto;
+    private Dinero monto;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id")
@@ -58,5 +74,12 @@ public class CarteraMovimiento {
         if (fecha == null) {
             fecha = LocalDateTime.now();
         }
+        completarCliente();
+    }
+
+    public void completarCliente() {
+        if (clienteId == null && cartera != null && cartera.getCliente() != null) {
+            clienteId = cartera.getCliente().getId();
+        }
     }
 }
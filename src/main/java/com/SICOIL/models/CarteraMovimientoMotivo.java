@@ -0,0 +1,20 @@
+package com.SICOIL.models;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Causa de negocio de un movimiento de cartera. Distingue, por ejemplo, los ajustes por
+ * eliminación de un abono de los ajustes por anulación de la venta, que comparten el tipo
+ * {@link CarteraMovimientoTipo#AJUSTE}.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CarteraMovimientoMotivo {
+    VENTA_CREDITO(CarteraMovimientoTipo.CREDITO),
+    PAGO(CarteraMovimientoTipo.ABONO),
+    ELIMINACION_ABONO(CarteraMovimientoTipo.AJUSTE),
+    ANULACION_VENTA(CarteraMovimientoTipo.AJUSTE);
+
+    private final CarteraMovimientoTipo tipo;
+}
@@ -0,0 +1,43 @@
+package com.SICOIL.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Agregado de cartera por cliente. Se actualiza en la misma transacción que los movimientos de
+ * cartera para que el saldo pendiente del cliente se lea sin recorrer sus créditos. El saldo se
+ * acumula en centavos exactos porque recibe una variación por cada movimiento del cliente.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "cliente_saldo")
+public class ClienteSaldo {
+
+    @Id
+    @Column(name = "cliente_id")
+    private Long clienteId;
+
+    @Column(name = "saldo_pendiente", nullable = false)
+    private Dinero saldoPendiente;
+
+    @Column(name = "creditos_abiertos", nullable = false)
+    private Integer creditosAbiertos;
+
+    @Column(name = "credito_mas_antiguo")
+    private LocalDateTime creditoMasAntiguo;
+
+    @Column(name = "ultimo_movimiento")
+    private LocalDateTime ultimoMovimiento;
+}
@@ -0,0 +1,62 @@
+package com.SICOIL.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Línea de extracto bancario ya aplicada como abono. La clave resume fecha, referencia, nombre y
+ * monto de la línea; su restricción única impide aplicar dos veces la misma transferencia aunque
+ * el extracto se cargue de nuevo. Se guarda en la misma transacción que el abono.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "conciliacion_lineas", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_conciliacion_lineas_clave", columnNames = "clave")
+})
+public class ConciliacionLinea {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String clave;
+
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    @Column(nullable = false)
+    private Dinero monto;
+
+    @Column(name = "fecha_extracto", length = 40)
+    private String fechaExtracto;
+
+    @Column(length = 120)
+    private String referencia;
+
+    @Column(name = "aplicada_en", nullable = false)
+    private LocalDateTime aplicadaEn;
+
+    @PrePersist
+    void prePersist() {
+        if (aplicadaEn == null) {
+            aplicadaEn = LocalDateTime.now();
+        }
+    }
+}
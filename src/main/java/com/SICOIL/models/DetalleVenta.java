@@ -41,7 +41,7 @@ public class DetalleVenta {
     @NotNull
     @Positive
     @Column(nullable = false)
-    private Double subtotal;
+    private Dinero subtotal;
 
     @JsonBackReference
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
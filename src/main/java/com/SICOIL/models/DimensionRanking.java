@@ -0,0 +1,7 @@
+package com.SICOIL.models;
+
+public enum DimensionRanking {
+    PRODUCTO,
+    CLIENTE,
+    USUARIO
+}
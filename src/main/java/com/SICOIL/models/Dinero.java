@@ -0,0 +1,140 @@
+package com.SICOIL.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monto en pesos guardado como centavos enteros. Sumas y restas son exactas, así que los saldos que
+ * se actualizan con muchas variaciones no acumulan el error de redondeo de {@code double}, y dos
+ * montos se comparan con {@link #equals} sin tolerancias.
+ *
+ * <p>En JSON se representa como un número con dos decimales. Las columnas existentes siguen siendo
+ * {@code double}: {@link DineroConverter} redondea a centavos al leerlas, y las consultas que suman
+ * montos devuelven centavos enteros ({@link #deCentavos}).
+ */
+public record Dinero(long centavos) implements Comparable<Dinero> {
+
+    public static final Dinero CERO = new Dinero(0);
+
+    /**
+     * Redondea el valor al centavo más cercano (mitades alejándose de cero).
+     *
+     * @throws IllegalArgumentException si el valor es {@code null}; un monto ausente no se toma como cero
+     */
+    public static Dinero de(Double valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("El monto es obligatorio.");
+        }
+        return valor == 0d ? CERO : new Dinero(centavosDe(valor));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el valor es {@code null}
+     */
+    @JsonCreator
+    public static Dinero de(BigDecimal valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("El monto es obligatorio.");
+        }
+        return new Dinero(valor.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact());
+    }
+
+    /**
+     * Monto a partir de una suma en centavos calculada por la base de datos; {@code null} (una suma
+     * sin filas) equivale a cero.
+     */
+    public static Dinero deCentavos(Number centavos) {
+        return centavos != null ? new Dinero(centavos.longValue()) : CERO;
+    }
+
+    public Dinero sumar(Dinero otro) {
+        return new Dinero(Math.addExact(centavos, otro.centavos));
+    }
+
+    public Dinero restar(Dinero otro) {
+        return new Dinero(Math.subtractExact(centavos, otro.centavos));
+    }
+
+    public Dinero multiplicar(long cantidad) {
+        return new Dinero(Math.multiplyExact(centavos, cantidad));
+    }
+
+    public Dinero negar() {
+        return new Dinero(Math.negateExact(centavos));
+    }
+
+    public Dinero minimo(Dinero otro) {
+        return compareTo(otro) <= 0 ? this : otro;
+    }
+
+    public boolean esPositivo() {
+        return centavos > 0;
+    }
+
+    public boolean esMayorQue(Dinero otro) {
+        return centavos > otro.centavos;
+    }
+
+    public double aDouble() {
+        return centavos / 100d;
+    }
+
+    @JsonValue
+    public BigDecimal aDecimal() {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        return Long.compare(centavos, otro.centavos);
+    }
+
+    @Override
+    public String toString() {
+        return aDecimal().toPlainString();
+    }
+
+    /**
+     * Convierte a centavos con aritmética de {@code double}, sin pasar por {@link BigDecimal}: se
+     * llama una vez por fila al sumar resultados de consultas.
+     */
+    private static long centavosDe(double valor) {
+        double centavos = Math.abs(valor) * 100d;
+        if (!(centavos < Long.MAX_VALUE)) {
+            throw new ArithmeticException("Monto fuera de rango: " + valor);
+        }
+        long redondeados = Math.round(centavos);
+        return valor < 0 ? -redondeados : redondeados;
+    }
+
+    /**
+     * Suma montos en un {@code long}, sin crear un {@link Dinero} por cada suma parcial. Igual que
+     * {@link #de(Double)}, rechaza los montos {@code null}.
+     */
+    public static final class Acumulador {
+
+        private long centavos;
+
+        public Acumulador agregar(Dinero monto) {
+            if (monto == null) {
+                throw new IllegalArgumentException("El monto es obligatorio.");
+            }
+            centavos = Math.addExact(centavos, monto.centavos);
+            return this;
+        }
+
+        public Acumulador agregar(Double valor) {
+            if (valor == null) {
+                throw new IllegalArgumentException("El monto es obligatorio.");
+            }
+            centavos = Math.addExact(centavos, centavosDe(valor));
+            return this;
+        }
+
+        public Dinero total() {
+            return new Dinero(centavos);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.SICOIL.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda un {@link Dinero} en las columnas {@code double} existentes, sin migrar el esquema. Los
+ * valores con fracciones de centavo acumuladas antes de usar este tipo se redondean al leerse.
+ */
+@Converter(autoApply = true)
+public class DineroConverter implements AttributeConverter<Dinero, Double> {
+
+    @Override
+    public Double convertToDatabaseColumn(Dinero monto) {
+        return monto != null ? monto.aDouble() : null;
+    }
+
+    @Override
+    public Dinero convertToEntityAttribute(Double valor) {
+        return valor != null ? Dinero.de(valor) : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.SICOIL.models;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * Aplica {@link PositiveOrZero} a los montos {@link Dinero}, registrado igual que
+ * {@link DineroPositivoValidador}.
+ */
+public class DineroPositivoOCeroValidador implements ConstraintValidator<PositiveOrZero, Dinero> {
+
+    @Override
+    public boolean isValid(Dinero monto, ConstraintValidatorContext context) {
+        return monto == null || monto.centavos() >= 0;
+    }
+}
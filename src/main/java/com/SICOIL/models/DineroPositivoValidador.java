@@ -0,0 +1,18 @@
+package com.SICOIL.models;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Aplica {@link Positive} a los montos {@link Dinero}. Se registra en
+ * {@code META-INF/services/jakarta.validation.ConstraintValidator}; como en los tipos numéricos,
+ * {@code null} se considera válido y lo controla {@code @NotNull}.
+ */
+public class DineroPositivoValidador implements ConstraintValidator<Positive, Dinero> {
+
+    @Override
+    public boolean isValid(Dinero monto, ConstraintValidatorContext context) {
+        return monto == null || monto.esPositivo();
+    }
+}
@@ -0,0 +1,30 @@
+package com.SICOIL.models;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Tamaño de los periodos de una serie temporal. Las semanas empiezan el lunes.
+ */
+public enum GranularidadSerie {
+    DIA,
+    SEMANA,
+    MES;
+
+    public LocalDate inicioPeriodo(LocalDate fecha) {
+        return switch (this) {
+            case DIA -> fecha;
+            case SEMANA -> fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> fecha.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate siguientePeriodo(LocalDate inicio) {
+        return switch (this) {
+            case DIA -> inicio.plusDays(1);
+            case SEMANA -> inicio.plusWeeks(1);
+            case MES -> inicio.plusMonths(1);
+        };
+    }
+}
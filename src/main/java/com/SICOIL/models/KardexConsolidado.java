@@ -0,0 +1,55 @@
+package com.SICOIL.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+/**
+ * Vista de solo lectura que une el kardex activo con el histórico. Solo se usa cuando
+ * el rango consultado cruza el corte de archivo.
+ */
+@Getter
+@Entity
+@Immutable
+@Subselect("""
+        select id, producto_id, usuario_id, cantidad, tipo_movimiento, comentario, fecha_registro from kardex
+        union all
+        select id, producto_id, usuario_id, cantidad, tipo_movimiento, comentario, fecha_registro from kardex_historico
+        """)
+@Synchronize({"kardex", "kardex_historico"})
+public class KardexConsolidado {
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id")
+    private Producto producto;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id")
+    private Usuario usuario;
+
+    @Column(name = "cantidad")
+    private Integer cantidad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_movimiento")
+    private MovimientoTipo tipo;
+
+    @Column(name = "comentario")
+    private String comentario;
+
+    @Column(name = "fecha_registro")
+    private LocalDateTime fechaRegistro;
+}
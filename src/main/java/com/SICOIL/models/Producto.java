@@ -35,7 +35,7 @@ public class Producto {
     @NotNull
     @PositiveOrZero
     @Column(name = "precio_compra", nullable = false)
-    private Double precioCompra;
+    private Dinero precioCompra;
 
     @NotNull
     @PositiveOrZero
@@ -48,7 +48,7 @@ public class Producto {
     private Integer stock;
 
     public Producto(String nombre,
-                    Double precioCompra,
+                    Dinero precioCompra,
                     Integer cantidadPorCajas,
                     Integer stock) {
         this.nombre = nombre;
@@ -0,0 +1,61 @@
+package com.SICOIL.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Totales de capital, ventas y cartera de un día cerrado. Permite que el resumen de capital sume
+ * filas diarias en lugar de recorrer los movimientos de todo el rango consultado.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "resumen_diario")
+public class ResumenDiario {
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    @Column(name = "saldo_real", nullable = false)
+    private Double saldoReal;
+
+    @Column(nullable = false)
+    private Double entradas;
+
+    @Column(nullable = false)
+    private Double compras;
+
+    @Column(name = "total_ventas", nullable = false)
+    private Double totalVentas;
+
+    @Column(nullable = false)
+    private Double ganancia;
+
+    @Column(nullable = false)
+    private Double unidades;
+
+    @Column(nullable = false)
+    private Double cajas;
+
+    @Column(nullable = false)
+    private Double abonos;
+
+    @Column(nullable = false)
+    private Double creditos;
+
+    @Column(name = "actualizado_en", nullable = false)
+    private LocalDateTime actualizadoEn;
+}
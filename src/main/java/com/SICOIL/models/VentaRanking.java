@@ -0,0 +1,67 @@
+package com.SICOIL.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ventas activas de un día o de un mes cerrado acumuladas por producto, por cliente o por usuario,
+ * cada dimensión por separado. Guarda todos los productos, clientes y usuarios del periodo, no solo
+ * los primeros, para que los rankings de cualquier rango se obtengan sumando periodos sin perder
+ * exactitud. Las filas diarias también alimentan las series de ventas filtradas por una dimensión.
+ * Solo se usan los periodos {@link GranularidadSerie#DIA} y {@link GranularidadSerie#MES}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ventas_ranking", indexes = {
+        @Index(name = "uk_ventas_ranking_periodo", columnList = "periodo, dimension, inicio, referencia_id", unique = true),
+        @Index(name = "idx_ventas_ranking_referencia", columnList = "dimension, referencia_id, periodo, inicio")
+})
+public class VentaRanking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private GranularidadSerie periodo;
+
+    @Column(nullable = false)
+    private LocalDate inicio;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private DimensionRanking dimension;
+
+    /**
+     * Id del producto, del cliente o del usuario, según {@link #dimension}.
+     */
+    @Column(name = "referencia_id", nullable = false)
+    private Long referenciaId;
+
+    @Column(nullable = false)
+    private Long unidades;
+
+    @Column(nullable = false)
+    private Long ventas;
+
+    @Column(nullable = false)
+    private Double total;
+}
@@ -2,6 +2,7 @@ package com.SICOIL.repositories;
 
 import com.SICOIL.models.CapitalMovimiento;
 import com.SICOIL.models.CapitalOrigen;
+import com.SICOIL.models.Dinero;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,76 +17,56 @@ public interface CapitalMovimientoRepository extends JpaRepository<CapitalMovimi
 
     List<CapitalMovimiento> findByCreadoEnBetween(LocalDateTime inicio, LocalDateTime fin);
 
-    @Query("select coalesce(sum(cm.monto), 0) from CapitalMovimiento cm where cm.esCredito = false")
-    Double sumMontoReal();
-
     @Query("""
-            select coalesce(sum(cm.monto), 0)
-            from CapitalMovimiento cm
-            where cm.esCredito = false
-              and cm.origen in (com.SICOIL.models.CapitalOrigen.VENTA, com.SICOIL.models.CapitalOrigen.ABONO)
-            """)
-    Double sumEntradas();
-
-    @Query("""
-            select coalesce(sum(cm.monto), 0)
+            select coalesce(sum(cast(round(cast(cm.monto as Double) * 100, 0) as Long)), 0)
             from CapitalMovimiento cm
             where cm.esCredito = false and cm.monto < 0
             """)
-    Double sumSalidas();
+    Long sumCentavosSalidas();
 
-    @Query("""
-            select coalesce(sum(cm.monto), 0)
-            from CapitalMovimiento cm
-            where cm.esCredito = true
-            """)
-    Double sumTotalCreditos();
-
-    @Query("""
-            select coalesce(sum(cm.monto), 0)
-            from CapitalMovimiento cm
-            where cm.esCredito = false
-              and cm.monto < 0
-              and cm.origen = com.SICOIL.models.CapitalOrigen.COMPRA
-            """)
-    Double sumCompras();
+    default Dinero sumSalidas() {
+        return Dinero.deCentavos(sumCentavosSalidas());
+    }
 
     @Query("""
-            select coalesce(sum(cm.monto), 0)
+            select coalesce(sum(cast(round(cast(cm.monto as Double) * 100, 0) as Long)), 0)
             from CapitalMovimiento cm
-            where cm.esCredito = false
-              and (:inicio is null or cm.creadoEn >= :inicio)
-              and (:fin is null or cm.creadoEn <= :fin)
+            where cm.esCredito = true
             """)
-    Double sumMontoRealBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    Long sumCentavosTotalCreditos();
 
-    @Query("""
-            select coalesce(sum(cm.monto), 0)
-            from CapitalMovimiento cm
-            where cm.esCredito = false
-              and cm.origen in (com.SICOIL.models.CapitalOrigen.VENTA, com.SICOIL.models.CapitalOrigen.ABONO)
-              and (:inicio is null or cm.creadoEn >= :inicio)
-              and (:fin is null or cm.creadoEn <= :fin)
-            """)
-    Double sumEntradasBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    default Dinero sumTotalCreditos() {
+        return Dinero.deCentavos(sumCentavosTotalCreditos());
+    }
 
     @Query("""
-            select coalesce(sum(cm.monto), 0)
+            select coalesce(sum(cast(round(cast(cm.monto as Double) * 100, 0) as Long)), 0)
             from CapitalMovimiento cm
             where cm.esCredito = false and cm.monto < 0
               and (:inicio is null or cm.creadoEn >= :inicio)
               and (:fin is null or cm.creadoEn <= :fin)
             """)
-    Double sumSalidasBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    Long sumCentavosSalidasBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    default Dinero sumSalidasBetween(LocalDateTime inicio, LocalDateTime fin) {
+        return Dinero.deCentavos(sumCentavosSalidasBetween(inicio, fin));
+    }
 
+    /**
+     * Totaliza en centavos los movimientos líquidos del periodo en una sola lectura: saldo real,
+     * entradas por ventas y abonos, y compras. Sin rango se consideran todos los movimientos.
+     */
     @Query("""
-            select coalesce(sum(cm.monto), 0)
+            select coalesce(sum(cast(round(cast(cm.monto as Double) * 100, 0) as Long)), 0) as saldoRealCentavos,
+                   coalesce(sum(case when cm.origen in (com.SICOIL.models.CapitalOrigen.VENTA,
+                                                         com.SICOIL.models.CapitalOrigen.ABONO)
+                                     then cast(round(cast(cm.monto as Double) * 100, 0) as Long) else 0 end), 0) as entradasCentavos,
+                   coalesce(sum(case when cm.origen = com.SICOIL.models.CapitalOrigen.COMPRA and cm.monto < 0
+                                     then cast(round(cast(cm.monto as Double) * 100, 0) as Long) else 0 end), 0) as comprasCentavos
             from CapitalMovimiento cm
             where cm.esCredito = false
-              and cm.monto < 0
-              and cm.origen = com.SICOIL.models.CapitalOrigen.COMPRA
               and (:inicio is null or cm.creadoEn >= :inicio)
               and (:fin is null or cm.creadoEn <= :fin)
             """)
-    Double sumComprasBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    CapitalTotalesPeriodo totalizarPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
 }
@@ -0,0 +1,21 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.Dinero;
+
+public interface CapitalTotalesPeriodo {
+    Long getSaldoRealCentavos();
+    Long getEntradasCentavos();
+    Long getComprasCentavos();
+
+    default Dinero saldoReal() {
+        return Dinero.deCentavos(getSaldoRealCentavos());
+    }
+
+    default Dinero entradas() {
+        return Dinero.deCentavos(getEntradasCentavos());
+    }
+
+    default Dinero compras() {
+        return Dinero.deCentavos(getComprasCentavos());
+    }
+}
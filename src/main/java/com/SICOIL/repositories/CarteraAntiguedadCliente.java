@@ -0,0 +1,11 @@
+package com.SICOIL.repositories;
+
+public interface CarteraAntiguedadCliente {
+    Long getClienteId();
+    String getClienteNombre();
+    Double getHasta30();
+    Double getDe31a60();
+    Double getDe61a90();
+    Double getMas90();
+    Double getTotal();
+}
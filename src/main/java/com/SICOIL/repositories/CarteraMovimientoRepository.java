@@ -1,34 +1,119 @@
 package com.SICOIL.repositories;
 
 import com.SICOIL.models.CarteraMovimiento;
+import com.SICOIL.models.CarteraMovimientoMotivo;
 import com.SICOIL.models.CarteraMovimientoTipo;
+import com.SICOIL.models.Dinero;
+import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface CarteraMovimientoRepository extends JpaRepository<CarteraMovimiento, Long>,
         JpaSpecificationExecutor<CarteraMovimiento> {
 
+    /**
+     * Suma los abonos del rango en centavos: cada monto se redondea a centavos antes de sumarlo, así
+     * que el total es exacto. Ver {@link #sumAbonosBetween}.
+     */
     @Query("""
-            select coalesce(sum(cm.monto), 0)
+            select coalesce(sum(cast(round(cast(cm.monto as Double) * 100, 0) as Long)), 0)
             from CarteraMovimiento cm
             where cm.tipo = com.SICOIL.models.CarteraMovimientoTipo.ABONO
               and (:inicio is null or cm.fecha >= :inicio)
               and (:fin is null or cm.fecha <= :fin)
             """)
-    Double sumAbonosBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    Long sumCentavosAbonosBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    default Dinero sumAbonosBetween(LocalDateTime inicio, LocalDateTime fin) {
+        return Dinero.deCentavos(sumCentavosAbonosBetween(inicio, fin));
+    }
 
     @Query("""
-            select coalesce(sum(cm.monto), 0)
+            select coalesce(sum(cast(round(cast(cm.monto as Double) * 100, 0) as Long)), 0)
             from CarteraMovimiento cm
             where cm.tipo = com.SICOIL.models.CarteraMovimientoTipo.CREDITO
               and cm.cartera.venta.activa = true
               and (:inicio is null or cm.fecha >= :inicio)
               and (:fin is null or cm.fecha <= :fin)
             """)
-    Double sumCreditosBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    Long sumCentavosCreditosBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    default Dinero sumCreditosBetween(LocalDateTime inicio, LocalDateTime fin) {
+        return Dinero.deCentavos(sumCentavosCreditosBetween(inicio, fin));
+    }
 
     boolean existsByCarteraVentaIdAndTipo(Long ventaId, CarteraMovimientoTipo tipo);
+
+    /**
+     * Vuelve a leer el movimiento con bloqueo de escritura; a diferencia de una lectura normal, ve si
+     * otra transacción ya confirmó su eliminación.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select cm from CarteraMovimiento cm where cm.id = :id")
+    Optional<CarteraMovimiento> findByIdParaEliminar(@Param("id") Long id);
+
+    /**
+     * Totaliza los abonos del cliente en el rango, restando los ajustes por eliminación de abonos,
+     * con el mismo criterio con el que se listan.
+     */
+    @Query("""
+            select count(cm) as cantidad,
+                   coalesce(sum(case when cm.motivo = com.SICOIL.models.CarteraMovimientoMotivo.PAGO
+                                     then cast(round(cast(cm.monto as Double) * 100, 0) as Long)
+                                     else -cast(round(cast(cm.monto as Double) * 100, 0) as Long) end), 0) as totalCentavos
+            from CarteraMovimiento cm
+            where cm.clienteId = :clienteId
+              and cm.motivo in (com.SICOIL.models.CarteraMovimientoMotivo.PAGO,
+                                com.SICOIL.models.CarteraMovimientoMotivo.ELIMINACION_ABONO)
+              and (:inicio is null or cm.fecha >= :inicio)
+              and (:fin is null or cm.fecha <= :fin)
+            """)
+    CarteraMovimientoTotales totalizarAbonosCliente(@Param("clienteId") Long clienteId,
+                                                    @Param("inicio") LocalDateTime inicio,
+                                                    @Param("fin") LocalDateTime fin);
+
+    /**
+     * Asigna el motivo a los movimientos anteriores a la columna {@code motivo} que aún no lo tienen.
+     * Solo toca filas con motivo nulo, por lo que puede ejecutarse repetidamente.
+     */
+    @Modifying
+    @Query("""
+            update CarteraMovimiento cm set cm.motivo = :motivo
+            where cm.motivo is null and cm.tipo = :tipo
+              and (:prefijoObservacion is null or cm.observacion like :prefijoObservacion)
+            """)
+    int asignarMotivoPendiente(@Param("tipo") CarteraMovimientoTipo tipo,
+                               @Param("prefijoObservacion") String prefijoObservacion,
+                               @Param("motivo") CarteraMovimientoMotivo motivo);
+
+    /**
+     * Asigna el cliente de su cartera a los movimientos anteriores a la columna {@code cliente_id}.
+     * Solo toca filas sin cliente, por lo que puede ejecutarse repetidamente.
+     */
+    @Modifying
+    @Query("""
+            update CarteraMovimiento cm
+            set cm.clienteId = (select c.cliente.id from Cartera c where c.id = cm.cartera.id)
+            where cm.clienteId is null
+            """)
+    int asignarClientePendiente();
+
+    @Query("""
+            select count(cm) as cantidad, coalesce(sum(cast(round(cast(cm.monto as Double) * 100, 0) as Long)), 0) as totalCentavos
+            from CarteraMovimiento cm
+            where cm.clienteId = :clienteId
+              and cm.motivo = com.SICOIL.models.CarteraMovimientoMotivo.VENTA_CREDITO
+              and cm.cartera.venta.activa = true
+              and (:inicio is null or cm.fecha >= :inicio)
+              and (:fin is null or cm.fecha <= :fin)
+            """)
+    CarteraMovimientoTotales totalizarCreditosCliente(@Param("clienteId") Long clienteId,
+                                                      @Param("inicio") LocalDateTime inicio,
+                                                      @Param("fin") LocalDateTime fin);
 }
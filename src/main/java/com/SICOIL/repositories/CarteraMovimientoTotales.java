@@ -0,0 +1,12 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.Dinero;
+
+public interface CarteraMovimientoTotales {
+    Long getCantidad();
+    Long getTotalCentavos();
+
+    default Dinero total() {
+        return Dinero.deCentavos(getTotalCentavos());
+    }
+}
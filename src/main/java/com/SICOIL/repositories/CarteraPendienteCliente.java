@@ -0,0 +1,12 @@
+package com.SICOIL.repositories;
+
+import java.time.LocalDateTime;
+
+public interface CarteraPendienteCliente {
+    Long getClienteId();
+    String getClienteNombre();
+    Double getSaldoPendiente();
+    Double getTotalCreditos();
+    Double getTotalAbonos();
+    LocalDateTime getUltimaActualizacion();
+}
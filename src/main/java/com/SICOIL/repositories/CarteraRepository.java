@@ -1,10 +1,15 @@
 package com.SICOIL.repositories;
 
 import com.SICOIL.models.Cartera;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CarteraRepository extends JpaRepository<Cartera, Long>, JpaSpecificationExecutor<Cartera> {
 
@@ -12,5 +17,87 @@ public interface CarteraRepository extends JpaRepository<Cartera, Long>, JpaSpec
 
     Optional<Cartera> findByVentaId(Long ventaId);
 
-    List<Cartera> findByClienteIdAndSaldoGreaterThanOrderByUltimaActualizacionAsc(Long clienteId, Double saldo);
+    /**
+     * Recupera y bloquea para escritura una cartera, leyendo su saldo confirmado más reciente.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cartera c where c.id = :id")
+    Optional<Cartera> findByIdParaActualizar(@Param("id") Long id);
+
+    /**
+     * Recupera y bloquea para escritura las carteras con saldo pendiente del cliente. El orden por
+     * id hace que transacciones concurrentes adquieran los bloqueos en la misma secuencia.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cartera c where c.cliente.id = :clienteId and c.saldo > 0 order by c.id")
+    List<Cartera> findPendientesParaAbono(@Param("clienteId") Long clienteId);
+
+    /**
+     * Resume por cliente las carteras con saldo pendiente: el saldo actual, la última actualización
+     * y los créditos y abonos registrados en el rango indicado. Primero se agregan los movimientos
+     * de cada cartera y luego se agrupan las carteras por cliente, así el saldo no se repite por
+     * cada movimiento.
+     *
+     * @param nombre patrón {@code like} en minúsculas para el nombre del cliente; {@code null} para no filtrar
+     * @param inicio fecha inicial de los movimientos (inclusive); {@code null} para no acotar
+     * @param fin fecha final de los movimientos (inclusive); {@code null} para no acotar
+     */
+    @Query(value = """
+            select c.cliente_id as clienteId,
+                   cl.nombre as clienteNombre,
+                   sum(c.saldo) as saldoPendiente,
+                   sum(c.total_creditos) as totalCreditos,
+                   sum(c.total_abonos) as totalAbonos,
+                   max(c.ultima_actualizacion) as ultimaActualizacion
+            from (
+                select ca.id,
+                       ca.cliente_id,
+                       ca.saldo,
+                       ca.ultima_actualizacion,
+                       coalesce(sum(case when m.tipo = 'CREDITO' then m.monto end), 0) as total_creditos,
+                       coalesce(sum(case when m.tipo = 'ABONO' then m.monto end), 0) as total_abonos
+                from cartera ca
+                left join cartera_movimientos m
+                       on m.cartera_id = ca.id
+                      and m.tipo in ('CREDITO', 'ABONO')
+                      and (:inicio is null or m.fecha >= :inicio)
+                      and (:fin is null or m.fecha <= :fin)
+                where ca.saldo > 0
+                group by ca.id, ca.cliente_id, ca.saldo, ca.ultima_actualizacion
+            ) c
+            join clientes cl on cl.id = c.cliente_id
+            where (:nombre is null or lower(cl.nombre) like :nombre)
+            group by c.cliente_id, cl.nombre
+            order by lower(cl.nombre)
+            """, nativeQuery = true)
+    List<CarteraPendienteCliente> resumenPendientesPorCliente(@Param("nombre") String nombre,
+                                                             @Param("inicio") LocalDateTime inicio,
+                                                             @Param("fin") LocalDateTime fin);
+
+    /**
+     * Distribuye el saldo pendiente de cada cliente por antigüedad de la venta que lo originó.
+     * Los cortes son el inicio del día a partir del cual un crédito pasa al siguiente tramo.
+     *
+     * @param corte30 créditos desde esta fecha tienen entre 0 y 30 días
+     * @param corte60 créditos desde esta fecha y antes de {@code corte30} tienen entre 31 y 60 días
+     * @param corte90 créditos desde esta fecha y antes de {@code corte60} tienen entre 61 y 90 días
+     */
+    @Query(value = """
+            select c.cliente_id as clienteId,
+                   cl.nombre as clienteNombre,
+                   sum(case when v.fecha_registro >= :corte30 then c.saldo else 0 end) as hasta30,
+                   sum(case when v.fecha_registro < :corte30 and v.fecha_registro >= :corte60 then c.saldo else 0 end) as de31a60,
+                   sum(case when v.fecha_registro < :corte60 and v.fecha_registro >= :corte90 then c.saldo else 0 end) as de61a90,
+                   sum(case when v.fecha_registro < :corte90 then c.saldo else 0 end) as mas90,
+                   sum(c.saldo) as total
+            from cartera c
+            join ventas v on v.id = c.venta_id
+            join clientes cl on cl.id = c.cliente_id
+            where c.saldo > 0
+            group by c.cliente_id, cl.nombre
+            order by lower(cl.nombre)
+            """, nativeQuery = true)
+    List<CarteraAntiguedadCliente> antiguedadPorCliente(@Param("corte30") LocalDateTime corte30,
+                                                        @Param("corte60") LocalDateTime corte60,
+                                                        @Param("corte90") LocalDateTime corte90);
 }
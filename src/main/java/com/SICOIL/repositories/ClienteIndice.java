@@ -0,0 +1,7 @@
+package com.SICOIL.repositories;
+
+public interface ClienteIndice {
+    Long getId();
+    String getNombre();
+    String getTelefono();
+}
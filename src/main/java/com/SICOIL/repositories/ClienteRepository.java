@@ -1,10 +1,15 @@
 package com.SICOIL.repositories;
 
 import com.SICOIL.models.Cliente;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpecificationExecutor<Cliente> {
 
     boolean existsByNombreIgnoreCase(String nombre);
+
+    @Query("select c.id as id, c.nombre as nombre, c.telefono as telefono from Cliente c")
+    List<ClienteIndice> findIndice();
 }
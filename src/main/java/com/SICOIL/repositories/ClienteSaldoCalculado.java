@@ -0,0 +1,11 @@
+package com.SICOIL.repositories;
+
+import java.time.LocalDateTime;
+
+public interface ClienteSaldoCalculado {
+    Long getClienteId();
+    Double getSaldoPendiente();
+    Long getCreditosAbiertos();
+    LocalDateTime getCreditoMasAntiguo();
+    LocalDateTime getUltimoMovimiento();
+}
@@ -0,0 +1,93 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.ClienteSaldo;
+import com.SICOIL.models.Dinero;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ClienteSaldoRepository extends JpaRepository<ClienteSaldo, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ClienteSaldo s where s.clienteId = :clienteId")
+    Optional<ClienteSaldo> findParaActualizar(@Param("clienteId") Long clienteId);
+
+    /**
+     * Crea la fila en cero si el cliente todavía no tiene agregado. Con {@code insert ignore} dos
+     * transacciones que crean a la vez la primera fila del mismo cliente no fallan por clave
+     * duplicada: la segunda espera a la primera y luego no inserta nada.
+     */
+    @Modifying
+    @Query(value = """
+            insert ignore into cliente_saldo (cliente_id, saldo_pendiente, creditos_abiertos)
+            values (:clienteId, 0, 0)
+            """, nativeQuery = true)
+    int crearSiNoExiste(@Param("clienteId") Long clienteId);
+
+    @Query(value = "select coalesce(sum(round(saldo_pendiente * 100)), 0) from cliente_saldo", nativeQuery = true)
+    Long sumCentavosSaldoPendiente();
+
+    default Dinero sumSaldoPendiente() {
+        return Dinero.deCentavos(sumCentavosSaldoPendiente());
+    }
+
+    @Query("""
+            select min(v.fechaRegistro)
+            from Cartera c join c.venta v
+            where c.cliente.id = :clienteId and c.saldo > 0
+            """)
+    LocalDateTime findCreditoMasAntiguo(@Param("clienteId") Long clienteId);
+
+    /**
+     * Calcula el agregado de cada cliente directamente desde la cartera; es la fuente de verdad
+     * contra la que se verifica y reconstruye la tabla {@code cliente_saldo}.
+     */
+    @Query(value = """
+            select c.cliente_id as clienteId,
+                   coalesce(sum(case when c.saldo > 0 then c.saldo end), 0) as saldoPendiente,
+                   sum(case when c.saldo > 0 then 1 else 0 end) as creditosAbiertos,
+                   min(case when c.saldo > 0 then v.fecha_registro end) as creditoMasAntiguo,
+                   max(c.ultima_actualizacion) as ultimoMovimiento
+            from cartera c
+            join ventas v on v.id = c.venta_id
+            group by c.cliente_id
+            """, nativeQuery = true)
+    List<ClienteSaldoCalculado> calcularDesdeCartera();
+
+    @Query(value = """
+            select c.cliente_id as clienteId,
+                   coalesce(sum(case when c.saldo > 0 then c.saldo end), 0) as saldoPendiente,
+                   sum(case when c.saldo > 0 then 1 else 0 end) as creditosAbiertos,
+                   min(case when c.saldo > 0 then v.fecha_registro end) as creditoMasAntiguo,
+                   max(c.ultima_actualizacion) as ultimoMovimiento
+            from cartera c
+            join ventas v on v.id = c.venta_id
+            where c.cliente_id = :clienteId
+            group by c.cliente_id
+            """, nativeQuery = true)
+    Optional<ClienteSaldoCalculado> calcularDesdeCartera(@Param("clienteId") Long clienteId);
+
+    @Modifying
+    @Query(value = """
+            insert into cliente_saldo (cliente_id, saldo_pendiente, creditos_abiertos, credito_mas_antiguo, ultimo_movimiento)
+            select c.cliente_id,
+                   coalesce(sum(case when c.saldo > 0 then c.saldo end), 0),
+                   sum(case when c.saldo > 0 then 1 else 0 end),
+                   min(case when c.saldo > 0 then v.fecha_registro end),
+                   max(c.ultima_actualizacion)
+            from cartera c
+            join ventas v on v.id = c.venta_id
+            group by c.cliente_id
+            """, nativeQuery = true)
+    int reconstruirDesdeCartera();
+
+    @Modifying
+    @Query(value = "delete from cliente_saldo", nativeQuery = true)
+    int eliminarTodos();
+}
@@ -0,0 +1,14 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.ConciliacionLinea;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ConciliacionLineaRepository extends JpaRepository<ConciliacionLinea, Long> {
+
+    @Query("select c.clave from ConciliacionLinea c where c.clave in :claves")
+    List<String> findClavesAplicadas(@Param("claves") Collection<String> claves);
+}
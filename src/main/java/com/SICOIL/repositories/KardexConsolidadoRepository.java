@@ -0,0 +1,9 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.KardexConsolidado;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.Repository;
+
+public interface KardexConsolidadoRepository extends Repository<KardexConsolidado, Long>,
+        JpaSpecificationExecutor<KardexConsolidado> {
+}
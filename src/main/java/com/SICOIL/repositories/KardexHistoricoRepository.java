@@ -0,0 +1,14 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.KardexHistorico;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+public interface KardexHistoricoRepository extends JpaRepository<KardexHistorico, Long>,
+        JpaSpecificationExecutor<KardexHistorico> {
+
+    @Query("select max(k.fechaRegistro) from KardexHistorico k")
+    LocalDateTime findUltimaFechaArchivada();
+}
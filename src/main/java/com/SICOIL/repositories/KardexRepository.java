@@ -1,8 +1,28 @@
 package com.SICOIL.repositories;
 
 import com.SICOIL.models.Kardex;
+import java.time.LocalDateTime;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface KardexRepository extends JpaRepository<Kardex, Long>, JpaSpecificationExecutor<Kardex> {
+
+    @Query("select min(k.fechaRegistro) from Kardex k")
+    LocalDateTime findPrimeraFechaRegistro();
+
+    @Modifying
+    @Query(value = """
+            insert into kardex_historico (id, producto_id, usuario_id, cantidad, tipo_movimiento, comentario, fecha_registro)
+            select id, producto_id, usuario_id, cantidad, tipo_movimiento, comentario, fecha_registro
+            from kardex
+            where fecha_registro >= :inicio and fecha_registro < :fin
+            """, nativeQuery = true)
+    int copiarAlHistorico(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    @Modifying
+    @Query(value = "delete from kardex where fecha_registro >= :inicio and fecha_registro < :fin", nativeQuery = true)
+    int eliminarPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
 }
@@ -0,0 +1,134 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.CapitalMovimiento;
+import com.SICOIL.models.CarteraMovimiento;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserta movimientos de cartera y de capital en lotes JDBC. Las entidades usan identificadores
+ * {@code IDENTITY}, con los que Hibernate no agrupa inserciones; aquí se envían en un solo lote
+ * (una sola sentencia multi-fila en MySQL con {@code rewriteBatchedStatements}) y se asignan a
+ * cada entidad el id y la fecha generados.
+ *
+ * <p>Participa en la transacción JPA activa, por lo que las filas son visibles para las consultas
+ * posteriores de la misma transacción.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MovimientoLoteRepository {
+
+    private static final String INSERT_CARTERA = """
+            insert into cartera_movimientos (cartera_id, cliente_id, tipo, motivo, monto, usuario_id, observacion, fecha)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_CAPITAL = """
+            insert into capital_movimientos (origen, referencia_id, monto_total, es_credito, descripcion, creado_en, usuario_id)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertarMovimientosCartera(List<CarteraMovimiento> movimientos) {
+        if (movimientos.isEmpty()) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        movimientos.forEach(m -> {
+            if (m.getFecha() == null) {
+                m.setFecha(ahora);
+            }
+            m.completarCliente();
+        });
+        List<Long> ids = insertar(INSERT_CARTERA, movimientos.size(), (ps, i) -> {
+            CarteraMovimiento m = movimientos.get(i);
+            ps.setLong(1, m.getCartera().getId());
+            setLongNullable(ps, 2, m.getClienteId());
+            ps.setString(3, m.getTipo().name());
+            ps.setString(4, m.getMotivo() != null ? m.getMotivo().name() : null);
+            ps.setDouble(5, m.getMonto().aDouble());
+            setLongNullable(ps, 6, m.getUsuario() != null ? m.getUsuario().getId() : null);
+            ps.setString(7, m.getObservacion());
+            ps.setTimestamp(8, Timestamp.valueOf(m.getFecha()));
+        });
+        for (int i = 0; i < movimientos.size(); i++) {
+            movimientos.get(i).setId(ids.get(i));
+        }
+    }
+
+    public void insertarMovimientosCapital(List<CapitalMovimiento> movimientos) {
+        if (movimientos.isEmpty()) {
+            return;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        movimientos.forEach(m -> {
+            if (m.getCreadoEn() == null) {
+                m.setCreadoEn(ahora);
+            }
+        });
+        List<Long> ids = insertar(INSERT_CAPITAL, movimientos.size(), (ps, i) -> {
+            CapitalMovimiento m = movimientos.get(i);
+            ps.setString(1, m.getOrigen().name());
+            setLongNullable(ps, 2, m.getReferenciaId());
+            ps.setDouble(3, m.getMonto().aDouble());
+            ps.setBoolean(4, m.getEsCredito());
+            ps.setString(5, m.getDescripcion());
+            ps.setTimestamp(6, Timestamp.valueOf(m.getCreadoEn()));
+            setLongNullable(ps, 7, m.getUsuario() != null ? m.getUsuario().getId() : null);
+        });
+        for (int i = 0; i < movimientos.size(); i++) {
+            movimientos.get(i).setId(ids.get(i));
+        }
+    }
+
+    private List<Long> insertar(String sql, int filas, ParametrosFila parametros) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        parametros.asignar(ps, i);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return filas;
+                    }
+                },
+                keyHolder
+        );
+        List<Map<String, Object>> claves = keyHolder.getKeyList();
+        if (claves.size() != filas) {
+            throw new IllegalStateException("El lote insertó " + claves.size() + " filas de " + filas + " esperadas.");
+        }
+        return claves.stream()
+                .map(clave -> ((Number) clave.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private static void setLongNullable(PreparedStatement ps, int indice, Long valor) throws SQLException {
+        if (valor == null) {
+            ps.setNull(indice, Types.BIGINT);
+        } else {
+            ps.setLong(indice, valor);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ParametrosFila {
+        void asignar(PreparedStatement ps, int fila) throws SQLException;
+    }
+}
@@ -1,10 +1,13 @@
 package com.SICOIL.repositories;
 
+import com.SICOIL.models.Dinero;
 import com.SICOIL.models.Producto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,17 +17,30 @@ public interface ProductoRepository extends JpaRepository<Producto, Long>, JpaSp
 
     boolean existsByNombreIgnoreCase(String nombre);
 
-    List<Producto> findByNombreIgnoreCaseOrderByFechaRegistroAsc(String nombre);
+    /**
+     * Lotes de todos los nombres indicados (en minúsculas) en orden FIFO, para resolver las líneas
+     * de una venta con una sola consulta.
+     */
+    @Query("select p from Producto p where lower(p.nombre) in :nombres order by p.fechaRegistro asc, p.id asc")
+    List<Producto> findLotesFifoPorNombres(@Param("nombres") Collection<String> nombres);
 
     @Query("SELECT p.nombre AS nombre, SUM(p.stock) AS stockTotal, MAX(p.cantidadPorCajas) AS cantidadPorCajas " +
             "FROM Producto p GROUP BY p.nombre")
     List<ProductosSInPrecio> inventarioAgrupado();
 
+    /**
+     * Valor del inventario en centavos, con el precio de cada lote redondeado a centavos antes de
+     * multiplicarlo. Ver {@link #sumValorInventario}.
+     */
     @Query("""
-            select coalesce(sum(coalesce(p.stock, 0) * coalesce(p.precioCompra, 0)), 0)
+            select coalesce(sum(coalesce(p.stock, 0) * cast(round(cast(p.precioCompra as Double) * 100, 0) as Long)), 0)
             from Producto p
             """)
-    Double sumValorInventario();
+    Long sumCentavosValorInventario();
+
+    default Dinero sumValorInventario() {
+        return Dinero.deCentavos(sumCentavosValorInventario());
+    }
 
     Optional<Producto> findFirstByNombreIgnoreCase(String nombre);
 
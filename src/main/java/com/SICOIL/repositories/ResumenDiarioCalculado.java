@@ -0,0 +1,7 @@
+package com.SICOIL.repositories;
+
+import java.time.LocalDate;
+
+public interface ResumenDiarioCalculado extends ResumenDiarioTotales {
+    LocalDate getDia();
+}
@@ -0,0 +1,126 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.ResumenDiario;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ResumenDiarioRepository extends JpaRepository<ResumenDiario, LocalDate> {
+
+    /**
+     * Último día cerrado. Todos los días anteriores tienen su fila, aunque no hayan tenido movimientos.
+     */
+    @Query("select max(r.fecha) from ResumenDiario r")
+    LocalDate findUltimoDiaCerrado();
+
+    List<ResumenDiario> findByFechaBetween(LocalDate desde, LocalDate hasta);
+
+    @Query("""
+            select coalesce(sum(cast(round(r.saldoReal * 100, 0) as Long)), 0) as saldoRealCentavos,
+                   coalesce(sum(cast(round(r.entradas * 100, 0) as Long)), 0) as entradasCentavos,
+                   coalesce(sum(cast(round(r.compras * 100, 0) as Long)), 0) as comprasCentavos,
+                   coalesce(sum(cast(round(r.totalVentas * 100, 0) as Long)), 0) as totalVentasCentavos,
+                   coalesce(sum(cast(round(r.ganancia * 100, 0) as Long)), 0) as gananciaCentavos,
+                   coalesce(sum(r.unidades), 0) as unidades,
+                   coalesce(sum(r.cajas), 0) as cajas,
+                   coalesce(sum(cast(round(r.abonos * 100, 0) as Long)), 0) as abonosCentavos,
+                   coalesce(sum(cast(round(r.creditos * 100, 0) as Long)), 0) as creditosCentavos
+            from ResumenDiario r
+            where (:desde is null or r.fecha >= :desde)
+              and r.fecha <= :hasta
+            """)
+    ResumenDiarioTotales totalizar(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Serie diaria de todas las ventas activas: una fila por día cerrado con ventas del rango.
+     */
+    @Query("""
+            select r.fecha as dia, cast(round(r.totalVentas * 100, 0) as Long) as totalCentavos, cast(r.unidades as Long) as unidades
+            from ResumenDiario r
+            where r.fecha between :desde and :hasta
+              and r.totalVentas <> 0
+            """)
+    List<VentaSerieDia> sumarSerie(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Año, mes y total vendido en centavos de cada mes cerrado desde {@code desde}, con las mismas
+     * columnas que {@link VentaRepository#sumVentasMensualesDesde}.
+     */
+    @Query("""
+            select year(r.fecha), month(r.fecha), coalesce(sum(cast(round(r.totalVentas * 100, 0) as Long)), 0)
+            from ResumenDiario r
+            where r.fecha >= :desde
+            group by year(r.fecha), month(r.fecha)
+            """)
+    List<Object[]> sumVentasMensualesDesde(@Param("desde") LocalDate desde);
+
+    /**
+     * Calcula desde los movimientos los totales de cada día con actividad en {@code [inicio, fin)},
+     * con los mismos criterios que las consultas del resumen de capital. Los montos se suman en
+     * centavos.
+     */
+    @Query(value = """
+            select x.dia as dia,
+                   sum(x.saldo_real) as saldoRealCentavos,
+                   sum(x.entradas) as entradasCentavos,
+                   sum(x.compras) as comprasCentavos,
+                   sum(x.total_ventas) as totalVentasCentavos,
+                   sum(x.ganancia) as gananciaCentavos,
+                   sum(x.unidades) as unidades,
+                   sum(x.cajas) as cajas,
+                   sum(x.abonos) as abonosCentavos,
+                   sum(x.creditos) as creditosCentavos
+            from (
+                select cast(cm.creado_en as date) as dia,
+                       round(cm.monto_total * 100) as saldo_real,
+                       case when cm.origen in ('VENTA', 'ABONO') then round(cm.monto_total * 100) else 0 end as entradas,
+                       case when cm.origen = 'COMPRA' and cm.monto_total < 0 then round(cm.monto_total * 100) else 0 end as compras,
+                       0 as total_ventas, 0 as ganancia, 0 as unidades, 0 as cajas, 0 as abonos, 0 as creditos
+                from capital_movimientos cm
+                where cm.es_credito = false
+                  and cm.creado_en >= :inicio and cm.creado_en < :fin
+                union all
+                select cast(t.fecha_registro as date), 0, 0, 0,
+                       round(t.total * 100), coalesce(t.ganancia, 0), coalesce(t.unidades, 0), coalesce(t.cajas, 0), 0, 0
+                from (
+                    select v.fecha_registro,
+                           v.total,
+                           sum(round(dv.subtotal * 100) - dv.cantidad * round(p.precio_compra * 100)) as ganancia,
+                           sum(dv.cantidad) as unidades,
+                           sum(case when p.cantidad_por_cajas > 0 then dv.cantidad * 1.0 / p.cantidad_por_cajas else 0 end) as cajas
+                    from ventas v
+                    left join venta_detalle dv on dv.venta_id = v.id
+                    left join productos p on p.id = dv.producto_id
+                    where v.activa = true
+                      and v.fecha_registro >= :inicio and v.fecha_registro < :fin
+                    group by v.id, v.fecha_registro, v.total
+                ) t
+                union all
+                select cast(m.fecha as date), 0, 0, 0, 0, 0, 0, 0,
+                       case when m.tipo = 'ABONO' then round(m.monto * 100) else 0 end,
+                       case when m.tipo = 'CREDITO' and v.activa = true then round(m.monto * 100) else 0 end
+                from cartera_movimientos m
+                join cartera c on c.id = m.cartera_id
+                left join ventas v on v.id = c.venta_id
+                where m.tipo in ('ABONO', 'CREDITO')
+                  and m.fecha >= :inicio and m.fecha < :fin
+            ) x
+            group by x.dia
+            """, nativeQuery = true)
+    List<ResumenDiarioCalculado> calcularPorDia(@Param("inicio") LocalDateTime inicio,
+                                                @Param("fin") LocalDateTime fin);
+
+    @Query(value = """
+            select min(x.fecha) from (
+                select min(creado_en) as fecha from capital_movimientos
+                union all
+                select min(fecha_registro) from ventas
+                union all
+                select min(fecha) from cartera_movimientos
+            ) x
+            """, nativeQuery = true)
+    LocalDateTime findPrimerMovimiento();
+}
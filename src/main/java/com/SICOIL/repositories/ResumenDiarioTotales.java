@@ -0,0 +1,43 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.Dinero;
+
+public interface ResumenDiarioTotales {
+    Long getSaldoRealCentavos();
+    Long getEntradasCentavos();
+    Long getComprasCentavos();
+    Long getTotalVentasCentavos();
+    Long getGananciaCentavos();
+    Double getUnidades();
+    Double getCajas();
+    Long getAbonosCentavos();
+    Long getCreditosCentavos();
+
+    default Dinero saldoReal() {
+        return Dinero.deCentavos(getSaldoRealCentavos());
+    }
+
+    default Dinero entradas() {
+        return Dinero.deCentavos(getEntradasCentavos());
+    }
+
+    default Dinero compras() {
+        return Dinero.deCentavos(getComprasCentavos());
+    }
+
+    default Dinero totalVentas() {
+        return Dinero.deCentavos(getTotalVentasCentavos());
+    }
+
+    default Dinero ganancia() {
+        return Dinero.deCentavos(getGananciaCentavos());
+    }
+
+    default Dinero abonos() {
+        return Dinero.deCentavos(getAbonosCentavos());
+    }
+
+    default Dinero creditos() {
+        return Dinero.deCentavos(getCreditosCentavos());
+    }
+}
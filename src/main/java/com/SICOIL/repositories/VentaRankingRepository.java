@@ -0,0 +1,175 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.DimensionRanking;
+import com.SICOIL.models.GranularidadSerie;
+import com.SICOIL.models.VentaRanking;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface VentaRankingRepository extends JpaRepository<VentaRanking, Long> {
+
+    @Modifying
+    @Query("delete from VentaRanking r where r.periodo = :periodo and r.inicio between :desde and :hasta")
+    int eliminarEntre(@Param("periodo") GranularidadSerie periodo,
+                      @Param("desde") LocalDate desde,
+                      @Param("hasta") LocalDate hasta);
+
+    /**
+     * Acumula por día y producto el detalle de las ventas activas registradas en {@code [inicio, fin)}.
+     */
+    @Modifying
+    @Query(value = """
+            insert into ventas_ranking (periodo, inicio, dimension, referencia_id, unidades, ventas, total)
+            select 'DIA', cast(v.fecha_registro as date), 'PRODUCTO', dv.producto_id,
+                   sum(dv.cantidad), count(distinct v.id), sum(dv.subtotal)
+            from ventas v
+            join venta_detalle dv on dv.venta_id = v.id
+            where v.activa = true
+              and v.fecha_registro >= :inicio and v.fecha_registro < :fin
+            group by cast(v.fecha_registro as date), dv.producto_id
+            """, nativeQuery = true)
+    int insertarProductosDiarios(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    /**
+     * Acumula por día y cliente las ventas activas registradas en {@code [inicio, fin)}.
+     */
+    @Modifying
+    @Query(value = """
+            insert into ventas_ranking (periodo, inicio, dimension, referencia_id, unidades, ventas, total)
+            select 'DIA', t.dia, 'CLIENTE', t.cliente_id, sum(t.unidades), count(*), sum(t.total)
+            from (
+                select cast(v.fecha_registro as date) as dia, v.cliente_id, v.total,
+                       coalesce(sum(dv.cantidad), 0) as unidades
+                from ventas v
+                left join venta_detalle dv on dv.venta_id = v.id
+                where v.activa = true
+                  and v.fecha_registro >= :inicio and v.fecha_registro < :fin
+                group by v.id, v.fecha_registro, v.cliente_id, v.total
+            ) t
+            group by t.dia, t.cliente_id
+            """, nativeQuery = true)
+    int insertarClientesDiarios(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    /**
+     * Acumula por día y usuario las ventas activas registradas en {@code [inicio, fin)}.
+     */
+    @Modifying
+    @Query(value = """
+            insert into ventas_ranking (periodo, inicio, dimension, referencia_id, unidades, ventas, total)
+            select 'DIA', t.dia, 'USUARIO', t.usuario_id, sum(t.unidades), count(*), sum(t.total)
+            from (
+                select cast(v.fecha_registro as date) as dia, v.usuario_id, v.total,
+                       coalesce(sum(dv.cantidad), 0) as unidades
+                from ventas v
+                left join venta_detalle dv on dv.venta_id = v.id
+                where v.activa = true
+                  and v.fecha_registro >= :inicio and v.fecha_registro < :fin
+                group by v.id, v.fecha_registro, v.usuario_id, v.total
+            ) t
+            group by t.dia, t.usuario_id
+            """, nativeQuery = true)
+    int insertarUsuariosDiarios(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    /**
+     * Días cerrados con ventas en {@code resumen_diario} sin filas diarias por usuario en
+     * {@code ventas_ranking}, como ocurre con los días cerrados antes de que existiera esa dimensión.
+     * Las tres dimensiones de un día se escriben juntas, así que basta con revisar una.
+     */
+    @Query("""
+            select r.fecha from ResumenDiario r
+            where r.totalVentas <> 0
+              and not exists (select 1 from VentaRanking k
+                              where k.periodo = com.SICOIL.models.GranularidadSerie.DIA
+                                and k.dimension = com.SICOIL.models.DimensionRanking.USUARIO
+                                and k.inicio = r.fecha)
+            order by r.fecha
+            """)
+    List<LocalDate> findDiasCerradosSinRanking();
+
+    /**
+     * Suma las filas diarias del mes que empieza en {@code mes} en una fila mensual por producto y cliente.
+     */
+    @Modifying
+    @Query(value = """
+            insert into ventas_ranking (periodo, inicio, dimension, referencia_id, unidades, ventas, total)
+            select 'MES', :mes, r.dimension, r.referencia_id, sum(r.unidades), sum(r.ventas), sum(r.total)
+            from ventas_ranking r
+            where r.periodo = 'DIA'
+              and r.inicio between :mes and :finMes
+            group by r.dimension, r.referencia_id
+            """, nativeQuery = true)
+    int insertarMes(@Param("mes") LocalDate mes, @Param("finMes") LocalDate finMes);
+
+    /**
+     * Productos del periodo agrupados por nombre, con las mismas columnas que
+     * {@link VentaRepository#findTopSellingProducts}.
+     */
+    @Query("""
+            select min(p.id), p.nombre, sum(r.unidades), sum(cast(round(r.total * 100, 0) as Long))
+            from VentaRanking r, Producto p
+            where p.id = r.referenciaId
+              and r.dimension = com.SICOIL.models.DimensionRanking.PRODUCTO
+              and r.periodo = :periodo
+              and (:desde is null or r.inicio >= :desde)
+              and r.inicio <= :hasta
+            group by p.nombre
+            """)
+    List<Object[]> sumarProductos(@Param("periodo") GranularidadSerie periodo,
+                                  @Param("desde") LocalDate desde,
+                                  @Param("hasta") LocalDate hasta);
+
+    /**
+     * Clientes del periodo, con las mismas columnas que {@link VentaRepository#findTopClients}.
+     */
+    @Query("""
+            select c.id, c.nombre, sum(r.ventas), sum(cast(round(r.total * 100, 0) as Long))
+            from VentaRanking r, Cliente c
+            where c.id = r.referenciaId
+              and r.dimension = com.SICOIL.models.DimensionRanking.CLIENTE
+              and r.periodo = :periodo
+              and (:desde is null or r.inicio >= :desde)
+              and r.inicio <= :hasta
+            group by c.id, c.nombre
+            """)
+    List<Object[]> sumarClientes(@Param("periodo") GranularidadSerie periodo,
+                                 @Param("desde") LocalDate desde,
+                                 @Param("hasta") LocalDate hasta);
+
+    /**
+     * Serie diaria de un cliente o de un usuario: lee una fila por día del rango como máximo.
+     */
+    @Query("""
+            select r.inicio as dia, cast(round(r.total * 100, 0) as Long) as totalCentavos, r.unidades as unidades
+            from VentaRanking r
+            where r.dimension = :dimension
+              and r.referenciaId = :referenciaId
+              and r.periodo = com.SICOIL.models.GranularidadSerie.DIA
+              and r.inicio between :desde and :hasta
+            """)
+    List<VentaSerieDia> sumarSerie(@Param("dimension") DimensionRanking dimension,
+                                   @Param("referenciaId") Long referenciaId,
+                                   @Param("desde") LocalDate desde,
+                                   @Param("hasta") LocalDate hasta);
+
+    /**
+     * Serie diaria de los productos registrados con el nombre indicado (en minúsculas): lee una fila
+     * por día y producto con ese nombre.
+     */
+    @Query("""
+            select r.inicio as dia, sum(cast(round(r.total * 100, 0) as Long)) as totalCentavos, sum(r.unidades) as unidades
+            from VentaRanking r
+            where r.dimension = com.SICOIL.models.DimensionRanking.PRODUCTO
+              and r.referenciaId in (select p.id from Producto p where lower(p.nombre) = :producto)
+              and r.periodo = com.SICOIL.models.GranularidadSerie.DIA
+              and r.inicio between :desde and :hasta
+            group by r.inicio
+            """)
+    List<VentaSerieDia> sumarSerieProducto(@Param("producto") String producto,
+                                           @Param("desde") LocalDate desde,
+                                           @Param("hasta") LocalDate hasta);
+}
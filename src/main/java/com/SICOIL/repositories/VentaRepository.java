@@ -1,7 +1,6 @@
 package com.SICOIL.repositories;
 
 import com.SICOIL.models.Venta;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -13,17 +12,38 @@ import org.springframework.data.repository.query.Param;
 
 public interface VentaRepository extends JpaRepository<Venta, Long>, JpaSpecificationExecutor<Venta> {
 
-    @Query("""
-            select coalesce(sum(dv.subtotal - (dv.cantidad * dv.producto.precioCompra)), 0)
-            from DetalleVenta dv
-            where (:inicio is null or dv.venta.fechaRegistro >= :inicio)
-              and (:fin is null or dv.venta.fechaRegistro <= :fin)
-              and dv.venta.activa = true
-            """)
-    BigDecimal sumGananciaBetween(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+    /**
+     * Totaliza las ventas activas del periodo en una sola lectura: monto vendido y ganancia en
+     * centavos, unidades y cajas. El detalle se agrupa primero por venta para que el total de cada
+     * venta se sume una sola vez.
+     */
+    @Query(value = """
+            select coalesce(sum(round(t.total * 100)), 0) as totalVentasCentavos,
+                   coalesce(sum(t.ganancia), 0) as gananciaCentavos,
+                   coalesce(sum(t.unidades), 0) as unidades,
+                   coalesce(sum(t.cajas), 0) as cajas
+            from (
+                select v.id,
+                       v.total as total,
+                       sum(round(dv.subtotal * 100) - dv.cantidad * round(p.precio_compra * 100)) as ganancia,
+                       sum(dv.cantidad) as unidades,
+                       sum(case when p.cantidad_por_cajas > 0 then dv.cantidad * 1.0 / p.cantidad_por_cajas else 0 end) as cajas
+                from ventas v
+                left join venta_detalle dv on dv.venta_id = v.id
+                left join productos p on p.id = dv.producto_id
+                where v.activa = true
+                  and (:inicio is null or v.fecha_registro >= :inicio)
+                  and (:fin is null or v.fecha_registro <= :fin)
+                group by v.id, v.total
+            ) t
+            """, nativeQuery = true)
+    VentaTotalesPeriodo totalizarPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
 
+    /**
+     * Id menor, nombre, unidades y total vendido en centavos de cada producto, agrupado por nombre.
+     */
     @Query("""
-            select min(dv.producto.id), dv.producto.nombre, sum(dv.cantidad), sum(dv.subtotal)
+            select min(dv.producto.id), dv.producto.nombre, sum(dv.cantidad), sum(cast(round(cast(dv.subtotal as Double) * 100, 0) as Long))
             from DetalleVenta dv
             where (:inicio is null or dv.venta.fechaRegistro >= :inicio)
               and (:fin is null or dv.venta.fechaRegistro <= :fin)
@@ -35,40 +55,11 @@ public interface VentaRepository extends JpaRepository<Venta, Long>, JpaSpecific
                                           @Param("fin") LocalDateTime fin,
                                           Pageable pageable);
 
+    /**
+     * Año, mes y total vendido en centavos de cada mes desde {@code inicio}.
+     */
     @Query("""
-            select coalesce(sum(dv.cantidad), 0)
-            from DetalleVenta dv
-            where (:inicio is null or dv.venta.fechaRegistro >= :inicio)
-              and (:fin is null or dv.venta.fechaRegistro <= :fin)
-              and dv.venta.activa = true
-            """)
-    Long sumCantidadVendida(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
-
-    @Query("""
-            select coalesce(sum(
-                case
-                    when dv.producto.cantidadPorCajas > 0 then dv.cantidad * 1.0 / dv.producto.cantidadPorCajas
-                    else 0
-                end
-            ), 0)
-            from DetalleVenta dv
-            where (:inicio is null or dv.venta.fechaRegistro >= :inicio)
-              and (:fin is null or dv.venta.fechaRegistro <= :fin)
-              and dv.venta.activa = true
-            """)
-    Double sumCajasVendidas(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
-
-    @Query("""
-            select coalesce(sum(v.total), 0)
-            from Venta v
-            where (:inicio is null or v.fechaRegistro >= :inicio)
-              and (:fin is null or v.fechaRegistro <= :fin)
-              and v.activa = true
-            """)
-    Double sumTotalVentas(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
-
-    @Query("""
-            select year(v.fechaRegistro), month(v.fechaRegistro), coalesce(sum(v.total), 0)
+            select year(v.fechaRegistro), month(v.fechaRegistro), coalesce(sum(cast(round(cast(v.total as Double) * 100, 0) as Long)), 0)
             from Venta v
             where v.fechaRegistro >= :inicio
               and v.activa = true
@@ -77,19 +68,45 @@ public interface VentaRepository extends JpaRepository<Venta, Long>, JpaSpecific
             """)
     List<Object[]> sumVentasMensualesDesde(@Param("inicio") LocalDateTime inicio);
 
+    /**
+     * Id, nombre, cantidad de ventas y total comprado en centavos de cada cliente.
+     */
     @Query("""
-            select v.cliente.id, v.cliente.nombre, count(v), sum(v.total)
+            select v.cliente.id, v.cliente.nombre, count(v), sum(cast(round(cast(v.total as Double) * 100, 0) as Long))
             from Venta v
             where (:inicio is null or v.fechaRegistro >= :inicio)
               and (:fin is null or v.fechaRegistro <= :fin)
               and v.activa = true
             group by v.cliente.id, v.cliente.nombre
-            order by sum(v.total) desc
+            order by sum(cast(round(cast(v.total as Double) * 100, 0) as Long)) desc
             """)
     List<Object[]> findTopClients(@Param("inicio") LocalDateTime inicio,
                                   @Param("fin") LocalDateTime fin,
                                   Pageable pageable);
 
+    /**
+     * Serie diaria leída del detalle de las ventas activas registradas en {@code [inicio, fin)}. Se usa
+     * para los días que todavía no están cerrados y para combinar filtros de varias dimensiones.
+     */
+    @Query("""
+            select cast(v.fechaRegistro as LocalDate) as dia, sum(cast(round(cast(dv.subtotal as Double) * 100, 0) as Long)) as totalCentavos,
+                   sum(cast(dv.cantidad as Long)) as unidades
+            from DetalleVenta dv
+            join dv.venta v
+            join dv.producto p
+            where v.activa = true
+              and v.fechaRegistro >= :inicio and v.fechaRegistro < :fin
+              and (:producto is null or lower(p.nombre) = :producto)
+              and (:clienteId is null or v.cliente.id = :clienteId)
+              and (:usuarioId is null or v.usuario.id = :usuarioId)
+            group by cast(v.fechaRegistro as LocalDate)
+            """)
+    List<VentaSerieDia> sumarSerie(@Param("inicio") LocalDateTime inicio,
+                                   @Param("fin") LocalDateTime fin,
+                                   @Param("producto") String producto,
+                                   @Param("clienteId") Long clienteId,
+                                   @Param("usuarioId") Long usuarioId);
+
 
     @Query("""
             select v
@@ -0,0 +1,16 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.Dinero;
+import java.time.LocalDate;
+
+public interface VentaSerieDia {
+    LocalDate getDia();
+
+    Long getTotalCentavos();
+
+    Long getUnidades();
+
+    default Dinero total() {
+        return Dinero.deCentavos(getTotalCentavos());
+    }
+}
@@ -0,0 +1,18 @@
+package com.SICOIL.repositories;
+
+import com.SICOIL.models.Dinero;
+
+public interface VentaTotalesPeriodo {
+    Long getTotalVentasCentavos();
+    Long getGananciaCentavos();
+    Double getUnidades();
+    Double getCajas();
+
+    default Dinero totalVentas() {
+        return Dinero.deCentavos(getTotalVentasCentavos());
+    }
+
+    default Dinero ganancia() {
+        return Dinero.deCentavos(getGananciaCentavos());
+    }
+}
@@ -1,15 +1,20 @@
 package com.SICOIL.services;
 
 import com.SICOIL.dtos.producto.IngresoProductoRequest;
+import com.SICOIL.models.Dinero;
 import com.SICOIL.models.MovimientoTipo;
 import com.SICOIL.models.Producto;
 import com.SICOIL.repositories.ProductoIdPrecio;
 import com.SICOIL.repositories.ProductoRepository;
+import com.SICOIL.services.capital.CapitalModificadoEvent;
 import com.SICOIL.services.capital.CapitalService;
 import com.SICOIL.services.kardex.KardexService;
+import com.SICOIL.services.tablero.MovimientoTableroEvent;
+import com.SICOIL.services.tablero.TipoMovimientoTablero;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +29,7 @@ public class InventarioService {
     private final ProductoRepository productoRepository;
     private final KardexService kardexService;
     private final CapitalService capitalService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Registra la devolución de productos provenientes de una venta anulada,
@@ -62,6 +68,7 @@ public class InventarioService {
 
         Producto guardado = productoRepository.save(producto);
         kardexService.registrarMovimiento(guardado, cantidad, observacion, MovimientoTipo.ENTRADA);
+        eventPublisher.publishEvent(new CapitalModificadoEvent());
         return guardado;
     }
 
@@ -129,6 +136,8 @@ public class InventarioService {
 
         Producto guardado = productoRepository.save(producto);
         kardexService.registrarMovimiento(guardado, cantidad, observacion, tipoFinal);
+        // El stock cambia sin movimiento de capital; el total de inventario del resumen debe recalcularse
+        eventPublisher.publishEvent(new CapitalModificadoEvent());
 
         return guardado;
     }
@@ -168,23 +177,40 @@ public class InventarioService {
         Producto productoDb = productoRepository.findFirstByNombreIgnoreCase(request.getNombreProducto())
                 .orElseThrow(() -> new EntityNotFoundException("Producto base no encontrado"));
 
-        Producto productoNuevoPrecio = Producto.builder()
-                .nombre(productoDb.getNombre())
-                .precioCompra(request.getPrecioCompra())
-                .cantidadPorCajas(productoDb.getCantidadPorCajas())
-                .stock(request.getCantidad())
-                .comentario(request.getComentario())
-                .build();
+        Dinero precioCompra = Dinero.de(request.getPrecioCompra());
+        Producto mismoPrecio = productoRepository.findAllByNombreIgnoreCase(request.getNombreProducto()).stream()
+                .filter(variante -> precioCompra.equals(variante.getPrecioCompra()))
+                .findFirst()
+                .orElse(null);
+
+        Producto guardado;
+        if (mismoPrecio != null) {
+            int stockActual = mismoPrecio.getStock() != null ? mismoPrecio.getStock() : 0;
+            mismoPrecio.setStock(stockActual + request.getCantidad());
+            guardado = productoRepository.save(mismoPrecio);
+            log.info("Incrementado stock del producto {} en {} unidades", guardado.getId(), request.getCantidad());
+        } else {
+            Producto productoNuevoPrecio = Producto.builder()
+                    .nombre(productoDb.getNombre())
+                    .precioCompra(precioCompra)
+                    .cantidadPorCajas(productoDb.getCantidadPorCajas())
+                    .stock(request.getCantidad())
+                    .comentario(request.getComentario())
+                    .build();
+            guardado = productoRepository.save(productoNuevoPrecio);
+            log.info("Creado producto {} por nuevo precio {} con stock {}", guardado.getId(), request.getPrecioCompra(), request.getCantidad());
+        }
 
-        Producto guardado = productoRepository.save(productoNuevoPrecio);
         kardexService.registrarMovimiento(guardado, request.getCantidad(), request.getComentario(), MovimientoTipo.ENTRADA);
         capitalService.registrarIngresoInventario(
                 guardado,
-                request.getPrecioCompra(),
+                precioCompra,
                 request.getCantidad(),
-                "Ingreso de " + request.getCantidad() + " de " + productoDb.getNombre() + " con nuevo precio: " + (int)request.getPrecioCompra()
+                "Ingreso de " + request.getCantidad() + " de " + productoDb.getNombre() + " con precio: " + (int)request.getPrecioCompra()
         );
-        log.info("Creado producto {} por nuevo precio {} con stock {}", guardado.getId(), request.getPrecioCompra(), request.getCantidad());
+        eventPublisher.publishEvent(new MovimientoTableroEvent(TipoMovimientoTablero.INGRESO_INVENTARIO, guardado.getId(),
+                null, precioCompra.multiplicar(request.getCantidad()).aDouble(),
+                "Ingreso de " + request.getCantidad() + " de " + productoDb.getNombre()));
         return guardado;
     }
 
@@ -213,8 +239,8 @@ public class InventarioService {
         }
         log.info("Registrando movimiento de stock inicial para producto {} cantidad {}", producto.getId(), stockInicial);
         kardexService.registrarMovimiento(producto, stockInicial, observacion, MovimientoTipo.ENTRADA);
-        Double costoUnitario = producto.getPrecioCompra();
-        if (costoUnitario != null && costoUnitario > 0) {
+        Dinero costoUnitario = producto.getPrecioCompra();
+        if (costoUnitario != null && costoUnitario.esPositivo()) {
             capitalService.registrarIngresoInventario(
                     producto,
                     costoUnitario,
@@ -0,0 +1,9 @@
+package com.SICOIL.services.capital;
+
+/**
+ * Se publica cada vez que se registran movimientos de capital, se recalculan totales diarios ya
+ * cerrados o cambia el inventario sin movimiento de capital (salidas, devoluciones y ediciones de
+ * producto), para que los resúmenes en caché se descarten cuando la transacción se confirma.
+ */
+public record CapitalModificadoEvent() {
+}
@@ -0,0 +1,315 @@
+package com.SICOIL.services.capital;
+
+import com.SICOIL.dtos.capital.CapitalClienteResumen;
+import com.SICOIL.dtos.capital.CapitalProductoResumen;
+import com.SICOIL.dtos.capital.CapitalResumenResponse;
+import com.SICOIL.dtos.capital.CapitalVentaMensual;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.repositories.CapitalMovimientoRepository;
+import com.SICOIL.repositories.CapitalTotalesPeriodo;
+import com.SICOIL.repositories.CarteraMovimientoRepository;
+import com.SICOIL.repositories.ClienteSaldoRepository;
+import com.SICOIL.repositories.ProductoRepository;
+import com.SICOIL.repositories.ResumenDiarioRepository;
+import com.SICOIL.repositories.ResumenDiarioTotales;
+import com.SICOIL.repositories.VentaRepository;
+import com.SICOIL.repositories.VentaTotalesPeriodo;
+import com.SICOIL.services.cartera.CarteraModificadaEvent;
+import com.SICOIL.services.venta.VentaRankingService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.annotation.Timed;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Arma el resumen financiero del tablero de capital. Las consultas que lo componen son
+ * independientes entre sí, por lo que se lanzan a la vez en un ejecutor acotado y la latencia
+ * del resumen queda determinada por la consulta más lenta. Los totales de los días ya cerrados
+ * se leen de {@code resumen_diario}; solo los días posteriores al último cierre se calculan
+ * desde los movimientos.
+ */
+@Service
+@Slf4j
+public class CapitalResumenService {
+
+    private static final int TOP_RESUMEN = 5;
+
+    private final CapitalMovimientoRepository capitalMovimientoRepository;
+    private final CarteraMovimientoRepository carteraMovimientoRepository;
+    private final ClienteSaldoRepository clienteSaldoRepository;
+    private final VentaRepository ventaRepository;
+    private final ProductoRepository productoRepository;
+    private final ResumenDiarioRepository resumenDiarioRepository;
+    private final VentaRankingService ventaRankingService;
+    private final Executor resumenExecutor;
+    private final AsyncCache<ClaveResumen, CapitalResumenResponse> cache;
+
+    public CapitalResumenService(CapitalMovimientoRepository capitalMovimientoRepository,
+                                 CarteraMovimientoRepository carteraMovimientoRepository,
+                                 ClienteSaldoRepository clienteSaldoRepository,
+                                 VentaRepository ventaRepository,
+                                 ProductoRepository productoRepository,
+                                 ResumenDiarioRepository resumenDiarioRepository,
+                                 VentaRankingService ventaRankingService,
+                                 @Qualifier("resumenExecutor") Executor resumenExecutor,
+                                 @Value("${sicoil.capital.resumen.cache.ttl-abierto-segundos:30}") long ttlAbiertoSegundos,
+                                 @Value("${sicoil.capital.resumen.cache.ttl-cerrado-minutos:60}") long ttlCerradoMinutos,
+                                 @Value("${sicoil.capital.resumen.cache.max-entradas:200}") long maxEntradas) {
+        this.capitalMovimientoRepository = capitalMovimientoRepository;
+        this.carteraMovimientoRepository = carteraMovimientoRepository;
+        this.clienteSaldoRepository = clienteSaldoRepository;
+        this.ventaRepository = ventaRepository;
+        this.productoRepository = productoRepository;
+        this.resumenDiarioRepository = resumenDiarioRepository;
+        this.ventaRankingService = ventaRankingService;
+        this.resumenExecutor = resumenExecutor;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new VigenciaResumen(
+                        Duration.ofSeconds(ttlAbiertoSegundos), Duration.ofMinutes(ttlCerradoMinutos)))
+                .buildAsync();
+    }
+
+    /**
+     * Consolida un resumen financiero con saldos, entradas, salidas, créditos pendientes y ganancias.
+     * Si se especifica un rango de fechas, el saldo real se recalcula considerando únicamente los
+     * movimientos líquidos dentro de ese intervalo; el saldo pendiente y el inventario siempre se
+     * basan en el estado actual del sistema.
+     *
+     * <p>No abre una transacción propia: cada consulta se ejecuta en su propia conexión dentro del
+     * ejecutor, así que el resumen no es una foto atómica de la base de datos, lo que es aceptable
+     * para un tablero.
+     *
+     * <p>El resultado se conserva en caché por rango: poco tiempo si el rango incluye el día de hoy y
+     * más si es un rango cerrado. Solicitudes simultáneas del mismo rango esperan un único cálculo, que
+     * se hace en el hilo de la primera. Cualquier {@link CapitalModificadoEvent} o
+     * {@link CarteraModificadaEvent} confirmado descarta todo el contenido, porque el saldo pendiente y
+     * el inventario forman parte de cada resumen sin importar el rango.
+     *
+     * @param desde fecha inicial (inclusive) para filtrar el saldo real; opcional
+     * @param hasta fecha final (inclusive) para filtrar el saldo real; opcional
+     * @return instancia de {@link CapitalResumenResponse} con los totales calculados
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = "sicoil.capital.resumen", histogram = true)
+    public CapitalResumenResponse obtenerResumen(LocalDate desde, LocalDate hasta) {
+        ClaveResumen clave = new ClaveResumen(desde, hasta);
+        CompletableFuture<CapitalResumenResponse> calculo = new CompletableFuture<>();
+        CompletableFuture<CapitalResumenResponse> existente = cache.asMap().putIfAbsent(clave, calculo);
+        if (existente != null) {
+            return esperar(existente);
+        }
+        try {
+            CapitalResumenResponse resumen = calcular(desde, hasta);
+            calculo.complete(resumen);
+            return resumen;
+        } catch (RuntimeException ex) {
+            calculo.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @TransactionalEventListener
+    public void invalidar(CapitalModificadoEvent evento) {
+        cache.synchronous().invalidateAll();
+    }
+
+    @TransactionalEventListener
+    public void invalidar(CarteraModificadaEvent evento) {
+        cache.synchronous().invalidateAll();
+    }
+
+    private CapitalResumenResponse calcular(LocalDate desde, LocalDate hasta) {
+        LocalDateTime inicio = desde != null ? desde.atStartOfDay() : null;
+        LocalDateTime fin = hasta != null ? hasta.atTime(23, 59, 59) : null;
+        LocalDate primerMes = LocalDate.now().minusMonths(5).withDayOfMonth(1);
+
+        // Los días hasta el último cierre se suman desde resumen_diario; el resto, desde los movimientos.
+        LocalDate ultimoCerrado = resumenDiarioRepository.findUltimoDiaCerrado();
+        boolean usaCierres = ultimoCerrado != null && (desde == null || !desde.isAfter(ultimoCerrado));
+        LocalDate hastaCierres = hasta != null && ultimoCerrado != null && hasta.isBefore(ultimoCerrado)
+                ? hasta
+                : ultimoCerrado;
+        boolean usaMovimientos = ultimoCerrado == null || hasta == null || hasta.isAfter(ultimoCerrado);
+        LocalDateTime inicioMovimientos = posterior(inicio, ultimoCerrado);
+        LocalDateTime inicioMensualMovimientos = posterior(primerMes.atStartOfDay(), ultimoCerrado);
+
+        CompletableFuture<Totales> cierres = usaCierres
+                ? enParalelo(() -> Totales.de(resumenDiarioRepository.totalizar(desde, hastaCierres)))
+                : CompletableFuture.completedFuture(Totales.CERO);
+        CompletableFuture<CapitalTotalesPeriodo> capital = usaMovimientos
+                ? enParalelo(() -> capitalMovimientoRepository.totalizarPeriodo(inicioMovimientos, fin))
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<VentaTotalesPeriodo> ventas = usaMovimientos
+                ? enParalelo(() -> ventaRepository.totalizarPeriodo(inicioMovimientos, fin))
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<Dinero> abonos = usaMovimientos
+                ? enParalelo(() -> carteraMovimientoRepository.sumAbonosBetween(inicioMovimientos, fin))
+                : CompletableFuture.completedFuture(Dinero.CERO);
+        CompletableFuture<Dinero> creditos = usaMovimientos
+                ? enParalelo(() -> carteraMovimientoRepository.sumCreditosBetween(inicioMovimientos, fin))
+                : CompletableFuture.completedFuture(Dinero.CERO);
+        CompletableFuture<Dinero> pendientes = enParalelo(clienteSaldoRepository::sumSaldoPendiente);
+        CompletableFuture<Dinero> inventario = enParalelo(productoRepository::sumValorInventario);
+        CompletableFuture<List<CapitalProductoResumen>> productos =
+                enParalelo(() -> ventaRankingService.topProductos(desde, hasta, TOP_RESUMEN, false));
+        CompletableFuture<List<CapitalClienteResumen>> clientes =
+                enParalelo(() -> ventaRankingService.topClientes(desde, hasta, TOP_RESUMEN, false));
+        CompletableFuture<List<Object[]>> mensualesCierres = ultimoCerrado != null
+                ? enParalelo(() -> resumenDiarioRepository.sumVentasMensualesDesde(primerMes))
+                : CompletableFuture.completedFuture(List.of());
+        CompletableFuture<List<Object[]>> mensualesMovimientos =
+                enParalelo(() -> ventaRepository.sumVentasMensualesDesde(inicioMensualMovimientos));
+
+        Totales totales = esperar(cierres).sumar(
+                Totales.de(esperar(capital), esperar(ventas), esperar(abonos), esperar(creditos)));
+        Dinero pendiente = esperar(pendientes);
+        Dinero totalInventario = esperar(inventario);
+        List<Object[]> mensuales = new ArrayList<>(esperar(mensualesCierres));
+        mensuales.addAll(esperar(mensualesMovimientos));
+
+        return CapitalResumenResponse.builder()
+                .saldoReal(totales.saldoReal().aDouble())
+                .totalEntradas(totales.entradas().aDouble())
+                .totalSalidas(Math.abs(totales.compras().aDouble()))
+                .totalCreditoPendiente(pendiente.aDouble())
+                .totalCredito(totales.creditos().aDouble())
+                .capitalNeto(totales.saldoReal().sumar(pendiente).sumar(totalInventario).aDouble())
+                .totalGanancias(totales.ganancia().aDouble())
+                .totalAbonos(totales.abonos().aDouble())
+                .totalInventario(totalInventario.aDouble())
+                .totalUnidadesVendidas(totales.unidades())
+                .totalCajasVendidas(totales.cajas())
+                .topProductos(esperar(productos))
+                .topClientes(esperar(clientes))
+                .ventasMensuales(construirSerieVentasMensuales(mensuales, primerMes))
+                .build();
+    }
+
+    private LocalDateTime posterior(LocalDateTime inicio, LocalDate ultimoCerrado) {
+        if (ultimoCerrado == null) {
+            return inicio;
+        }
+        LocalDateTime siguienteDia = ultimoCerrado.plusDays(1).atStartOfDay();
+        return inicio != null && inicio.isAfter(siguienteDia) ? inicio : siguienteDia;
+    }
+
+    private <T> CompletableFuture<T> enParalelo(Supplier<T> consulta) {
+        return CompletableFuture.supplyAsync(consulta, resumenExecutor);
+    }
+
+    private <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw ex;
+        }
+    }
+
+    private List<CapitalVentaMensual> construirSerieVentasMensuales(List<Object[]> registros, LocalDate primerMes) {
+        Map<YearMonth, Dinero> totalesPorMes = new HashMap<>();
+
+        for (Object[] registro : registros) {
+            int anio = registro[0] instanceof Number ? ((Number) registro[0]).intValue() : primerMes.getYear();
+            int mes = registro[1] instanceof Number ? ((Number) registro[1]).intValue() : primerMes.getMonthValue();
+            Dinero total = Dinero.deCentavos((Number) registro[2]);
+            YearMonth clave = YearMonth.of(anio, mes);
+            totalesPorMes.merge(clave, total, Dinero::sumar);
+        }
+
+        List<CapitalVentaMensual> serie = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            LocalDate fechaMes = primerMes.plusMonths(i);
+            YearMonth yearMonth = YearMonth.from(fechaMes);
+            Dinero total = totalesPorMes.getOrDefault(yearMonth, Dinero.CERO);
+            serie.add(CapitalVentaMensual.builder()
+                    .mes(yearMonth.toString())
+                    .total(total.aDouble())
+                    .build());
+        }
+        return serie;
+    }
+
+    private static double defaultValue(Number valor) {
+        return valor != null ? valor.doubleValue() : 0d;
+    }
+
+    private record ClaveResumen(LocalDate desde, LocalDate hasta) {
+
+        boolean incluyeHoy() {
+            return hasta == null || !hasta.isBefore(LocalDate.now());
+        }
+    }
+
+    private record VigenciaResumen(Duration abierto, Duration cerrado)
+            implements Expiry<ClaveResumen, CapitalResumenResponse> {
+
+        @Override
+        public long expireAfterCreate(ClaveResumen clave, CapitalResumenResponse valor, long tiempoActual) {
+            return (clave.incluyeHoy() ? abierto : cerrado).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(ClaveResumen clave, CapitalResumenResponse valor, long tiempoActual,
+                                      long duracionRestante) {
+            return expireAfterCreate(clave, valor, tiempoActual);
+        }
+
+        @Override
+        public long expireAfterRead(ClaveResumen clave, CapitalResumenResponse valor, long tiempoActual,
+                                    long duracionRestante) {
+            return duracionRestante;
+        }
+    }
+
+    private record Totales(Dinero saldoReal, Dinero entradas, Dinero compras, Dinero totalVentas,
+                           Dinero ganancia, double unidades, double cajas, Dinero abonos, Dinero creditos) {
+
+        static final Totales CERO = new Totales(Dinero.CERO, Dinero.CERO, Dinero.CERO, Dinero.CERO,
+                Dinero.CERO, 0, 0, Dinero.CERO, Dinero.CERO);
+
+        static Totales de(ResumenDiarioTotales cierres) {
+            return new Totales(cierres.saldoReal(), cierres.entradas(), cierres.compras(), cierres.totalVentas(),
+                    cierres.ganancia(), defaultValue(cierres.getUnidades()), defaultValue(cierres.getCajas()),
+                    cierres.abonos(), cierres.creditos());
+        }
+
+        static Totales de(CapitalTotalesPeriodo capital, VentaTotalesPeriodo ventas, Dinero abonos, Dinero creditos) {
+            if (capital == null || ventas == null) {
+                return CERO;
+            }
+            return new Totales(capital.saldoReal(), capital.entradas(), capital.compras(), ventas.totalVentas(),
+                    ventas.ganancia(), defaultValue(ventas.getUnidades()), defaultValue(ventas.getCajas()),
+                    abonos, creditos);
+        }
+
+        Totales sumar(Totales otro) {
+            return new Totales(saldoReal.sumar(otro.saldoReal), entradas.sumar(otro.entradas),
+                    compras.sumar(otro.compras), totalVentas.sumar(otro.totalVentas), ganancia.sumar(otro.ganancia),
+                    unidades + otro.unidades, cajas + otro.cajas, abonos.sumar(otro.abonos),
+                    creditos.sumar(otro.creditos));
+        }
+    }
+}
@@ -1,38 +1,42 @@
 package com.SICOIL.services.capital;
 
 import com.SICOIL.dtos.capital.CapitalMovimientoFiltro;
-import com.SICOIL.dtos.capital.CapitalClienteResumen;
 import com.SICOIL.dtos.capital.CapitalMovimientoResponse;
-import com.SICOIL.dtos.capital.CapitalProductoResumen;
-import com.SICOIL.dtos.capital.CapitalResumenResponse;
-import com.SICOIL.dtos.capital.CapitalVentaMensual;
+import com.SICOIL.dtos.consulta.TotalAproximadoResponse;
 import com.SICOIL.mappers.capital.CapitalMovimientoMapper;
 import com.SICOIL.models.CapitalMovimiento;
 import com.SICOIL.models.CapitalOrigen;
 import com.SICOIL.models.Cartera;
+import com.SICOIL.models.Dinero;
 import com.SICOIL.models.Producto;
 import com.SICOIL.models.TipoVenta;
 import com.SICOIL.models.Usuario;
 import com.SICOIL.models.Venta;
 import com.SICOIL.repositories.CapitalMovimientoRepository;
-import com.SICOIL.repositories.CarteraRepository;
-import com.SICOIL.repositories.CarteraMovimientoRepository;
-import com.SICOIL.repositories.ProductoRepository;
-import com.SICOIL.repositories.VentaRepository;
+import com.SICOIL.repositories.MovimientoLoteRepository;
+import com.SICOIL.services.consulta.SliceConsultaEjecutor;
+import com.SICOIL.services.consulta.TotalAproximadoService;
+import com.SICOIL.services.exportacion.ColumnaCsv;
+import com.SICOIL.services.exportacion.CsvExportador;
+import com.SICOIL.services.tablero.MovimientoTableroEvent;
+import com.SICOIL.services.tablero.TipoMovimientoTablero;
 import com.SICOIL.services.usuario.UsuarioService;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.criteria.JoinType;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,12 +48,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class CapitalService {
 
     private final CapitalMovimientoRepository capitalMovimientoRepository;
-    private final CarteraRepository carteraRepository;
-    private final CarteraMovimientoRepository carteraMovimientoRepository;
-    private final VentaRepository ventaRepository;
     private final UsuarioService usuarioService;
     private final CapitalMovimientoMapper capitalMovimientoMapper;
-    private final ProductoRepository productoRepository;
+    private final CsvExportador csvExportador;
+    private final MovimientoLoteRepository movimientoLoteRepository;
+    private final SliceConsultaEjecutor sliceConsultaEjecutor;
+    private final TotalAproximadoService totalAproximadoService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     /**
@@ -78,17 +83,17 @@ public class CapitalService {
      * @throws IllegalArgumentException si el costo unitario es negativo o la cantidad no es válida
      */
     public void registrarIngresoInventario(Producto producto,
-                                           double costoUnitario,
+                                           Dinero costoUnitario,
                                            int cantidad,
                                            String referencia) {
         if (producto == null || producto.getId() == null) {
             throw new EntityNotFoundException("El producto es obligatorio para registrar el movimiento de capital.");
         }
-        if (costoUnitario < 0 || cantidad <= 0) {
+        if (costoUnitario == null || costoUnitario.centavos() < 0 || cantidad <= 0) {
             throw new IllegalArgumentException("El costo unitario debe ser positivo y la cantidad mayor a cero.");
         }
-        double total = costoUnitario * cantidad;
-        if (total == 0) {
+        Dinero total = costoUnitario.multiplicar(cantidad);
+        if (!total.esPositivo()) {
             log.debug("Ingreso de inventario sin costo para producto {}", producto.getId());
             return;
         }
@@ -99,7 +104,7 @@ public class CapitalService {
         registrarMovimiento(
                 CapitalOrigen.COMPRA,
                 producto.getId(),
-                -total,
+                total.negar(),
                 false,
                 descripcion,
                 usuario
@@ -127,7 +132,7 @@ public class CapitalService {
         if (venta.getTipoVenta() != TipoVenta.CONTADO) {
             throw new IllegalArgumentException("La venta debe ser de contado para registrar este movimiento.");
         }
-        double total = venta.getTotal();
+        Dinero total = venta.getTotal();
         Usuario usuario = obtenerUsuarioMovimiento();
         registrarMovimiento(
                 CapitalOrigen.VENTA,
@@ -161,7 +166,7 @@ public class CapitalService {
         if (venta.getTipoVenta() != TipoVenta.CREDITO) {
             throw new IllegalArgumentException("La venta debe ser a crédito para registrar el movimiento.");
         }
-        double total = venta.getTotal();
+        Dinero total = venta.getTotal();
         Usuario usuario = obtenerUsuarioMovimiento();
         registrarMovimiento(
                 CapitalOrigen.VENTA,
@@ -201,26 +206,45 @@ public class CapitalService {
      * @throws IllegalArgumentException si la cartera no es válida o si el monto es menor o igual a cero
      */
     public void registrarAbonoCartera(Cartera cartera, double monto, String descripcion) {
-        if (cartera == null || cartera.getId() == null) {
-            throw new IllegalArgumentException("La cartera es obligatoria para registrar el abono.");
-        }
-        if (monto <= 0) {
-            throw new IllegalArgumentException("El monto del abono debe ser mayor a cero.");
-        }
-        Venta venta = cartera.getVenta();
-        Long referenciaId = venta != null ? venta.getId() : cartera.getId();
-        String detalle = (descripcion != null && !descripcion.isBlank()
-                ? descripcion.trim()
-                : cartera.getCliente().getNombre());
+        registrarAbonosCartera(List.of(new AbonoCartera(cartera, Dinero.de(monto), descripcion)));
+    }
+
+    /**
+     * Registra en capital varios abonos aplicados a carteras en una sola inserción por lotes.
+     * Cada abono se valida y se describe igual que en {@link #registrarAbonoCartera}.
+     *
+     * @param abonos abonos aplicados, uno por cartera afectada
+     * @throws IllegalArgumentException si alguna cartera no es válida o algún monto es menor o igual a cero
+     */
+    public void registrarAbonosCartera(List<AbonoCartera> abonos) {
         Usuario usuario = obtenerUsuarioMovimiento();
-        registrarMovimiento(
-                CapitalOrigen.ABONO,
-                referenciaId,
-                monto,
-                false,
-                detalle,
-                usuario
-        );
+        List<CapitalMovimiento> movimientos = new ArrayList<>(abonos.size());
+        for (AbonoCartera abono : abonos) {
+            Cartera cartera = abono.cartera();
+            if (cartera == null || cartera.getId() == null) {
+                throw new IllegalArgumentException("La cartera es obligatoria para registrar el abono.");
+            }
+            if (abono.monto() == null || !abono.monto().esPositivo()) {
+                throw new IllegalArgumentException("El monto del abono debe ser mayor a cero.");
+            }
+            Venta venta = cartera.getVenta();
+            Long referenciaId = venta != null ? venta.getId() : cartera.getId();
+            String descripcion = abono.descripcion();
+            String detalle = (descripcion != null && !descripcion.isBlank()
+                    ? descripcion.trim()
+                    : cartera.getCliente().getNombre());
+            movimientos.add(CapitalMovimiento.builder()
+                    .origen(CapitalOrigen.ABONO)
+                    .referenciaId(referenciaId)
+                    .monto(abono.monto())
+                    .esCredito(false)
+                    .descripcion(detalle)
+                    .usuario(usuario)
+                    .build());
+        }
+        log.info("Registrando {} movimientos de capital por abonos de cartera", movimientos.size());
+        movimientoLoteRepository.insertarMovimientosCapital(movimientos);
+        eventPublisher.publishEvent(new CapitalModificadoEvent());
     }
 
     /**
@@ -232,11 +256,11 @@ public class CapitalService {
      * @param monto monto del abono que se está eliminando
      * @param descripcion motivo detallado de la eliminación; puede ser {@code null}
      */
-    public void revertirAbonoCartera(Cartera cartera, double monto, String descripcion) {
+    public void revertirAbonoCartera(Cartera cartera, Dinero monto, String descripcion) {
         if (cartera == null || cartera.getId() == null) {
             throw new IllegalArgumentException("La cartera es obligatoria para revertir el abono.");
         }
-        if (monto <= 0) {
+        if (monto == null || !monto.esPositivo()) {
             throw new IllegalArgumentException("El monto del abono a revertir debe ser mayor a cero.");
         }
         Venta venta = cartera.getVenta();
@@ -248,7 +272,7 @@ public class CapitalService {
         registrarMovimiento(
                 CapitalOrigen.ABONO,
                 referenciaId,
-                -monto,
+                monto.negar(),
                 false,
                 detalle,
                 usuario
@@ -277,13 +301,13 @@ public class CapitalService {
      */
     public void revertirVenta(Venta venta) {
         validarVenta(venta);
-        double total = venta.getTotal();
+        Dinero total = venta.getTotal();
         Usuario usuario = obtenerUsuarioMovimiento();
         if (venta.getTipoVenta() == TipoVenta.CONTADO) {
             registrarMovimiento(
                     CapitalOrigen.VENTA,
                     venta.getId(),
-                    -total,
+                    total.negar(),
                     false,
                     "Reverso venta contado #" + venta.getId(),
                     usuario
@@ -293,7 +317,7 @@ public class CapitalService {
         registrarMovimiento(
                 CapitalOrigen.VENTA,
                 venta.getId(),
-                -total,
+                total.negar(),
                 true,
                 "Reverso venta crédito #" + venta.getId(),
                 usuario
@@ -331,11 +355,13 @@ public class CapitalService {
         CapitalMovimiento movimiento = registrarMovimiento(
                 CapitalOrigen.INYECCION,
                 null,
-                monto,
+                Dinero.de(monto),
                 false,
                 detalle,
                 usuario
         );
+        eventPublisher.publishEvent(new MovimientoTableroEvent(TipoMovimientoTablero.INYECCION_CAPITAL,
+                movimiento.getId(), null, monto, detalle));
         return capitalMovimientoMapper.toResponse(movimiento);
     }
 
@@ -350,11 +376,13 @@ public class CapitalService {
         CapitalMovimiento movimiento = registrarMovimiento(
                 CapitalOrigen.RETIROGANANCIA,
                 null,
-                -monto,
+                Dinero.de(monto).negar(),
                 false,
                 detalle,
                 usuario
         );
+        eventPublisher.publishEvent(new MovimientoTableroEvent(TipoMovimientoTablero.RETIRO_CAPITAL,
+                movimiento.getId(), null, -monto, detalle));
         return capitalMovimientoMapper.toResponse(movimiento);
     }
 
@@ -369,156 +397,77 @@ public class CapitalService {
      */
     @Transactional(readOnly = true)
     public Page<CapitalMovimientoResponse> obtenerMovimientos(CapitalMovimientoFiltro filtro, Pageable pageable) {
-        Specification<CapitalMovimiento> spec = CapitalMovimientoSpecification.conFiltros(
-                filtro != null ? filtro.getOrigen() : null,
-                filtro != null ? filtro.getEsCredito() : null,
-                filtro != null ? filtro.getReferenciaId() : null,
-                filtro != null ? filtro.getDescripcion() : null,
-                filtro != null ? filtro.getDesde() : null,
-                filtro != null ? filtro.getHasta() : null
-        );
-        return capitalMovimientoRepository.findAll(spec, pageable)
+        return capitalMovimientoRepository.findAll(construirSpec(filtro), pageable)
                 .map(capitalMovimientoMapper::toResponse);
     }
 
     /**
-     * Consolida un resumen financiero con saldos, entradas, salidas, créditos pendientes y ganancias.
-     * Si se especifica un rango de fechas, el saldo real se recalcula considerando únicamente los
-     * movimientos líquidos dentro de ese intervalo; las otras métricas siempre se basan en el estado
-     * completo del sistema.
+     * Variante de {@link #obtenerMovimientos} que devuelve un {@link Slice} sin ejecutar el conteo
+     * total de registros.
      *
-     * @param desde fecha inicial (inclusive) para filtrar el saldo real; opcional
-     * @param hasta fecha final (inclusive) para filtrar el saldo real; opcional
-     * @return instancia de {@link CapitalResumenResponse} con los totales calculados
+     * @param filtro criterios opcionales de búsqueda
+     * @param pageable página, tamaño y ordenamiento solicitados
+     * @return porción de movimientos con el indicador de página siguiente
      */
     @Transactional(readOnly = true)
-    public CapitalResumenResponse obtenerResumen(LocalDate desde, LocalDate hasta) {
-        LocalDateTime inicio = desde != null ? desde.atStartOfDay() : null;
-        LocalDateTime fin = hasta != null ? hasta.atTime(23, 59, 59) : null;
-        boolean filtrarPorRango = inicio != null || fin != null;
-
-        double saldoReal = filtrarPorRango
-                ? defaultValue(capitalMovimientoRepository.sumMontoRealBetween(inicio, fin))
-                : defaultValue(capitalMovimientoRepository.sumMontoReal());
-        double entradas = filtrarPorRango
-                ? defaultValue(capitalMovimientoRepository.sumEntradasBetween(inicio, fin))
-                : defaultValue(capitalMovimientoRepository.sumEntradas());
-        double totalCompras = filtrarPorRango
-                ? defaultValue(capitalMovimientoRepository.sumComprasBetween(inicio, fin))
-                : defaultValue(capitalMovimientoRepository.sumCompras());
-        double salidas = Math.abs(totalCompras);
-        double pendientes = carteraRepository.findAll().stream()
-                .mapToDouble(c -> c.getSaldo() != null ? c.getSaldo() : 0d)
-                .sum();
-        double totalInventario = defaultValue(productoRepository.sumValorInventario());
-        double ganancias = defaultValue(ventaRepository.sumGananciaBetween(inicio, fin));
-        double totalAbonos = defaultValue(carteraMovimientoRepository.sumAbonosBetween(inicio, fin));
-        double totalCreditosOtorgados = defaultValue(carteraMovimientoRepository.sumCreditosBetween(inicio, fin));
-        double totalUnidadesVendidas = defaultValue(ventaRepository.sumCantidadVendida(inicio, fin));
-        double totalCajasVendidas = defaultValue(ventaRepository.sumCajasVendidas(inicio, fin));
-        double totalVentasPeriodo = defaultValue(ventaRepository.sumTotalVentas(inicio, fin));
-        List<CapitalProductoResumen> topProductos = construirTopProductos(inicio, fin, totalUnidadesVendidas);
-        List<CapitalClienteResumen> topClientes = construirTopClientes(inicio, fin, totalVentasPeriodo);
-        List<CapitalVentaMensual> ventasMensuales = construirSerieVentasMensuales();
-
-        return CapitalResumenResponse.builder()
-                .saldoReal(saldoReal)
-                .totalEntradas(entradas)
-                .totalSalidas(salidas)
-                .totalCreditoPendiente(pendientes)
-                .totalCredito(totalCreditosOtorgados)
-                .capitalNeto(saldoReal + pendientes + totalInventario)
-                .totalGanancias(ganancias)
-                .totalAbonos(totalAbonos)
-                .totalInventario(totalInventario)
-                .totalUnidadesVendidas(totalUnidadesVendidas)
-                .totalCajasVendidas(totalCajasVendidas)
-                .topProductos(topProductos)
-                .topClientes(topClientes)
-                .ventasMensuales(ventasMensuales)
-                .build();
+    public Slice<CapitalMovimientoResponse> obtenerMovimientosSlice(CapitalMovimientoFiltro filtro, Pageable pageable) {
+        return sliceConsultaEjecutor.buscar(CapitalMovimiento.class, construirSpec(filtro), pageable)
+                .map(capitalMovimientoMapper::toResponse);
     }
 
-    private List<CapitalProductoResumen> construirTopProductos(LocalDateTime inicio,
-                                                               LocalDateTime fin,
-                                                               double totalUnidadesVendidas) {
-        Pageable limite = PageRequest.of(0, 5);
-        List<Object[]> resultados = ventaRepository.findTopSellingProducts(inicio, fin, limite);
-        return resultados.stream()
-                .map(registro -> {
-                    Long productoId = registro[0] != null ? (Long) registro[0] : null;
-                    String nombre = registro[1] != null ? registro[1].toString() : "Producto";
-                    long cantidad = registro[2] instanceof Number ? ((Number) registro[2]).longValue() : 0L;
-                    double total = registro[3] instanceof Number ? ((Number) registro[3]).doubleValue() : 0d;
-                    double participacion = totalUnidadesVendidas > 0
-                            ? (cantidad / totalUnidadesVendidas) * 100
-                            : 0;
-                    return CapitalProductoResumen.builder()
-                            .productoId(productoId)
-                            .productoNombre(nombre)
-                            .cantidadVendida(cantidad)
-                            .totalVendido(total)
-                            .participacionPorcentaje(participacion)
-                            .build();
-                })
-                .toList();
+    /**
+     * Calcula de forma asíncrona el total de movimientos que cumplen el filtro. El valor se toma de
+     * caché cuando está disponible, por lo que es aproximado.
+     *
+     * @param filtro criterios opcionales de búsqueda
+     * @return futuro con el total aproximado y el momento en que se calculó
+     */
+    @Transactional(readOnly = true)
+    public CompletableFuture<TotalAproximadoResponse> contarMovimientosAproximado(CapitalMovimientoFiltro filtro) {
+        Specification<CapitalMovimiento> spec = construirSpec(filtro);
+        return totalAproximadoService.obtener(Arrays.asList("capital", filtro),
+                () -> capitalMovimientoRepository.count(spec));
     }
 
-    private List<CapitalClienteResumen> construirTopClientes(LocalDateTime inicio,
-                                                             LocalDateTime fin,
-                                                             double totalVentasPeriodo) {
-        Pageable limite = PageRequest.of(0, 5);
-        List<Object[]> resultados = ventaRepository.findTopClients(inicio, fin, limite);
-        return resultados.stream()
-                .map(registro -> {
-                    Long clienteId = registro[0] != null ? (Long) registro[0] : null;
-                    String nombre = registro[1] != null ? registro[1].toString() : "Cliente";
-                    long cantidadVentas = registro[2] instanceof Number ? ((Number) registro[2]).longValue() : 0L;
-                    double monto = registro[3] instanceof Number ? ((Number) registro[3]).doubleValue() : 0d;
-                    double participacion = totalVentasPeriodo > 0
-                            ? (monto / totalVentasPeriodo) * 100
-                            : 0;
-                    return CapitalClienteResumen.builder()
-                            .clienteId(clienteId)
-                            .clienteNombre(nombre)
-                            .totalVentas(cantidadVentas)
-                            .montoComprado(monto)
-                            .participacionPorcentaje(participacion)
-                            .build();
-                })
-                .toList();
+    /**
+     * Escribe en formato CSV los movimientos de capital que cumplen el filtro, recorriendo las
+     * filas con un cursor de solo avance para que el tamaño del rango no afecte la memoria.
+     *
+     * @param filtro criterios opcionales, los mismos de {@link #obtenerMovimientos}
+     * @param salida flujo donde se escribe el CSV
+     * @return cantidad de movimientos exportados
+     * @throws IOException si falla la escritura en el flujo de salida
+     */
+    @Transactional(readOnly = true)
+    public long exportarMovimientosCsv(CapitalMovimientoFiltro filtro, OutputStream salida) throws IOException {
+        log.info("Exportando movimientos de capital a CSV con filtro {}", filtro);
+        List<ColumnaCsv<CapitalMovimiento>> columnas = List.of(
+                ColumnaCsv.de("id", root -> root.get("id")),
+                ColumnaCsv.de("creado_en", root -> root.get("creadoEn")),
+                ColumnaCsv.de("origen", root -> root.get("origen")),
+                ColumnaCsv.de("es_credito", root -> root.get("esCredito")),
+                ColumnaCsv.de("monto", root -> root.get("monto")),
+                ColumnaCsv.de("referencia_id", root -> root.get("referenciaId")),
+                ColumnaCsv.de("descripcion", root -> root.get("descripcion")),
+                ColumnaCsv.de("usuario", root -> root.join("usuario", JoinType.LEFT).get("usuario"))
+        );
+        return csvExportador.exportar(CapitalMovimiento.class, construirSpec(filtro), columnas, salida);
     }
 
-    private List<CapitalVentaMensual> construirSerieVentasMensuales() {
-        LocalDate primerMes = LocalDate.now().minusMonths(5).withDayOfMonth(1);
-        LocalDateTime inicio = primerMes.atStartOfDay();
-        List<Object[]> registros = ventaRepository.sumVentasMensualesDesde(inicio);
-        Map<YearMonth, Double> totalesPorMes = new HashMap<>();
-
-        for (Object[] registro : registros) {
-            int anio = registro[0] instanceof Number ? ((Number) registro[0]).intValue() : primerMes.getYear();
-            int mes = registro[1] instanceof Number ? ((Number) registro[1]).intValue() : primerMes.getMonthValue();
-            double total = registro[2] instanceof Number ? ((Number) registro[2]).doubleValue() : 0d;
-            YearMonth clave = YearMonth.of(anio, mes);
-            totalesPorMes.put(clave, total);
-        }
-
-        List<CapitalVentaMensual> serie = new ArrayList<>();
-        for (int i = 0; i < 6; i++) {
-            LocalDate fechaMes = primerMes.plusMonths(i);
-            YearMonth yearMonth = YearMonth.from(fechaMes);
-            double total = totalesPorMes.getOrDefault(yearMonth, 0d);
-            serie.add(CapitalVentaMensual.builder()
-                    .mes(yearMonth.toString())
-                    .total(total)
-                    .build());
-        }
-        return serie;
+    private Specification<CapitalMovimiento> construirSpec(CapitalMovimientoFiltro filtro) {
+        return CapitalMovimientoSpecification.conFiltros(
+                filtro != null ? filtro.getOrigen() : null,
+                filtro != null ? filtro.getEsCredito() : null,
+                filtro != null ? filtro.getReferenciaId() : null,
+                filtro != null ? filtro.getDescripcion() : null,
+                filtro != null ? filtro.getDesde() : null,
+                filtro != null ? filtro.getHasta() : null
+        );
     }
 
     private CapitalMovimiento registrarMovimiento(CapitalOrigen origen,
                                                   Long referenciaId,
-                                                  double monto,
+                                                  Dinero monto,
                                                   boolean esCredito,
                                                   String descripcion,
                                                   Usuario usuario) {
@@ -532,7 +481,9 @@ public class CapitalService {
                 .build();
         log.info("Registrando movimiento de capital origen={} referencia={} monto={} esCredito={}",
                 origen, referenciaId, monto, esCredito);
-        return capitalMovimientoRepository.save(movimiento);
+        CapitalMovimiento guardado = capitalMovimientoRepository.save(movimiento);
+        eventPublisher.publishEvent(new CapitalModificadoEvent());
+        return guardado;
     }
 
     private Usuario obtenerUsuarioMovimiento() {
@@ -548,12 +499,18 @@ public class CapitalService {
         if (venta == null || venta.getId() == null) {
             throw new IllegalArgumentException("La venta es obligatoria para registrar movimientos de capital.");
         }
-        if (venta.getTotal() == null || venta.getTotal() <= 0) {
+        if (venta.getTotal() == null || !venta.getTotal().esPositivo()) {
             throw new IllegalArgumentException("La venta debe tener un total válido.");
         }
     }
 
-    private double defaultValue(Number valor) {
-        return valor != null ? valor.doubleValue() : 0d;
+    /**
+     * Abono aplicado a una cartera que debe reflejarse en capital.
+     *
+     * @param cartera cartera a la que se aplicó el abono
+     * @param monto monto aplicado
+     * @param descripcion descripción del movimiento; si está vacía se usa el nombre del cliente
+     */
+    public record AbonoCartera(Cartera cartera, Dinero monto, String descripcion) {
     }
 }
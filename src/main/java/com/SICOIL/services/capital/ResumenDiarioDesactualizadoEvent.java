@@ -0,0 +1,10 @@
+package com.SICOIL.services.capital;
+
+import java.time.LocalDate;
+
+/**
+ * Se publica cuando una operación modifica movimientos de un día anterior, por ejemplo al anular
+ * una venta o eliminar un abono, para que su fila de {@code resumen_diario} se vuelva a calcular.
+ */
+public record ResumenDiarioDesactualizadoEvent(LocalDate fecha) {
+}
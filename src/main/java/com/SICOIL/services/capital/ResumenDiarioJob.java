@@ -0,0 +1,29 @@
+package com.SICOIL.services.capital;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cierra en {@code resumen_diario} los días pendientes al arrancar la aplicación y cada madrugada.
+ * Al arrancar también completa {@code ventas_ranking} para los días cerrados antes de que existiera.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResumenDiarioJob {
+
+    private final ResumenDiarioService resumenDiarioService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        resumenDiarioService.cerrarDiasPendientes();
+        resumenDiarioService.completarVentasRanking();
+    }
+
+    @Scheduled(cron = "${sicoil.resumen-diario.cierre-cron:0 10 0 * * *}")
+    public void cerrarDias() {
+        resumenDiarioService.cerrarDiasPendientes();
+    }
+}
@@ -0,0 +1,197 @@
+package com.SICOIL.services.capital;
+
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.GranularidadSerie;
+import com.SICOIL.models.ResumenDiario;
+import com.SICOIL.repositories.ResumenDiarioCalculado;
+import com.SICOIL.repositories.ResumenDiarioRepository;
+import com.SICOIL.repositories.VentaRankingRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mantiene las tablas {@code resumen_diario} y {@code ventas_ranking}. Solo se guardan días cerrados: el día en curso se
+ * sigue leyendo de los movimientos. Cada día se calcula completo desde los movimientos, de modo
+ * que volver a calcularlo es idempotente; las operaciones que alteran días anteriores lo piden
+ * mediante {@link ResumenDiarioDesactualizadoEvent}.
+ *
+ * <p>La ganancia y las cajas de un día cerrado quedan calculadas con el precio de compra y la
+ * cantidad por caja vigentes al cerrarlo.
+ */
+@Service
+@Transactional
+@Slf4j
+public class ResumenDiarioService {
+
+    private final ResumenDiarioRepository resumenDiarioRepository;
+    private final VentaRankingRepository ventaRankingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaccionIndependiente;
+    private final int diasPorLote;
+
+    public ResumenDiarioService(ResumenDiarioRepository resumenDiarioRepository,
+                                VentaRankingRepository ventaRankingRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${sicoil.resumen-diario.dias-por-lote:31}") int diasPorLote) {
+        this.resumenDiarioRepository = resumenDiarioRepository;
+        this.ventaRankingRepository = ventaRankingRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaccionIndependiente = new TransactionTemplate(transactionManager);
+        this.transaccionIndependiente.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.diasPorLote = diasPorLote;
+    }
+
+    /**
+     * Cierra los días que aún no tienen fila, desde el siguiente al último cerrado (o desde el primer
+     * movimiento registrado) hasta ayer. Cada lote de días se guarda en su propia transacción.
+     *
+     * @return cantidad de días cerrados
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cerrarDiasPendientes() {
+        LocalDate ultimoCerrado = resumenDiarioRepository.findUltimoDiaCerrado();
+        LocalDate desde;
+        if (ultimoCerrado != null) {
+            desde = ultimoCerrado.plusDays(1);
+        } else {
+            LocalDateTime primerMovimiento = resumenDiarioRepository.findPrimerMovimiento();
+            if (primerMovimiento == null) {
+                return 0;
+            }
+            desde = primerMovimiento.toLocalDate();
+        }
+
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        int cerrados = 0;
+        for (LocalDate inicioLote = desde; !inicioLote.isAfter(ayer); inicioLote = inicioLote.plusDays(diasPorLote)) {
+            LocalDate inicio = inicioLote;
+            LocalDate finLote = inicioLote.plusDays(diasPorLote - 1L);
+            LocalDate fin = finLote.isAfter(ayer) ? ayer : finLote;
+            transaccionIndependiente.executeWithoutResult(estado -> recalcular(inicio, fin));
+            cerrados += (int) (fin.toEpochDay() - inicio.toEpochDay() + 1);
+        }
+        if (cerrados > 0) {
+            log.info("Resumen diario cerrado para {} días, desde {} hasta {}", cerrados, desde, ayer);
+        }
+        return cerrados;
+    }
+
+    /**
+     * Genera las filas diarias de {@code ventas_ranking} de los días cerrados que no las tienen. Solo
+     * hace trabajo la primera vez que se ejecuta sobre una base con días cerrados antes de existir la
+     * tabla o la dimensión por usuario.
+     *
+     * @return cantidad de días completados
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int completarVentasRanking() {
+        List<LocalDate> dias = ventaRankingRepository.findDiasCerradosSinRanking();
+        for (LocalDate dia : dias) {
+            transaccionIndependiente.executeWithoutResult(estado -> recalcularVentas(dia, dia));
+        }
+        if (!dias.isEmpty()) {
+            log.info("Ranking de ventas completado para {} días cerrados", dias.size());
+        }
+        return dias.size();
+    }
+
+    /**
+     * Calcula desde los movimientos y guarda la fila de cada día del rango, incluidos los días sin
+     * actividad, reemplazando los valores que ya existieran. También reemplaza las filas diarias de
+     * {@code ventas_ranking} del rango, y las mensuales de los meses del rango que quedan completamente
+     * cerrados.
+     *
+     * @param desde primer día a calcular (inclusive)
+     * @param hasta último día a calcular (inclusive)
+     */
+    public void recalcular(LocalDate desde, LocalDate hasta) {
+        Map<LocalDate, ResumenDiarioCalculado> calculados = resumenDiarioRepository
+                .calcularPorDia(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay()).stream()
+                .collect(Collectors.toMap(ResumenDiarioCalculado::getDia, Function.identity()));
+        Map<LocalDate, ResumenDiario> existentes = resumenDiarioRepository.findByFechaBetween(desde, hasta).stream()
+                .collect(Collectors.toMap(ResumenDiario::getFecha, Function.identity()));
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<ResumenDiario> filas = new ArrayList<>();
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            ResumenDiario fila = existentes.getOrDefault(dia, ResumenDiario.builder().fecha(dia).build());
+            ResumenDiarioCalculado calculado = calculados.get(dia);
+            fila.setSaldoReal(monto(calculado, ResumenDiarioCalculado::saldoReal));
+            fila.setEntradas(monto(calculado, ResumenDiarioCalculado::entradas));
+            fila.setCompras(monto(calculado, ResumenDiarioCalculado::compras));
+            fila.setTotalVentas(monto(calculado, ResumenDiarioCalculado::totalVentas));
+            fila.setGanancia(monto(calculado, ResumenDiarioCalculado::ganancia));
+            fila.setUnidades(valor(calculado, ResumenDiarioCalculado::getUnidades));
+            fila.setCajas(valor(calculado, ResumenDiarioCalculado::getCajas));
+            fila.setAbonos(monto(calculado, ResumenDiarioCalculado::abonos));
+            fila.setCreditos(monto(calculado, ResumenDiarioCalculado::creditos));
+            fila.setActualizadoEn(ahora);
+            filas.add(fila);
+        }
+        resumenDiarioRepository.saveAll(filas);
+        recalcularVentas(desde, hasta);
+    }
+
+    /**
+     * Vuelve a calcular un día ya cerrado después de que la transacción que lo modificó se confirma.
+     * Los días posteriores al último cierre se ignoran porque todavía se leen de los movimientos.
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void recalcularDiaDesactualizado(ResumenDiarioDesactualizadoEvent evento) {
+        LocalDate ultimoCerrado = resumenDiarioRepository.findUltimoDiaCerrado();
+        if (evento.fecha() == null || ultimoCerrado == null || evento.fecha().isAfter(ultimoCerrado)) {
+            return;
+        }
+        recalcular(evento.fecha(), evento.fecha());
+        eventPublisher.publishEvent(new CapitalModificadoEvent());
+        log.info("Resumen diario del {} recalculado", evento.fecha());
+    }
+
+    private void recalcularVentas(LocalDate desde, LocalDate hasta) {
+        LocalDateTime inicio = desde.atStartOfDay();
+        LocalDateTime fin = hasta.plusDays(1).atStartOfDay();
+        ventaRankingRepository.eliminarEntre(GranularidadSerie.DIA, desde, hasta);
+        ventaRankingRepository.insertarProductosDiarios(inicio, fin);
+        ventaRankingRepository.insertarClientesDiarios(inicio, fin);
+        ventaRankingRepository.insertarUsuariosDiarios(inicio, fin);
+
+        LocalDate ultimoCerrado = resumenDiarioRepository.findUltimoDiaCerrado();
+        for (LocalDate mes = desde.withDayOfMonth(1); !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            LocalDate finMes = mes.plusMonths(1).minusDays(1);
+            if (ultimoCerrado == null || finMes.isAfter(ultimoCerrado)) {
+                break;
+            }
+            ventaRankingRepository.eliminarEntre(GranularidadSerie.MES, mes, mes);
+            ventaRankingRepository.insertarMes(mes, finMes);
+        }
+    }
+
+    private double monto(ResumenDiarioCalculado calculado, Function<ResumenDiarioCalculado, Dinero> campo) {
+        return calculado != null ? campo.apply(calculado).aDouble() : 0d;
+    }
+
+    private double valor(ResumenDiarioCalculado calculado, Function<ResumenDiarioCalculado, Double> campo) {
+        if (calculado == null) {
+            return 0d;
+        }
+        Double valor = campo.apply(calculado);
+        return valor != null ? valor : 0d;
+    }
+}
@@ -0,0 +1,93 @@
+package com.SICOIL.services.cartera;
+
+import com.SICOIL.dtos.cartera.CarteraAntiguedadClienteResponse;
+import com.SICOIL.dtos.cartera.CarteraAntiguedadResponse;
+import com.SICOIL.mappers.cartera.CarteraMapper;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.repositories.CarteraRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Reporte de antigüedad de la cartera pendiente por cliente en tramos de 0–30, 31–60, 61–90 y
+ * más de 90 días desde la venta. El reporte del día se calcula con una única consulta agrupada y
+ * se conserva en caché hasta que una operación de cartera confirmada lo invalida.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CarteraAntiguedadService {
+
+    private final CarteraRepository carteraRepository;
+    private final CarteraMapper carteraMapper;
+    private final Cache<LocalDate, CarteraAntiguedadResponse> cache = Caffeine.newBuilder()
+            .maximumSize(2)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    /**
+     * Obtiene la antigüedad de la cartera al día de hoy, opcionalmente filtrada por nombre de cliente.
+     * El filtro se aplica sobre el reporte completo en caché, por lo que no genera consultas nuevas.
+     *
+     * @param nombreCliente fragmento del nombre del cliente (insensible a mayúsculas); puede ser {@code null}
+     * @return los saldos por tramo de cada cliente y los totales del reporte
+     */
+    public CarteraAntiguedadResponse obtener(String nombreCliente) {
+        CarteraAntiguedadResponse completo = cache.get(LocalDate.now(), this::calcular);
+        if (nombreCliente == null || nombreCliente.isBlank()) {
+            return completo;
+        }
+        String filtro = nombreCliente.trim().toLowerCase();
+        return construir(completo.getFechaCorte(), completo.getClientes().stream()
+                .filter(c -> c.getClienteNombre() != null && c.getClienteNombre().toLowerCase().contains(filtro))
+                .toList());
+    }
+
+    @TransactionalEventListener
+    public void invalidar(CarteraModificadaEvent evento) {
+        cache.invalidateAll();
+    }
+
+    private CarteraAntiguedadResponse calcular(LocalDate hoy) {
+        log.debug("Calculando antigüedad de cartera al {}", hoy);
+        List<CarteraAntiguedadClienteResponse> clientes = carteraRepository.antiguedadPorCliente(
+                        hoy.minusDays(30).atStartOfDay(),
+                        hoy.minusDays(60).atStartOfDay(),
+                        hoy.minusDays(90).atStartOfDay())
+                .stream()
+                .map(carteraMapper::toAntiguedadResponse)
+                .toList();
+        return construir(hoy, clientes);
+    }
+
+    private CarteraAntiguedadResponse construir(LocalDate fechaCorte, List<CarteraAntiguedadClienteResponse> clientes) {
+        return CarteraAntiguedadResponse.builder()
+                .fechaCorte(fechaCorte)
+                .totalHasta30(sumar(clientes, CarteraAntiguedadClienteResponse::getHasta30))
+                .totalDe31a60(sumar(clientes, CarteraAntiguedadClienteResponse::getDe31a60))
+                .totalDe61a90(sumar(clientes, CarteraAntiguedadClienteResponse::getDe61a90))
+                .totalMas90(sumar(clientes, CarteraAntiguedadClienteResponse::getMas90))
+                .totalPendiente(sumar(clientes, CarteraAntiguedadClienteResponse::getTotal))
+                .clientes(clientes)
+                .build();
+    }
+
+    private double sumar(List<CarteraAntiguedadClienteResponse> clientes,
+                         Function<CarteraAntiguedadClienteResponse, Double> tramo) {
+        Dinero.Acumulador total = new Dinero.Acumulador();
+        for (CarteraAntiguedadClienteResponse cliente : clientes) {
+            total.agregar(tramo.apply(cliente));
+        }
+        return total.total().aDouble();
+    }
+}
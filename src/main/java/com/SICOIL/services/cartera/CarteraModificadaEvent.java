@@ -0,0 +1,10 @@
+package com.SICOIL.services.cartera;
+
+/**
+ * Se publica cada vez que cambia el saldo de cartera de un cliente. Los oyentes que mantienen
+ * vistas derivadas deben escucharlo tras el commit para no reaccionar a cambios revertidos.
+ *
+ * @param clienteId cliente cuya cartera cambió
+ */
+public record CarteraModificadaEvent(Long clienteId) {
+}
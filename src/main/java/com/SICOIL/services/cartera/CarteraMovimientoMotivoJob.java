@@ -0,0 +1,31 @@
+package com.SICOIL.services.cartera;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Completa al arrancar el motivo y el cliente de los movimientos de cartera registrados antes de
+ * que existieran las columnas {@code motivo} y {@code cliente_id}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CarteraMovimientoMotivoJob {
+
+    private final CarteraService carteraService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarMotivos() {
+        int actualizados = carteraService.completarMotivosPendientes();
+        if (actualizados > 0) {
+            log.info("Motivo asignado a {} movimientos de cartera existentes", actualizados);
+        }
+        int conCliente = carteraService.completarClientesPendientes();
+        if (conCliente > 0) {
+            log.info("Cliente asignado a {} movimientos de cartera existentes", conCliente);
+        }
+    }
+}
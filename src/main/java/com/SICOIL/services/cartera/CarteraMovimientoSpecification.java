@@ -1,7 +1,9 @@
 package com.SICOIL.services.cartera;
 
 import com.SICOIL.models.CarteraMovimiento;
+import com.SICOIL.models.CarteraMovimientoMotivo;
 import com.SICOIL.models.CarteraMovimientoTipo;
+import com.SICOIL.services.consulta.CursorFechaId;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -27,7 +29,7 @@ public final class CarteraMovimientoSpecification {
             if (clienteId == null) {
                 return cb.conjunction();
             }
-            return cb.equal(root.get("cartera").get("cliente").get("id"), clienteId);
+            return cb.equal(root.get("clienteId"), clienteId);
         };
     }
 
@@ -78,4 +80,28 @@ public final class CarteraMovimientoSpecification {
                     : cb.isFalse(root.get("cartera").get("venta").get("activa"));
         };
     }
+
+    public static Specification<CarteraMovimiento> motivoIn(Set<CarteraMovimientoMotivo> motivos) {
+        return (root, query, cb) -> {
+            if (motivos == null || motivos.isEmpty()) {
+                return cb.conjunction();
+            }
+            return root.get("motivo").in(motivos);
+        };
+    }
+
+    public static Specification<CarteraMovimiento> anteriorA(CursorFechaId cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+            return cb.or(
+                    cb.lessThan(root.get("fecha"), cursor.fecha()),
+                    cb.and(
+                            cb.equal(root.get("fecha"), cursor.fecha()),
+                            cb.lessThan(root.get("id"), cursor.id())
+                    )
+            );
+        };
+    }
 }
@@ -3,37 +3,51 @@ package com.SICOIL.services.cartera;
 import com.SICOIL.dtos.cartera.CarteraAbonoDetalleResponse;
 import com.SICOIL.dtos.cartera.CarteraAbonoRequest;
 import com.SICOIL.dtos.cartera.CarteraCreditoDetalleResponse;
-import com.SICOIL.dtos.cartera.CarteraResumenItem;
+import com.SICOIL.dtos.cartera.CarteraPaginaResponse;
 import com.SICOIL.dtos.cartera.CarteraResumenResponse;
+import com.SICOIL.dtos.cartera.CarteraTotalesResponse;
 import com.SICOIL.mappers.cartera.CarteraMapper;
 import com.SICOIL.mappers.cartera.CarteraMovimientoMapper;
 import com.SICOIL.models.Cartera;
 import com.SICOIL.models.CarteraMovimiento;
+import com.SICOIL.models.CarteraMovimientoMotivo;
 import com.SICOIL.models.CarteraMovimientoTipo;
+import com.SICOIL.models.Dinero;
 import com.SICOIL.models.TipoVenta;
 import com.SICOIL.models.Usuario;
 import com.SICOIL.models.Venta;
 import com.SICOIL.repositories.CarteraMovimientoRepository;
+import com.SICOIL.repositories.CarteraMovimientoTotales;
 import com.SICOIL.repositories.CarteraRepository;
+import com.SICOIL.repositories.MovimientoLoteRepository;
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.SICOIL.services.capital.CapitalService;
+import com.SICOIL.services.capital.ResumenDiarioDesactualizadoEvent;
+import com.SICOIL.services.consulta.CursorFechaId;
+import com.SICOIL.services.consulta.SliceConsultaEjecutor;
+import com.SICOIL.services.metricas.MetricasNegocio;
+import com.SICOIL.services.tablero.MovimientoTableroEvent;
+import com.SICOIL.services.tablero.TipoMovimientoTablero;
 import com.SICOIL.services.usuario.UsuarioService;
 
 @Service
@@ -43,6 +57,9 @@ import com.SICOIL.services.usuario.UsuarioService;
 public class CarteraService {
 
     private static final String OBSERVACION_ELIMINACION_PREFIX = "El abono fue eliminado el ";
+    private static final int TAMANO_PAGINA_MAXIMO = 200;
+    private static final Set<CarteraMovimientoMotivo> MOTIVOS_HISTORIAL_ABONOS =
+            EnumSet.of(CarteraMovimientoMotivo.PAGO, CarteraMovimientoMotivo.ELIMINACION_ABONO);
 
     private final CarteraRepository carteraRepository;
     private final CarteraMovimientoRepository carteraMovimientoRepository;
@@ -50,6 +67,11 @@ public class CarteraService {
     private final CarteraMovimientoMapper carteraMovimientoMapper;
     private final UsuarioService usuarioService;
     private final CapitalService capitalService;
+    private final ClienteSaldoService clienteSaldoService;
+    private final MovimientoLoteRepository movimientoLoteRepository;
+    private final SliceConsultaEjecutor sliceConsultaEjecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricasNegocio metricasNegocio;
 
     /**
      * Obtiene un listado agrupado de los pendientes en cartera, aplicando filtros por nombre
@@ -60,11 +82,8 @@ public class CarteraService {
      *
      * <p>El proceso incluye:
      * <ul>
-     *   <li>Aplicar filtros por nombre del cliente y por saldos pendientes mayores a cero.</li>
-     *   <li>Recuperar solo las carteras activas con saldo pendiente.</li>
-     *   <li>Agrupar las carteras por cliente para generar una vista consolidada.</li>
-     *   <li>Obtener todos los movimientos de cartera (créditos, abonos o ajustes) dentro del rango de fechas indicado.</li>
-     *   <li>Calcular para cada cliente:
+     *   <li>Normalizar el filtro por nombre del cliente y convertir el rango de fechas a fecha y hora.</li>
+     *   <li>Ejecutar una única consulta agrupada que, sobre las carteras con saldo pendiente, calcula por cliente:
      *     <ul>
      *       <li>Total de créditos realizados en el rango.</li>
      *       <li>Total de abonos realizados en el rango.</li>
@@ -72,7 +91,7 @@ public class CarteraService {
      *       <li>Última fecha de actualización de la cartera.</li>
      *     </ul>
      *   </li>
-     *   <li>Construir un resumen por cliente para mostrarlo en la vista agrupada.</li>
+     *   <li>Convertir cada fila agrupada en {@link CarteraResumenResponse} mediante el mapper.</li>
      * </ul>
      *
      * @param nombreCliente nombre del cliente para filtrar; puede ser {@code null}
@@ -82,33 +101,14 @@ public class CarteraService {
      */
     @Transactional(readOnly = true)
     public List<CarteraResumenResponse> listarPendientes(String nombreCliente, LocalDate desde, LocalDate hasta) {
-        Specification<Cartera> spec = Specification
-                .where(CarteraSpecification.clienteNombreContains(nombreCliente))
-                .and(CarteraSpecification.saldoMayorQueCero());
+        String nombre = nombreCliente == null || nombreCliente.isBlank()
+                ? null
+                : "%" + nombreCliente.trim().toLowerCase() + "%";
+        LocalDateTime inicio = desde != null ? desde.atStartOfDay() : null;
+        LocalDateTime fin = hasta != null ? hasta.atTime(LocalTime.MAX) : null;
 
-        List<Cartera> carteras = carteraRepository.findAll(spec);
-        if (carteras.isEmpty()) {
-            return List.of();
-        }
-
-        //agrupamos la cartera por cliente para que en la vista solo se vea el nombre con la informacion agrupada (saldo pendiente, total abono, total creditos)
-        Map<Long, List<Cartera>> carterasPorCliente = agruparPorCliente(carteras);
-        Set<Long> carteraIds = carteras.stream()
-                .map(Cartera::getId)
-                .collect(Collectors.toSet());
-
-        //traemos todos los movimientos que se han realizado en cartera ya sea credito, abono o ajuste
-        List<CarteraMovimiento> movimientos = carteraMovimientoRepository.findAll(
-                Specification.where(CarteraMovimientoSpecification.carteraIdIn(carteraIds))
-                        .and(CarteraMovimientoSpecification.fechaBetween(desde, hasta))
-        );
-
-        Map<Long, TotalesMovimiento> totalesPorCliente = calcularTotalesPorCliente(movimientos);
-
-        return carterasPorCliente.entrySet().stream()
-                .map(entry -> construirResumenItem(entry.getKey(), entry.getValue(), totalesPorCliente))
+        return carteraRepository.resumenPendientesPorCliente(nombre, inicio, fin).stream()
                 .map(carteraMapper::toResumenResponse)
-                .sorted(Comparator.comparing(CarteraResumenResponse::getClienteNombre, String.CASE_INSENSITIVE_ORDER))
                 .toList();
     }
 
@@ -120,7 +120,8 @@ public class CarteraService {
      * <p>El proceso incluye:
      * <ul>
      *   <li>Validar el cliente mediante los métodos internos de obtención de movimientos.</li>
-     *   <li>Filtrar únicamente movimientos de tipo {@link CarteraMovimientoTipo#ABONO}.</li>
+     *   <li>Filtrar los movimientos con motivo {@link CarteraMovimientoMotivo#PAGO} y los ajustes
+     *       con motivo {@link CarteraMovimientoMotivo#ELIMINACION_ABONO}, que se devuelven con monto negativo.</li>
      *   <li>Aplicar el rango de fechas indicado (si corresponde).</li>
      *   <li>Convertir cada movimiento a {@link CarteraAbonoDetalleResponse} mediante el mapper.</li>
      * </ul>
@@ -134,26 +135,81 @@ public class CarteraService {
     public List<CarteraAbonoDetalleResponse> listarAbonos(Long clienteId, LocalDate desde, LocalDate hasta) {
         List<CarteraMovimiento> movimientos = obtenerMovimientos(
                 clienteId,
-                EnumSet.of(CarteraMovimientoTipo.ABONO, CarteraMovimientoTipo.AJUSTE),
+                CarteraMovimientoSpecification.motivoIn(MOTIVOS_HISTORIAL_ABONOS),
                 desde,
                 hasta,
                 null
         );
+        return movimientos.stream()
+                .map(this::toAbonoResponse)
+                .toList();
+    }
 
-        List<CarteraAbonoDetalleResponse> respuestas = new ArrayList<>();
-        for (CarteraMovimiento movimiento : movimientos) {
-            if (movimiento.getTipo() == CarteraMovimientoTipo.ABONO) {
-                respuestas.add(carteraMovimientoMapper.toAbonoResponse(movimiento));
-                continue;
-            }
-            if (esAjusteEliminacionAbono(movimiento)) {
-                CarteraAbonoDetalleResponse eliminado = carteraMovimientoMapper.toAbonoResponse(movimiento);
-                Double montoOriginal = eliminado.getMonto();
-                eliminado.setMonto(-Math.abs(montoOriginal != null ? montoOriginal : 0d));
-                respuestas.add(eliminado);
-            }
-        }
-        return respuestas;
+    /**
+     * Versión paginada por cursor de {@link #listarAbonos(Long, LocalDate, LocalDate)}.
+     *
+     * <p>Las filas se ordenan por fecha e id descendentes y cada página se obtiene con una
+     * condición de posición ({@code fecha < f or (fecha = f and id < i)}) en lugar de un
+     * desplazamiento, por lo que el costo no crece con la profundidad de la página y los
+     * movimientos registrados mientras se navega no duplican ni saltan filas.
+     *
+     * @param clienteId identificador del cliente cuyos abonos se desean consultar
+     * @param desde fecha inicial del rango; puede ser {@code null}
+     * @param hasta fecha final del rango; puede ser {@code null}
+     * @param cursor valor {@code siguienteCursor} de la página anterior; {@code null} para la primera
+     * @param tamano cantidad de filas por página
+     * @return página de abonos con el cursor para solicitar la siguiente
+     */
+    @Transactional(readOnly = true)
+    public CarteraPaginaResponse<CarteraAbonoDetalleResponse> listarAbonosPaginados(Long clienteId,
+                                                                                    LocalDate desde,
+                                                                                    LocalDate hasta,
+                                                                                    String cursor,
+                                                                                    int tamano) {
+        Specification<CarteraMovimiento> filtro = CarteraMovimientoSpecification.motivoIn(MOTIVOS_HISTORIAL_ABONOS);
+        return obtenerPagina(clienteId, filtro, desde, hasta, null, cursor, tamano, this::toAbonoResponse);
+    }
+
+    /**
+     * Versión paginada por cursor de {@link #listarCreditos(Long, LocalDate, LocalDate)}, con el
+     * mismo ordenamiento y cursor que {@link #listarAbonosPaginados}.
+     */
+    @Transactional(readOnly = true)
+    public CarteraPaginaResponse<CarteraCreditoDetalleResponse> listarCreditosPaginados(Long clienteId,
+                                                                                        LocalDate desde,
+                                                                                        LocalDate hasta,
+                                                                                        String cursor,
+                                                                                        int tamano) {
+        Specification<CarteraMovimiento> filtro = CarteraMovimientoSpecification
+                .motivoIn(EnumSet.of(CarteraMovimientoMotivo.VENTA_CREDITO));
+        return obtenerPagina(clienteId, filtro, desde, hasta, Boolean.TRUE, cursor, tamano,
+                carteraMovimientoMapper::toCreditoResponse);
+    }
+
+    /**
+     * Calcula la cantidad y el total neto de los abonos del cliente en el rango sin cargar las filas.
+     * Los abonos eliminados restan del total, igual que en el listado.
+     */
+    @Transactional(readOnly = true)
+    public CarteraTotalesResponse totalizarAbonos(Long clienteId, LocalDate desde, LocalDate hasta) {
+        validarClienteConsulta(clienteId);
+        return toTotalesResponse(carteraMovimientoRepository.totalizarAbonosCliente(
+                clienteId,
+                desde != null ? desde.atStartOfDay() : null,
+                hasta != null ? hasta.atTime(LocalTime.MAX) : null));
+    }
+
+    /**
+     * Calcula la cantidad y el total de los créditos de ventas activas del cliente en el rango
+     * sin cargar las filas.
+     */
+    @Transactional(readOnly = true)
+    public CarteraTotalesResponse totalizarCreditos(Long clienteId, LocalDate desde, LocalDate hasta) {
+        validarClienteConsulta(clienteId);
+        return toTotalesResponse(carteraMovimientoRepository.totalizarCreditosCliente(
+                clienteId,
+                desde != null ? desde.atStartOfDay() : null,
+                hasta != null ? hasta.atTime(LocalTime.MAX) : null));
     }
 
     /**
@@ -178,7 +234,7 @@ public class CarteraService {
     public List<CarteraCreditoDetalleResponse> listarCreditos(Long clienteId, LocalDate desde, LocalDate hasta) {
         List<CarteraMovimiento> movimientos = obtenerMovimientos(
                 clienteId,
-                EnumSet.of(CarteraMovimientoTipo.CREDITO),
+                CarteraMovimientoSpecification.tipoIn(EnumSet.of(CarteraMovimientoTipo.CREDITO)),
                 desde,
                 hasta,
                 Boolean.TRUE
@@ -204,6 +260,7 @@ public class CarteraService {
      *   <li>Crear el registro de {@link Cartera} con el saldo inicial igual al total de la venta.</li>
      *   <li>Registrar el movimiento inicial de tipo {@link CarteraMovimientoTipo#CREDITO}
      *       vinculado a la venta y al usuario que la generó.</li>
+     *   <li>Sumar el crédito al saldo agregado del cliente.</li>
      * </ul>
      *
      * @param venta venta a crédito que se registrará en cartera
@@ -224,8 +281,8 @@ public class CarteraService {
             throw new IllegalStateException("La venta debe estar persistida antes de crear la cartera.");
         }
 
-        Double totalVenta = venta.getTotal();
-        if (totalVenta == null || totalVenta <= 0) {
+        Dinero totalVenta = venta.getTotal();
+        if (totalVenta == null || !totalVenta.esPositivo()) {
             log.warn("Venta {} tiene total inválido para cartera: {}", venta.getId(), totalVenta);
             return;
         }
@@ -242,8 +299,9 @@ public class CarteraService {
                 .build();
 
         Cartera guardada = carteraRepository.save(cartera);
-        registrarMovimiento(guardada, CarteraMovimientoTipo.CREDITO, totalVenta, venta.getUsuario(),
+        registrarMovimiento(guardada, CarteraMovimientoMotivo.VENTA_CREDITO, totalVenta, venta.getUsuario(),
                 "Registro de venta a crédito");
+        clienteSaldoService.aplicarVariacion(venta.getCliente().getId(), totalVenta, 1);
         log.info("Cartera creada para venta {} con saldo {}", venta.getId(), totalVenta);
     }
 
@@ -273,13 +331,15 @@ public class CarteraService {
         }
 
         carteraRepository.findByVentaId(venta.getId()).ifPresent(cartera -> {
-            double saldoAnterior = cartera.getSaldo() != null ? cartera.getSaldo() : 0;
-            if (saldoAnterior <= 0) {
+            Dinero saldoAnterior = cartera.getSaldo() != null ? cartera.getSaldo() : Dinero.CERO;
+            if (!saldoAnterior.esPositivo()) {
                 return;
             }
-            cartera.setSaldo(0d);
+            cartera.setSaldo(Dinero.CERO);
             carteraRepository.save(cartera);
-            registrarMovimiento(cartera, CarteraMovimientoTipo.AJUSTE, saldoAnterior, usuario, observacion);
+            registrarMovimiento(cartera, CarteraMovimientoMotivo.ANULACION_VENTA, saldoAnterior, usuario,
+                    observacion);
+            clienteSaldoService.aplicarVariacion(cartera.getCliente().getId(), saldoAnterior.negar(), -1);
             log.info("Cartera ajustada a 0 por anulación de la venta {}", venta.getId());
         });
     }
@@ -302,14 +362,16 @@ public class CarteraService {
      * <ul>
      *   <li>Validar el cliente y la solicitud de abono.</li>
      *   <li>Verificar que el monto del abono sea mayor que cero.</li>
-     *   <li>Recuperar todas las carteras del cliente con saldo pendiente, ordenadas
-     *       por su última actualización.</li>
+     *   <li>Recuperar y bloquear, en orden de id, todas las carteras del cliente con saldo
+     *       pendiente, de modo que abonos simultáneos del mismo cliente se apliquen en serie.</li>
      *   <li>Validar que el cliente tenga deudas activas.</li>
      *   <li>Comprobar que el abono no exceda el saldo total adeudado.</li>
-     *   <li>Aplicar el abono empezando por la cartera más antigua, restando el saldo
-     *       y registrando cada movimiento individualmente.</li>
+     *   <li>Aplicar el abono en memoria empezando por la cartera con la actualización más
+     *       antigua, restando el saldo de cada una.</li>
+     *   <li>Guardar los saldos modificados y los movimientos de abono en lotes.</li>
      *   <li>Generar una observación adecuada para cada movimiento de abono.</li>
-     *   <li>Registrar en capital el impacto financiero del abono.</li>
+     *   <li>Registrar en capital, también en lote, el impacto financiero del abono.</li>
+     *   <li>Descontar el abono del saldo agregado del cliente.</li>
      * </ul>
      *
      * @param clienteId identificador del cliente al que se aplicará el abono
@@ -318,6 +380,7 @@ public class CarteraService {
      * @throws IllegalArgumentException si el cliente es inválido, si no existen deudas activas
      *                                  o si el monto del abono es incorrecto
      */
+    @Timed(value = "sicoil.cartera.abono.registrar", histogram = true)
     public List<CarteraAbonoDetalleResponse> registrarAbono(Long clienteId, CarteraAbonoRequest request) {
         if (clienteId == null) {
             throw new IllegalArgumentException("Debe indicar el cliente para registrar el abono.");
@@ -331,57 +394,84 @@ public class CarteraService {
             throw new IllegalArgumentException("El monto del abono debe ser mayor a cero.");
         }
 
-        //lista todos los registros de la cartera
-        List<Cartera> carterasPendientes = carteraRepository
-                .findByClienteIdAndSaldoGreaterThanOrderByUltimaActualizacionAsc(clienteId, 0d);
+        //bloqueamos las carteras pendientes en orden de id para que dos abonos simultaneos del mismo cliente se apliquen uno tras otro
+        List<Cartera> carterasPendientes = new ArrayList<>(carteraRepository.findPendientesParaAbono(clienteId));
 
         if (carterasPendientes.isEmpty()) {
             throw new IllegalArgumentException("El cliente no tiene deudas pendientes en cartera.");
         }
 
-        //verificamos que el saldo total de lo que debe no sea mayor a lo que se abona
-        double saldoTotal = carterasPendientes.stream()
-                .mapToDouble(c -> c.getSaldo() != null ? c.getSaldo() : 0)
-                .sum();
+        //verificamos que el saldo total de lo que debe no sea mayor a lo que se abona; los montos se llevan en centavos exactos
+        Dinero.Acumulador acumulador = new Dinero.Acumulador();
+        carterasPendientes.forEach(c -> acumulador.agregar(c.getSaldo()));
+        Dinero saldoTotal = acumulador.total();
+        Dinero montoAbono = Dinero.de(monto);
 
-        if (monto > saldoTotal) {
+        if (montoAbono.esMayorQue(saldoTotal)) {
             throw new IllegalArgumentException("El abono excede el saldo pendiente total del cliente.");
         }
 
         Usuario usuarioActual = usuarioService.obtenerUsuarioActual();
         String observacion = request.getObservacion() != null ? request.getObservacion().trim() : null;
 
-        double restante = monto;
-        List<CarteraAbonoDetalleResponse> movimientosRegistrados = new ArrayList<>();
+        //el abono se aplica primero a la cartera con la actualizacion mas antigua
+        carterasPendientes.sort(Comparator
+                .comparing(Cartera::getUltimaActualizacion, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Cartera::getId));
 
-        //aca vamos restando a cada cartera el abono, hasta que el abono vaya cubriendo la deuda de totas las carteras
+        Dinero restante = montoAbono;
+        int carterasSaldadas = 0;
+        List<Cartera> carterasAfectadas = new ArrayList<>();
+        List<CarteraMovimiento> movimientos = new ArrayList<>();
+        List<CapitalService.AbonoCartera> abonosCapital = new ArrayList<>();
+
+        //aca vamos restando a cada cartera el abono en memoria, hasta que el abono vaya cubriendo la deuda de todas las carteras
         for (Cartera cartera : carterasPendientes) {
-            if (restante <= 0) {
+            if (!restante.esPositivo()) {
                 break;
             }
 
-            double saldoActual = cartera.getSaldo() != null ? cartera.getSaldo() : 0;
-            if (saldoActual <= 0) {
+            Dinero saldoActual = cartera.getSaldo() != null ? cartera.getSaldo() : Dinero.CERO;
+            if (!saldoActual.esPositivo()) {
                 continue;
             }
 
-            double aplicado = Math.min(restante, saldoActual);
-            cartera.setSaldo(saldoActual - aplicado);
-            carteraRepository.save(cartera);
+            Dinero aplicado = restante.minimo(saldoActual);
+            Dinero saldoNuevo = saldoActual.restar(aplicado);
+            cartera.setSaldo(saldoNuevo);
+            carterasAfectadas.add(cartera);
+            if (!saldoNuevo.esPositivo()) {
+                carterasSaldadas++;
+            }
 
             String observacionMovimiento = construirObservacionAbono(observacion, cartera);
-            CarteraMovimiento movimiento = registrarMovimiento(
-                    cartera,
-                    CarteraMovimientoTipo.ABONO,
-                    aplicado,
-                    usuarioActual,
-                    observacionMovimiento
-            );
-            movimientosRegistrados.add(carteraMovimientoMapper.toAbonoResponse(movimiento));
-            capitalService.registrarAbonoCartera(cartera, aplicado, observacionMovimiento);
-            restante -= aplicado;
-        }
+            movimientos.add(CarteraMovimiento.builder()
+                    .cartera(cartera)
+                    .tipo(CarteraMovimientoTipo.ABONO)
+                    .motivo(CarteraMovimientoMotivo.PAGO)
+                    .monto(aplicado)
+                    .usuario(usuarioActual)
+                    .observacion(observacionMovimiento)
+                    .build());
+            abonosCapital.add(new CapitalService.AbonoCartera(cartera, aplicado, observacionMovimiento));
+            restante = restante.restar(aplicado);
+        }
+
+        //los saldos se actualizan en un lote de updates y los movimientos en lotes de inserts
+        carteraRepository.saveAll(carterasAfectadas);
+        carteraRepository.flush();
+        movimientoLoteRepository.insertarMovimientosCartera(movimientos);
+        capitalService.registrarAbonosCartera(abonosCapital);
+        metricasNegocio.registrarCarterasTocadas(carterasAfectadas.size());
+
+        List<CarteraAbonoDetalleResponse> movimientosRegistrados = movimientos.stream()
+                .map(carteraMovimientoMapper::toAbonoResponse)
+                .toList();
 
+        Dinero totalAplicado = montoAbono.restar(restante);
+        clienteSaldoService.aplicarVariacion(clienteId, totalAplicado.negar(), -carterasSaldadas);
+        eventPublisher.publishEvent(new MovimientoTableroEvent(TipoMovimientoTablero.ABONO, null, clienteId,
+                totalAplicado.aDouble(), "Abono aplicado a " + movimientos.size() + " créditos"));
         return movimientosRegistrados;
     }
 
@@ -416,19 +506,28 @@ public class CarteraService {
         if (movimiento.getTipo() != CarteraMovimientoTipo.ABONO) {
             throw new IllegalArgumentException("El movimiento indicado no corresponde a un abono.");
         }
-        Cartera cartera = movimiento.getCartera();
-        if (cartera == null
-                || cartera.getCliente() == null
+        if (movimiento.getCartera() == null) {
+            throw new IllegalArgumentException("El abono no pertenece al cliente indicado.");
+        }
+
+        //bloqueamos la cartera antes de leer su saldo, igual que registrarAbono, y con el bloqueo
+        //tomado confirmamos que otra transaccion no haya eliminado ya el mismo abono
+        Cartera cartera = carteraRepository.findByIdParaActualizar(movimiento.getCartera().getId())
+                .orElseThrow(() -> new EntityNotFoundException("No existe la cartera del abono con ID: " + movimientoId));
+        if (carteraMovimientoRepository.findByIdParaEliminar(movimientoId).isEmpty()) {
+            throw new EntityNotFoundException("No existe un abono con ID: " + movimientoId);
+        }
+        if (cartera.getCliente() == null
                 || !Objects.equals(cartera.getCliente().getId(), clienteId)) {
             throw new IllegalArgumentException("El abono no pertenece al cliente indicado.");
         }
 
-        double montoMovimiento = movimiento.getMonto() != null ? movimiento.getMonto() : 0;
-        if (montoMovimiento <= 0) {
+        Dinero montoMovimiento = movimiento.getMonto();
+        if (montoMovimiento == null || !montoMovimiento.esPositivo()) {
             throw new IllegalStateException("El abono a eliminar tiene un monto inválido.");
         }
 
-        if (Math.abs(montoMovimiento - montoSolicitado) > 0.01) {
+        if (!montoMovimiento.equals(Dinero.de(montoSolicitado))) {
             throw new IllegalArgumentException("El monto enviado no coincide con el abono registrado.");
         }
 
@@ -438,64 +537,127 @@ public class CarteraService {
                 usuarioActual
         );
 
-        double saldoActual = cartera.getSaldo() != null ? cartera.getSaldo() : 0;
-        cartera.setSaldo(saldoActual + montoMovimiento);
+        Dinero saldoActual = cartera.getSaldo() != null ? cartera.getSaldo() : Dinero.CERO;
+        cartera.setSaldo(saldoActual.sumar(montoMovimiento));
         carteraRepository.save(cartera);
 
         carteraMovimientoRepository.delete(movimiento);
+        eventPublisher.publishEvent(new ResumenDiarioDesactualizadoEvent(movimiento.getFecha().toLocalDate()));
 
-        registrarMovimiento(cartera, CarteraMovimientoTipo.AJUSTE, montoMovimiento, usuarioActual, observacionDetallada);
+        registrarMovimiento(cartera, CarteraMovimientoMotivo.ELIMINACION_ABONO, montoMovimiento, usuarioActual,
+                observacionDetallada);
         capitalService.revertirAbonoCartera(cartera, montoMovimiento, observacionDetallada);
+        clienteSaldoService.aplicarVariacion(clienteId, montoMovimiento,
+                saldoActual.esPositivo() ? 0 : 1);
+        eventPublisher.publishEvent(new MovimientoTableroEvent(TipoMovimientoTablero.ELIMINACION_ABONO, movimientoId,
+                clienteId, montoMovimiento.negar().aDouble(), "Eliminación de abono"));
         log.info("Abono {} eliminado para el cliente {} y cartera {}", movimientoId, clienteId, cartera.getId());
     }
 
-    private Map<Long, List<Cartera>> agruparPorCliente(List<Cartera> carteras) {
-        return carteras.stream()
-                .collect(Collectors.groupingBy(c -> c.getCliente().getId()));
+    /**
+     * Asigna el {@link CarteraMovimientoMotivo} a los movimientos registrados antes de que existiera
+     * la columna. Los ajustes se clasifican por última vez según el texto de su observación: los que
+     * comienzan con el prefijo de eliminación de abonos son {@link CarteraMovimientoMotivo#ELIMINACION_ABONO}
+     * y el resto corresponde a anulaciones de venta. Solo toca filas sin motivo.
+     *
+     * @return cantidad de movimientos actualizados
+     */
+    public int completarMotivosPendientes() {
+        int actualizados = carteraMovimientoRepository.asignarMotivoPendiente(
+                CarteraMovimientoTipo.CREDITO, null, CarteraMovimientoMotivo.VENTA_CREDITO);
+        actualizados += carteraMovimientoRepository.asignarMotivoPendiente(
+                CarteraMovimientoTipo.ABONO, null, CarteraMovimientoMotivo.PAGO);
+        actualizados += carteraMovimientoRepository.asignarMotivoPendiente(
+                CarteraMovimientoTipo.AJUSTE, OBSERVACION_ELIMINACION_PREFIX + "%",
+                CarteraMovimientoMotivo.ELIMINACION_ABONO);
+        actualizados += carteraMovimientoRepository.asignarMotivoPendiente(
+                CarteraMovimientoTipo.AJUSTE, null, CarteraMovimientoMotivo.ANULACION_VENTA);
+        return actualizados;
+    }
+
+    /**
+     * Asigna el cliente de la cartera a los movimientos registrados antes de que existiera la
+     * columna {@code cliente_id}. Solo toca filas sin cliente.
+     *
+     * @return cantidad de movimientos actualizados
+     */
+    public int completarClientesPendientes() {
+        return carteraMovimientoRepository.asignarClientePendiente();
     }
 
     private List<CarteraMovimiento> obtenerMovimientos(Long clienteId,
-                                                       Set<CarteraMovimientoTipo> tipos,
+                                                       Specification<CarteraMovimiento> filtro,
                                                        LocalDate desde,
                                                        LocalDate hasta,
                                                        Boolean ventaActiva) {
-        if (clienteId == null) {
-            throw new IllegalArgumentException("Debe indicar el cliente para consultar la cartera.");
-        }
+        validarClienteConsulta(clienteId);
 
         Specification<CarteraMovimiento> spec = Specification
                 .where(CarteraMovimientoSpecification.clienteIdEquals(clienteId))
-                .and(CarteraMovimientoSpecification.tipoIn(tipos))
+                .and(filtro)
                 .and(CarteraMovimientoSpecification.fechaBetween(desde, hasta))
                 .and(CarteraMovimientoSpecification.ventaActivaEquals(ventaActiva));
 
         return carteraMovimientoRepository.findAll(spec, Sort.by(Sort.Direction.DESC, "fecha"));
     }
 
-    private CarteraResumenItem construirResumenItem(Long clienteId,
-                                                    List<Cartera> carterasCliente,
-                                                    Map<Long, TotalesMovimiento> totalesPorCliente) {
-
-        double saldoPendiente = carterasCliente.stream()
-                .mapToDouble(c -> c.getSaldo() != null ? c.getSaldo() : 0)
-                .sum();
-
-        LocalDateTime ultimaActualizacion = carterasCliente.stream()
-                .map(Cartera::getUltimaActualizacion)
-                .filter(Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
-
-        TotalesMovimiento totalesMovimiento = totalesPorCliente.getOrDefault(clienteId, TotalesMovimiento.vacio());
-
-        CarteraResumenItem item = new CarteraResumenItem();
-        item.setClienteId(clienteId);
-        item.setClienteNombre(carterasCliente.get(0).getCliente().getNombre());
-        item.setSaldoPendiente(saldoPendiente);
-        item.setTotalAbonos(totalesMovimiento.totalAbonos());
-        item.setTotalCreditos(totalesMovimiento.totalCreditos());
-        item.setUltimaActualizacion(ultimaActualizacion);
-        return item;
+    private <R> CarteraPaginaResponse<R> obtenerPagina(Long clienteId,
+                                                       Specification<CarteraMovimiento> filtro,
+                                                       LocalDate desde,
+                                                       LocalDate hasta,
+                                                       Boolean ventaActiva,
+                                                       String cursor,
+                                                       int tamano,
+                                                       Function<CarteraMovimiento, R> mapeo) {
+        validarClienteConsulta(clienteId);
+        if (tamano < 1 || tamano > TAMANO_PAGINA_MAXIMO) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANO_PAGINA_MAXIMO + ".");
+        }
+
+        Specification<CarteraMovimiento> spec = Specification
+                .where(CarteraMovimientoSpecification.clienteIdEquals(clienteId))
+                .and(filtro)
+                .and(CarteraMovimientoSpecification.fechaBetween(desde, hasta))
+                .and(CarteraMovimientoSpecification.ventaActivaEquals(ventaActiva))
+                .and(CarteraMovimientoSpecification.anteriorA(CursorFechaId.decodificar(cursor)));
+        Sort orden = Sort.by(Sort.Direction.DESC, "fecha").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        Slice<CarteraMovimiento> movimientos = sliceConsultaEjecutor.buscar(
+                CarteraMovimiento.class, spec, PageRequest.of(0, tamano, orden));
+
+        String siguienteCursor = null;
+        if (movimientos.hasNext()) {
+            CarteraMovimiento ultimo = movimientos.getContent().get(movimientos.getNumberOfElements() - 1);
+            siguienteCursor = new CursorFechaId(ultimo.getFecha(), ultimo.getId()).codificar();
+        }
+        return CarteraPaginaResponse.<R>builder()
+                .items(movimientos.map(mapeo).getContent())
+                .haySiguiente(movimientos.hasNext())
+                .siguienteCursor(siguienteCursor)
+                .build();
+    }
+
+    private void validarClienteConsulta(Long clienteId) {
+        if (clienteId == null) {
+            throw new IllegalArgumentException("Debe indicar el cliente para consultar la cartera.");
+        }
+    }
+
+    private CarteraAbonoDetalleResponse toAbonoResponse(CarteraMovimiento movimiento) {
+        CarteraAbonoDetalleResponse respuesta = carteraMovimientoMapper.toAbonoResponse(movimiento);
+        if (movimiento.getMotivo() == CarteraMovimientoMotivo.ELIMINACION_ABONO) {
+            Double montoOriginal = respuesta.getMonto();
+            respuesta.setMonto(-Math.abs(montoOriginal != null ? montoOriginal : 0d));
+        }
+        return respuesta;
+    }
+
+    private CarteraTotalesResponse toTotalesResponse(CarteraMovimientoTotales totales) {
+        return CarteraTotalesResponse.builder()
+                .cantidad(totales.getCantidad() != null ? totales.getCantidad() : 0L)
+                .total(totales.total().aDouble())
+                .build();
     }
 
     private String construirObservacionAbono(String observacionBase, Cartera cartera) {
@@ -531,48 +693,20 @@ public class CarteraService {
         return builder.append(".").toString();
     }
 
-    private boolean esAjusteEliminacionAbono(CarteraMovimiento movimiento) {
-        if (movimiento.getTipo() != CarteraMovimientoTipo.AJUSTE) {
-            return false;
-        }
-        String observacion = movimiento.getObservacion();
-        return observacion != null && observacion.startsWith(OBSERVACION_ELIMINACION_PREFIX);
-    }
-
-    private Map<Long, TotalesMovimiento> calcularTotalesPorCliente(List<CarteraMovimiento> movimientos) {
-        Map<Long, TotalesMovimiento> totales = new HashMap<>();
-
-        //por cada cliente sacamos el total de creditos y abonos que se han realizado
-        for (CarteraMovimiento movimiento : movimientos) {
-            if (movimiento.getCartera() == null || movimiento.getCartera().getCliente() == null) {
-                continue;
-            }
-            Long clienteId = movimiento.getCartera().getCliente().getId();
-            TotalesMovimiento acumulado = totales.computeIfAbsent(clienteId, id -> new TotalesMovimiento());
-            double monto = movimiento.getMonto() != null ? movimiento.getMonto() : 0;
-
-            if (movimiento.getTipo() == CarteraMovimientoTipo.CREDITO) {
-                acumulado.agregarCredito(monto);
-            } else if (movimiento.getTipo() == CarteraMovimientoTipo.ABONO) {
-                acumulado.agregarAbono(monto);
-            }
-        }
-        return totales;
-    }
-
     private CarteraMovimiento registrarMovimiento(Cartera cartera,
-                                                  CarteraMovimientoTipo tipo,
-                                                  Double monto,
+                                                  CarteraMovimientoMotivo motivo,
+                                                  Dinero monto,
                                                   Usuario usuario,
                                                   String observacion) {
 
-        if (monto == null || monto <= 0) {
+        if (monto == null || !monto.esPositivo()) {
             throw new IllegalArgumentException("El monto del movimiento debe ser mayor a cero.");
         }
 
         CarteraMovimiento movimiento = CarteraMovimiento.builder()
                 .cartera(cartera)
-                .tipo(tipo)
+                .tipo(motivo.getTipo())
+                .motivo(motivo)
                 .monto(monto)
                 .usuario(usuario)
                 .observacion(observacion)
@@ -580,29 +714,4 @@ public class CarteraService {
 
         return carteraMovimientoRepository.save(movimiento);
     }
-
-    private static final class TotalesMovimiento {
-        private double totalCreditos;
-        private double totalAbonos;
-
-        private static TotalesMovimiento vacio() {
-            return new TotalesMovimiento();
-        }
-
-        private void agregarCredito(double monto) {
-            totalCreditos += monto;
-        }
-
-        private void agregarAbono(double monto) {
-            totalAbonos += monto;
-        }
-
-        private double totalCreditos() {
-            return totalCreditos;
-        }
-
-        private double totalAbonos() {
-            return totalAbonos;
-        }
-    }
 }
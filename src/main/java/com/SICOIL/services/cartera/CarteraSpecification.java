@@ -1,6 +1,7 @@
 package com.SICOIL.services.cartera;
 
 import com.SICOIL.models.Cartera;
+import com.SICOIL.models.Dinero;
 import org.springframework.data.jpa.domain.Specification;
 
 public final class CarteraSpecification {
@@ -19,6 +20,6 @@ public final class CarteraSpecification {
     }
 
     public static Specification<Cartera> saldoMayorQueCero() {
-        return (root, query, cb) -> cb.greaterThan(root.get("saldo"), 0d);
+        return (root, query, cb) -> cb.greaterThan(root.get("saldo"), Dinero.CERO);
     }
 }
@@ -0,0 +1,32 @@
+package com.SICOIL.services.cartera;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Construye el agregado de saldos por cliente al arrancar si aún no existe y lo verifica
+ * periódicamente contra la cartera.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteSaldoJob {
+
+    private final ClienteSaldoService clienteSaldoService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (clienteSaldoService.inicializarSiVacio()) {
+            log.info("Agregado de saldos por cliente construido al iniciar la aplicación");
+        }
+    }
+
+    @Scheduled(cron = "${sicoil.cartera.saldos.verificacion-cron:0 0 3 * * *}")
+    public void verificar() {
+        clienteSaldoService.verificar();
+    }
+}
@@ -0,0 +1,182 @@
+package com.SICOIL.services.cartera;
+
+import com.SICOIL.dtos.cartera.ClienteSaldoResponse;
+import com.SICOIL.mappers.cartera.ClienteSaldoMapper;
+import com.SICOIL.models.ClienteSaldo;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.repositories.CarteraRepository;
+import com.SICOIL.repositories.ClienteSaldoCalculado;
+import com.SICOIL.repositories.ClienteSaldoRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Mantiene el agregado {@link ClienteSaldo} de cada cliente. Las operaciones de cartera informan
+ * la variación de saldo y de créditos abiertos dentro de su propia transacción; la verificación
+ * periódica compara el agregado con la cartera y corrige las diferencias.
+ */
+@Service
+@Transactional
+@Slf4j
+public class ClienteSaldoService {
+
+    private final ClienteSaldoRepository clienteSaldoRepository;
+    private final CarteraRepository carteraRepository;
+    private final ClienteSaldoMapper clienteSaldoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaccionIndependiente;
+
+    public ClienteSaldoService(ClienteSaldoRepository clienteSaldoRepository,
+                               CarteraRepository carteraRepository,
+                               ClienteSaldoMapper clienteSaldoMapper,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.clienteSaldoRepository = clienteSaldoRepository;
+        this.carteraRepository = carteraRepository;
+        this.clienteSaldoMapper = clienteSaldoMapper;
+        this.eventPublisher = eventPublisher;
+        this.transaccionIndependiente = new TransactionTemplate(transactionManager);
+        this.transaccionIndependiente.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Consulta el saldo pendiente del cliente leyendo únicamente su fila del agregado.
+     *
+     * @param clienteId identificador del cliente
+     * @return el saldo agregado; en cero si el cliente nunca ha tenido créditos
+     */
+    @Transactional(readOnly = true)
+    public ClienteSaldoResponse obtener(Long clienteId) {
+        if (clienteId == null) {
+            throw new IllegalArgumentException("Debe indicar el cliente para consultar su saldo.");
+        }
+        return clienteSaldoRepository.findById(clienteId)
+                .map(clienteSaldoMapper::toResponse)
+                .orElseGet(() -> ClienteSaldoResponse.builder()
+                        .clienteId(clienteId)
+                        .saldoPendiente(0d)
+                        .creditosAbiertos(0)
+                        .build());
+    }
+
+    /**
+     * Aplica sobre el agregado del cliente la variación producida por un movimiento de cartera.
+     * La fila se bloquea para que movimientos simultáneos del mismo cliente se apliquen en serie.
+     * Debe invocarse después de persistir los cambios de la cartera, porque la fecha del crédito
+     * abierto más antiguo se recalcula desde ella cuando cambia la cantidad de créditos abiertos.
+     * Al ser el punto por el que pasan todos los cambios de saldo, publica {@link CarteraModificadaEvent}.
+     *
+     * @param clienteId cliente afectado
+     * @param variacionSaldo monto sumado (positivo) o restado (negativo) al saldo pendiente
+     * @param variacionCreditosAbiertos créditos abiertos (positivo) o cerrados (negativo) por el movimiento
+     */
+    public void aplicarVariacion(Long clienteId, Dinero variacionSaldo, int variacionCreditosAbiertos) {
+        ClienteSaldo saldo = clienteSaldoRepository.findParaActualizar(clienteId)
+                .orElseGet(() -> {
+                    // Primer movimiento del cliente: sin fila no hay nada que bloquear, así que se crea
+                    // antes de volver a leerla con bloqueo
+                    clienteSaldoRepository.crearSiNoExiste(clienteId);
+                    return clienteSaldoRepository.findParaActualizar(clienteId).orElseThrow();
+                });
+
+        saldo.setSaldoPendiente(saldo.getSaldoPendiente().sumar(variacionSaldo));
+        saldo.setCreditosAbiertos(Math.max(0, saldo.getCreditosAbiertos() + variacionCreditosAbiertos));
+        if (variacionCreditosAbiertos != 0) {
+            saldo.setCreditoMasAntiguo(clienteSaldoRepository.findCreditoMasAntiguo(clienteId));
+        }
+        saldo.setUltimoMovimiento(LocalDateTime.now());
+        clienteSaldoRepository.save(saldo);
+        eventPublisher.publishEvent(new CarteraModificadaEvent(clienteId));
+    }
+
+    /**
+     * Reemplaza todo el contenido de {@code cliente_saldo} con el agregado calculado desde la cartera.
+     *
+     * @return cantidad de clientes reconstruidos
+     */
+    public int reconstruir() {
+        clienteSaldoRepository.eliminarTodos();
+        int clientes = clienteSaldoRepository.reconstruirDesdeCartera();
+        log.info("Saldos de cartera reconstruidos para {} clientes", clientes);
+        return clientes;
+    }
+
+    /**
+     * Construye el agregado la primera vez que la aplicación arranca con cartera registrada y la
+     * tabla {@code cliente_saldo} todavía vacía.
+     *
+     * @return {@code true} si fue necesario reconstruir
+     */
+    public boolean inicializarSiVacio() {
+        if (clienteSaldoRepository.count() > 0 || carteraRepository.count() == 0) {
+            return false;
+        }
+        reconstruir();
+        return true;
+    }
+
+    /**
+     * Compara el agregado almacenado con el calculado desde la cartera y corrige cada cliente con
+     * diferencias. Cada corrección se hace en su propia transacción, bloqueando la fila del cliente
+     * y recalculando su valor en ese momento, para no pisar movimientos registrados mientras corre
+     * la verificación.
+     *
+     * @return cantidad de clientes corregidos
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int verificar() {
+        List<ClienteSaldoCalculado> calculados = clienteSaldoRepository.calcularDesdeCartera();
+        Map<Long, ClienteSaldo> almacenados = clienteSaldoRepository.findAll().stream()
+                .collect(Collectors.toMap(ClienteSaldo::getClienteId, Function.identity()));
+
+        int corregidos = 0;
+        for (ClienteSaldoCalculado calculado : calculados) {
+            ClienteSaldo almacenado = almacenados.get(calculado.getClienteId());
+            if (coincide(almacenado, calculado)) {
+                continue;
+            }
+            log.warn("Saldo de cartera desfasado para el cliente {}: almacenado={} calculado={}",
+                    calculado.getClienteId(),
+                    almacenado != null ? almacenado.getSaldoPendiente() : null,
+                    calculado.getSaldoPendiente());
+            transaccionIndependiente.executeWithoutResult(estado -> corregir(calculado.getClienteId()));
+            corregidos++;
+        }
+        log.info("Verificación de saldos de cartera finalizada: {} clientes revisados, {} corregidos",
+                calculados.size(), corregidos);
+        return corregidos;
+    }
+
+    private void corregir(Long clienteId) {
+        ClienteSaldo saldo = clienteSaldoRepository.findParaActualizar(clienteId)
+                .orElseGet(() -> ClienteSaldo.builder().clienteId(clienteId).build());
+        clienteSaldoRepository.calcularDesdeCartera(clienteId).ifPresent(calculado -> {
+            saldo.setSaldoPendiente(Dinero.de(calculado.getSaldoPendiente()));
+            saldo.setCreditosAbiertos(calculado.getCreditosAbiertos().intValue());
+            saldo.setCreditoMasAntiguo(calculado.getCreditoMasAntiguo());
+            saldo.setUltimoMovimiento(calculado.getUltimoMovimiento());
+            clienteSaldoRepository.save(saldo);
+        });
+    }
+
+    private boolean coincide(ClienteSaldo almacenado, ClienteSaldoCalculado calculado) {
+        if (almacenado == null) {
+            return false;
+        }
+        return almacenado.getSaldoPendiente().equals(Dinero.de(calculado.getSaldoPendiente()))
+                && almacenado.getCreditosAbiertos() == calculado.getCreditosAbiertos().intValue()
+                && Objects.equals(almacenado.getCreditoMasAntiguo(), calculado.getCreditoMasAntiguo());
+    }
+}
@@ -0,0 +1,468 @@
+package com.SICOIL.services.cartera;
+
+import com.SICOIL.dtos.cartera.CarteraAbonoRequest;
+import com.SICOIL.dtos.cartera.ConciliacionBancariaResponse;
+import com.SICOIL.dtos.cartera.ConciliacionLineaResponse;
+import com.SICOIL.models.ConciliacionLinea;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.repositories.ClienteIndice;
+import com.SICOIL.repositories.ClienteRepository;
+import com.SICOIL.repositories.ConciliacionLineaRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Aplica como abonos de cartera las transferencias de un extracto bancario en CSV.
+ *
+ * <p>El archivo se lee línea a línea. Cada línea se asocia a un cliente mediante un índice en
+ * memoria construido una sola vez por archivo: primero por referencia (teléfono del cliente o
+ * código {@code CLI-<id>}) y, si no hay coincidencia, por nombre normalizado. Las líneas asociadas
+ * se aplican con {@link CarteraService#registrarAbono} en transacciones de varios abonos; si una
+ * transacción falla, sus líneas se reintentan una por una para aislar la que no cumple las reglas.
+ *
+ * <p>Cada línea aplicada deja una {@link ConciliacionLinea} con la clave de fecha, referencia, nombre
+ * y monto, en la misma transacción que su abono. Las líneas cuya clave ya existe, o que se repiten
+ * dentro del mismo archivo, se rechazan como duplicadas; así cargar dos veces el mismo extracto no
+ * aplica de nuevo los pagos. Las claves se consultan una vez por bloque de líneas.
+ */
+@Service
+@Slf4j
+public class ConciliacionBancariaService {
+
+    private static final Pattern CODIGO_CLIENTE = Pattern.compile("CLI-?(\\d+)", Pattern.CASE_INSENSITIVE);
+    private static final int LONGITUD_MINIMA_TELEFONO = 7;
+    private static final String MOTIVO_YA_APLICADA = "La línea ya se aplicó en un extracto anterior.";
+
+    private final ClienteRepository clienteRepository;
+    private final CarteraService carteraService;
+    private final ClienteSaldoService clienteSaldoService;
+    private final ConciliacionLineaRepository conciliacionLineaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+
+    public ConciliacionBancariaService(ClienteRepository clienteRepository,
+                                       CarteraService carteraService,
+                                       ClienteSaldoService clienteSaldoService,
+                                       ConciliacionLineaRepository conciliacionLineaRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${sicoil.cartera.conciliacion.tamano-lote:50}") int tamanoLote) {
+        this.clienteRepository = clienteRepository;
+        this.carteraService = carteraService;
+        this.clienteSaldoService = clienteSaldoService;
+        this.conciliacionLineaRepository = conciliacionLineaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Procesa el extracto y aplica los abonos que se pueden asociar sin ambigüedad a un cliente.
+     *
+     * <p>El archivo debe tener encabezado. Se reconocen las columnas {@code fecha},
+     * {@code referencia}, {@code nombre} (o {@code descripcion}) y {@code monto} (o {@code valor});
+     * el separador puede ser coma o punto y coma.
+     *
+     * @param contenido flujo del archivo CSV; no se cierra
+     * @return las líneas aplicadas, ambiguas y rechazadas (incluidas las duplicadas) con el motivo
+     *         de cada rechazo
+     * @throws IOException si falla la lectura del archivo
+     * @throws IllegalArgumentException si el archivo está vacío o su encabezado no es válido
+     */
+    public ConciliacionBancariaResponse procesarExtracto(InputStream contenido) throws IOException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8));
+        String encabezado = lector.readLine();
+        if (encabezado == null || encabezado.isBlank()) {
+            throw new IllegalArgumentException("El extracto está vacío.");
+        }
+        char separador = encabezado.chars().filter(c -> c == ';').count()
+                > encabezado.chars().filter(c -> c == ',').count() ? ';' : ',';
+        Columnas columnas = Columnas.desde(dividir(quitarBom(encabezado), separador));
+
+        Lectura lectura = new Lectura(columnas, new IndiceClientes(clienteRepository.findIndice()));
+        List<LineaLeida> bloque = new ArrayList<>(tamanoLote);
+
+        String linea;
+        int numero = 1;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            lectura.resultado.totalLineas++;
+            bloque.add(new LineaLeida(numero, dividir(linea, separador)));
+            if (bloque.size() >= tamanoLote) {
+                procesarBloque(bloque, lectura);
+                bloque.clear();
+            }
+        }
+        if (!bloque.isEmpty()) {
+            procesarBloque(bloque, lectura);
+        }
+        Resultado resultado = lectura.resultado;
+
+        Dinero.Acumulador totalAplicado = new Dinero.Acumulador();
+        resultado.aplicadas.forEach(aplicada -> totalAplicado.agregar(aplicada.getMonto()));
+        log.info("Extracto procesado: {} líneas, {} aplicadas, {} ambiguas, {} rechazadas",
+                resultado.totalLineas, resultado.aplicadas.size(), resultado.ambiguas.size(), resultado.rechazadas.size());
+        return ConciliacionBancariaResponse.builder()
+                .totalLineas(resultado.totalLineas)
+                .totalAplicado(totalAplicado.total().aDouble())
+                .aplicadas(resultado.aplicadas)
+                .ambiguas(resultado.ambiguas)
+                .rechazadas(resultado.rechazadas)
+                .build();
+    }
+
+    /**
+     * Clasifica un bloque de líneas, consultando de una vez cuáles ya se aplicaron, y aplica las
+     * que quedan asociadas a un único cliente.
+     */
+    private void procesarBloque(List<LineaLeida> bloque, Lectura lectura) {
+        List<ConciliacionLineaResponse> leidas = bloque.stream()
+                .map(leida -> leer(leida, lectura.columnas))
+                .toList();
+        Set<String> claves = new HashSet<>();
+        leidas.forEach(leida -> {
+            if (leida.getMonto() != null) {
+                claves.add(clave(leida));
+            }
+        });
+        Set<String> aplicadas = claves.isEmpty()
+                ? Set.of()
+                : new HashSet<>(conciliacionLineaRepository.findClavesAplicadas(claves));
+
+        List<ConciliacionLineaResponse> lote = new ArrayList<>(bloque.size());
+        for (ConciliacionLineaResponse leida : leidas) {
+            ConciliacionLineaResponse clasificada = clasificar(leida, aplicadas, lectura);
+            if (clasificada.getCandidatos() != null && clasificada.getCandidatos().size() > 1) {
+                lectura.resultado.ambiguas.add(clasificada);
+            } else if (clasificada.getMotivo() != null) {
+                lectura.resultado.rechazadas.add(clasificada);
+            } else {
+                lote.add(clasificada);
+            }
+        }
+        if (!lote.isEmpty()) {
+            aplicarLote(lote, lectura.resultado);
+        }
+    }
+
+    private ConciliacionLineaResponse leer(LineaLeida leida, Columnas columnas) {
+        return ConciliacionLineaResponse.builder()
+                .linea(leida.numero())
+                .fecha(columnas.valor(leida.campos(), columnas.fecha))
+                .referencia(columnas.valor(leida.campos(), columnas.referencia))
+                .nombre(columnas.valor(leida.campos(), columnas.nombre))
+                .monto(parsearMonto(columnas.valor(leida.campos(), columnas.monto)))
+                .build();
+    }
+
+    private ConciliacionLineaResponse clasificar(ConciliacionLineaResponse leida,
+                                                 Set<String> aplicadas,
+                                                 Lectura lectura) {
+        ConciliacionLineaResponse.ConciliacionLineaResponseBuilder linea = leida.toBuilder();
+        if (leida.getMonto() == null) {
+            return linea.motivo("El monto no es un número válido.").build();
+        }
+        Dinero monto = Dinero.de(leida.getMonto());
+        if (!monto.esPositivo()) {
+            return linea.motivo("La línea no corresponde a un ingreso.").build();
+        }
+        String clave = clave(leida);
+        if (aplicadas.contains(clave)) {
+            return linea.motivo(MOTIVO_YA_APLICADA).build();
+        }
+        if (!lectura.clavesVistas.add(clave)) {
+            return linea.motivo("La línea está repetida en el extracto.").build();
+        }
+
+        List<ClienteIndice> candidatos = lectura.indice.buscar(leida.getReferencia(), leida.getNombre());
+        if (candidatos.isEmpty()) {
+            return linea.motivo("No se encontró un cliente para la referencia o el nombre.").build();
+        }
+        if (candidatos.size() > 1) {
+            return linea.candidatos(candidatos.stream().map(ClienteIndice::getId).toList())
+                    .motivo("La línea coincide con varios clientes.")
+                    .build();
+        }
+
+        ClienteIndice cliente = candidatos.get(0);
+        linea.clienteId(cliente.getId()).clienteNombre(cliente.getNombre());
+
+        //validamos contra el saldo agregado del cliente, descontando lo que ya se asigno en este extracto
+        Dinero disponible = lectura.saldoDisponible.computeIfAbsent(cliente.getId(),
+                id -> Dinero.de(clienteSaldoService.obtener(id).getSaldoPendiente()));
+        if (monto.esMayorQue(disponible)) {
+            return linea.motivo("El abono excede el saldo pendiente del cliente.").build();
+        }
+        lectura.saldoDisponible.put(cliente.getId(), disponible.restar(monto));
+        return linea.build();
+    }
+
+    private void aplicarLote(List<ConciliacionLineaResponse> lote, Resultado resultado) {
+        try {
+            transactionTemplate.executeWithoutResult(estado -> lote.forEach(this::aplicar));
+            resultado.aplicadas.addAll(lote);
+        } catch (RuntimeException ex) {
+            log.warn("Falló el lote de {} abonos del extracto, se aplican individualmente: {}", lote.size(), ex.getMessage());
+            for (ConciliacionLineaResponse linea : lote) {
+                try {
+                    transactionTemplate.executeWithoutResult(estado -> aplicar(linea));
+                    resultado.aplicadas.add(linea);
+                } catch (DataIntegrityViolationException duplicada) {
+                    //otra carga del mismo extracto aplico la linea despues de consultar las claves
+                    resultado.rechazadas.add(linea.toBuilder().motivo(MOTIVO_YA_APLICADA).build());
+                } catch (RuntimeException errorLinea) {
+                    resultado.rechazadas.add(linea.toBuilder().motivo(errorLinea.getMessage()).build());
+                }
+            }
+        }
+    }
+
+    private void aplicar(ConciliacionLineaResponse linea) {
+        CarteraAbonoRequest request = new CarteraAbonoRequest();
+        request.setMonto(linea.getMonto());
+        request.setObservacion(construirObservacion(linea));
+        carteraService.registrarAbono(linea.getClienteId(), request);
+        conciliacionLineaRepository.saveAndFlush(ConciliacionLinea.builder()
+                .clave(clave(linea))
+                .clienteId(linea.getClienteId())
+                .monto(Dinero.de(linea.getMonto()))
+                .fechaExtracto(recortar(linea.getFecha(), 40))
+                .referencia(recortar(linea.getReferencia(), 120))
+                .build());
+    }
+
+    /**
+     * Huella SHA-256 de la fecha, la referencia, el nombre normalizado y el monto en centavos de la
+     * línea, que identifica la transferencia entre cargas del extracto.
+     */
+    private static String clave(ConciliacionLineaResponse linea) {
+        String texto = String.join("|",
+                linea.getFecha() != null ? linea.getFecha().trim() : "",
+                linea.getReferencia() != null ? linea.getReferencia().trim().toUpperCase(Locale.ROOT) : "",
+                normalizarNombre(linea.getNombre()),
+                String.valueOf(Dinero.de(linea.getMonto()).centavos()));
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no está disponible.", ex);
+        }
+    }
+
+    private static String recortar(String texto, int longitud) {
+        return texto != null && texto.length() > longitud ? texto.substring(0, longitud) : texto;
+    }
+
+    private String construirObservacion(ConciliacionLineaResponse linea) {
+        StringBuilder builder = new StringBuilder("Transferencia bancaria");
+        if (linea.getReferencia() != null) {
+            builder.append(" ref ").append(linea.getReferencia());
+        }
+        if (linea.getFecha() != null) {
+            builder.append(" del ").append(linea.getFecha());
+        }
+        return builder.length() > 500 ? builder.substring(0, 500) : builder.toString();
+    }
+
+    /**
+     * Interpreta montos con separadores de miles y decimales en formato colombiano
+     * ({@code 1.234.567,50}) o anglosajón ({@code 1,234,567.50}), con o sin símbolo de moneda.
+     */
+    private static Double parsearMonto(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String limpio = texto.replaceAll("[^0-9,.-]", "");
+        if (limpio.isEmpty()) {
+            return null;
+        }
+        int ultimaComa = limpio.lastIndexOf(',');
+        int ultimoPunto = limpio.lastIndexOf('.');
+        int decimal = Math.max(ultimaComa, ultimoPunto);
+        boolean tieneDecimales = false;
+        if (decimal >= 0) {
+            //con ambos separadores el último es el decimal; con uno solo, es decimal si aparece una vez y le siguen hasta dos dígitos
+            boolean ambosSeparadores = ultimaComa >= 0 && ultimoPunto >= 0;
+            boolean unicoDeSuTipo = limpio.indexOf(limpio.charAt(decimal)) == decimal;
+            tieneDecimales = ambosSeparadores || (unicoDeSuTipo && limpio.length() - decimal - 1 <= 2);
+        }
+        String normalizado;
+        if (tieneDecimales) {
+            normalizado = limpio.substring(0, decimal).replaceAll("[,.]", "") + "." + limpio.substring(decimal + 1);
+        } else {
+            normalizado = limpio.replaceAll("[,.]", "");
+        }
+        try {
+            return Double.parseDouble(normalizado);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String normalizarNombre(String nombre) {
+        if (nombre == null) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(nombre, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9 ]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    private static String soloDigitos(String texto) {
+        return texto == null ? "" : texto.replaceAll("\\D", "");
+    }
+
+    private static String quitarBom(String texto) {
+        return !texto.isEmpty() && texto.charAt(0) == '\uFEFF' ? texto.substring(1) : texto;
+    }
+
+    private static List<String> dividir(String linea, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                if (entreComillas && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    entreComillas = !entreComillas;
+                }
+            } else if (c == separador && !entreComillas) {
+                campos.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString().trim());
+        return campos;
+    }
+
+    private static final class IndiceClientes {
+
+        private final Map<String, List<ClienteIndice>> porTelefono = new HashMap<>();
+        private final Map<Long, ClienteIndice> porId = new HashMap<>();
+        private final Map<String, List<ClienteIndice>> porNombre = new HashMap<>();
+
+        private IndiceClientes(List<ClienteIndice> clientes) {
+            for (ClienteIndice cliente : clientes) {
+                porId.put(cliente.getId(), cliente);
+                String telefono = soloDigitos(cliente.getTelefono());
+                if (telefono.length() >= LONGITUD_MINIMA_TELEFONO) {
+                    porTelefono.computeIfAbsent(telefono, t -> new ArrayList<>()).add(cliente);
+                }
+                String nombre = normalizarNombre(cliente.getNombre());
+                if (!nombre.isEmpty()) {
+                    porNombre.computeIfAbsent(nombre, n -> new ArrayList<>()).add(cliente);
+                }
+            }
+        }
+
+        private List<ClienteIndice> buscar(String referencia, String nombre) {
+            if (referencia != null && !referencia.isBlank()) {
+                Set<ClienteIndice> coincidencias = new LinkedHashSet<>();
+                Matcher codigo = CODIGO_CLIENTE.matcher(referencia);
+                while (codigo.find()) {
+                    ClienteIndice cliente = porId.get(Long.valueOf(codigo.group(1)));
+                    if (cliente != null) {
+                        coincidencias.add(cliente);
+                    }
+                }
+                coincidencias.addAll(porTelefono.getOrDefault(soloDigitos(referencia), List.of()));
+                if (!coincidencias.isEmpty()) {
+                    return List.copyOf(coincidencias);
+                }
+            }
+            return porNombre.getOrDefault(normalizarNombre(nombre), List.of());
+        }
+    }
+
+    private record Columnas(int fecha, int referencia, int nombre, int monto) {
+
+        private static Columnas desde(List<String> encabezados) {
+            int fecha = -1;
+            int referencia = -1;
+            int nombre = -1;
+            int monto = -1;
+            for (int i = 0; i < encabezados.size(); i++) {
+                String columna = normalizarNombre(encabezados.get(i));
+                switch (columna) {
+                    case "fecha" -> fecha = i;
+                    case "referencia", "ref", "documento" -> referencia = i;
+                    case "nombre", "descripcion", "ordenante", "detalle" -> nombre = i;
+                    case "monto", "valor", "credito", "abono" -> monto = i;
+                    default -> {
+                    }
+                }
+            }
+            if (monto < 0 || (referencia < 0 && nombre < 0)) {
+                throw new IllegalArgumentException(
+                        "El encabezado del extracto debe incluir la columna monto y al menos referencia o nombre.");
+            }
+            return new Columnas(fecha, referencia, nombre, monto);
+        }
+
+        private String valor(List<String> campos, int indice) {
+            if (indice < 0 || indice >= campos.size()) {
+                return null;
+            }
+            String valor = campos.get(indice);
+            return valor.isEmpty() ? null : valor;
+        }
+    }
+
+    private record LineaLeida(int numero, List<String> campos) {
+    }
+
+    /**
+     * Estado de la lectura de un extracto: el índice de clientes, el saldo aún disponible por
+     * cliente, las claves ya vistas en el archivo y el resultado acumulado.
+     */
+    private static final class Lectura {
+        private final Columnas columnas;
+        private final IndiceClientes indice;
+        private final Map<Long, Dinero> saldoDisponible = new HashMap<>();
+        private final Set<String> clavesVistas = new HashSet<>();
+        private final Resultado resultado = new Resultado();
+
+        private Lectura(Columnas columnas, IndiceClientes indice) {
+            this.columnas = columnas;
+            this.indice = indice;
+        }
+    }
+
+    private static final class Resultado {
+        private int totalLineas;
+        private final List<ConciliacionLineaResponse> aplicadas = new ArrayList<>();
+        private final List<ConciliacionLineaResponse> ambiguas = new ArrayList<>();
+        private final List<ConciliacionLineaResponse> rechazadas = new ArrayList<>();
+    }
+}
@@ -0,0 +1,41 @@
+package com.SICOIL.services.consulta;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de un listado ordenado por fecha e id descendentes. Se entrega al cliente como un
+ * texto opaco y se usa para pedir las filas estrictamente anteriores a esa posición, de modo que
+ * las páginas no se desplazan cuando se registran movimientos nuevos.
+ */
+public record CursorFechaId(LocalDateTime fecha, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    public String codificar() {
+        String valor = fecha + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor texto recibido del cliente; puede ser {@code null} o vacío para la primera página
+     * @return la posición decodificada o {@code null} si no se envió cursor
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static CursorFechaId decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            return new CursorFechaId(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido.");
+        }
+    }
+}
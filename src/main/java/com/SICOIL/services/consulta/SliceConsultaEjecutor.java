@@ -0,0 +1,66 @@
+package com.SICOIL.services.consulta;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecuta una {@link Specification} devolviendo un {@link Slice} en lugar de un {@code Page}.
+ * Se consulta una fila adicional al tamaño solicitado para saber si existe una página siguiente,
+ * evitando así el {@code count(*)} que Spring Data ejecuta por cada página.
+ */
+@Component
+@RequiredArgsConstructor
+public class SliceConsultaEjecutor {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Busca una porción de resultados de la entidad según la especificación y la paginación.
+     *
+     * @param entidad clase de la entidad a consultar
+     * @param spec filtros a aplicar; puede ser {@code null}
+     * @param pageable página, tamaño y ordenamiento solicitados
+     * @return porción con a lo sumo {@code pageable.getPageSize()} elementos e indicador de página siguiente
+     */
+    public <T> Slice<T> buscar(Class<T> entidad, Specification<T> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entidad);
+        Root<T> root = query.from(entidad);
+        query.select(root);
+        if (spec != null) {
+            Predicate predicado = spec.toPredicate(root, query, cb);
+            if (predicado != null) {
+                query.where(predicado);
+            }
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        if (pageable.isUnpaged()) {
+            List<T> todos = entityManager.createQuery(query).getResultList();
+            return new SliceImpl<>(todos, pageable, false);
+        }
+
+        int tamano = pageable.getPageSize();
+        List<T> filas = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(tamano + 1)
+                .getResultList();
+
+        boolean haySiguiente = filas.size() > tamano;
+        List<T> contenido = haySiguiente ? filas.subList(0, tamano) : filas;
+        return new SliceImpl<>(contenido, pageable, haySiguiente);
+    }
+}
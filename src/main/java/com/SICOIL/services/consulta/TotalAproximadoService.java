@@ -0,0 +1,56 @@
+package com.SICOIL.services.consulta;
+
+import com.SICOIL.dtos.consulta.TotalAproximadoResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Calcula en segundo plano el total de registros de un listado y lo conserva en caché por un
+ * tiempo corto. El total es aproximado: puede no reflejar movimientos registrados después de
+ * calcularse, por eso la respuesta incluye el momento del cálculo.
+ *
+ * <p>Solicitudes simultáneas con la misma clave comparten un único conteo en curso.
+ */
+@Service
+@Slf4j
+public class TotalAproximadoService {
+
+    private final AsyncCache<Object, TotalAproximadoResponse> cache;
+
+    public TotalAproximadoService(@Qualifier("consultasExecutor") Executor consultasExecutor,
+                                  @Value("${sicoil.consultas.total.ttl-segundos:60}") long ttlSegundos,
+                                  @Value("${sicoil.consultas.total.max-entradas:500}") long maxEntradas) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .maximumSize(maxEntradas)
+                .executor(consultasExecutor)
+                .buildAsync();
+    }
+
+    /**
+     * Obtiene el total asociado a la clave, ejecutando el conteo solo si no está en caché.
+     * Un conteo fallido no queda almacenado.
+     *
+     * @param clave identifica el listado y sus filtros; debe implementar {@code equals} y {@code hashCode}
+     * @param conteo función que ejecuta el conteo real contra la base de datos
+     * @return futuro con el total y la fecha en que se calculó
+     */
+    public CompletableFuture<TotalAproximadoResponse> obtener(Object clave, LongSupplier conteo) {
+        return cache.get(clave, (k, executor) -> CompletableFuture.supplyAsync(() -> {
+            log.debug("Calculando total aproximado para {}", k);
+            return TotalAproximadoResponse.builder()
+                    .total(conteo.getAsLong())
+                    .calculadoEn(LocalDateTime.now())
+                    .build();
+        }, executor));
+    }
+}
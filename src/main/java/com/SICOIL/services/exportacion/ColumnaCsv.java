@@ -0,0 +1,16 @@
+package com.SICOIL.services.exportacion;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import java.util.function.Function;
+
+/**
+ * Columna de una exportación CSV: el encabezado y la expresión de criteria que obtiene su
+ * valor a partir de la raíz de la consulta.
+ */
+public record ColumnaCsv<T>(String encabezado, Function<Root<T>, Expression<?>> expresion) {
+
+    public static <T> ColumnaCsv<T> de(String encabezado, Function<Root<T>, Expression<?>> expresion) {
+        return new ColumnaCsv<>(encabezado, expresion);
+    }
+}
@@ -0,0 +1,137 @@
+package com.SICOIL.services.exportacion;
+
+import com.SICOIL.models.Dinero;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+/**
+ * Escribe en formato CSV el resultado de una {@link Specification} leyendo las filas con un
+ * cursor JDBC de solo avance. Solo se proyectan las columnas solicitadas, de modo que no se
+ * cargan entidades en el contexto de persistencia y el consumo de memoria no depende de la
+ * cantidad de filas exportadas.
+ *
+ * <p>Debe invocarse dentro de una transacción de solo lectura abierta por el servicio llamador.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CsvExportador {
+
+    private static final char SEPARADOR = ',';
+
+    private final EntityManager entityManager;
+
+    @Value("${sicoil.exportacion.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Exporta las filas de la entidad que cumplen la especificación, ordenadas por su id.
+     *
+     * @param entidad clase de la entidad a consultar
+     * @param spec filtros a aplicar; puede ser {@code null} para exportar todo
+     * @param columnas columnas a escribir, en orden
+     * @param salida flujo donde se escribe el CSV; no se cierra al terminar
+     * @return cantidad de filas escritas, sin contar el encabezado
+     * @throws IOException si falla la escritura en el flujo de salida
+     */
+    @SuppressWarnings("unchecked")
+    public <T> long exportar(Class<T> entidad,
+                             Specification<T> spec,
+                             List<ColumnaCsv<T>> columnas,
+                             OutputStream salida) throws IOException {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entidad);
+        List<Selection<?>> selecciones = columnas.stream()
+                .<Selection<?>>map(columna -> columna.expresion().apply(root))
+                .toList();
+        query.multiselect(selecciones);
+        if (spec != null) {
+            Predicate predicado = spec.toPredicate(root, query, cb);
+            if (predicado != null) {
+                query.where(predicado);
+            }
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        Query<Tuple> consulta = entityManager.createQuery(query).unwrap(Query.class);
+        consulta.setFetchSize(fetchSize);
+        consulta.setReadOnly(true);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        escribirFila(writer, columnas.stream().map(ColumnaCsv::encabezado).toArray());
+
+        long filas = 0;
+        try (ScrollableResults<Tuple> resultados = consulta.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (resultados.next()) {
+                escribirFila(writer, resultados.get().toArray());
+                filas++;
+                if (filas % fetchSize == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exportación CSV de {} finalizada con {} filas", entidad.getSimpleName(), filas);
+        return filas;
+    }
+
+    private void escribirFila(Writer writer, Object[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(SEPARADOR);
+            }
+            writer.write(formatear(valores[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private String formatear(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor instanceof Double numero) {
+            return BigDecimal.valueOf(numero).toPlainString();
+        }
+        if (valor instanceof Dinero monto) {
+            return monto.toString();
+        }
+        if (valor instanceof Number || valor instanceof Boolean) {
+            return valor.toString();
+        }
+        String texto = valor.toString();
+        // Evita que hojas de cálculo interpreten como fórmula un texto ingresado por el usuario
+        if (!texto.isEmpty() && "=+-@".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        boolean requiereComillas = texto.indexOf(SEPARADOR) >= 0
+                || texto.indexOf('"') >= 0
+                || texto.indexOf('\n') >= 0
+                || texto.indexOf('\r') >= 0;
+        if (!requiereComillas) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+}
@@ -59,7 +59,7 @@ public class FiltroService {
                                     .sorted(Comparator.comparing(Producto::getId))
                                     .map(producto -> FiltroPrecioResponse.builder()
                                             .id(producto.getId())
-                                            .precioCompra(producto.getPrecioCompra())
+                                            .precioCompra(producto.getPrecioCompra().aDouble())
                                             .cantidad(producto.getStock())
                                             .build())
                                     .toList())
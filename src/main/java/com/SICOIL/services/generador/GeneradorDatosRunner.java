@@ -0,0 +1,25 @@
+package com.SICOIL.services.generador;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ejecuta el generador de datos al arrancar con el perfil {@code generador}, por ejemplo
+ * {@code --spring.profiles.active=generador}. Corre antes de {@code ResumenDiarioJob}, que luego
+ * cierra los días generados.
+ */
+@Component
+@Profile("generador")
+@RequiredArgsConstructor
+public class GeneradorDatosRunner implements ApplicationRunner {
+
+    private final GeneradorDatosService generadorDatosService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generadorDatosService.generar();
+    }
+}
@@ -0,0 +1,889 @@
+package com.SICOIL.services.generador;
+
+import com.SICOIL.models.CapitalOrigen;
+import com.SICOIL.models.CarteraMovimientoMotivo;
+import com.SICOIL.models.CarteraMovimientoTipo;
+import com.SICOIL.models.MovimientoTipo;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.services.cartera.ClienteSaldoService;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Llena una base vacía con un histórico sintético de tamaño configurable para las pruebas de
+ * rendimiento: grupos de productos con varios lotes de precio, años de ventas con sus detalles y
+ * kardex, cartera con abonos parciales y movimientos de capital.
+ *
+ * <p>Las filas se insertan con lotes JDBC y un día de ventas por transacción; el inventario, los
+ * saldos y el FIFO por lote se calculan en memoria. Al confirmar cada día se cumplen las mismas
+ * invariantes que mantiene la aplicación: el stock de cada lote es igual a sus entradas menos sus
+ * salidas en el kardex y el saldo de cada cartera es igual a su crédito menos sus abonos. Con la
+ * misma semilla y la misma fecha final el contenido generado es idéntico; solo cambian los
+ * identificadores que asigne la base.
+ *
+ * <p>No genera ventas anuladas ni ajustes; los días quedan pendientes de cierre y los cierra
+ * {@code ResumenDiarioJob} al arrancar.
+ *
+ * <p>Si la generación falla a mitad de camino, borra las filas que alcanzó a confirmar (las de id
+ * mayor al máximo que había en cada tabla al empezar) y relanza el error, así que la base vuelve a
+ * quedar vacía y puede repetirse. Si el proceso muere sin llegar a limpiar, hay que vaciar a mano
+ * las tablas de {@link #TABLAS_GENERADAS}, en ese orden, antes de volver a ejecutarlo.
+ */
+@Service
+@Slf4j
+public class GeneradorDatosService {
+
+    private static final String INSERT_USUARIO = """
+            insert into usuarios (usuario, contrasena) values (?, ?)
+            """;
+
+    private static final String INSERT_CLIENTE = """
+            insert into clientes (nombre, telefono, direccion, fecha_registro) values (?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_PRODUCTO = """
+            insert into productos (nombre, precio_compra, cantidad_por_cajas, stock, fecha_registro, comentario)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_STOCK = """
+            update productos set stock = ? where id = ?
+            """;
+
+    private static final String INSERT_VENTA = """
+            insert into ventas (cliente_id, usuario_id, tipo_venta, activa, motivo_anulacion, total, fecha_registro)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_DETALLE = """
+            insert into venta_detalle (cantidad, subtotal, producto_id, venta_id) values (?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_KARDEX = """
+            insert into kardex (producto_id, usuario_id, cantidad, tipo_movimiento, comentario, fecha_registro)
+            values (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_CARTERA = """
+            insert into cartera (cliente_id, venta_id, saldo, ultima_actualizacion) values (?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_CARTERA_MOVIMIENTO = """
+            insert into cartera_movimientos (cartera_id, cliente_id, tipo, motivo, monto, usuario_id, observacion, fecha)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_CAPITAL = """
+            insert into capital_movimientos (origen, referencia_id, monto_total, es_credito, descripcion, creado_en, usuario_id)
+            values (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Tablas que escribe el generador, en un orden de borrado que respeta las llaves foráneas.
+     * {@code cliente_saldo} usa el id del cliente como llave.
+     */
+    static final List<String> TABLAS_GENERADAS = List.of(
+            "cartera_movimientos", "cartera", "capital_movimientos", "kardex", "venta_detalle", "ventas",
+            "productos", "cliente_saldo", "clientes", "usuarios");
+
+    private static final String[] CATEGORIAS = {
+            "Aceite motor 20W50", "Aceite motor 15W40", "Aceite motor 10W30", "Aceite motor 5W30",
+            "Aceite 2T", "Aceite transmisión 80W90", "Aceite hidráulico 68", "Líquido de frenos DOT4",
+            "Refrigerante", "Grasa multipropósito", "Filtro de aceite", "Filtro de aire",
+            "Filtro de combustible", "Aditivo limpiador", "Lubricante de cadena"
+    };
+
+    private static final String[] MARCAS = {
+            "Mobil", "Shell", "Castrol", "Texaco", "Terpel", "Valvoline", "Motul", "Gulf", "Total", "Chevron"
+    };
+
+    private static final String[] PRESENTACIONES = {"1/4 galón", "1 galón", "5 galones", "Litro", "Unidad"};
+
+    private static final String[] NOMBRES = {
+            "Carlos", "Andrés", "Luis", "Jorge", "Diego", "Juan", "Camilo", "Felipe", "María", "Paola",
+            "Diana", "Laura", "Sandra", "Natalia", "Alejandro", "Oscar", "Wilson", "Hernán", "Yesid", "Fabio"
+    };
+
+    private static final String[] APELLIDOS = {
+            "Gómez", "Rodríguez", "Martínez", "López", "García", "Pérez", "Sánchez", "Ramírez", "Torres",
+            "Flórez", "Rojas", "Vargas", "Moreno", "Castro", "Ortiz", "Jiménez", "Suárez", "Herrera"
+    };
+
+    private static final String[] NEGOCIOS = {"Lubricentro", "Taller", "Servicentro", "Motos", "Autopartes"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccion;
+    private final PasswordEncoder passwordEncoder;
+    private final ClienteSaldoService clienteSaldoService;
+    private final Parametros configurados;
+
+    public GeneradorDatosService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 PasswordEncoder passwordEncoder,
+                                 ClienteSaldoService clienteSaldoService,
+                                 @Value("${sicoil.generador.semilla:42}") long semilla,
+                                 @Value("${sicoil.generador.hasta:}") String hasta,
+                                 @Value("${sicoil.generador.dias:730}") int dias,
+                                 @Value("${sicoil.generador.productos:300}") int productos,
+                                 @Value("${sicoil.generador.lotes-iniciales:2}") int lotesIniciales,
+                                 @Value("${sicoil.generador.clientes:2000}") int clientes,
+                                 @Value("${sicoil.generador.usuarios:3}") int usuarios,
+                                 @Value("${sicoil.generador.contrasena:}") String contrasena,
+                                 @Value("${sicoil.generador.ventas:100000}") int ventas,
+                                 @Value("${sicoil.generador.max-lineas:5}") int maxLineas,
+                                 @Value("${sicoil.generador.porcentaje-credito:35}") int porcentajeCredito,
+                                 @Value("${sicoil.generador.porcentaje-abonado:70}") int porcentajeAbonado,
+                                 @Value("${sicoil.generador.lote-jdbc:1000}") int loteJdbc) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.clienteSaldoService = clienteSaldoService;
+        this.configurados = Parametros.builder()
+                .semilla(semilla)
+                .hasta(hasta == null || hasta.isBlank() ? null : LocalDate.parse(hasta.trim()))
+                .dias(dias)
+                .productos(productos)
+                .lotesIniciales(lotesIniciales)
+                .clientes(clientes)
+                .usuarios(usuarios)
+                .contrasena(contrasena)
+                .ventas(ventas)
+                .maxLineas(maxLineas)
+                .porcentajeCredito(porcentajeCredito)
+                .porcentajeAbonado(porcentajeAbonado)
+                .loteJdbc(loteJdbc)
+                .build();
+    }
+
+    /**
+     * Volúmenes y semilla leídos de {@code sicoil.generador.*}. Sin {@code hasta} el histórico
+     * termina ayer, así que para repetir exactamente un conjunto de datos hay que fijar la fecha.
+     */
+    @Builder(toBuilder = true)
+    public record Parametros(long semilla,
+                             LocalDate hasta,
+                             int dias,
+                             int productos,
+                             int lotesIniciales,
+                             int clientes,
+                             int usuarios,
+                             String contrasena,
+                             int ventas,
+                             int maxLineas,
+                             int porcentajeCredito,
+                             int porcentajeAbonado,
+                             int loteJdbc) {
+    }
+
+    public record Resultado(int usuarios,
+                            int clientes,
+                            int lotes,
+                            int ventas,
+                            int detalles,
+                            int movimientosKardex,
+                            int carteras,
+                            int abonos,
+                            int movimientosCapital) {
+    }
+
+    public Parametros parametrosConfigurados() {
+        return configurados;
+    }
+
+    public Resultado generar() {
+        return generar(configurados);
+    }
+
+    /**
+     * Genera el histórico completo con los parámetros indicados.
+     *
+     * @throws IllegalArgumentException si algún volumen o porcentaje no es válido
+     * @throws IllegalStateException si la base ya tiene productos o ventas
+     */
+    public Resultado generar(Parametros parametros) {
+        validar(parametros);
+        Boolean vacia = transaccion.execute(estado -> baseVacia());
+        if (!Boolean.TRUE.equals(vacia)) {
+            throw new IllegalStateException("La base ya tiene productos o ventas; el generador solo llena una base vacía.");
+        }
+        LocalDate fin = parametros.hasta() != null ? parametros.hasta() : LocalDate.now().minusDays(1);
+        LocalDate inicio = fin.minusDays(parametros.dias() - 1L);
+        Generacion generacion = new Generacion(parametros, inicio, fin);
+        log.info("Generando {} ventas entre {} y {} con semilla {}", parametros.ventas(), inicio, fin, parametros.semilla());
+
+        Map<String, Long> marcas = marcasDeIds();
+        try {
+            transaccion.executeWithoutResult(estado -> generacion.inicializar());
+            int[] ventasPorDia = generacion.repartirVentas();
+            for (int dia = 0; dia < ventasPorDia.length; dia++) {
+                LocalDate fecha = inicio.plusDays(dia);
+                int cantidad = ventasPorDia[dia];
+                transaccion.executeWithoutResult(estado -> generacion.generarDia(fecha, cantidad));
+                if (fecha.getDayOfMonth() == 1) {
+                    log.info("Generado hasta {}: {} ventas", fecha, generacion.ventas);
+                }
+            }
+            transaccion.executeWithoutResult(estado -> clienteSaldoService.reconstruir());
+        } catch (RuntimeException ex) {
+            log.error("La generación falló con {} ventas confirmadas; borrando lo generado", generacion.ventas, ex);
+            transaccion.executeWithoutResult(estado -> borrarGenerado(marcas));
+            throw ex;
+        }
+
+        Resultado resultado = generacion.resultado();
+        log.info("Generación terminada: {}", resultado);
+        return resultado;
+    }
+
+    private void validar(Parametros parametros) {
+        if (parametros.dias() <= 0 || parametros.productos() <= 0 || parametros.lotesIniciales() <= 0
+                || parametros.clientes() <= 0 || parametros.usuarios() <= 0 || parametros.ventas() < 0
+                || parametros.maxLineas() <= 0 || parametros.loteJdbc() <= 0) {
+            throw new IllegalArgumentException("Los volúmenes del generador deben ser mayores a cero.");
+        }
+        if (parametros.porcentajeCredito() < 0 || parametros.porcentajeCredito() > 100
+                || parametros.porcentajeAbonado() < 0 || parametros.porcentajeAbonado() > 100) {
+            throw new IllegalArgumentException("Los porcentajes del generador deben estar entre 0 y 100.");
+        }
+        if (parametros.contrasena() == null || parametros.contrasena().isBlank()) {
+            throw new IllegalArgumentException("La contraseña de los usuarios generados es obligatoria.");
+        }
+    }
+
+    /**
+     * Id máximo de cada tabla generada antes de empezar; lo que quede por encima lo insertó esta
+     * ejecución.
+     */
+    private Map<String, Long> marcasDeIds() {
+        Map<String, Long> marcas = new LinkedHashMap<>();
+        for (String tabla : TABLAS_GENERADAS) {
+            String columna = columnaId(tabla);
+            marcas.put(tabla, jdbcTemplate.queryForObject(
+                    "select coalesce(max(" + columna + "), 0) from " + tabla, Long.class));
+        }
+        return marcas;
+    }
+
+    private void borrarGenerado(Map<String, Long> marcas) {
+        marcas.forEach((tabla, marca) -> {
+            int borradas = jdbcTemplate.update("delete from " + tabla + " where " + columnaId(tabla) + " > ?", marca);
+            log.info("Borradas {} filas generadas de {}", borradas, tabla);
+        });
+    }
+
+    private static String columnaId(String tabla) {
+        return "cliente_saldo".equals(tabla) ? "cliente_id" : "id";
+    }
+
+    private boolean baseVacia() {
+        Long productos = jdbcTemplate.queryForObject("select count(*) from productos", Long.class);
+        Long ventas = jdbcTemplate.queryForObject("select count(*) from ventas", Long.class);
+        return productos != null && productos == 0 && ventas != null && ventas == 0;
+    }
+
+    /**
+     * Estado en memoria de una ejecución. Todas las decisiones aleatorias salen de un único
+     * {@link Random} consumido siempre en el mismo orden, por eso la semilla fija el resultado.
+     */
+    private final class Generacion {
+
+        private final Parametros parametros;
+        private final LocalDate inicio;
+        private final LocalDate fin;
+        private final Random aleatorio;
+        private final List<Long> usuarioIds = new ArrayList<>();
+        private final List<Cliente> clientes = new ArrayList<>();
+        private final List<Grupo> grupos = new ArrayList<>();
+
+        private final List<FilaKardex> kardexPendiente = new ArrayList<>();
+        private final List<FilaCapital> capitalPendiente = new ArrayList<>();
+        private final Set<Lote> lotesModificados = new LinkedHashSet<>();
+
+        private long contadoMes;
+        private int lotes;
+        private int ventas;
+        private int detalles;
+        private int movimientosKardex;
+        private int carteras;
+        private int abonos;
+        private int movimientosCapital;
+
+        Generacion(Parametros parametros, LocalDate inicio, LocalDate fin) {
+            this.parametros = parametros;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.aleatorio = new Random(parametros.semilla());
+        }
+
+        void inicializar() {
+            insertarUsuarios();
+            insertarClientes();
+            crearGrupos();
+
+            LocalDateTime apertura = inicio.minusDays(1).atTime(7, 0);
+            long inventarioInicial = 0;
+            List<Lote> iniciales = new ArrayList<>();
+            for (Grupo grupo : grupos) {
+                for (int i = 0; i < parametros.lotesIniciales(); i++) {
+                    long costo = redondear(grupo.costoBase * (0.94 + 0.06 * i + 0.02 * aleatorio.nextDouble()), 100);
+                    int stock = grupo.cantidadPorCajas * (4 + aleatorio.nextInt(12));
+                    Lote lote = new Lote(grupo, costo, stock, apertura.plusMinutes(iniciales.size()));
+                    iniciales.add(lote);
+                    inventarioInicial += costo * stock;
+                }
+            }
+            capitalPendiente.add(new FilaCapital(CapitalOrigen.INYECCION, null, inventarioInicial + 20_000_000L,
+                    false, "Capital inicial", apertura.minusMinutes(1), usuarioIds.get(0)));
+            insertarLotes(iniciales);
+            vaciarPendientes();
+        }
+
+        int[] repartirVentas() {
+            int dias = parametros.dias();
+            double[] pesos = new double[dias];
+            double suma = 0;
+            for (int i = 0; i < dias; i++) {
+                LocalDate fecha = inicio.plusDays(i);
+                double semana = switch (fecha.getDayOfWeek()) {
+                    case SUNDAY -> 0.2;
+                    case SATURDAY -> 0.8;
+                    default -> 1.0;
+                };
+                double crecimiento = 1.0 + 0.3 * i / dias;
+                double temporada = 1.0 + 0.15 * Math.sin(2 * Math.PI * fecha.getDayOfYear() / 365.0);
+                pesos[i] = semana * crecimiento * temporada;
+                suma += pesos[i];
+            }
+            int[] cantidades = new int[dias];
+            double acumulado = 0;
+            long asignadas = 0;
+            for (int i = 0; i < dias; i++) {
+                acumulado += parametros.ventas() * pesos[i] / suma;
+                long hastaHoy = i == dias - 1 ? parametros.ventas() : Math.round(acumulado);
+                cantidades[i] = (int) (hastaHoy - asignadas);
+                asignadas = hastaHoy;
+            }
+            return cantidades;
+        }
+
+        void generarDia(LocalDate fecha, int cantidad) {
+            if (fecha.getDayOfMonth() == 1 && fecha.isAfter(inicio) && contadoMes > 0) {
+                long retiro = redondear(contadoMes * (0.05 + 0.05 * aleatorio.nextDouble()), 1000);
+                capitalPendiente.add(new FilaCapital(CapitalOrigen.RETIROGANANCIA, null, -retiro, false,
+                        "Retiro de ganancias " + YearMonth.from(fecha.minusMonths(1)), fecha.atTime(7, 30),
+                        usuarioIds.get(0)));
+                contadoMes = 0;
+            }
+
+            int[] minutos = new int[cantidad];
+            for (int i = 0; i < cantidad; i++) {
+                minutos[i] = aleatorio.nextInt(600 * 60);
+            }
+            Arrays.sort(minutos);
+
+            List<FilaVenta> filas = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                filas.add(crearVenta(fecha.atTime(8, 0).plusSeconds(minutos[i])));
+            }
+            insertarVentas(filas);
+            vaciarPendientes();
+        }
+
+        private FilaVenta crearVenta(LocalDateTime fecha) {
+            Cliente cliente = clientes.get(sesgado(clientes.size(), 2.0));
+            long usuarioId = usuarioIds.get(aleatorio.nextInt(usuarioIds.size()));
+            boolean credito = aleatorio.nextInt(100) < parametros.porcentajeCredito();
+            FilaVenta venta = new FilaVenta(cliente, usuarioId, credito, fecha);
+
+            int lineas = 1 + sesgado(parametros.maxLineas(), 1.8);
+            Set<Grupo> elegidos = new HashSet<>();
+            for (int i = 0; i < lineas; i++) {
+                Grupo grupo = grupos.get(sesgado(grupos.size(), 1.6));
+                if (!elegidos.add(grupo)) {
+                    continue;
+                }
+                int pedida = aleatorio.nextInt(10) == 0
+                        ? grupo.cantidadPorCajas
+                        : 1 + (int) Math.min(23, -Math.log(1 - aleatorio.nextDouble()) * 3);
+                if (grupo.stock < pedida) {
+                    reabastecer(grupo, pedida, fecha.minusMinutes(1));
+                }
+                long precio = redondear(grupo.lotes.peekLast().costo * grupo.margen, 100);
+                asignarFifo(venta, grupo, pedida, precio);
+            }
+            if (credito) {
+                planificarAbonos(venta);
+            } else {
+                contadoMes += venta.total;
+            }
+            return venta;
+        }
+
+        private void asignarFifo(FilaVenta venta, Grupo grupo, int pedida, long precio) {
+            int pendiente = pedida;
+            while (pendiente > 0) {
+                Lote lote = grupo.lotes.peekFirst();
+                int tomada = Math.min(pendiente, lote.stock);
+                lote.stock -= tomada;
+                grupo.stock -= tomada;
+                pendiente -= tomada;
+                lotesModificados.add(lote);
+                if (lote.stock == 0) {
+                    grupo.lotes.pollFirst();
+                }
+                long subtotal = precio * tomada;
+                venta.lineas.add(new Linea(lote, tomada, subtotal));
+                venta.total += subtotal;
+            }
+        }
+
+        private void reabastecer(Grupo grupo, int requerida, LocalDateTime fecha) {
+            double anios = ChronoUnit.DAYS.between(inicio, fecha.toLocalDate()) / 365.0;
+            long costo = redondear(grupo.costoBase * (1 + 0.08 * anios) * (0.97 + 0.06 * aleatorio.nextDouble()), 100);
+            int stock = Math.max(requerida, grupo.cantidadPorCajas * (5 + aleatorio.nextInt(20)));
+            insertarLotes(List.of(new Lote(grupo, costo, stock, fecha)));
+        }
+
+        private void planificarAbonos(FilaVenta venta) {
+            venta.saldo = venta.total;
+            venta.ultimaActualizacion = venta.fecha;
+            if (aleatorio.nextInt(100) >= parametros.porcentajeAbonado()) {
+                return;
+            }
+            int cuotas = 1 + aleatorio.nextInt(3);
+            boolean liquida = aleatorio.nextBoolean();
+            LocalDateTime fecha = venta.fecha;
+            for (int i = 0; i < cuotas && venta.saldo > 0; i++) {
+                fecha = fecha.toLocalDate().plusDays(3 + aleatorio.nextInt(43))
+                        .atTime(9, 0).plusMinutes(aleatorio.nextInt(480));
+                if (fecha.toLocalDate().isAfter(fin)) {
+                    break;
+                }
+                long monto = i == cuotas - 1 && liquida
+                        ? venta.saldo
+                        : redondear(venta.saldo * (0.2 + 0.4 * aleatorio.nextDouble()), 1000);
+                if (monto <= 0 || monto > venta.saldo) {
+                    monto = venta.saldo;
+                }
+                venta.saldo -= monto;
+                venta.abonos.add(new Abono(monto, fecha));
+                venta.ultimaActualizacion = fecha;
+            }
+        }
+
+        private void insertarUsuarios() {
+            String hash = passwordEncoder.encode(parametros.contrasena());
+            for (int i = 1; i <= parametros.usuarios(); i++) {
+                String nombre = String.format("cajero%02d", i);
+                List<Long> existentes = jdbcTemplate.queryForList(
+                        "select id from usuarios where usuario = ?", Long.class, nombre);
+                if (!existentes.isEmpty()) {
+                    usuarioIds.add(existentes.get(0));
+                    continue;
+                }
+                usuarioIds.addAll(insertarConClaves(parametros.loteJdbc(), INSERT_USUARIO, 1, (ps, fila) -> {
+                    ps.setString(1, nombre);
+                    ps.setString(2, hash);
+                }));
+            }
+        }
+
+        private void insertarClientes() {
+            Set<String> usados = new HashSet<>();
+            for (int i = 0; i < parametros.clientes(); i++) {
+                String nombre = aleatorio.nextInt(4) == 0
+                        ? elegir(NEGOCIOS) + " " + elegir(APELLIDOS)
+                        : elegir(NOMBRES) + " " + elegir(APELLIDOS) + " " + elegir(APELLIDOS);
+                if (!usados.add(nombre)) {
+                    nombre = nombre + " " + (i + 1);
+                    usados.add(nombre);
+                }
+                String telefono = "3" + (100_000_000 + aleatorio.nextInt(900_000_000));
+                String direccion = "Calle " + (1 + aleatorio.nextInt(120)) + " # " + (1 + aleatorio.nextInt(90))
+                        + "-" + (1 + aleatorio.nextInt(99));
+                LocalDateTime registro = inicio.minusDays(1 + aleatorio.nextInt(60)).atTime(10, 0);
+                clientes.add(new Cliente(nombre, telefono, direccion, registro));
+            }
+            List<Long> ids = insertarConClaves(parametros.loteJdbc(), INSERT_CLIENTE, clientes.size(), (ps, fila) -> {
+                Cliente cliente = clientes.get(fila);
+                ps.setString(1, cliente.nombre);
+                ps.setString(2, cliente.telefono);
+                ps.setString(3, cliente.direccion);
+                ps.setTimestamp(4, Timestamp.valueOf(cliente.fechaRegistro));
+            });
+            for (int i = 0; i < clientes.size(); i++) {
+                clientes.get(i).id = ids.get(i);
+            }
+        }
+
+        private void crearGrupos() {
+            int combinaciones = CATEGORIAS.length * MARCAS.length * PRESENTACIONES.length;
+            for (int i = 0; i < parametros.productos(); i++) {
+                int indice = i % combinaciones;
+                String nombre = CATEGORIAS[indice % CATEGORIAS.length] + " "
+                        + MARCAS[(indice / CATEGORIAS.length) % MARCAS.length] + " "
+                        + PRESENTACIONES[indice / (CATEGORIAS.length * MARCAS.length)];
+                if (i >= combinaciones) {
+                    nombre = nombre + " R" + (i / combinaciones);
+                }
+                int[] cajas = {6, 12, 24, 4, 1};
+                int cantidadPorCajas = cajas[aleatorio.nextInt(cajas.length)];
+                long costoBase = redondear(8_000 + aleatorio.nextDouble() * 150_000, 100);
+                double margen = 1.20 + 0.25 * aleatorio.nextDouble();
+                grupos.add(new Grupo(nombre, cantidadPorCajas, costoBase, margen));
+            }
+        }
+
+        /**
+         * Inserta los lotes con su stock inicial, su entrada de kardex y la compra en capital. Los
+         * lotes nuevos quedan al final de la cola FIFO de su grupo.
+         */
+        private void insertarLotes(List<Lote> nuevos) {
+            List<Long> ids = insertarConClaves(parametros.loteJdbc(), INSERT_PRODUCTO, nuevos.size(), (ps, fila) -> {
+                Lote lote = nuevos.get(fila);
+                ps.setString(1, lote.grupo.nombre);
+                ps.setDouble(2, lote.costo);
+                ps.setInt(3, lote.grupo.cantidadPorCajas);
+                ps.setInt(4, lote.stock);
+                ps.setTimestamp(5, Timestamp.valueOf(lote.fechaRegistro));
+                ps.setString(6, null);
+            });
+            long usuarioId = usuarioIds.get(0);
+            for (int i = 0; i < nuevos.size(); i++) {
+                Lote lote = nuevos.get(i);
+                lote.id = ids.get(i);
+                lote.grupo.lotes.addLast(lote);
+                lote.grupo.stock += lote.stock;
+                String detalle = "Ingreso de " + lote.stock + " de " + lote.grupo.nombre;
+                kardexPendiente.add(new FilaKardex(lote.id, usuarioId, lote.stock, MovimientoTipo.ENTRADA,
+                        detalle, lote.fechaRegistro));
+                capitalPendiente.add(new FilaCapital(CapitalOrigen.COMPRA, lote.id, -lote.costo * lote.stock,
+                        false, detalle, lote.fechaRegistro, usuarioId));
+            }
+            lotes += nuevos.size();
+        }
+
+        private void insertarVentas(List<FilaVenta> filas) {
+            if (filas.isEmpty()) {
+                return;
+            }
+            List<Long> ids = insertarConClaves(parametros.loteJdbc(), INSERT_VENTA, filas.size(), (ps, fila) -> {
+                FilaVenta venta = filas.get(fila);
+                ps.setLong(1, venta.cliente.id);
+                ps.setLong(2, venta.usuarioId);
+                // tipo_venta se guarda por ordinal: Venta no declara @Enumerated
+                ps.setInt(3, (venta.credito ? TipoVenta.CREDITO : TipoVenta.CONTADO).ordinal());
+                ps.setBoolean(4, true);
+                ps.setString(5, null);
+                ps.setDouble(6, venta.total);
+                ps.setTimestamp(7, Timestamp.valueOf(venta.fecha));
+            });
+            List<Linea> lineas = new ArrayList<>();
+            List<FilaVenta> aCredito = new ArrayList<>();
+            for (int i = 0; i < filas.size(); i++) {
+                FilaVenta venta = filas.get(i);
+                venta.id = ids.get(i);
+                for (Linea linea : venta.lineas) {
+                    linea.venta = venta;
+                    lineas.add(linea);
+                    kardexPendiente.add(new FilaKardex(linea.lote.id, venta.usuarioId, linea.cantidad,
+                            MovimientoTipo.SALIDA, "Venta #" + venta.id + " - desde lote " + linea.lote.id,
+                            venta.fecha));
+                }
+                capitalPendiente.add(new FilaCapital(CapitalOrigen.VENTA, venta.id, venta.total, venta.credito,
+                        (venta.credito ? "Venta crédito #" : "Venta contado #") + venta.id, venta.fecha,
+                        venta.usuarioId));
+                if (venta.credito) {
+                    aCredito.add(venta);
+                }
+            }
+            insertarSinClaves(parametros.loteJdbc(), INSERT_DETALLE, lineas.size(), (ps, fila) -> {
+                Linea linea = lineas.get(fila);
+                ps.setInt(1, linea.cantidad);
+                ps.setDouble(2, linea.subtotal);
+                ps.setLong(3, linea.lote.id);
+                ps.setLong(4, linea.venta.id);
+            });
+            ventas += filas.size();
+            detalles += lineas.size();
+            insertarCarteras(aCredito);
+        }
+
+        private void insertarCarteras(List<FilaVenta> aCredito) {
+            if (aCredito.isEmpty()) {
+                return;
+            }
+            List<Long> ids = insertarConClaves(parametros.loteJdbc(), INSERT_CARTERA, aCredito.size(), (ps, fila) -> {
+                FilaVenta venta = aCredito.get(fila);
+                ps.setLong(1, venta.cliente.id);
+                ps.setLong(2, venta.id);
+                ps.setDouble(3, venta.saldo);
+                ps.setTimestamp(4, Timestamp.valueOf(venta.ultimaActualizacion));
+            });
+            List<FilaCarteraMovimiento> movimientos = new ArrayList<>();
+            for (int i = 0; i < aCredito.size(); i++) {
+                FilaVenta venta = aCredito.get(i);
+                long carteraId = ids.get(i);
+                movimientos.add(new FilaCarteraMovimiento(carteraId, venta.cliente.id, CarteraMovimientoTipo.CREDITO,
+                        CarteraMovimientoMotivo.VENTA_CREDITO, venta.total, venta.usuarioId,
+                        "Registro de venta a crédito", venta.fecha));
+                for (Abono abono : venta.abonos) {
+                    String observacion = "Abono realizado por el cliente " + venta.cliente.nombre + " - Venta " + venta.id;
+                    movimientos.add(new FilaCarteraMovimiento(carteraId, venta.cliente.id, CarteraMovimientoTipo.ABONO,
+                            CarteraMovimientoMotivo.PAGO, abono.monto, venta.usuarioId, observacion, abono.fecha));
+                    capitalPendiente.add(new FilaCapital(CapitalOrigen.ABONO, venta.id, abono.monto, false,
+                            observacion, abono.fecha, venta.usuarioId));
+                }
+                abonos += venta.abonos.size();
+            }
+            insertarSinClaves(parametros.loteJdbc(), INSERT_CARTERA_MOVIMIENTO, movimientos.size(), (ps, fila) -> {
+                FilaCarteraMovimiento m = movimientos.get(fila);
+                ps.setLong(1, m.carteraId());
+                ps.setLong(2, m.clienteId());
+                ps.setString(3, m.tipo().name());
+                ps.setString(4, m.motivo().name());
+                ps.setDouble(5, m.monto());
+                ps.setLong(6, m.usuarioId());
+                ps.setString(7, m.observacion());
+                ps.setTimestamp(8, Timestamp.valueOf(m.fecha()));
+            });
+            carteras += aCredito.size();
+        }
+
+        /**
+         * Envía el kardex, el capital y el stock acumulados. Se llama al final de cada transacción
+         * para que el stock confirmado coincida siempre con el kardex confirmado.
+         */
+        private void vaciarPendientes() {
+            insertarSinClaves(parametros.loteJdbc(), INSERT_KARDEX, kardexPendiente.size(), (ps, fila) -> {
+                FilaKardex k = kardexPendiente.get(fila);
+                ps.setLong(1, k.productoId());
+                ps.setLong(2, k.usuarioId());
+                ps.setInt(3, k.cantidad());
+                ps.setString(4, k.tipo().name());
+                ps.setString(5, k.comentario());
+                ps.setTimestamp(6, Timestamp.valueOf(k.fecha()));
+            });
+            insertarSinClaves(parametros.loteJdbc(), INSERT_CAPITAL, capitalPendiente.size(), (ps, fila) -> {
+                FilaCapital c = capitalPendiente.get(fila);
+                ps.setString(1, c.origen().name());
+                if (c.referenciaId() == null) {
+                    ps.setNull(2, Types.BIGINT);
+                } else {
+                    ps.setLong(2, c.referenciaId());
+                }
+                ps.setDouble(3, c.monto());
+                ps.setBoolean(4, c.esCredito());
+                ps.setString(5, c.descripcion());
+                ps.setTimestamp(6, Timestamp.valueOf(c.fecha()));
+                ps.setLong(7, c.usuarioId());
+            });
+            List<Lote> modificados = new ArrayList<>(lotesModificados);
+            insertarSinClaves(parametros.loteJdbc(), UPDATE_STOCK, modificados.size(), (ps, fila) -> {
+                ps.setInt(1, modificados.get(fila).stock);
+                ps.setLong(2, modificados.get(fila).id);
+            });
+            movimientosKardex += kardexPendiente.size();
+            movimientosCapital += capitalPendiente.size();
+            kardexPendiente.clear();
+            capitalPendiente.clear();
+            lotesModificados.clear();
+        }
+
+        Resultado resultado() {
+            return new Resultado(usuarioIds.size(), clientes.size(), lotes, ventas, detalles,
+                    movimientosKardex, carteras, abonos, movimientosCapital);
+        }
+
+        /**
+         * Índice en {@code [0, n)} concentrado en los primeros valores: pocos clientes y productos
+         * acumulan la mayoría de las ventas, como en la operación real.
+         */
+        private int sesgado(int n, double exponente) {
+            return Math.min(n - 1, (int) (n * Math.pow(aleatorio.nextDouble(), exponente)));
+        }
+
+        private String elegir(String[] opciones) {
+            return opciones[aleatorio.nextInt(opciones.length)];
+        }
+    }
+
+    private List<Long> insertarConClaves(int tamanoLote, String sql, int filas, ParametrosFila parametros) {
+        List<Long> ids = new ArrayList<>(filas);
+        for (int desde = 0; desde < filas; desde += tamanoLote) {
+            int inicioLote = desde;
+            int cantidad = Math.min(tamanoLote, filas - desde);
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(sql, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            parametros.asignar(ps, inicioLote + i);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return cantidad;
+                        }
+                    },
+                    keyHolder
+            );
+            List<Map<String, Object>> claves = keyHolder.getKeyList();
+            if (claves.size() != cantidad) {
+                throw new IllegalStateException("El lote insertó " + claves.size() + " filas de " + cantidad + " esperadas.");
+            }
+            claves.forEach(clave -> ids.add(((Number) clave.values().iterator().next()).longValue()));
+        }
+        return ids;
+    }
+
+    private void insertarSinClaves(int tamanoLote, String sql, int filas, ParametrosFila parametros) {
+        for (int desde = 0; desde < filas; desde += tamanoLote) {
+            int inicioLote = desde;
+            int cantidad = Math.min(tamanoLote, filas - desde);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    parametros.asignar(ps, inicioLote + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return cantidad;
+                }
+            });
+        }
+    }
+
+    private static long redondear(double valor, long multiplo) {
+        return Math.max(multiplo, Math.round(valor / multiplo) * multiplo);
+    }
+
+    @FunctionalInterface
+    private interface ParametrosFila {
+        void asignar(PreparedStatement ps, int fila) throws SQLException;
+    }
+
+    private static final class Grupo {
+        private final String nombre;
+        private final int cantidadPorCajas;
+        private final long costoBase;
+        private final double margen;
+        private final Deque<Lote> lotes = new ArrayDeque<>();
+        private int stock;
+
+        private Grupo(String nombre, int cantidadPorCajas, long costoBase, double margen) {
+            this.nombre = nombre;
+            this.cantidadPorCajas = cantidadPorCajas;
+            this.costoBase = costoBase;
+            this.margen = margen;
+        }
+    }
+
+    private static final class Lote {
+        private final Grupo grupo;
+        private final long costo;
+        private final LocalDateTime fechaRegistro;
+        private long id;
+        private int stock;
+
+        private Lote(Grupo grupo, long costo, int stock, LocalDateTime fechaRegistro) {
+            this.grupo = grupo;
+            this.costo = costo;
+            this.stock = stock;
+            this.fechaRegistro = fechaRegistro;
+        }
+    }
+
+    private static final class Cliente {
+        private final String nombre;
+        private final String telefono;
+        private final String direccion;
+        private final LocalDateTime fechaRegistro;
+        private long id;
+
+        private Cliente(String nombre, String telefono, String direccion, LocalDateTime fechaRegistro) {
+            this.nombre = nombre;
+            this.telefono = telefono;
+            this.direccion = direccion;
+            this.fechaRegistro = fechaRegistro;
+        }
+    }
+
+    private static final class FilaVenta {
+        private final Cliente cliente;
+        private final long usuarioId;
+        private final boolean credito;
+        private final LocalDateTime fecha;
+        private final List<Linea> lineas = new ArrayList<>();
+        private final List<Abono> abonos = new ArrayList<>();
+        private long id;
+        private long total;
+        private long saldo;
+        private LocalDateTime ultimaActualizacion;
+
+        private FilaVenta(Cliente cliente, long usuarioId, boolean credito, LocalDateTime fecha) {
+            this.cliente = cliente;
+            this.usuarioId = usuarioId;
+            this.credito = credito;
+            this.fecha = fecha;
+        }
+    }
+
+    private static final class Linea {
+        private final Lote lote;
+        private final int cantidad;
+        private final long subtotal;
+        private FilaVenta venta;
+
+        private Linea(Lote lote, int cantidad, long subtotal) {
+            this.lote = lote;
+            this.cantidad = cantidad;
+            this.subtotal = subtotal;
+        }
+    }
+
+    private record Abono(long monto, LocalDateTime fecha) {
+    }
+
+    private record FilaKardex(long productoId, long usuarioId, int cantidad, MovimientoTipo tipo,
+                              String comentario, LocalDateTime fecha) {
+    }
+
+    private record FilaCapital(CapitalOrigen origen, Long referenciaId, long monto, boolean esCredito,
+                               String descripcion, LocalDateTime fecha, long usuarioId) {
+    }
+
+    private record FilaCarteraMovimiento(long carteraId, long clienteId, CarteraMovimientoTipo tipo,
+                                         CarteraMovimientoMotivo motivo, long monto, long usuarioId, String observacion, LocalDateTime fecha) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.SICOIL.services.kardex;
+
+import java.time.YearMonth;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Traslada periódicamente los meses cerrados del kardex a la tabla histórica. Cada mes se
+ * archiva en su propia transacción para mantener acotado el tamaño de cada lote.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KardexArchivoJob {
+
+    private final KardexArchivoService kardexArchivoService;
+
+    @Scheduled(cron = "${sicoil.kardex.archivo.cron:0 30 2 * * *}")
+    public void archivarPeriodosCerrados() {
+        YearMonth mes = kardexArchivoService.primerMesActivo();
+        YearMonth limite = kardexArchivoService.ultimoMesArchivable();
+        if (mes == null || mes.isAfter(limite)) {
+            log.debug("No hay periodos cerrados del kardex pendientes de archivar");
+            return;
+        }
+        int total = 0;
+        while (!mes.isAfter(limite)) {
+            total += kardexArchivoService.archivarMes(mes);
+            mes = mes.plusMonths(1);
+        }
+        log.info("Archivo de kardex finalizado: {} movimientos trasladados hasta {}", total, limite);
+    }
+}
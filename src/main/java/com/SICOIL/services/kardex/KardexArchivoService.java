@@ -0,0 +1,122 @@
+package com.SICOIL.services.kardex;
+
+import com.SICOIL.repositories.KardexHistoricoRepository;
+import com.SICOIL.repositories.KardexRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@Slf4j
+public class KardexArchivoService {
+
+    private static final String CLAVE_CORTE = "corte";
+
+    private final KardexRepository kardexRepository;
+    private final KardexHistoricoRepository kardexHistoricoRepository;
+    private final int mesesActivos;
+    private final Cache<String, Optional<LocalDate>> corteArchivo;
+
+    public KardexArchivoService(KardexRepository kardexRepository,
+                                KardexHistoricoRepository kardexHistoricoRepository,
+                                @Value("${sicoil.kardex.archivo.meses-activos:3}") int mesesActivos,
+                                @Value("${sicoil.kardex.archivo.corte-ttl-segundos:60}") long corteTtlSegundos) {
+        this.kardexRepository = kardexRepository;
+        this.kardexHistoricoRepository = kardexHistoricoRepository;
+        this.mesesActivos = mesesActivos;
+        this.corteArchivo = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(corteTtlSegundos))
+                .build();
+    }
+
+    /**
+     * Devuelve la primera fecha cuyos movimientos siguen en la tabla {@code kardex}. Todo lo
+     * anterior a esta fecha ya fue trasladado a {@code kardex_historico}. El corte se vuelve a leer
+     * de la base de datos al vencer su vigencia, de modo que un archivo ejecutado por otra
+     * instancia se refleja como mucho tras {@code corte-ttl-segundos}.
+     *
+     * @return fecha de corte del archivo, o {@code null} si aún no se ha archivado ningún periodo
+     */
+    @Transactional(readOnly = true)
+    public LocalDate obtenerCorteArchivo() {
+        return corteArchivo.get(CLAVE_CORTE, clave -> Optional.ofNullable(kardexHistoricoRepository.findUltimaFechaArchivada())
+                        .map(fecha -> YearMonth.from(fecha).plusMonths(1).atDay(1)))
+                .orElse(null);
+    }
+
+    /**
+     * Mes más reciente que puede archivarse: los {@code mesesActivos} meses anteriores al
+     * actual, junto con el mes en curso, permanecen en la tabla activa.
+     */
+    public YearMonth ultimoMesArchivable() {
+        return YearMonth.now().minusMonths(mesesActivos + 1L);
+    }
+
+    /**
+     * Mes del movimiento más antiguo que aún está en la tabla activa.
+     *
+     * @return el mes más antiguo, o {@code null} si el kardex activo está vacío
+     */
+    @Transactional(readOnly = true)
+    public YearMonth primerMesActivo() {
+        LocalDateTime primera = kardexRepository.findPrimeraFechaRegistro();
+        return primera != null ? YearMonth.from(primera) : null;
+    }
+
+    /**
+     * Traslada al histórico todos los movimientos de un mes cerrado. La copia y el borrado se
+     * ejecutan en la misma transacción para que una fila nunca quede en ambas tablas ni en ninguna.
+     *
+     * @param mes mes a archivar; debe ser anterior o igual a {@link #ultimoMesArchivable()}
+     * @return cantidad de movimientos trasladados
+     * @throws IllegalArgumentException si el mes todavía pertenece al periodo activo
+     */
+    @Transactional
+    public int archivarMes(YearMonth mes) {
+        if (mes == null || mes.isAfter(ultimoMesArchivable())) {
+            throw new IllegalArgumentException("Solo se pueden archivar meses cerrados fuera del periodo activo.");
+        }
+        LocalDateTime inicio = mes.atDay(1).atStartOfDay();
+        LocalDateTime fin = mes.plusMonths(1).atDay(1).atStartOfDay();
+
+        int copiados = kardexRepository.copiarAlHistorico(inicio, fin);
+        int eliminados = kardexRepository.eliminarPeriodo(inicio, fin);
+        if (copiados != eliminados) {
+            throw new IllegalStateException("El archivo del kardex para " + mes + " copió " + copiados
+                    + " filas pero eliminó " + eliminados + ".");
+        }
+
+        LocalDate nuevoCorte = mes.plusMonths(1).atDay(1);
+        LocalDate corteActual = obtenerCorteArchivo();
+        if (copiados > 0 && (corteActual == null || nuevoCorte.isAfter(corteActual))) {
+            corteArchivo.put(CLAVE_CORTE, Optional.of(nuevoCorte));
+            descartarCorteSiSeRevierte();
+        }
+        log.info("Kardex de {} archivado: {} movimientos trasladados al histórico", mes, copiados);
+        return copiados;
+    }
+
+    private void descartarCorteSiSeRevierte() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    corteArchivo.invalidateAll();
+                }
+            }
+        });
+    }
+}
@@ -1,17 +1,33 @@
 package com.SICOIL.services.kardex;
 
+import com.SICOIL.dtos.consulta.TotalAproximadoResponse;
 import com.SICOIL.dtos.kardex.KardexResponse;
 import com.SICOIL.mappers.kardex.KardexMapper;
 import com.SICOIL.models.Kardex;
+import com.SICOIL.models.KardexConsolidado;
+import com.SICOIL.models.KardexHistorico;
 import com.SICOIL.models.MovimientoTipo;
 import com.SICOIL.models.Producto;
+import com.SICOIL.repositories.KardexConsolidadoRepository;
+import com.SICOIL.repositories.KardexHistoricoRepository;
 import com.SICOIL.repositories.KardexRepository;
+import com.SICOIL.services.consulta.SliceConsultaEjecutor;
+import com.SICOIL.services.consulta.TotalAproximadoService;
+import com.SICOIL.services.exportacion.ColumnaCsv;
+import com.SICOIL.services.exportacion.CsvExportador;
 import com.SICOIL.services.usuario.UsuarioService;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,8 +39,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class KardexService {
 
     private final KardexRepository kardexRepository;
+    private final KardexHistoricoRepository kardexHistoricoRepository;
+    private final KardexConsolidadoRepository kardexConsolidadoRepository;
+    private final KardexArchivoService kardexArchivoService;
     private final UsuarioService usuarioService;
     private final KardexMapper kardexMapper;
+    private final CsvExportador csvExportador;
+    private final SliceConsultaEjecutor sliceConsultaEjecutor;
+    private final TotalAproximadoService totalAproximadoService;
 
     /**
      * Recupera una lista paginada de movimientos registrados en el kardex,
@@ -34,6 +56,13 @@ public class KardexService {
      * <p>El proceso incluye:
      * <ul>
      *   <li>Construir dinámicamente una {@link Specification} a partir de los filtros recibidos.</li>
+     *   <li>Elegir la tabla a consultar según el corte de archivo del kardex:
+     *     <ul>
+     *       <li>Si el rango no tiene fecha inicial o inicia en o después del corte → solo el kardex activo.</li>
+     *       <li>Si el rango termina antes del corte → solo el histórico.</li>
+     *       <li>Si el rango inicia antes del corte y termina después → la vista consolidada de ambas tablas.</li>
+     *     </ul>
+     *   </li>
      *   <li>Consultar la base de datos con paginación según el {@link Pageable} proporcionado.</li>
      *   <li>Convertir cada resultado a {@link KardexResponse} mediante el mapper correspondiente.</li>
      * </ul>
@@ -57,12 +86,122 @@ public class KardexService {
             LocalDate desde,
             LocalDate hasta
     ) {
-        Specification<Kardex> spec = KardexSpecification.filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta);
-
         log.debug("Buscando movimientos de kardex con filtros productoId={}, usuarioId={}, nombreProducto={}, tipo={}, desde={}, hasta={}",
                 productoId, usuarioId, nombreProducto, tipo, desde, hasta);
-        return kardexRepository.findAll(spec, pageable)
-                .map(kardexMapper::entityToResponse);
+
+        return switch (resolverFuente(desde, hasta)) {
+            case ACTIVO -> kardexRepository.findAll(
+                            KardexSpecification.<Kardex>filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta), pageable)
+                    .map(kardexMapper::entityToResponse);
+            case HISTORICO -> kardexHistoricoRepository.findAll(
+                            KardexSpecification.<KardexHistorico>filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta), pageable)
+                    .map(kardexMapper::entityToResponse);
+            case CONSOLIDADO -> kardexConsolidadoRepository.findAll(
+                            KardexSpecification.<KardexConsolidado>filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta), pageable)
+                    .map(kardexMapper::entityToResponse);
+        };
+    }
+
+    /**
+     * Variante de {@link #buscar} que devuelve un {@link Slice}: solo indica si existe una página
+     * siguiente y no ejecuta el conteo total de registros. El total puede pedirse por separado
+     * con {@link #contarAproximado}.
+     *
+     * @return una porción de {@link KardexResponse} con los movimientos encontrados
+     */
+    @Transactional(readOnly = true)
+    public Slice<KardexResponse> buscarSlice(
+            Pageable pageable,
+            Long productoId,
+            Long usuarioId,
+            String nombreProducto,
+            MovimientoTipo tipo,
+            LocalDate desde,
+            LocalDate hasta
+    ) {
+        log.debug("Buscando porción de kardex con filtros productoId={}, usuarioId={}, nombreProducto={}, tipo={}, desde={}, hasta={}",
+                productoId, usuarioId, nombreProducto, tipo, desde, hasta);
+
+        return switch (resolverFuente(desde, hasta)) {
+            case ACTIVO -> sliceConsultaEjecutor.buscar(Kardex.class,
+                            KardexSpecification.filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta), pageable)
+                    .map(kardexMapper::entityToResponse);
+            case HISTORICO -> sliceConsultaEjecutor.buscar(KardexHistorico.class,
+                            KardexSpecification.filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta), pageable)
+                    .map(kardexMapper::entityToResponse);
+            case CONSOLIDADO -> sliceConsultaEjecutor.buscar(KardexConsolidado.class,
+                            KardexSpecification.filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta), pageable)
+                    .map(kardexMapper::entityToResponse);
+        };
+    }
+
+    /**
+     * Calcula de forma asíncrona el total de movimientos que cumplen los filtros. El resultado se
+     * conserva en caché unos segundos, por lo que puede no incluir los movimientos más recientes.
+     *
+     * @return futuro con el total aproximado y el momento en que se calculó
+     */
+    @Transactional(readOnly = true)
+    public CompletableFuture<TotalAproximadoResponse> contarAproximado(
+            Long productoId,
+            Long usuarioId,
+            String nombreProducto,
+            MovimientoTipo tipo,
+            LocalDate desde,
+            LocalDate hasta
+    ) {
+        FuenteKardex fuente = resolverFuente(desde, hasta);
+        List<Object> clave = Arrays.asList("kardex", fuente, productoId, usuarioId, nombreProducto, tipo, desde, hasta);
+        return totalAproximadoService.obtener(clave, () -> switch (fuente) {
+            case ACTIVO -> kardexRepository.count(
+                    KardexSpecification.<Kardex>filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta));
+            case HISTORICO -> kardexHistoricoRepository.count(
+                    KardexSpecification.<KardexHistorico>filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta));
+            case CONSOLIDADO -> kardexConsolidadoRepository.count(
+                    KardexSpecification.<KardexConsolidado>filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta));
+        });
+    }
+
+    /**
+     * Escribe en formato CSV los movimientos del kardex que cumplen los mismos filtros de
+     * {@link #buscar}, leyendo las filas con un cursor de solo avance para no cargar el
+     * resultado completo en memoria. La tabla consultada se elige con el mismo corte de
+     * archivo que la búsqueda paginada.
+     *
+     * @param salida flujo donde se escribe el CSV
+     * @param productoId identificador del producto a filtrar; puede ser {@code null}
+     * @param usuarioId identificador del usuario que registró el movimiento; puede ser {@code null}
+     * @param nombreProducto fragmento del nombre del producto; puede ser {@code null}
+     * @param tipo tipo de movimiento; puede ser {@code null}
+     * @param desde fecha inicial del rango; puede ser {@code null}
+     * @param hasta fecha final del rango; puede ser {@code null}
+     * @return cantidad de movimientos exportados
+     * @throws IOException si falla la escritura en el flujo de salida
+     */
+    @Transactional(readOnly = true)
+    public long exportarCsv(
+            OutputStream salida,
+            Long productoId,
+            Long usuarioId,
+            String nombreProducto,
+            MovimientoTipo tipo,
+            LocalDate desde,
+            LocalDate hasta
+    ) throws IOException {
+        log.info("Exportando kardex a CSV con filtros productoId={}, usuarioId={}, nombreProducto={}, tipo={}, desde={}, hasta={}",
+                productoId, usuarioId, nombreProducto, tipo, desde, hasta);
+
+        return switch (resolverFuente(desde, hasta)) {
+            case ACTIVO -> csvExportador.exportar(Kardex.class,
+                    KardexSpecification.filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta),
+                    columnasCsv(), salida);
+            case HISTORICO -> csvExportador.exportar(KardexHistorico.class,
+                    KardexSpecification.filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta),
+                    columnasCsv(), salida);
+            case CONSOLIDADO -> csvExportador.exportar(KardexConsolidado.class,
+                    KardexSpecification.filtros(productoId, usuarioId, nombreProducto, tipo, desde, hasta),
+                    columnasCsv(), salida);
+        };
     }
 
     /**
@@ -85,6 +224,7 @@ public class KardexService {
      * @param tipo tipo de movimiento registrado (ENTRADA o SALIDA)
      * @return la entidad {@link Kardex} creada y almacenada en la base de datos
      */
+    @Timed(value = "sicoil.kardex.movimiento.registrar", histogram = true)
     public Kardex registrarMovimiento(Producto producto,
                                       Integer cantidad,
                                       String comentario,
@@ -101,4 +241,42 @@ public class KardexService {
 
         return kardexRepository.save(movimiento);
     }
+
+    /**
+     * Elige la tabla a consultar según el corte de archivo. Sin fecha inicial se consulta solo el
+     * kardex activo; el histórico se lee únicamente cuando el rango empieza o termina antes del corte.
+     */
+    private FuenteKardex resolverFuente(LocalDate desde, LocalDate hasta) {
+        LocalDate corte = kardexArchivoService.obtenerCorteArchivo();
+        if (corte == null) {
+            return FuenteKardex.ACTIVO;
+        }
+        boolean terminaAntesDelCorte = hasta != null && hasta.isBefore(corte);
+        if (desde == null) {
+            return terminaAntesDelCorte ? FuenteKardex.HISTORICO : FuenteKardex.ACTIVO;
+        }
+        if (!desde.isBefore(corte)) {
+            return FuenteKardex.ACTIVO;
+        }
+        return terminaAntesDelCorte ? FuenteKardex.HISTORICO : FuenteKardex.CONSOLIDADO;
+    }
+
+    private static <T> List<ColumnaCsv<T>> columnasCsv() {
+        return List.of(
+                ColumnaCsv.de("id", root -> root.get("id")),
+                ColumnaCsv.de("fecha_registro", root -> root.get("fechaRegistro")),
+                ColumnaCsv.de("tipo", root -> root.get("tipo")),
+                ColumnaCsv.de("producto_id", root -> root.get("producto").get("id")),
+                ColumnaCsv.de("producto", root -> root.get("producto").get("nombre")),
+                ColumnaCsv.de("cantidad", root -> root.get("cantidad")),
+                ColumnaCsv.de("usuario", root -> root.get("usuario").get("usuario")),
+                ColumnaCsv.de("comentario", root -> root.get("comentario"))
+        );
+    }
+
+    private enum FuenteKardex {
+        ACTIVO,
+        HISTORICO,
+        CONSOLIDADO
+    }
 }
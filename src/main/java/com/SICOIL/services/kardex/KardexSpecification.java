@@ -1,18 +1,21 @@
 package com.SICOIL.services.kardex;
 
-import com.SICOIL.models.Kardex;
 import com.SICOIL.models.MovimientoTipo;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import org.springframework.data.jpa.domain.Specification;
 
+/**
+ * Filtros del kardex. Son genéricos porque se aplican por igual a {@code Kardex},
+ * {@code KardexHistorico} y {@code KardexConsolidado}, que comparten los mismos atributos.
+ */
 public final class KardexSpecification {
 
     private KardexSpecification() {
     }
 
-    public static Specification<Kardex> productoIdEquals(Long productoId) {
+    public static <T> Specification<T> productoIdEquals(Long productoId) {
         return (root, query, cb) -> {
             if (productoId == null) {
                 return cb.conjunction();
@@ -21,7 +24,7 @@ public final class KardexSpecification {
         };
     }
 
-    public static Specification<Kardex> usuarioIdEquals(Long usuarioId) {
+    public static <T> Specification<T> usuarioIdEquals(Long usuarioId) {
         return (root, query, cb) -> {
             if (usuarioId == null) {
                 return cb.conjunction();
@@ -30,7 +33,7 @@ public final class KardexSpecification {
         };
     }
 
-    public static Specification<Kardex> productoNombreContains(String nombreProducto) {
+    public static <T> Specification<T> productoNombreContains(String nombreProducto) {
         return (root, query, cb) -> {
             if (nombreProducto == null || nombreProducto.isBlank()) {
                 return cb.conjunction();
@@ -40,7 +43,7 @@ public final class KardexSpecification {
         };
     }
 
-    public static Specification<Kardex> tipoEquals(MovimientoTipo tipo) {
+    public static <T> Specification<T> tipoEquals(MovimientoTipo tipo) {
         return (root, query, cb) -> {
             if (tipo == null) {
                 return cb.conjunction();
@@ -49,7 +52,7 @@ public final class KardexSpecification {
         };
     }
 
-    public static Specification<Kardex> fechaBetween(LocalDate desde, LocalDate hasta) {
+    public static <T> Specification<T> fechaBetween(LocalDate desde, LocalDate hasta) {
         return (root, query, cb) -> {
             if (desde == null && hasta == null) {
                 return cb.conjunction();
@@ -66,13 +69,13 @@ public final class KardexSpecification {
         };
     }
 
-    public static Specification<Kardex> filtros(Long productoId,
+    public static <T> Specification<T> filtros(Long productoId,
                                                 Long usuarioId,
                                                 String nombreProducto,
                                                 MovimientoTipo tipo,
                                                 LocalDate desde,
                                                 LocalDate hasta) {
-        return Specification.where(productoIdEquals(productoId))
+        return Specification.<T>where(productoIdEquals(productoId))
                 .and(usuarioIdEquals(usuarioId))
                 .and(productoNombreContains(nombreProducto))
                 .and(tipoEquals(tipo))
@@ -0,0 +1,10 @@
+package com.SICOIL.services.limite;
+
+/**
+ * Clases de endpoint con límites propios: los reportes son consultas pesadas que no deben quitarle
+ * conexiones a las operaciones del resto de la API, como registrar ventas y abonos.
+ */
+public enum ClaseEndpoint {
+    REPORTE,
+    GENERAL
+}
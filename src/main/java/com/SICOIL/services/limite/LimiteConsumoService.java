@@ -0,0 +1,97 @@
+package com.SICOIL.services.limite;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Límites de consumo en memoria: una cubeta de fichas por usuario y clase de endpoint, y un cupo global
+ * de reportes simultáneos que acota las conexiones que los reportes pueden ocupar a la vez.
+ */
+@Service
+public class LimiteConsumoService {
+
+    private final Cache<String, Cubeta> cubetas;
+    private final Semaphore reportesEnCurso;
+    private final long esperaReporteMs;
+    private final int capacidadReportes;
+    private final double reportesPorMinuto;
+    private final int capacidadGeneral;
+    private final double generalPorMinuto;
+
+    public LimiteConsumoService(@Value("${sicoil.limites.reportes.capacidad:10}") int capacidadReportes,
+                                @Value("${sicoil.limites.reportes.por-minuto:30}") double reportesPorMinuto,
+                                @Value("${sicoil.limites.general.capacidad:60}") int capacidadGeneral,
+                                @Value("${sicoil.limites.general.por-minuto:600}") double generalPorMinuto,
+                                @Value("${sicoil.limites.reportes.concurrentes:3}") int reportesConcurrentes,
+                                @Value("${sicoil.limites.reportes.espera-ms:500}") long esperaReporteMs) {
+        this.capacidadReportes = capacidadReportes;
+        this.reportesPorMinuto = reportesPorMinuto;
+        this.capacidadGeneral = capacidadGeneral;
+        this.generalPorMinuto = generalPorMinuto;
+        this.reportesEnCurso = new Semaphore(reportesConcurrentes);
+        this.esperaReporteMs = esperaReporteMs;
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Toma una ficha de la cubeta del usuario para la clase indicada.
+     *
+     * @return segundos que el usuario debe esperar antes de reintentar, o 0 si la solicitud puede seguir
+     */
+    public long consumir(String usuario, ClaseEndpoint clase) {
+        Cubeta cubeta = cubetas.get(usuario + "|" + clase.name(), clave -> clase == ClaseEndpoint.REPORTE
+                ? new Cubeta(capacidadReportes, reportesPorMinuto)
+                : new Cubeta(capacidadGeneral, generalPorMinuto));
+        long esperaNanos = cubeta.intentar(System.nanoTime());
+        return esperaNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + 999_999_999L));
+    }
+
+    /**
+     * Reserva un cupo de reporte esperando como máximo {@code sicoil.limites.reportes.espera-ms}.
+     */
+    public boolean ocuparReporte() {
+        try {
+            return reportesEnCurso.tryAcquire(esperaReporteMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void liberarReporte() {
+        reportesEnCurso.release();
+    }
+
+    private static final class Cubeta {
+
+        private final double capacidad;
+        private final double fichasPorNano;
+        private double fichas;
+        private long ultimaRecarga;
+
+        private Cubeta(int capacidad, double porMinuto) {
+            this.capacidad = capacidad;
+            this.fichasPorNano = porMinuto / TimeUnit.MINUTES.toNanos(1);
+            this.fichas = capacidad;
+            this.ultimaRecarga = System.nanoTime();
+        }
+
+        private synchronized long intentar(long ahora) {
+            fichas = Math.min(capacidad, fichas + (ahora - ultimaRecarga) * fichasPorNano);
+            ultimaRecarga = ahora;
+            if (fichas >= 1) {
+                fichas -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - fichas) / fichasPorNano);
+        }
+    }
+}
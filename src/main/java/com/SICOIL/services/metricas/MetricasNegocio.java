@@ -0,0 +1,44 @@
+package com.SICOIL.services.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas de los tramos internos de las operaciones de negocio que no coinciden con un método público
+ * y no pueden medirse con {@code @Timed}: la asignación FIFO de lotes de una venta y la cantidad de
+ * lotes y carteras que toca cada operación.
+ */
+@Component
+public class MetricasNegocio {
+
+    private final Timer asignacionFifo;
+    private final Counter lotesTocados;
+    private final Counter carterasTocadas;
+
+    public MetricasNegocio(MeterRegistry meterRegistry) {
+        this.asignacionFifo = Timer.builder("sicoil.venta.asignacion.fifo")
+                .description("Descuento de stock por lotes FIFO de una venta, incluido el registro en kardex")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lotesTocados = Counter.builder("sicoil.venta.lotes.tocados")
+                .description("Lotes de producto descontados por las ventas")
+                .register(meterRegistry);
+        this.carterasTocadas = Counter.builder("sicoil.cartera.abono.carteras.tocadas")
+                .description("Carteras a las que se aplicaron abonos")
+                .register(meterRegistry);
+    }
+
+    public void medirAsignacionFifo(Runnable asignacion) {
+        asignacionFifo.record(asignacion);
+    }
+
+    public void registrarLotesTocados(int lotes) {
+        lotesTocados.increment(lotes);
+    }
+
+    public void registrarCarterasTocadas(int carteras) {
+        carterasTocadas.increment(carteras);
+    }
+}
@@ -5,6 +5,7 @@ import com.SICOIL.mappers.producto.ProductoMapper;
 import com.SICOIL.models.Producto;
 import com.SICOIL.repositories.ProductoRepository;
 import com.SICOIL.services.InventarioService;
+import com.SICOIL.services.capital.CapitalModificadoEvent;
 import jakarta.persistence.EntityNotFoundException;
 
 import java.util.*;
@@ -12,6 +13,7 @@ import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +27,7 @@ public class ProductoService {
     private final ProductoRepository productoRepository;
     private final ProductoMapper productoMapper;
     private final InventarioService inventarioService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     /**
@@ -118,7 +121,7 @@ public class ProductoService {
                                     .map(p -> {
                                         ProductosDesagrupadosResponse v = new ProductosDesagrupadosResponse();
                                         v.setId(p.getId());
-                                        v.setPrecioCompra(p.getPrecioCompra());
+                                        v.setPrecioCompra(p.getPrecioCompra().aDouble());
                                         v.setStock(p.getStock());
                                         v.setComentario(p.getComentario());
                                         return v;
@@ -235,6 +238,7 @@ public class ProductoService {
         }
 
         productoRepository.saveAll(variantes);
+        eventPublisher.publishEvent(new CapitalModificadoEvent());
         return true;
     }
 
@@ -0,0 +1,96 @@
+package com.SICOIL.services.security;
+
+import com.SICOIL.models.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cachés de la autenticación HTTP Basic, que se ejecuta en cada petición: los usuarios leídos de la
+ * base de datos y la última contraseña verificada de cada uno.
+ *
+ * <p>La contraseña no se guarda: se guarda un HMAC-SHA256 del usuario, la contraseña y el hash BCrypt
+ * almacenado, con una clave aleatoria que solo existe en memoria mientras corre la aplicación. Una
+ * petición con la misma contraseña se valida comparando ese HMAC, sin repetir BCrypt. Como el hash
+ * almacenado forma parte del HMAC, un cambio de contraseña deja sin efecto la entrada en cuanto se
+ * vuelve a leer el usuario.
+ */
+@Component
+public class AutenticacionCache {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final Cache<String, Usuario> usuarios;
+    private final Cache<String, byte[]> credenciales;
+    private final SecretKeySpec clave;
+
+    public AutenticacionCache(@Value("${sicoil.seguridad.cache.usuarios-ttl-minutos:10}") long ttlUsuariosMinutos,
+                              @Value("${sicoil.seguridad.cache.credenciales-ttl-segundos:300}") long ttlCredencialesSegundos,
+                              @Value("${sicoil.seguridad.cache.max-entradas:1000}") long maxEntradas) {
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMinutes(ttlUsuariosMinutos))
+                .build();
+        this.credenciales = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofSeconds(ttlCredencialesSegundos))
+                .build();
+        byte[] secreto = new byte[32];
+        new SecureRandom().nextBytes(secreto);
+        this.clave = new SecretKeySpec(secreto, ALGORITMO);
+    }
+
+    /**
+     * Devuelve el usuario en caché o lo carga. Si la carga no encuentra el usuario, no se guarda nada.
+     */
+    public Optional<Usuario> obtenerUsuario(String usuario, Function<String, Optional<Usuario>> cargar) {
+        Usuario enCache = usuarios.getIfPresent(usuario);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+        Optional<Usuario> cargado = cargar.apply(usuario);
+        cargado.ifPresent(encontrado -> usuarios.put(usuario, encontrado));
+        return cargado;
+    }
+
+    public boolean credencialVerificada(String usuario, String contrasena, String hashAlmacenado) {
+        byte[] guardada = credenciales.getIfPresent(usuario);
+        return guardada != null && MessageDigest.isEqual(guardada, firmar(usuario, contrasena, hashAlmacenado));
+    }
+
+    public void registrarCredencialVerificada(String usuario, String contrasena, String hashAlmacenado) {
+        credenciales.put(usuario, firmar(usuario, contrasena, hashAlmacenado));
+    }
+
+    /**
+     * Descarta el usuario y su credencial verificada; se invoca al crear o modificar un usuario.
+     */
+    public void invalidar(String usuario) {
+        usuarios.invalidate(usuario);
+        credenciales.invalidate(usuario);
+    }
+
+    private byte[] firmar(String usuario, String contrasena, String hashAlmacenado) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            mac.update(usuario.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(contrasena.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(hashAlmacenado.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("No se pudo calcular la firma de la credencial.", ex);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.SICOIL.services.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link DaoAuthenticationProvider} que solo ejecuta BCrypt la primera vez que ve una contraseña
+ * dentro de la vigencia de {@link AutenticacionCache}; las peticiones siguientes con la misma
+ * contraseña se validan con un HMAC.
+ */
+@Component
+public class CredencialesCacheadasAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final AutenticacionCache autenticacionCache;
+
+    public CredencialesCacheadasAuthenticationProvider(CustomUserDetailsService userDetailsService,
+                                                       PasswordEncoder passwordEncoder,
+                                                       AutenticacionCache autenticacionCache) {
+        super(passwordEncoder);
+        setUserDetailsService(userDetailsService);
+        this.autenticacionCache = autenticacionCache;
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails,
+                                                  UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        Object credenciales = authentication.getCredentials();
+        if (credenciales != null && userDetails.getPassword() != null
+                && autenticacionCache.credencialVerificada(userDetails.getUsername(), credenciales.toString(),
+                userDetails.getPassword())) {
+            return;
+        }
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        autenticacionCache.registrarCredencialVerificada(userDetails.getUsername(), credenciales.toString(),
+                userDetails.getPassword());
+    }
+}
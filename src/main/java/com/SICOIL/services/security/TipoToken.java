@@ -0,0 +1,6 @@
+package com.SICOIL.services.security;
+
+public enum TipoToken {
+    ACCESO,
+    REFRESCO
+}
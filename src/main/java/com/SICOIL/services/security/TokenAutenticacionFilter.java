@@ -0,0 +1,52 @@
+package com.SICOIL.services.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Autentica las peticiones con {@code Authorization: Bearer <token>} usando solo la firma del token.
+ * Un token inválido no corta la cadena: la petición sigue sin autenticar y Spring Security responde 401.
+ */
+public class TokenAutenticacionFilter extends OncePerRequestFilter {
+
+    private static final String PREFIJO = "Bearer ";
+
+    private final TokenAutenticacionService tokenAutenticacionService;
+
+    public TokenAutenticacionFilter(TokenAutenticacionService tokenAutenticacionService) {
+        this.tokenAutenticacionService = tokenAutenticacionService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tokenAutenticacionService.isHabilitado();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String cabecera = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (cabecera != null && cabecera.startsWith(PREFIJO)) {
+            tokenAutenticacionService.validar(cabecera.substring(PREFIJO.length()).trim(), TipoToken.ACCESO)
+                    .ifPresent(usuario -> {
+                        SecurityContext context = SecurityContextHolder.createEmptyContext();
+                        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                                usuario,
+                                null,
+                                Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"))));
+                        SecurityContextHolder.setContext(context);
+                    });
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,145 @@
+package com.SICOIL.services.security;
+
+import com.SICOIL.models.Usuario;
+import com.SICOIL.services.usuario.UsuarioService;
+import jakarta.persistence.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Emite y valida los tokens firmados del modo de autenticación sin sesión.
+ *
+ * <p>Un token es {@code carga.firma}, ambas partes en Base64 URL. La carga es
+ * {@code tipo:idUsuario:usuario:expiracion} (el usuario también en Base64 URL y la expiración en
+ * segundos Unix) y la firma es su HMAC-SHA256. Validarlo no consulta la base de datos ni usa BCrypt.
+ * Para que varias instancias acepten los mismos tokens deben compartir {@code sicoil.seguridad.token.secreto}.
+ */
+@Service
+@Slf4j
+public class TokenAutenticacionService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+
+    private final UsuarioService usuarioService;
+    private final boolean habilitado;
+    private final Duration vigenciaAcceso;
+    private final Duration vigenciaRefresco;
+    private final SecretKeySpec clave;
+
+    public TokenAutenticacionService(UsuarioService usuarioService,
+                                     @Value("${sicoil.seguridad.token.habilitado:false}") boolean habilitado,
+                                     @Value("${sicoil.seguridad.token.secreto:}") String secreto,
+                                     @Value("${sicoil.seguridad.token.acceso-minutos:15}") long accesoMinutos,
+                                     @Value("${sicoil.seguridad.token.refresco-horas:12}") long refrescoHoras) {
+        this.usuarioService = usuarioService;
+        this.habilitado = habilitado;
+        this.vigenciaAcceso = Duration.ofMinutes(accesoMinutos);
+        this.vigenciaRefresco = Duration.ofHours(refrescoHoras);
+        byte[] bytesClave;
+        if (secreto == null || secreto.isBlank()) {
+            bytesClave = new byte[32];
+            new SecureRandom().nextBytes(bytesClave);
+            if (habilitado) {
+                log.warn("No se configuró sicoil.seguridad.token.secreto; los tokens solo serán válidos en esta instancia.");
+            }
+        } else {
+            bytesClave = secreto.getBytes(StandardCharsets.UTF_8);
+        }
+        this.clave = new SecretKeySpec(bytesClave, ALGORITMO);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public TokensEmitidos emitir(Usuario usuario) {
+        Instant ahora = Instant.now();
+        Instant expiraAcceso = ahora.plus(vigenciaAcceso);
+        return new TokensEmitidos(
+                usuario.getId(),
+                usuario.getUsuario(),
+                firmar(TipoToken.ACCESO, usuario.getId(), usuario.getUsuario(), expiraAcceso),
+                firmar(TipoToken.REFRESCO, usuario.getId(), usuario.getUsuario(), ahora.plus(vigenciaRefresco)),
+                expiraAcceso);
+    }
+
+    /**
+     * Emite un nuevo par de tokens a partir de un token de refresco vigente, siempre que el usuario siga existiendo.
+     */
+    public TokensEmitidos refrescar(String tokenRefresco) {
+        UsuarioToken usuarioToken = validar(tokenRefresco, TipoToken.REFRESCO)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                        "El token de refresco no es válido o expiró."));
+        try {
+            return emitir(usuarioService.obtenerPorToken(usuarioToken));
+        } catch (EntityNotFoundException ex) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "El usuario del token ya no existe.");
+        }
+    }
+
+    /**
+     * Devuelve el usuario del token si la firma es correcta, el tipo coincide y no ha expirado.
+     */
+    public Optional<UsuarioToken> validar(String token, TipoToken tipoEsperado) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int separador = token.indexOf('.');
+        if (separador <= 0 || separador == token.length() - 1) {
+            return Optional.empty();
+        }
+        try {
+            byte[] carga = DECODIFICADOR.decode(token.substring(0, separador));
+            byte[] firma = DECODIFICADOR.decode(token.substring(separador + 1));
+            if (!MessageDigest.isEqual(firma, calcularFirma(carga))) {
+                return Optional.empty();
+            }
+            String[] partes = new String(carga, StandardCharsets.UTF_8).split(":");
+            if (partes.length != 4 || !tipoEsperado.name().equals(partes[0])) {
+                return Optional.empty();
+            }
+            if (Instant.now().getEpochSecond() >= Long.parseLong(partes[3])) {
+                return Optional.empty();
+            }
+            String usuario = new String(DECODIFICADOR.decode(partes[2]), StandardCharsets.UTF_8);
+            return Optional.of(new UsuarioToken(Long.parseLong(partes[1]), usuario));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private String firmar(TipoToken tipo, Long usuarioId, String usuario, Instant expira) {
+        String carga = tipo.name() + ":" + usuarioId + ":"
+                + CODIFICADOR.encodeToString(usuario.getBytes(StandardCharsets.UTF_8)) + ":" + expira.getEpochSecond();
+        byte[] bytesCarga = carga.getBytes(StandardCharsets.UTF_8);
+        return CODIFICADOR.encodeToString(bytesCarga) + "." + CODIFICADOR.encodeToString(calcularFirma(bytesCarga));
+    }
+
+    private byte[] calcularFirma(byte[] carga) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac.doFinal(carga);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("No se pudo firmar el token.", ex);
+        }
+    }
+
+    public record TokensEmitidos(Long usuarioId, String usuario, String acceso, String refresco, Instant expiraAcceso) {
+    }
+}
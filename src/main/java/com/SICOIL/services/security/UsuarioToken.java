@@ -0,0 +1,15 @@
+package com.SICOIL.services.security;
+
+import java.security.Principal;
+
+/**
+ * Usuario autenticado con un token de acceso. Solo lleva lo que viaja firmado en el token; la entidad
+ * se resuelve cuando hace falta desde {@link AutenticacionCache}.
+ */
+public record UsuarioToken(Long id, String usuario) implements Principal {
+
+    @Override
+    public String getName() {
+        return usuario;
+    }
+}
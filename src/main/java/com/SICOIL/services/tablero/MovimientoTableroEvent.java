@@ -0,0 +1,19 @@
+package com.SICOIL.services.tablero;
+
+/**
+ * Operación que cambia las cifras del tablero de capital o de la cartera pendiente. Se publica dentro
+ * de la transacción que la registra y solo se envía a los tableros conectados si esa transacción se
+ * confirma.
+ *
+ * @param tipo         operación registrada
+ * @param referenciaId venta, movimiento o producto al que corresponde, cuando aplica
+ * @param clienteId    cliente afectado, cuando aplica
+ * @param monto        variación del valor con signo: negativo en anulaciones, eliminaciones y retiros
+ * @param descripcion  detalle legible de la operación
+ */
+public record MovimientoTableroEvent(TipoMovimientoTablero tipo,
+                                     Long referenciaId,
+                                     Long clienteId,
+                                     double monto,
+                                     String descripcion) {
+}
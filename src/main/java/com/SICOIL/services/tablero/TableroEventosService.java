@@ -0,0 +1,234 @@
+package com.SICOIL.services.tablero;
+
+import com.SICOIL.dtos.tablero.TableroEventoResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Envía a los tableros conectados por Server-Sent Events cada {@link MovimientoTableroEvent}
+ * confirmado, para que actualicen sus cifras sin volver a consultar el resumen completo.
+ *
+ * <p>Cada conexión tiene una cola acotada que vacía un único hilo del {@code tableroExecutor}, así que
+ * una conexión lenta no frena la transacción que publica ni a las demás conexiones. Si su cola se
+ * llena, la conexión se cierra; el navegador se reconecta enviando {@code Last-Event-ID} y recibe los
+ * eventos que perdió desde el historial. Cuando el identificador ya no está en el historial (o es de
+ * una ejecución anterior de la aplicación) se envía un evento {@code reinicio}, que indica al tablero
+ * que debe recargar el resumen.
+ */
+@Service
+@Slf4j
+public class TableroEventosService {
+
+    static final String EVENTO_REINICIO = "reinicio";
+
+    private final Executor tableroExecutor;
+    private final int historialMaximo;
+    private final int pendientesPorConexion;
+    private final int maxConexiones;
+    private final long timeoutMs;
+    private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+    private final ArrayDeque<Registro> historial = new ArrayDeque<>();
+    private final Set<Conexion> conexiones = ConcurrentHashMap.newKeySet();
+    private long secuencia;
+
+    public TableroEventosService(@Qualifier("tableroExecutor") Executor tableroExecutor,
+                                 @Value("${sicoil.tablero.eventos.historial:500}") int historialMaximo,
+                                 @Value("${sicoil.tablero.eventos.pendientes-por-conexion:100}") int pendientesPorConexion,
+                                 @Value("${sicoil.tablero.eventos.max-conexiones:50}") int maxConexiones,
+                                 @Value("${sicoil.tablero.eventos.timeout-minutos:30}") long timeoutMinutos) {
+        this.tableroExecutor = tableroExecutor;
+        this.historialMaximo = historialMaximo;
+        this.pendientesPorConexion = pendientesPorConexion;
+        this.maxConexiones = maxConexiones;
+        this.timeoutMs = Duration.ofMinutes(timeoutMinutos).toMillis();
+    }
+
+    /**
+     * Agrega el evento al historial y lo encola en cada conexión. Sin transacción activa se envía de
+     * inmediato.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(MovimientoTableroEvent evento) {
+        synchronized (this) {
+            secuencia++;
+            TableroEventoResponse response = TableroEventoResponse.builder()
+                    .id(instancia + "-" + secuencia)
+                    .tipo(evento.tipo())
+                    .referenciaId(evento.referenciaId())
+                    .clienteId(evento.clienteId())
+                    .monto(evento.monto())
+                    .descripcion(evento.descripcion())
+                    .fecha(LocalDateTime.now())
+                    .build();
+            historial.addLast(new Registro(secuencia, response));
+            if (historial.size() > historialMaximo) {
+                historial.removeFirst();
+            }
+            conexiones.forEach(conexion -> conexion.encolar(aEventoSse(response)));
+        }
+    }
+
+    /**
+     * Abre una conexión. Si se indica el último evento recibido, primero se envían los posteriores
+     * a él o, si ya no se pueden recuperar, un evento {@code reinicio}.
+     *
+     * @param ultimoEventoId valor de {@code Last-Event-ID}; opcional
+     * @throws ResponseStatusException si ya se alcanzó el máximo de conexiones simultáneas
+     */
+    public SseEmitter suscribir(String ultimoEventoId) {
+        if (conexiones.size() >= maxConexiones) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Se alcanzó el máximo de tableros conectados. Intente más tarde.");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Conexion conexion = new Conexion(emitter);
+        emitter.onCompletion(() -> conexiones.remove(conexion));
+        emitter.onTimeout(conexion::cerrar);
+        emitter.onError(error -> conexiones.remove(conexion));
+
+        synchronized (this) {
+            Optional<List<TableroEventoResponse>> perdidos = eventosDesde(ultimoEventoId);
+            if (perdidos.isEmpty() || perdidos.get().size() > pendientesPorConexion) {
+                conexion.encolar(SseEmitter.event()
+                        .id(ultimoEventoId())
+                        .name(EVENTO_REINICIO)
+                        .data("El historial no contiene los eventos perdidos; recargue el resumen."));
+            } else {
+                perdidos.get().forEach(evento -> conexion.encolar(aEventoSse(evento)));
+            }
+            conexiones.add(conexion);
+        }
+        return emitter;
+    }
+
+    /**
+     * Identificador del último evento publicado. El tablero lo obtiene antes de cargar el resumen y lo
+     * envía al suscribirse, así recibe los eventos ocurridos mientras cargaba.
+     */
+    public synchronized String ultimoEventoId() {
+        return instancia + "-" + secuencia;
+    }
+
+    /**
+     * Eventos del historial posteriores a {@code ultimoEventoId}. Vacío si no se puede saber qué
+     * eventos se perdieron: identificador inválido, de otra ejecución o anterior al historial.
+     */
+    public synchronized Optional<List<TableroEventoResponse>> eventosDesde(String ultimoEventoId) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return Optional.of(List.of());
+        }
+        int separador = ultimoEventoId.lastIndexOf('-');
+        if (separador < 0 || !instancia.equals(ultimoEventoId.substring(0, separador))) {
+            return Optional.empty();
+        }
+        long ultimo;
+        try {
+            ultimo = Long.parseLong(ultimoEventoId.substring(separador + 1));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+        long primeroDisponible = historial.isEmpty() ? secuencia + 1 : historial.peekFirst().secuencia();
+        if (ultimo > secuencia || ultimo < primeroDisponible - 1) {
+            return Optional.empty();
+        }
+        return Optional.of(historial.stream()
+                .filter(registro -> registro.secuencia() > ultimo)
+                .map(Registro::evento)
+                .toList());
+    }
+
+    /**
+     * Mantiene abiertas las conexiones a través de proxies que cierran las que no tienen tráfico.
+     */
+    @Scheduled(fixedDelayString = "${sicoil.tablero.eventos.latido-ms:25000}")
+    public void enviarLatido() {
+        conexiones.forEach(conexion -> conexion.encolar(SseEmitter.event().comment("latido")));
+    }
+
+    private SseEmitter.SseEventBuilder aEventoSse(TableroEventoResponse evento) {
+        return SseEmitter.event()
+                .id(evento.getId())
+                .name(evento.getTipo().name())
+                .data(evento, MediaType.APPLICATION_JSON);
+    }
+
+    private record Registro(long secuencia, TableroEventoResponse evento) {
+    }
+
+    private final class Conexion {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> pendientes = new ArrayBlockingQueue<>(pendientesPorConexion);
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile boolean descartada;
+
+        Conexion(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void encolar(SseEmitter.SseEventBuilder evento) {
+            if (!pendientes.offer(evento)) {
+                descartada = true;
+            }
+            programarEnvio();
+        }
+
+        private void programarEnvio() {
+            if (!enviando.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                tableroExecutor.execute(this::enviar);
+            } catch (RejectedExecutionException ex) {
+                enviando.set(false);
+                cerrar();
+            }
+        }
+
+        private void enviar() {
+            try {
+                SseEmitter.SseEventBuilder evento;
+                while (!descartada && (evento = pendientes.poll()) != null) {
+                    emitter.send(evento);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Conexión del tablero cerrada al enviar: {}", ex.getMessage());
+                descartada = true;
+            } finally {
+                enviando.set(false);
+            }
+            if (descartada) {
+                cerrar();
+            } else if (!pendientes.isEmpty()) {
+                programarEnvio();
+            }
+        }
+
+        void cerrar() {
+            conexiones.remove(this);
+            pendientes.clear();
+            emitter.complete();
+        }
+    }
+}
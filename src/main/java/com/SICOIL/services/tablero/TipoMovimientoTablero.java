@@ -0,0 +1,11 @@
+package com.SICOIL.services.tablero;
+
+public enum TipoMovimientoTablero {
+    VENTA,
+    ANULACION_VENTA,
+    ABONO,
+    ELIMINACION_ABONO,
+    INGRESO_INVENTARIO,
+    INYECCION_CAPITAL,
+    RETIRO_CAPITAL
+}
@@ -4,7 +4,9 @@ import com.SICOIL.dtos.usuario.UsuarioRequest;
 import com.SICOIL.dtos.usuario.UsuarioResponse;
 import com.SICOIL.models.Usuario;
 import com.SICOIL.repositories.UsuarioRepository;
+import com.SICOIL.services.security.AutenticacionCache;
 import com.SICOIL.services.security.UsuarioDetails;
+import com.SICOIL.services.security.UsuarioToken;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -19,6 +21,7 @@ public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AutenticacionCache autenticacionCache;
 
     @Transactional
     public UsuarioResponse crearUsuario(UsuarioRequest request) {
@@ -56,14 +59,30 @@ public class UsuarioService {
     public Usuario crear(Usuario usuario) {
         String passwordEncriptado = passwordEncoder.encode(usuario.getContrasena());
         usuario.setContrasena(passwordEncriptado);
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        autenticacionCache.invalidar(guardado.getUsuario());
+        return guardado;
     }
 
     public Usuario obtenerUsuarioActual() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !(authentication.getPrincipal() instanceof UsuarioDetails usuarioDetails)) {
-            throw new EntityNotFoundException("No hay un usuario autenticado en el contexto actual.");
+        if (authentication != null && authentication.getPrincipal() instanceof UsuarioDetails usuarioDetails) {
+            return usuarioDetails.getUsuario();
         }
-        return usuarioDetails.getUsuario();
+        if (authentication != null && authentication.getPrincipal() instanceof UsuarioToken usuarioToken) {
+            return obtenerPorToken(usuarioToken);
+        }
+        throw new EntityNotFoundException("No hay un usuario autenticado en el contexto actual.");
+    }
+
+    /**
+     * Resuelve el usuario de un token firmado a través de la caché de autenticación; el id del token debe
+     * coincidir para que un usuario recreado con el mismo nombre no herede tokens anteriores.
+     */
+    public Usuario obtenerPorToken(UsuarioToken usuarioToken) {
+        return autenticacionCache.obtenerUsuario(usuarioToken.usuario(), usuarioRepository::findByUsuario)
+                .filter(usuario -> usuario.getId().equals(usuarioToken.id()))
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "El usuario del token no existe: " + usuarioToken.usuario()));
     }
 }
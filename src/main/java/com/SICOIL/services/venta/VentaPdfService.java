@@ -15,6 +15,7 @@ import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import java.io.ByteArrayOutputStream;
 import java.text.NumberFormat;
@@ -39,6 +40,7 @@ public class VentaPdfService {
 
     private final VentaRepository ventaRepository;
 
+    @Timed(value = "sicoil.venta.comprobante", histogram = true)
     public byte[] generarComprobante(Long ventaId) {
         Venta venta = ventaRepository.findByIdWithDetalleAndRelations(ventaId)
                 .orElseThrow(() -> new EntityNotFoundException("Venta no encontrada con ID: " + ventaId));
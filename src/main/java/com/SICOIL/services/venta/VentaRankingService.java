@@ -0,0 +1,172 @@
+package com.SICOIL.services.venta;
+
+import com.SICOIL.dtos.capital.CapitalClienteResumen;
+import com.SICOIL.dtos.capital.CapitalProductoResumen;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.GranularidadSerie;
+import com.SICOIL.repositories.ResumenDiarioRepository;
+import com.SICOIL.repositories.VentaRankingRepository;
+import com.SICOIL.repositories.VentaRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rankings de productos y clientes por ventas activas en un rango arbitrario. Los meses completos ya
+ * cerrados se leen de las filas mensuales de {@code ventas_ranking}, los días sueltos de los extremos
+ * de sus filas diarias y los días posteriores al último cierre de las ventas. Como cada periodo guarda
+ * todos sus productos y clientes, el resultado es exacto.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class VentaRankingService {
+
+    public static final int LIMITE_MAXIMO = 100;
+
+    private final VentaRankingRepository ventaRankingRepository;
+    private final VentaRepository ventaRepository;
+    private final ResumenDiarioRepository resumenDiarioRepository;
+
+    /**
+     * Productos más vendidos por unidades, agrupados por nombre.
+     *
+     * @param desde           primer día (inclusive); opcional
+     * @param hasta           último día (inclusive); opcional
+     * @param limite          cantidad de posiciones, entre 1 y {@value #LIMITE_MAXIMO}
+     * @param incluirEmpates  si se agregan los productos empatados con la última posición
+     */
+    public List<CapitalProductoResumen> topProductos(LocalDate desde, LocalDate hasta, int limite, boolean incluirEmpates) {
+        List<Fila> filas = combinar(desde, hasta,
+                ventaRankingRepository::sumarProductos,
+                (inicio, fin) -> ventaRepository.findTopSellingProducts(inicio, fin, Pageable.unpaged()),
+                Fila::nombre);
+        long totalUnidades = filas.stream().mapToLong(Fila::cantidad).sum();
+        return recortar(filas, Fila::cantidad, limite, incluirEmpates).stream()
+                .map(fila -> CapitalProductoResumen.builder()
+                        .productoId(fila.id())
+                        .productoNombre(fila.nombre())
+                        .cantidadVendida(fila.cantidad())
+                        .totalVendido(fila.total().aDouble())
+                        .participacionPorcentaje(totalUnidades > 0 ? (fila.cantidad() / (double) totalUnidades) * 100 : 0)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Clientes con mayor monto comprado.
+     *
+     * @param desde           primer día (inclusive); opcional
+     * @param hasta           último día (inclusive); opcional
+     * @param limite          cantidad de posiciones, entre 1 y {@value #LIMITE_MAXIMO}
+     * @param incluirEmpates  si se agregan los clientes empatados con la última posición
+     */
+    public List<CapitalClienteResumen> topClientes(LocalDate desde, LocalDate hasta, int limite, boolean incluirEmpates) {
+        List<Fila> filas = combinar(desde, hasta,
+                ventaRankingRepository::sumarClientes,
+                (inicio, fin) -> ventaRepository.findTopClients(inicio, fin, Pageable.unpaged()),
+                Fila::id);
+        Dinero.Acumulador acumulado = new Dinero.Acumulador();
+        filas.forEach(fila -> acumulado.agregar(fila.total()));
+        long totalVentas = acumulado.total().centavos();
+        return recortar(filas, fila -> fila.total().centavos(), limite, incluirEmpates).stream()
+                .map(fila -> CapitalClienteResumen.builder()
+                        .clienteId(fila.id())
+                        .clienteNombre(fila.nombre())
+                        .totalVentas(fila.cantidad())
+                        .montoComprado(fila.total().aDouble())
+                        .participacionPorcentaje(totalVentas > 0 ? (fila.total().centavos() / (double) totalVentas) * 100 : 0)
+                        .build())
+                .toList();
+    }
+
+    private List<Fila> combinar(LocalDate desde,
+                                LocalDate hasta,
+                                Periodos cerrados,
+                                BiFunction<LocalDateTime, LocalDateTime, List<Object[]>> abiertos,
+                                Function<Fila, Object> clave) {
+        Map<Object, Fila> acumuladas = new HashMap<>();
+        Consumer<List<Object[]>> acumular = registros -> registros.stream()
+                .map(Fila::de)
+                .forEach(fila -> acumuladas.merge(clave.apply(fila), fila, Fila::sumar));
+
+        LocalDate ultimoCerrado = resumenDiarioRepository.findUltimoDiaCerrado();
+        LocalDate finCerrado = ultimoCerrado != null && hasta != null && hasta.isBefore(ultimoCerrado) ? hasta : ultimoCerrado;
+        if (finCerrado != null && (desde == null || !desde.isAfter(finCerrado))) {
+            // Meses completos dentro del rango cerrado y días sueltos antes y después de ellos.
+            LocalDate primerMes = desde == null || desde.getDayOfMonth() == 1 ? desde : desde.withDayOfMonth(1).plusMonths(1);
+            LocalDate finUltimoMes = finCerrado.plusDays(1).getDayOfMonth() == 1 ? finCerrado : finCerrado.withDayOfMonth(1).minusDays(1);
+            if (primerMes != null && primerMes.isAfter(finUltimoMes)) {
+                acumular.accept(cerrados.sumar(GranularidadSerie.DIA, desde, finCerrado));
+            } else {
+                if (primerMes != null && desde.isBefore(primerMes)) {
+                    acumular.accept(cerrados.sumar(GranularidadSerie.DIA, desde, primerMes.minusDays(1)));
+                }
+                acumular.accept(cerrados.sumar(GranularidadSerie.MES, primerMes, finUltimoMes.withDayOfMonth(1)));
+                if (finUltimoMes.isBefore(finCerrado)) {
+                    acumular.accept(cerrados.sumar(GranularidadSerie.DIA, finUltimoMes.plusDays(1), finCerrado));
+                }
+            }
+        }
+
+        if (ultimoCerrado == null || hasta == null || hasta.isAfter(ultimoCerrado)) {
+            LocalDateTime inicio = desde != null ? desde.atStartOfDay() : null;
+            if (ultimoCerrado != null && (inicio == null || !desde.isAfter(ultimoCerrado))) {
+                inicio = ultimoCerrado.plusDays(1).atStartOfDay();
+            }
+            acumular.accept(abiertos.apply(inicio, hasta != null ? hasta.atTime(23, 59, 59) : null));
+        }
+        return new ArrayList<>(acumuladas.values());
+    }
+
+    private List<Fila> recortar(List<Fila> filas, ToLongFunction<Fila> metrica, int limite, boolean incluirEmpates) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite del ranking debe estar entre 1 y " + LIMITE_MAXIMO + ".");
+        }
+        filas.sort(Comparator.comparingLong(metrica).reversed().thenComparing(Fila::nombre));
+        int posiciones = Math.min(limite, filas.size());
+        if (incluirEmpates) {
+            while (posiciones > 0 && posiciones < filas.size()
+                    && metrica.applyAsLong(filas.get(posiciones)) == metrica.applyAsLong(filas.get(posiciones - 1))) {
+                posiciones++;
+            }
+        }
+        return filas.subList(0, posiciones);
+    }
+
+    @FunctionalInterface
+    private interface Periodos {
+        List<Object[]> sumar(GranularidadSerie periodo, LocalDate desde, LocalDate hasta);
+    }
+
+    /**
+     * Posición del ranking; el total llega de las consultas en centavos.
+     */
+    private record Fila(Long id, String nombre, long cantidad, Dinero total) {
+
+        static Fila de(Object[] registro) {
+            return new Fila(
+                    registro[0] instanceof Number numero ? numero.longValue() : null,
+                    registro[1] != null ? registro[1].toString() : "",
+                    registro[2] instanceof Number numero ? numero.longValue() : 0L,
+                    Dinero.deCentavos((Number) registro[3]));
+        }
+
+        Fila sumar(Fila otra) {
+            Long menorId = id == null ? otra.id : otra.id == null ? id : Math.min(id, otra.id);
+            return new Fila(menorId, nombre, cantidad + otra.cantidad, total.sumar(otra.total));
+        }
+    }
+}
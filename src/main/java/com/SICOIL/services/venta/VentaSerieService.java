@@ -0,0 +1,153 @@
+package com.SICOIL.services.venta;
+
+import com.SICOIL.dtos.venta.VentaSeriePunto;
+import com.SICOIL.dtos.venta.VentaSerieResponse;
+import com.SICOIL.models.DimensionRanking;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.GranularidadSerie;
+import com.SICOIL.repositories.ResumenDiarioRepository;
+import com.SICOIL.repositories.VentaRankingRepository;
+import com.SICOIL.repositories.VentaRepository;
+import com.SICOIL.repositories.VentaSerieDia;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+/**
+ * Series temporales de ventas activas. Los días cerrados se leen de los agregados diarios y los
+ * posteriores al último cierre del detalle de las ventas:
+ * <ul>
+ *   <li>sin filtros, de {@code resumen_diario}: una fila por día;</li>
+ *   <li>con un solo filtro, de las filas diarias de {@code ventas_ranking} de esa dimensión: una fila
+ *       por día y cliente o usuario, o por día y producto con el nombre indicado;</li>
+ *   <li>con filtros de varias dimensiones, del detalle de las ventas, porque ningún agregado guarda
+ *       las combinaciones.</li>
+ * </ul>
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class VentaSerieService {
+
+    static final int PUNTOS_MAXIMOS = 3700;
+
+    private final ResumenDiarioRepository resumenDiarioRepository;
+    private final VentaRankingRepository ventaRankingRepository;
+    private final VentaRepository ventaRepository;
+
+    /**
+     * Totales de venta por periodo en {@code [desde, hasta]}, con un punto por cada periodo aunque no
+     * tenga ventas. El primer y el último periodo pueden quedar recortados por el rango.
+     *
+     * @param granularidad tamaño de los periodos; por defecto mensual
+     * @param desde        primer día (inclusive); por defecto 30 días, 12 semanas o 6 meses antes de {@code hasta}
+     * @param hasta        último día (inclusive); por defecto hoy
+     * @param producto     nombre del producto; agrupa los productos registrados con el mismo nombre
+     * @param clienteId    cliente de las ventas
+     * @param usuarioId    usuario que registró las ventas
+     */
+    public VentaSerieResponse obtenerSerie(GranularidadSerie granularidad,
+                                           LocalDate desde,
+                                           LocalDate hasta,
+                                           String producto,
+                                           Long clienteId,
+                                           Long usuarioId) {
+        GranularidadSerie periodo = granularidad != null ? granularidad : GranularidadSerie.MES;
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : inicioPorDefecto(periodo, fin);
+        if (inicio.isAfter(fin)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final.");
+        }
+        if (contarPeriodos(periodo, inicio, fin) > PUNTOS_MAXIMOS) {
+            throw new IllegalArgumentException("El rango solicitado supera los " + PUNTOS_MAXIMOS
+                    + " periodos permitidos; use una granularidad mayor.");
+        }
+        String nombreProducto = StringUtils.hasText(producto) ? producto.trim().toLowerCase(Locale.ROOT) : null;
+
+        int filtros = (nombreProducto != null ? 1 : 0) + (clienteId != null ? 1 : 0) + (usuarioId != null ? 1 : 0);
+
+        TreeMap<LocalDate, VentaSerieDia> porDia = new TreeMap<>();
+        LocalDate ultimoCerrado = filtros > 1 ? null : resumenDiarioRepository.findUltimoDiaCerrado();
+        if (ultimoCerrado != null && !inicio.isAfter(ultimoCerrado)) {
+            LocalDate finCerrado = fin.isBefore(ultimoCerrado) ? fin : ultimoCerrado;
+            sumarDiasCerrados(inicio, finCerrado, nombreProducto, clienteId, usuarioId)
+                    .forEach(dia -> porDia.put(dia.getDia(), dia));
+        }
+        LocalDate inicioAbierto = ultimoCerrado != null && !ultimoCerrado.isBefore(inicio) ? ultimoCerrado.plusDays(1) : inicio;
+        if (!inicioAbierto.isAfter(fin)) {
+            ventaRepository.sumarSerie(inicioAbierto.atStartOfDay(), fin.plusDays(1).atStartOfDay(),
+                            nombreProducto, clienteId, usuarioId)
+                    .forEach(dia -> porDia.put(dia.getDia(), dia));
+        }
+
+        return VentaSerieResponse.builder()
+                .granularidad(periodo)
+                .desde(inicio)
+                .hasta(fin)
+                .puntos(agrupar(periodo, inicio, fin, porDia))
+                .build();
+    }
+
+    private List<VentaSerieDia> sumarDiasCerrados(LocalDate desde,
+                                                  LocalDate hasta,
+                                                  String nombreProducto,
+                                                  Long clienteId,
+                                                  Long usuarioId) {
+        if (nombreProducto != null) {
+            return ventaRankingRepository.sumarSerieProducto(nombreProducto, desde, hasta);
+        }
+        if (clienteId != null) {
+            return ventaRankingRepository.sumarSerie(DimensionRanking.CLIENTE, clienteId, desde, hasta);
+        }
+        if (usuarioId != null) {
+            return ventaRankingRepository.sumarSerie(DimensionRanking.USUARIO, usuarioId, desde, hasta);
+        }
+        return resumenDiarioRepository.sumarSerie(desde, hasta);
+    }
+
+    private List<VentaSeriePunto> agrupar(GranularidadSerie periodo,
+                                          LocalDate inicio,
+                                          LocalDate fin,
+                                          TreeMap<LocalDate, VentaSerieDia> porDia) {
+        List<VentaSeriePunto> puntos = new ArrayList<>();
+        for (LocalDate actual = periodo.inicioPeriodo(inicio); !actual.isAfter(fin); actual = periodo.siguientePeriodo(actual)) {
+            LocalDate ultimoDia = periodo.siguientePeriodo(actual).minusDays(1);
+            Dinero.Acumulador total = new Dinero.Acumulador();
+            long unidades = 0L;
+            for (VentaSerieDia dia : porDia.subMap(actual, true, ultimoDia, true).values()) {
+                total.agregar(dia.total());
+                unidades += dia.getUnidades() != null ? dia.getUnidades() : 0L;
+            }
+            puntos.add(VentaSeriePunto.builder()
+                    .inicio(actual.isBefore(inicio) ? inicio : actual)
+                    .fin(ultimoDia.isAfter(fin) ? fin : ultimoDia)
+                    .total(total.total().aDouble())
+                    .unidades(unidades)
+                    .build());
+        }
+        return puntos;
+    }
+
+    private LocalDate inicioPorDefecto(GranularidadSerie periodo, LocalDate fin) {
+        return switch (periodo) {
+            case DIA -> fin.minusDays(29);
+            case SEMANA -> periodo.inicioPeriodo(fin).minusWeeks(11);
+            case MES -> periodo.inicioPeriodo(fin).minusMonths(5);
+        };
+    }
+
+    private long contarPeriodos(GranularidadSerie periodo, LocalDate inicio, LocalDate fin) {
+        long dias = fin.toEpochDay() - inicio.toEpochDay() + 1;
+        return switch (periodo) {
+            case DIA -> dias;
+            case SEMANA -> dias / 7 + 2;
+            case MES -> dias / 28 + 2;
+        };
+    }
+}
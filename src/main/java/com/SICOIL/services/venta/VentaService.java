@@ -10,16 +10,23 @@ import com.SICOIL.repositories.ProductoRepository;
 import com.SICOIL.repositories.VentaRepository;
 import com.SICOIL.services.InventarioService;
 import com.SICOIL.services.capital.CapitalService;
+import com.SICOIL.services.capital.ResumenDiarioDesactualizadoEvent;
 import com.SICOIL.services.cartera.CarteraService;
 import com.SICOIL.services.cliente.ClienteService;
 import com.SICOIL.services.kardex.KardexService;
+import com.SICOIL.services.metricas.MetricasNegocio;
 import com.SICOIL.services.producto.ProductoService;
+import com.SICOIL.services.tablero.MovimientoTableroEvent;
+import com.SICOIL.services.tablero.TipoMovimientoTablero;
 import com.SICOIL.services.usuario.UsuarioService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -43,6 +50,8 @@ public class VentaService {
     private final InventarioService inventarioService;
     private final CarteraService carteraService;
     private final CapitalService capitalService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricasNegocio metricasNegocio;
 
     /**
      * Recupera una lista paginada de ventas aplicando múltiples filtros opcionales,
@@ -125,7 +134,8 @@ public class VentaService {
      *   <li>Construir la entidad {@link Venta} a partir del request, resolviendo los productos
      *       mediante {@code productoService.buscarPorId}.</li>
      *   <li>Persistir la venta en la base de datos.</li>
-     *   <li>Ajustar el inventario descontando las cantidades vendidas.</li>
+     *   <li>Ajustar el inventario descontando las cantidades vendidas, con una sola consulta de
+     *       lotes para todos los productos.</li>
      *   <li>Actualizar el módulo de capital:
      *       <ul>
      *         <li>Si es CONTADO → registrar el ingreso directo en capital.</li>
@@ -139,6 +149,7 @@ public class VentaService {
      * @throws IllegalArgumentException si la venta no contiene productos
      */
     @Transactional
+    @Timed(value = "sicoil.venta.crear", histogram = true)
     public VentaResponse crearVenta(VentaRequest request) {
         if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
             throw new IllegalArgumentException("Debe enviar al menos un producto para crear la venta.");
@@ -152,13 +163,15 @@ public class VentaService {
 
         Venta guardada = ventaRepository.save(venta);
         log.info("Venta {} persistida, ajustando inventario", guardada.getId());
-        ajustarInventarioPorVenta(guardada);
+        metricasNegocio.medirAsignacionFifo(() -> ajustarInventarioPorVenta(guardada));
         if (guardada.getTipoVenta() == TipoVenta.CONTADO) {
             capitalService.registrarVentaContado(guardada);
         } else {
             capitalService.registrarVentaCredito(guardada);
             carteraService.registrarVentaEnCartera(guardada);
         }
+        eventPublisher.publishEvent(new MovimientoTableroEvent(TipoMovimientoTablero.VENTA, guardada.getId(),
+                cliente.getId(), guardada.getTotal().aDouble(), "Venta " + guardada.getTipoVenta()));
         log.info("Venta {} creada con {} detalles", guardada.getId(), guardada.getDetalles().size());
         return ventaMapper.entityToResponse(guardada);
     }
@@ -188,6 +201,7 @@ public class VentaService {
      * @throws EntityNotFoundException si no existe una venta con el ID especificado
      */
     @Transactional
+    @Timed(value = "sicoil.venta.anular", histogram = true)
     public VentaResponse anularVenta(Long ventaId, String razon) {
         if (ventaId == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Debe indicar el id de la venta a anular.");
@@ -222,6 +236,9 @@ public class VentaService {
         carteraService.ajustarPorAnulacion(venta, usuarioActual, motivo);
 
         Venta actualizada = ventaRepository.save(venta);
+        eventPublisher.publishEvent(new ResumenDiarioDesactualizadoEvent(venta.getFechaRegistro().toLocalDate()));
+        eventPublisher.publishEvent(new MovimientoTableroEvent(TipoMovimientoTablero.ANULACION_VENTA, venta.getId(),
+                venta.getCliente().getId(), venta.getTotal().negar().aDouble(), "Anulación de venta " + venta.getTipoVenta()));
         log.info("Venta {} anulada. Motivo: {}", actualizada.getId(), actualizada.getMotivoAnulacion());
         return ventaMapper.entityToResponse(actualizada);
     }
@@ -244,6 +261,12 @@ public class VentaService {
             return;
         }
 
+        // 1. Buscar en una sola consulta los lotes de todos los productos vendidos
+        Map<String, List<Producto>> lotesPorNombre = ventaMapper.lotesFifoPorNombre(venta.getDetalles().stream()
+                .filter(detalle -> detalle != null && detalle.getProducto() != null)
+                .map(detalle -> detalle.getProducto().getNombre())
+                .toList());
+
         for (DetalleVenta detalle : venta.getDetalles()) {
 
             if (detalle == null || detalle.getCantidad() == null || detalle.getCantidad() <= 0) {
@@ -254,14 +277,14 @@ public class VentaService {
             String nombreProducto = detalle.getProducto().getNombre();
             Integer cantidad = detalle.getCantidad();
 
-            // 1. Buscar todos los productos con ese nombre (simulación de LOTES)
-            List<Producto> lotes = productoRepository.findByNombreOrderByFechaRegistroAsc(nombreProducto);
+            List<Producto> lotes = lotesPorNombre.getOrDefault(VentaMapper.clave(nombreProducto), List.of());
 
             if (lotes.isEmpty()) {
                 throw new IllegalArgumentException("No existen lotes para el producto: " + nombreProducto);
             }
 
             int restante = cantidad;
+            int lotesTocados = 0;
 
             for (Producto lote : lotes) {
 
@@ -285,11 +308,14 @@ public class VentaService {
                 );
 
                 restante -= aDescontar;
+                lotesTocados++;
             }
+            metricasNegocio.registrarLotesTocados(lotesTocados);
 
             if (restante > 0) {
                 throw new IllegalArgumentException(
                         "Stock insuficiente para completar la venta del producto: " + nombreProducto
+                                + ". Faltan " + restante + " unidades del stock disponible."
                 );
             }
         }
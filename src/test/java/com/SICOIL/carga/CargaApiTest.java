@@ -0,0 +1,452 @@
+package com.SICOIL.carga;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.SICOIL.services.generador.GeneradorDatosService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca la aplicación en un puerto aleatorio, autentica
+ * usuarios virtuales con tokens firmados y los hace recorrer la API HTTP en paralelo con una mezcla
+ * de operaciones (por defecto 60% listados, 25% ventas, 10% abonos y 5% tablero). Las latencias de
+ * cada operación se registran en histogramas HdrHistogram; el reporte queda en {@code target/carga}
+ * y la prueba falla si el p99, el rendimiento o la tasa de errores salen de los umbrales.
+ *
+ * <p>Solo corre con {@code -Dsicoil.carga=true} o con el perfil Maven {@code carga}. Sobre H2 llena
+ * la base con {@link GeneradorDatosService}; contra un MySQL local basta con sobrescribir
+ * {@code spring.datasource.url}, {@code spring.datasource.driver-class-name} y
+ * {@code spring.jpa.database-platform}, y si la base ya tiene ventas se usan los datos existentes.
+ *
+ * <p>Los usuarios virtuales trabajan en lazo cerrado (cada uno espera su respuesta antes de enviar
+ * la siguiente), así que los percentiles miden el tiempo de servicio con esa concurrencia.
+ *
+ * <p>Propiedades del sistema ({@code sicoil.carga.*}): {@code usuarios}, {@code calentamiento-segundos},
+ * {@code duracion-segundos}, {@code pausa-ms}, {@code timeout-ms}, {@code mezcla}
+ * ({@code listados=60,ventas=25,abonos=10,tablero=5}), {@code datos.ventas}, {@code datos.productos},
+ * {@code datos.clientes}, {@code datos.dias}, {@code umbral.p99-ms.<operacion>}, {@code umbral.rps-min},
+ * {@code umbral.errores-porcentaje}, {@code linea-base} (un {@code resumen.properties} anterior) y
+ * {@code tolerancia-porcentaje} frente a esa línea base.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "sicoil.seguridad.token.habilitado=true",
+        "sicoil.seguridad.token.secreto=prueba-de-carga",
+        "sicoil.seguridad.token.acceso-minutos=120",
+        "sicoil.limites.general.capacidad=1000000",
+        "sicoil.limites.general.por-minuto=1000000",
+        "sicoil.limites.reportes.capacidad=1000000",
+        "sicoil.limites.reportes.por-minuto=1000000"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "sicoil.carga", matches = "true")
+@Slf4j
+class CargaApiTest {
+
+    private static final Path DIRECTORIO_REPORTE = Path.of("target", "carga");
+    private static final String CONTRASENA = "carga-123";
+
+    enum Operacion {
+        LISTADOS, VENTAS, ABONOS, TABLERO;
+
+        String clave() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private GeneradorDatosService generadorDatosService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private HttpClient http;
+    private Duration timeout;
+
+    @Test
+    void api_sostieneLaMezclaDentroDeLosUmbrales() throws Exception {
+        int usuarios = entero("usuarios", 8);
+        int calentamiento = entero("calentamiento-segundos", 5);
+        int duracion = entero("duracion-segundos", 30);
+        int pausaMs = entero("pausa-ms", 0);
+        Map<Operacion, Integer> mezcla = leerMezcla(texto("mezcla", "listados=60,ventas=25,abonos=10,tablero=5"));
+        timeout = Duration.ofMillis(entero("timeout-ms", 10_000));
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+
+        prepararDatos();
+        List<String> tokens = autenticar(usuarios);
+        Catalogo catalogo = cargarCatalogo(tokens.get(0));
+        assertThat(catalogo.productos()).as("productos con stock para vender").isNotEmpty();
+        assertThat(catalogo.clientes()).as("clientes registrados").isNotEmpty();
+
+        Map<Operacion, Recorder> latencias = new EnumMap<>(Operacion.class);
+        Map<Operacion, LongAdder> errores = new EnumMap<>(Operacion.class);
+        for (Operacion operacion : Operacion.values()) {
+            latencias.put(operacion, new Recorder(3));
+            errores.put(operacion, new LongAdder());
+        }
+
+        long inicioMedicion = System.nanoTime() + Duration.ofSeconds(calentamiento).toNanos();
+        long fin = inicioMedicion + Duration.ofSeconds(duracion).toNanos();
+        ExecutorService hilos = Executors.newFixedThreadPool(usuarios);
+        List<Future<?>> virtuales = new ArrayList<>();
+        for (int i = 0; i < usuarios; i++) {
+            String token = tokens.get(i);
+            Random aleatorio = new Random(1000L + i);
+            virtuales.add(hilos.submit(() -> {
+                while (System.nanoTime() < fin) {
+                    Operacion operacion = elegir(mezcla, aleatorio);
+                    long inicio = System.nanoTime();
+                    boolean exitosa = ejecutar(operacion, token, catalogo, aleatorio);
+                    long microsegundos = (System.nanoTime() - inicio) / 1_000;
+                    if (inicio >= inicioMedicion) {
+                        latencias.get(operacion).recordValue(Math.max(1, microsegundos));
+                        if (!exitosa) {
+                            errores.get(operacion).increment();
+                        }
+                    }
+                    if (pausaMs > 0) {
+                        Thread.sleep(pausaMs);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> virtual : virtuales) {
+            virtual.get();
+        }
+        hilos.shutdown();
+
+        Map<Operacion, Histogram> histogramas = new EnumMap<>(Operacion.class);
+        latencias.forEach((operacion, recorder) -> histogramas.put(operacion, recorder.getIntervalHistogram()));
+        escribirReporte(histogramas, errores, duracion, usuarios);
+        List<String> fallas = evaluarUmbrales(histogramas, errores, duracion);
+        assertThat(fallas).as("umbrales de carga superados").isEmpty();
+    }
+
+    private void prepararDatos() {
+        Long ventas = jdbcTemplate.queryForObject("select count(*) from ventas", Long.class);
+        if (ventas != null && ventas > 0) {
+            log.info("La base ya tiene {} ventas; se usan los datos existentes", ventas);
+            return;
+        }
+        generadorDatosService.generar(generadorDatosService.parametrosConfigurados().toBuilder()
+                .ventas(entero("datos.ventas", 5_000))
+                .productos(entero("datos.productos", 60))
+                .clientes(entero("datos.clientes", 300))
+                .dias(entero("datos.dias", 180))
+                .contrasena(CONTRASENA)
+                .build());
+    }
+
+    private List<String> autenticar(int usuarios) throws IOException, InterruptedException {
+        List<String> tokens = new ArrayList<>(usuarios);
+        for (int i = 1; i <= usuarios; i++) {
+            Map<String, String> credenciales = Map.of("usuario", String.format("carga%02d", i), "contrasena", CONTRASENA);
+            // Si el usuario ya existe (base reutilizada) el alta falla y basta con iniciar sesión
+            enviar(HttpRequest.newBuilder(uri("/api/usuarios")), null, "POST", credenciales);
+            HttpResponse<String> login = enviar(HttpRequest.newBuilder(uri("/auth/login")), null, "POST", credenciales);
+            assertThat(login.statusCode()).as("login de carga%02d", i).isEqualTo(200);
+            tokens.add(objectMapper.readTree(login.body()).path("tokenAcceso").asText());
+        }
+        return tokens;
+    }
+
+    /**
+     * Lee productos y clientes por la API y repone stock para que las ventas de la prueba no
+     * fallen por inventario agotado.
+     */
+    private Catalogo cargarCatalogo(String token) throws IOException, InterruptedException {
+        JsonNode productos = objectMapper.readTree(
+                enviar(HttpRequest.newBuilder(uri("/api/productos?page=0&size=1000")), token, "GET", null).body());
+        List<Producto> disponibles = new ArrayList<>();
+        List<Map<String, Object>> ingresos = new ArrayList<>();
+        for (JsonNode grupo : productos.path("content")) {
+            JsonNode variantes = grupo.path("variantes");
+            if (variantes.isEmpty()) {
+                continue;
+            }
+            double costo = variantes.get(variantes.size() - 1).path("precioCompra").asDouble();
+            String nombre = grupo.path("nombre").asText();
+            disponibles.add(new Producto(nombre, Math.round(costo * 1.3)));
+            ingresos.add(Map.of("nombreProducto", nombre, "precioCompra", costo, "cantidad", 100_000,
+                    "comentario", "Reposición prueba de carga"));
+        }
+        if (!ingresos.isEmpty()) {
+            HttpResponse<String> reposicion = enviar(HttpRequest.newBuilder(uri("/api/productos/ingreso")), token,
+                    "POST", ingresos);
+            assertThat(reposicion.statusCode()).as("reposición de stock").isLessThan(300);
+        }
+
+        List<Cliente> clientes = new ArrayList<>();
+        for (JsonNode cliente : objectMapper.readTree(
+                enviar(HttpRequest.newBuilder(uri("/api/clientes")), token, "GET", null).body())) {
+            clientes.add(new Cliente(cliente.path("id").asLong(), cliente.path("nombre").asText()));
+        }
+        return new Catalogo(disponibles, clientes);
+    }
+
+    private boolean ejecutar(Operacion operacion, String token, Catalogo catalogo, Random aleatorio) {
+        try {
+            HttpResponse<String> respuesta = switch (operacion) {
+                case LISTADOS -> listar(token, catalogo, aleatorio);
+                case VENTAS -> vender(token, catalogo, aleatorio);
+                case ABONOS -> abonar(token, aleatorio);
+                case TABLERO -> enviar(HttpRequest.newBuilder(uri("/api/capital/resumen?desde="
+                        + LocalDate.now().minusDays(30) + "&hasta=" + LocalDate.now())), token, "GET", null);
+            };
+            return respuesta.statusCode() >= 200 && respuesta.statusCode() < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private HttpResponse<String> listar(String token, Catalogo catalogo, Random aleatorio)
+            throws IOException, InterruptedException {
+        String ruta = switch (aleatorio.nextInt(4)) {
+            case 0 -> "/api/ventas?page=" + aleatorio.nextInt(5) + "&size=20";
+            case 1 -> "/api/productos?page=0&size=20";
+            case 2 -> "/api/clientes?nombre=" + prefijo(catalogo.clientes().get(aleatorio.nextInt(catalogo.clientes().size())).nombre());
+            default -> "/api/cartera/pendientes";
+        };
+        return enviar(HttpRequest.newBuilder(uri(ruta)), token, "GET", null);
+    }
+
+    private HttpResponse<String> vender(String token, Catalogo catalogo, Random aleatorio)
+            throws IOException, InterruptedException {
+        Cliente cliente = catalogo.clientes().get(aleatorio.nextInt(catalogo.clientes().size()));
+        Producto producto = catalogo.productos().get(aleatorio.nextInt(catalogo.productos().size()));
+        int cantidad = 1 + aleatorio.nextInt(3);
+        Map<String, Object> venta = Map.of(
+                "clienteId", cliente.id(),
+                "tipoVenta", aleatorio.nextBoolean() ? "CREDITO" : "CONTADO",
+                "items", List.of(Map.of("nombreProducto", producto.nombre(), "cantidad", cantidad,
+                        "subtotal", producto.precio() * cantidad)));
+        return enviar(HttpRequest.newBuilder(uri("/api/ventas")), token, "POST", venta);
+    }
+
+    /**
+     * Abona un monto pequeño a un cliente con deuda; la lista de pendientes se consulta en cada
+     * abono para incluir los créditos creados durante la prueba.
+     */
+    private HttpResponse<String> abonar(String token, Random aleatorio)
+            throws IOException, InterruptedException {
+        HttpResponse<String> pendientes = enviar(HttpRequest.newBuilder(uri("/api/cartera/pendientes")), token, "GET", null);
+        JsonNode deudores = objectMapper.readTree(pendientes.body());
+        if (!deudores.isArray() || deudores.isEmpty()) {
+            return pendientes;
+        }
+        long clienteId = deudores.get(aleatorio.nextInt(deudores.size())).path("clienteId").asLong();
+        Map<String, Object> abono = Map.of("monto", 1_000, "observacion", "Abono prueba de carga");
+        return enviar(HttpRequest.newBuilder(uri("/api/cartera/clientes/" + clienteId + "/abonos")), token, "POST", abono);
+    }
+
+    private HttpResponse<String> enviar(HttpRequest.Builder peticion, String token, String metodo, Object cuerpo)
+            throws IOException, InterruptedException {
+        peticion.timeout(timeout).header("Accept", "application/json");
+        if (token != null) {
+            peticion.header("Authorization", "Bearer " + token);
+        }
+        if (cuerpo != null) {
+            peticion.header("Content-Type", "application/json")
+                    .method(metodo, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(cuerpo)));
+        } else {
+            peticion.method(metodo, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(peticion.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private void escribirReporte(Map<Operacion, Histogram> histogramas, Map<Operacion, LongAdder> errores,
+                                 int duracion, int usuarios) throws IOException {
+        Files.createDirectories(DIRECTORIO_REPORTE);
+        Properties resumen = new Properties();
+        StringBuilder tabla = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-10s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operacion", "total", "errores", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        long total = 0;
+        for (Map.Entry<Operacion, Histogram> entrada : histogramas.entrySet()) {
+            Operacion operacion = entrada.getKey();
+            Histogram histograma = entrada.getValue();
+            total += histograma.getTotalCount();
+            try (PrintStream salida = new PrintStream(
+                    Files.newOutputStream(DIRECTORIO_REPORTE.resolve(operacion.clave() + ".hgrm")), true, StandardCharsets.UTF_8)) {
+                histograma.outputPercentileDistribution(salida, 1000.0);
+            }
+            double p99 = milisegundos(histograma, 99.0);
+            resumen.setProperty(operacion.clave() + ".p99-ms", String.format(Locale.ROOT, "%.3f", p99));
+            tabla.append(String.format(Locale.ROOT, "%-10s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operacion.clave(), histograma.getTotalCount(), errores.get(operacion).sum(),
+                    histograma.getTotalCount() / (double) duracion,
+                    milisegundos(histograma, 50.0), milisegundos(histograma, 90.0), p99,
+                    milisegundos(histograma, 99.9), histograma.getMaxValue() / 1000.0));
+        }
+        double rps = total / (double) duracion;
+        resumen.setProperty("rps", String.format(Locale.ROOT, "%.1f", rps));
+        tabla.append(String.format(Locale.ROOT, "total %d peticiones en %d s con %d usuarios: %.1f peticiones/s%n",
+                total, duracion, usuarios, rps));
+        try (Writer salida = Files.newBufferedWriter(DIRECTORIO_REPORTE.resolve("resumen.properties"))) {
+            resumen.store(salida, "Resumen de la prueba de carga");
+        }
+        Files.writeString(DIRECTORIO_REPORTE.resolve("resumen.txt"), tabla);
+        log.info("Prueba de carga:{}", tabla);
+    }
+
+    private List<String> evaluarUmbrales(Map<Operacion, Histogram> histogramas, Map<Operacion, LongAdder> errores,
+                                         int duracion) throws IOException {
+        Map<Operacion, Integer> p99PorDefecto = Map.of(
+                Operacion.LISTADOS, 500, Operacion.VENTAS, 800, Operacion.ABONOS, 800, Operacion.TABLERO, 1500);
+        double erroresMaximos = decimal("umbral.errores-porcentaje", 1.0);
+        Properties lineaBase = leerLineaBase();
+        double tolerancia = 1 + decimal("tolerancia-porcentaje", 20.0) / 100;
+
+        List<String> fallas = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<Operacion, Histogram> entrada : histogramas.entrySet()) {
+            Operacion operacion = entrada.getKey();
+            Histogram histograma = entrada.getValue();
+            total += histograma.getTotalCount();
+            if (histograma.getTotalCount() == 0) {
+                continue;
+            }
+            double p99 = milisegundos(histograma, 99.0);
+            double limite = decimal("umbral.p99-ms." + operacion.clave(), p99PorDefecto.get(operacion));
+            if (p99 > limite) {
+                fallas.add(String.format(Locale.ROOT, "%s: p99 %.1f ms supera %.1f ms", operacion.clave(), p99, limite));
+            }
+            double porcentajeErrores = 100.0 * errores.get(operacion).sum() / histograma.getTotalCount();
+            if (porcentajeErrores > erroresMaximos) {
+                fallas.add(String.format(Locale.ROOT, "%s: %.2f%% de errores supera %.2f%%",
+                        operacion.clave(), porcentajeErrores, erroresMaximos));
+            }
+            String anterior = lineaBase.getProperty(operacion.clave() + ".p99-ms");
+            if (anterior != null && p99 > Double.parseDouble(anterior) * tolerancia) {
+                fallas.add(String.format(Locale.ROOT, "%s: p99 %.1f ms empeoró frente a la línea base (%s ms)",
+                        operacion.clave(), p99, anterior));
+            }
+        }
+        double rps = total / (double) duracion;
+        double rpsMinimo = decimal("umbral.rps-min", 20.0);
+        if (rps < rpsMinimo) {
+            fallas.add(String.format(Locale.ROOT, "rendimiento %.1f peticiones/s por debajo de %.1f", rps, rpsMinimo));
+        }
+        String rpsAnterior = lineaBase.getProperty("rps");
+        if (rpsAnterior != null && rps * tolerancia < Double.parseDouble(rpsAnterior)) {
+            fallas.add(String.format(Locale.ROOT, "rendimiento %.1f peticiones/s empeoró frente a la línea base (%s)",
+                    rps, rpsAnterior));
+        }
+        return fallas;
+    }
+
+    private Properties leerLineaBase() throws IOException {
+        Properties lineaBase = new Properties();
+        String ruta = System.getProperty("sicoil.carga.linea-base");
+        if (ruta != null && !ruta.isBlank()) {
+            try (Reader entrada = Files.newBufferedReader(Path.of(ruta))) {
+                lineaBase.load(entrada);
+            }
+        }
+        return lineaBase;
+    }
+
+    private static Map<Operacion, Integer> leerMezcla(String mezcla) {
+        Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+        for (String parte : mezcla.split(",")) {
+            String[] claveValor = parte.trim().split("=");
+            pesos.put(Operacion.valueOf(claveValor[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(claveValor[1].trim()));
+        }
+        assertThat(pesos.values().stream().mapToInt(Integer::intValue).sum()).as("suma de la mezcla").isPositive();
+        return pesos;
+    }
+
+    private static Operacion elegir(Map<Operacion, Integer> mezcla, Random aleatorio) {
+        int total = mezcla.values().stream().mapToInt(Integer::intValue).sum();
+        int valor = aleatorio.nextInt(total);
+        for (Map.Entry<Operacion, Integer> entrada : mezcla.entrySet()) {
+            valor -= entrada.getValue();
+            if (valor < 0) {
+                return entrada.getKey();
+            }
+        }
+        return Operacion.LISTADOS;
+    }
+
+    private static double milisegundos(Histogram histograma, double percentil) {
+        return histograma.getValueAtPercentile(percentil) / 1000.0;
+    }
+
+    private static String prefijo(String nombre) {
+        String base = nombre.length() > 3 ? nombre.substring(0, 3) : nombre;
+        return URLEncoder.encode(base, StandardCharsets.UTF_8);
+    }
+
+    private URI uri(String ruta) {
+        return URI.create("http://localhost:" + puerto + ruta);
+    }
+
+    private static int entero(String propiedad, int porDefecto) {
+        return Integer.parseInt(System.getProperty("sicoil.carga." + propiedad, String.valueOf(porDefecto)));
+    }
+
+    private static double decimal(String propiedad, double porDefecto) {
+        return Double.parseDouble(System.getProperty("sicoil.carga." + propiedad, String.valueOf(porDefecto)));
+    }
+
+    private static String texto(String propiedad, String porDefecto) {
+        return System.getProperty("sicoil.carga." + propiedad, porDefecto);
+    }
+
+    private record Producto(String nombre, long precio) {
+    }
+
+    private record Cliente(long id, String nombre) {
+    }
+
+    private record Catalogo(List<Producto> productos, List<Cliente> clientes) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.SICOIL.dtos.capital.CapitalMovimientoFiltro;
+import com.SICOIL.dtos.capital.CapitalResumenResponse;
+import com.SICOIL.dtos.cartera.CarteraAbonoRequest;
+import com.SICOIL.dtos.producto.IngresoProductoRequest;
+import com.SICOIL.models.CapitalOrigen;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.ResumenDiario;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.repositories.CapitalTotalesPeriodo;
+import com.SICOIL.repositories.CarteraMovimientoRepository;
+import com.SICOIL.repositories.ResumenDiarioRepository;
+import com.SICOIL.repositories.ResumenDiarioTotales;
+import com.SICOIL.repositories.VentaRepository;
+import com.SICOIL.repositories.VentaTotalesPeriodo;
+import com.SICOIL.services.capital.CapitalModificadoEvent;
+import com.SICOIL.services.capital.CapitalResumenService;
+import com.SICOIL.services.capital.CapitalService;
+import com.SICOIL.services.capital.ResumenDiarioService;
+import com.SICOIL.services.cartera.CarteraModificadaEvent;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class CapitalIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private CarteraMovimientoRepository carteraMovimientoRepository;
+
+    @Autowired
+    private CapitalService capitalService;
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    @Autowired
+    private CapitalResumenService capitalResumenService;
+
+    @Autowired
+    private ResumenDiarioService resumenDiarioService;
+
+    @Autowired
+    private ResumenDiarioRepository resumenDiarioRepository;
+
+    @Test
+    void totalizarPeriodo_agrupaLasSumasDeCapitalYVentasEnUnaConsulta() {
+        Cliente cliente = crearCliente("Cliente Resumen");
+        Producto producto = crearProducto("Aceite Resumen", 50d, 20);
+        producto.setCantidadPorCajas(2);
+        productoRepository.save(producto);
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fin = LocalDate.now().atTime(23, 59, 59);
+        entityManager.flush();
+        CapitalTotalesPeriodo capitalAntes = capitalMovimientoRepository.totalizarPeriodo(inicio, fin);
+        VentaTotalesPeriodo ventasAntes = ventaRepository.totalizarPeriodo(inicio, fin);
+
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CONTADO, 2, 100d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+        entityManager.flush();
+
+        CapitalTotalesPeriodo capital = capitalMovimientoRepository.totalizarPeriodo(inicio, fin);
+        assertThat(capital.saldoReal().restar(capitalAntes.saldoReal())).isEqualTo(Dinero.de(200d));
+        assertThat(capital.entradas().restar(capitalAntes.entradas())).isEqualTo(Dinero.de(200d));
+        assertThat(capital.compras()).isEqualTo(capitalAntes.compras());
+
+        VentaTotalesPeriodo ventas = ventaRepository.totalizarPeriodo(inicio, fin);
+        assertThat(ventas.totalVentas().restar(ventasAntes.totalVentas())).isEqualTo(Dinero.de(300d));
+        assertThat(ventas.getUnidades() - ventasAntes.getUnidades()).isEqualTo(3d);
+        assertThat(ventas.getCajas() - ventasAntes.getCajas()).isEqualTo(1.5d);
+        assertThat(ventas.ganancia().restar(ventasAntes.ganancia())).isEqualTo(Dinero.de(150d));
+
+        assertThat(capitalResumenService.obtenerResumen(LocalDate.now(), LocalDate.now()).getVentasMensuales())
+                .hasSize(6);
+    }
+
+    @Test
+    void recalcularResumenDiario_guardaLosTotalesDelDiaCalculadosDesdeLosMovimientos() {
+        Cliente cliente = crearCliente("Cliente Diario");
+        Producto producto = crearProducto("Aceite Diario", 50d, 20);
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CONTADO, 2, 100d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+        CarteraAbonoRequest abonoRequest = new CarteraAbonoRequest();
+        abonoRequest.setMonto(40d);
+        carteraService.registrarAbono(cliente.getId(), abonoRequest);
+        entityManager.flush();
+
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        LocalDateTime momento = ayer.atTime(15, 0);
+        entityManager.createNativeQuery("update ventas set fecha_registro = :fecha").setParameter("fecha", momento).executeUpdate();
+        entityManager.createNativeQuery("update capital_movimientos set creado_en = :fecha").setParameter("fecha", momento).executeUpdate();
+        entityManager.createNativeQuery("update cartera_movimientos set fecha = :fecha").setParameter("fecha", momento).executeUpdate();
+        entityManager.clear();
+
+        resumenDiarioService.recalcular(ayer.minusDays(1), ayer);
+        entityManager.flush();
+        entityManager.clear();
+
+        ResumenDiario sinMovimientos = resumenDiarioRepository.findById(ayer.minusDays(1)).orElseThrow();
+        assertThat(sinMovimientos.getTotalVentas()).isZero();
+        assertThat(sinMovimientos.getSaldoReal()).isZero();
+
+        ResumenDiario dia = resumenDiarioRepository.findById(ayer).orElseThrow();
+        LocalDateTime inicio = ayer.atStartOfDay();
+        LocalDateTime fin = ayer.atTime(23, 59, 59);
+        CapitalTotalesPeriodo capital = capitalMovimientoRepository.totalizarPeriodo(inicio, fin);
+        VentaTotalesPeriodo ventas = ventaRepository.totalizarPeriodo(inicio, fin);
+        assertThat(Dinero.de(dia.getSaldoReal())).isEqualTo(capital.saldoReal());
+        assertThat(Dinero.de(dia.getEntradas())).isEqualTo(capital.entradas());
+        assertThat(Dinero.de(dia.getCompras())).isEqualTo(capital.compras());
+        assertThat(Dinero.de(dia.getTotalVentas())).isEqualTo(ventas.totalVentas()).isEqualTo(Dinero.de(300d));
+        assertThat(Dinero.de(dia.getGanancia())).isEqualTo(ventas.ganancia());
+        assertThat(dia.getUnidades()).isEqualTo(ventas.getUnidades()).isEqualTo(3d);
+        assertThat(dia.getCajas()).isEqualTo(ventas.getCajas());
+        assertThat(Dinero.de(dia.getAbonos())).isEqualTo(carteraMovimientoRepository.sumAbonosBetween(inicio, fin))
+                .isEqualTo(Dinero.de(40d));
+        assertThat(Dinero.de(dia.getCreditos())).isEqualTo(carteraMovimientoRepository.sumCreditosBetween(inicio, fin))
+                .isEqualTo(Dinero.de(100d));
+
+        ResumenDiarioTotales totales = resumenDiarioRepository.totalizar(null, ayer);
+        assertThat(totales.totalVentas()).isEqualTo(Dinero.de(300d));
+    }
+
+    @Test
+    void obtenerResumenCapital_reutilizaElCalculoHastaQueSeInvalida() throws Exception {
+        capitalResumenService.invalidar(new CapitalModificadoEvent());
+        LocalDate desde = LocalDate.now().minusMonths(2).withDayOfMonth(1);
+        LocalDate hasta = desde.plusDays(9);
+
+        CapitalResumenResponse cerrado = capitalResumenService.obtenerResumen(desde, hasta);
+        assertThat(capitalResumenService.obtenerResumen(desde, hasta)).isSameAs(cerrado);
+        assertThat(capitalResumenService.obtenerResumen(desde, null)).isNotSameAs(cerrado);
+
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CapitalResumenResponse>> simultaneos = hilos.invokeAll(Collections.nCopies(4,
+                    () -> capitalResumenService.obtenerResumen(desde.minusDays(1), hasta)));
+            CapitalResumenResponse primero = simultaneos.get(0).get();
+            for (Future<CapitalResumenResponse> resultado : simultaneos) {
+                assertThat(resultado.get()).isSameAs(primero);
+            }
+        } finally {
+            hilos.shutdown();
+        }
+
+        capitalResumenService.invalidar(new CarteraModificadaEvent(null));
+        assertThat(capitalResumenService.obtenerResumen(desde, hasta)).isNotSameAs(cerrado);
+    }
+
+    @Test
+    void exportarMovimientosCapitalCsv_escribeMontosComoNumerosConDosDecimales() throws Exception {
+        Producto producto = crearProducto("Aceite Exportar Capital", 70.5d, 0);
+        IngresoProductoRequest request = new IngresoProductoRequest();
+        request.setNombreProducto(producto.getNombre());
+        request.setPrecioCompra(producto.getPrecioCompra().aDouble());
+        request.setCantidad(3);
+        Producto lote = inventarioService.registrarIngresoProducto(request);
+        entityManager.flush();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long filas = capitalService.exportarMovimientosCsv(
+                CapitalMovimientoFiltro.builder().origen(CapitalOrigen.COMPRA).referenciaId(lote.getId()).build(),
+                salida);
+
+        List<String> lineas = salida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(filas).isEqualTo(1);
+        assertThat(lineas.get(1)).contains(",COMPRA,false,-211.50," + lote.getId() + ",");
+    }
+}
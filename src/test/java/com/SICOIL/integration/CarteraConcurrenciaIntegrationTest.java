@@ -0,0 +1,205 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.SICOIL.dtos.cartera.CarteraAbonoRequest;
+import com.SICOIL.dtos.venta.VentaResponse;
+import com.SICOIL.models.Cartera;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.ClienteSaldo;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.repositories.ClienteSaldoRepository;
+import com.SICOIL.services.security.UsuarioDetails;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class CarteraConcurrenciaIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private ClienteSaldoRepository clienteSaldoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void aplicarVariacion_primerCreditoSimultaneoDelClienteNoChocaPorClaveDuplicada() throws Exception {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Cliente cliente = transaccion.execute(estado -> crearCliente("Cliente Primer Credito " + UUID.randomUUID()));
+        try {
+            List<Throwable> errores = ejecutarEnParalelo(2, () -> transaccion.executeWithoutResult(estado ->
+                    clienteSaldoService.aplicarVariacion(cliente.getId(), Dinero.de(100d), 1)));
+
+            assertThat(errores).containsOnlyNulls();
+
+            ClienteSaldo saldo = clienteSaldoRepository.findById(cliente.getId()).orElseThrow();
+            assertThat(saldo.getSaldoPendiente()).isEqualTo(Dinero.de(200d));
+            assertThat(saldo.getCreditosAbiertos()).isEqualTo(2);
+        } finally {
+            transaccion.executeWithoutResult(estado -> {
+                clienteSaldoRepository.deleteById(cliente.getId());
+                clienteRepository.deleteById(cliente.getId());
+                eliminarUsuarioActual();
+            });
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void registrarAbono_simultaneosQueExcedenLaDeudaRechazanUnoYMantienenSaldosConsistentes() throws Exception {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Producto producto = transaccion.execute(estado -> crearProducto("Aceite Abono Concurrente " + UUID.randomUUID(), 30d, 10));
+        Cliente cliente = transaccion.execute(estado -> crearCliente("Cliente Abono Concurrente " + UUID.randomUUID()));
+        try {
+            VentaResponse venta = transaccion.execute(estado -> ventaService.crearVenta(construirVentaRequest(
+                    cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 50d)));
+            double totalVenta = venta.getTotal();
+            double abono = totalVenta * 0.6;
+            CarteraAbonoRequest request = new CarteraAbonoRequest();
+            request.setMonto(abono);
+
+            List<Throwable> errores = ejecutarEnParalelo(2, () -> transaccion.executeWithoutResult(estado ->
+                    carteraService.registrarAbono(cliente.getId(), request)));
+
+            assertThat(errores).filteredOn(error -> error == null).hasSize(1);
+            assertThat(errores).filteredOn(error -> error != null).singleElement()
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .extracting(Throwable::getMessage).asString().contains("excede el saldo");
+
+            double saldoEsperado = totalVenta - abono;
+            Cartera cartera = carteraRepository.findAll().stream()
+                    .filter(c -> venta.getId().equals(c.getVenta().getId()))
+                    .findFirst()
+                    .orElseThrow();
+            assertThat(cartera.getSaldo()).isEqualTo(Dinero.de(saldoEsperado));
+            assertThat(jdbcTemplate.queryForList(
+                    "select tipo from cartera_movimientos where cartera_id = ? order by id", String.class, cartera.getId()))
+                    .containsExactly("CREDITO", "ABONO");
+            assertThat(jdbcTemplate.queryForObject("""
+                    select coalesce(sum(monto_total), 0) from capital_movimientos
+                    where origen = 'ABONO' and referencia_id = ?
+                    """, Double.class, venta.getId())).isEqualTo(abono);
+            assertThat(clienteSaldoRepository.findById(cliente.getId()).orElseThrow().getSaldoPendiente())
+                    .isEqualTo(Dinero.de(saldoEsperado));
+        } finally {
+            transaccion.executeWithoutResult(estado -> {
+                eliminarVentasConfirmadas(cliente.getId(), producto.getId());
+                eliminarUsuarioActual();
+            });
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void eliminarAbono_simultaneosDelMismoAbonoLoDevuelvenUnaSolaVez() throws Exception {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Producto producto = transaccion.execute(estado -> crearProducto("Aceite Eliminar Concurrente " + UUID.randomUUID(), 30d, 10));
+        Cliente cliente = transaccion.execute(estado -> crearCliente("Cliente Eliminar Concurrente " + UUID.randomUUID()));
+        try {
+            VentaResponse venta = transaccion.execute(estado -> ventaService.crearVenta(construirVentaRequest(
+                    cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 50d)));
+            CarteraAbonoRequest abono = new CarteraAbonoRequest();
+            abono.setMonto(40d);
+            Long movimientoId = transaccion.execute(estado ->
+                    carteraService.registrarAbono(cliente.getId(), abono).get(0).getMovimientoId());
+            CarteraAbonoRequest eliminar = new CarteraAbonoRequest();
+            eliminar.setMonto(40d);
+            eliminar.setObservacion("Duplicado");
+
+            List<Throwable> errores = ejecutarEnParalelo(2, () -> transaccion.executeWithoutResult(estado ->
+                    carteraService.eliminarAbono(cliente.getId(), movimientoId, eliminar)));
+
+            assertThat(errores).filteredOn(error -> error == null).hasSize(1);
+            assertThat(errores).filteredOn(error -> error != null).singleElement()
+                    .isInstanceOf(EntityNotFoundException.class);
+            Cartera cartera = carteraRepository.findByVentaId(venta.getId()).orElseThrow();
+            assertThat(cartera.getSaldo()).isEqualTo(Dinero.de(venta.getTotal()));
+            assertThat(clienteSaldoRepository.findById(cliente.getId()).orElseThrow().getSaldoPendiente())
+                    .isEqualTo(Dinero.de(venta.getTotal()));
+            assertThat(jdbcTemplate.queryForList(
+                    "select motivo from cartera_movimientos where cartera_id = ? order by id", String.class, cartera.getId()))
+                    .containsExactly("VENTA_CREDITO", "ELIMINACION_ABONO");
+        } finally {
+            transaccion.executeWithoutResult(estado -> {
+                eliminarVentasConfirmadas(cliente.getId(), producto.getId());
+                eliminarUsuarioActual();
+            });
+        }
+    }
+
+    /**
+     * Ejecuta la tarea en varios hilos que arrancan a la vez, cada uno con el usuario autenticado del
+     * test, y devuelve el resultado o la excepción de cada hilo.
+     */
+    private List<Throwable> ejecutarEnParalelo(int hilos, Runnable tarea) throws Exception {
+        SecurityContext contexto = SecurityContextHolder.getContext();
+        CyclicBarrier barrera = new CyclicBarrier(hilos);
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<Throwable>> resultados = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                Callable<Throwable> hilo = () -> {
+                    SecurityContextHolder.setContext(contexto);
+                    try {
+                        barrera.await(10, TimeUnit.SECONDS);
+                        tarea.run();
+                        return null;
+                    } catch (RuntimeException ex) {
+                        return ex;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                };
+                resultados.add(ejecutor.submit(hilo));
+            }
+            List<Throwable> errores = new ArrayList<>();
+            for (Future<Throwable> resultado : resultados) {
+                errores.add(resultado.get(60, TimeUnit.SECONDS));
+            }
+            return errores;
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private void eliminarVentasConfirmadas(Long clienteId, Long productoId) {
+        String ventasCliente = "(select id from ventas where cliente_id = ?)";
+        jdbcTemplate.update("delete from cartera_movimientos where cartera_id in (select id from cartera where cliente_id = ?)", clienteId);
+        jdbcTemplate.update("delete from cartera where cliente_id = ?", clienteId);
+        jdbcTemplate.update("delete from cliente_saldo where cliente_id = ?", clienteId);
+        jdbcTemplate.update("delete from capital_movimientos where origen in ('VENTA', 'ABONO') and referencia_id in "
+                + ventasCliente, clienteId);
+        jdbcTemplate.update("delete from venta_detalle where venta_id in " + ventasCliente, clienteId);
+        jdbcTemplate.update("delete from ventas where cliente_id = ?", clienteId);
+        jdbcTemplate.update("delete from kardex where producto_id = ?", productoId);
+        jdbcTemplate.update("delete from productos where id = ?", productoId);
+        jdbcTemplate.update("delete from clientes where id = ?", clienteId);
+    }
+
+    /**
+     * Los tests sin transacción confirman el usuario que crea {@code setUpSecurityContext}; se
+     * elimina al terminar para no dejarlo en la base compartida.
+     */
+    private void eliminarUsuarioActual() {
+        UsuarioDetails details = (UsuarioDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        usuarioRepository.findByUsuario(details.getUsername()).ifPresent(usuarioRepository::delete);
+    }
+}
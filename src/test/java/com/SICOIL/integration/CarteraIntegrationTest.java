@@ -0,0 +1,360 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.SICOIL.dtos.cartera.CarteraAbonoDetalleResponse;
+import com.SICOIL.dtos.cartera.CarteraAbonoRequest;
+import com.SICOIL.dtos.cartera.CarteraAntiguedadClienteResponse;
+import com.SICOIL.dtos.cartera.CarteraAntiguedadResponse;
+import com.SICOIL.dtos.cartera.CarteraPaginaResponse;
+import com.SICOIL.dtos.cartera.CarteraResumenResponse;
+import com.SICOIL.dtos.cartera.CarteraTotalesResponse;
+import com.SICOIL.dtos.cartera.ClienteSaldoResponse;
+import com.SICOIL.dtos.venta.VentaResponse;
+import com.SICOIL.models.CapitalMovimiento;
+import com.SICOIL.models.CapitalOrigen;
+import com.SICOIL.models.Cartera;
+import com.SICOIL.models.CarteraMovimiento;
+import com.SICOIL.models.CarteraMovimientoMotivo;
+import com.SICOIL.models.CarteraMovimientoTipo;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.repositories.CarteraMovimientoRepository;
+import com.SICOIL.services.cartera.CarteraAntiguedadService;
+import com.SICOIL.services.cartera.CarteraModificadaEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class CarteraIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private CarteraMovimientoRepository carteraMovimientoRepository;
+
+    @Autowired
+    private CarteraAntiguedadService carteraAntiguedadService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void eliminarAbono_revierteSaldoYCreaMovimientoCapitalNegativo() {
+        Producto producto = crearProducto("Aceite Reversion", 75d, 10);
+        Cliente cliente = crearCliente("Cliente Reversion");
+        double precioUnitario = 150d;
+        int cantidad = 2;
+
+        VentaResponse venta = ventaService.crearVenta(construirVentaRequest(
+                cliente.getId(),
+                producto.getId(),
+                TipoVenta.CREDITO,
+                cantidad,
+                precioUnitario
+        ));
+
+        Cartera cartera = carteraRepository.findByVentaId(venta.getId()).orElseThrow();
+        double totalVenta = precioUnitario * cantidad;
+        assertThat(cartera.getSaldo()).isEqualTo(Dinero.de(totalVenta));
+
+        double abono = totalVenta / 2;
+        CarteraAbonoRequest abonoRequest = new CarteraAbonoRequest();
+        abonoRequest.setMonto(abono);
+        abonoRequest.setObservacion("Pago parcial");
+        carteraService.registrarAbono(cliente.getId(), abonoRequest);
+
+        CarteraMovimiento movimientoAbono = carteraMovimientoRepository.findAll().stream()
+                .filter(m -> m.getTipo() == CarteraMovimientoTipo.ABONO)
+                .findFirst()
+                .orElseThrow();
+
+        CarteraAbonoRequest eliminarRequest = new CarteraAbonoRequest();
+        eliminarRequest.setMonto(abono);
+        eliminarRequest.setObservacion("Abono registrado por error");
+
+        carteraService.eliminarAbono(cliente.getId(), movimientoAbono.getId(), eliminarRequest);
+
+        Cartera carteraRestaurada = carteraRepository.findById(cartera.getId()).orElseThrow();
+        assertThat(carteraRestaurada.getSaldo()).isEqualTo(Dinero.de(totalVenta));
+        assertThat(carteraMovimientoRepository.findById(movimientoAbono.getId())).isEmpty();
+
+        List<CarteraAbonoDetalleResponse> abonos = carteraService.listarAbonos(cliente.getId(), null, null);
+        assertThat(abonos).isNotEmpty();
+        assertThat(abonos.get(0).getMonto()).isEqualTo(-abono);
+
+        List<CarteraMovimiento> ajustes = carteraMovimientoRepository.findAll().stream()
+                .filter(m -> m.getTipo() == CarteraMovimientoTipo.AJUSTE)
+                .toList();
+        assertThat(ajustes).hasSize(1);
+
+        List<CapitalMovimiento> movimientosCapital = capitalMovimientoRepository.findByOrigenAndReferenciaId(
+                CapitalOrigen.ABONO,
+                venta.getId()
+        );
+        double totalLiquido = movimientosCapital.stream()
+                .filter(m -> !m.getEsCredito())
+                .mapToDouble(m -> m.getMonto().aDouble())
+                .sum();
+        assertThat(totalLiquido).isZero();
+    }
+
+    @Test
+    void listarPendientes_agrupaSaldosYMovimientosPorCliente() {
+        Cliente cliente = crearCliente("Cliente Pendientes");
+        Cliente otroCliente = crearCliente("Otro Cliente");
+        Producto producto = crearProducto("Aceite Pendientes", 50d, 20);
+
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 100d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+        ventaService.crearVenta(construirVentaRequest(otroCliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+
+        CarteraAbonoRequest abonoRequest = new CarteraAbonoRequest();
+        abonoRequest.setMonto(50d);
+        abonoRequest.setObservacion("Pago parcial");
+        carteraService.registrarAbono(cliente.getId(), abonoRequest);
+
+        List<CarteraResumenResponse> pendientes = carteraService.listarPendientes("pendientes", null, null);
+
+        assertThat(pendientes).hasSize(1);
+        CarteraResumenResponse resumen = pendientes.get(0);
+        assertThat(resumen.getClienteId()).isEqualTo(cliente.getId());
+        assertThat(resumen.getSaldoPendiente()).isEqualTo(250d);
+        assertThat(resumen.getTotalCreditos()).isEqualTo(300d);
+        assertThat(resumen.getTotalAbonos()).isEqualTo(50d);
+        assertThat(resumen.getUltimaActualizacion()).isNotNull();
+
+        List<CarteraResumenResponse> fueraDeRango = carteraService.listarPendientes(
+                null, LocalDate.now().minusDays(10), LocalDate.now().minusDays(5));
+        assertThat(fueraDeRango).extracting(CarteraResumenResponse::getClienteNombre)
+                .containsExactly("Cliente Pendientes", "Otro Cliente");
+        assertThat(fueraDeRango).allSatisfy(r -> {
+            assertThat(r.getTotalCreditos()).isZero();
+            assertThat(r.getTotalAbonos()).isZero();
+        });
+    }
+
+    @Test
+    void saldoCliente_seMantieneConLosMovimientosDeCarteraYCoincideConLaReconstruccion() {
+        Cliente cliente = crearCliente("Cliente Saldo");
+        Producto producto = crearProducto("Aceite Saldo", 50d, 20);
+
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 100d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+
+        ClienteSaldoResponse trasVentas = clienteSaldoService.obtener(cliente.getId());
+        assertThat(trasVentas.getSaldoPendiente()).isEqualTo(300d);
+        assertThat(trasVentas.getCreditosAbiertos()).isEqualTo(2);
+        assertThat(trasVentas.getCreditoMasAntiguo()).isNotNull();
+
+        CarteraAbonoRequest abonoRequest = new CarteraAbonoRequest();
+        abonoRequest.setMonto(250d);
+        abonoRequest.setObservacion("Pago grande");
+        List<CarteraAbonoDetalleResponse> abonos = carteraService.registrarAbono(cliente.getId(), abonoRequest);
+
+        ClienteSaldoResponse trasAbono = clienteSaldoService.obtener(cliente.getId());
+        assertThat(trasAbono.getSaldoPendiente()).isEqualTo(50d);
+        assertThat(trasAbono.getCreditosAbiertos()).isEqualTo(1);
+
+        CarteraAbonoDetalleResponse primerAbono = abonos.get(0);
+        CarteraAbonoRequest eliminarRequest = new CarteraAbonoRequest();
+        eliminarRequest.setMonto(primerAbono.getMonto());
+        eliminarRequest.setObservacion("Abono duplicado");
+        carteraService.eliminarAbono(cliente.getId(), primerAbono.getMovimientoId(), eliminarRequest);
+
+        ClienteSaldoResponse trasEliminar = clienteSaldoService.obtener(cliente.getId());
+        assertThat(trasEliminar.getSaldoPendiente()).isEqualTo(50d + primerAbono.getMonto());
+        assertThat(trasEliminar.getCreditosAbiertos()).isEqualTo(2);
+
+        clienteSaldoService.reconstruir();
+        entityManager.clear();
+
+        ClienteSaldoResponse reconstruido = clienteSaldoService.obtener(cliente.getId());
+        assertThat(reconstruido.getSaldoPendiente()).isEqualTo(trasEliminar.getSaldoPendiente());
+        assertThat(reconstruido.getCreditosAbiertos()).isEqualTo(trasEliminar.getCreditosAbiertos());
+        assertThat(reconstruido.getCreditoMasAntiguo()).isEqualTo(trasEliminar.getCreditoMasAntiguo());
+    }
+
+    @Test
+    void antiguedadCartera_distribuyeSaldosPorTramoDeDias() {
+        Cliente cliente = crearCliente("Cliente Antiguedad");
+        Producto producto = crearProducto("Aceite Antiguedad", 50d, 20);
+
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+        VentaResponse antigua = ventaService.crearVenta(
+                construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 100d));
+        entityManager.flush();
+        entityManager.createNativeQuery("update ventas set fecha_registro = :fecha where id = :id")
+                .setParameter("fecha", LocalDate.now().minusDays(45).atTime(10, 0))
+                .setParameter("id", antigua.getId())
+                .executeUpdate();
+        carteraAntiguedadService.invalidar(new CarteraModificadaEvent(cliente.getId()));
+
+        CarteraAntiguedadResponse reporte = carteraAntiguedadService.obtener("antiguedad");
+
+        assertThat(reporte.getClientes()).hasSize(1);
+        CarteraAntiguedadClienteResponse fila = reporte.getClientes().get(0);
+        assertThat(fila.getClienteId()).isEqualTo(cliente.getId());
+        assertThat(fila.getHasta30()).isEqualTo(100d);
+        assertThat(fila.getDe31a60()).isEqualTo(200d);
+        assertThat(fila.getDe61a90()).isZero();
+        assertThat(fila.getMas90()).isZero();
+        assertThat(fila.getTotal()).isEqualTo(300d);
+        assertThat(reporte.getTotalPendiente()).isEqualTo(300d);
+    }
+
+    @Test
+    void listarAbonosPaginados_recorreTodasLasFilasPorCursorYTotalizaSinCargarlas() {
+        Cliente cliente = crearCliente("Cliente Cursor");
+        Producto producto = crearProducto("Aceite Cursor", 50d, 20);
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 100d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+
+        CarteraAbonoRequest abonoRequest = new CarteraAbonoRequest();
+        abonoRequest.setMonto(250d);
+        List<CarteraAbonoDetalleResponse> abonos = carteraService.registrarAbono(cliente.getId(), abonoRequest);
+        CarteraAbonoRequest eliminarRequest = new CarteraAbonoRequest();
+        eliminarRequest.setMonto(abonos.get(0).getMonto());
+        eliminarRequest.setObservacion("Error de digitación");
+        carteraService.eliminarAbono(cliente.getId(), abonos.get(0).getMovimientoId(), eliminarRequest);
+        entityManager.flush();
+        entityManager.clear();
+
+        CarteraPaginaResponse<CarteraAbonoDetalleResponse> primera =
+                carteraService.listarAbonosPaginados(cliente.getId(), null, null, null, 1);
+        assertThat(primera.getItems()).hasSize(1);
+        assertThat(primera.isHaySiguiente()).isTrue();
+
+        CarteraPaginaResponse<CarteraAbonoDetalleResponse> segunda =
+                carteraService.listarAbonosPaginados(cliente.getId(), null, null, primera.getSiguienteCursor(), 1);
+        assertThat(segunda.getItems()).hasSize(1);
+        assertThat(segunda.isHaySiguiente()).isFalse();
+        assertThat(segunda.getSiguienteCursor()).isNull();
+
+        List<CarteraAbonoDetalleResponse> recorridas = new ArrayList<>(primera.getItems());
+        recorridas.addAll(segunda.getItems());
+        assertThat(recorridas).extracting(CarteraAbonoDetalleResponse::getMovimientoId)
+                .containsExactlyInAnyOrderElementsOf(carteraService.listarAbonos(cliente.getId(), null, null)
+                        .stream().map(CarteraAbonoDetalleResponse::getMovimientoId).toList());
+
+        CarteraTotalesResponse totalesAbonos = carteraService.totalizarAbonos(cliente.getId(), null, null);
+        assertThat(totalesAbonos.getCantidad()).isEqualTo(2);
+        assertThat(totalesAbonos.getTotal())
+                .isEqualTo(recorridas.stream().mapToDouble(CarteraAbonoDetalleResponse::getMonto).sum());
+        assertThat(totalesAbonos.getTotal()).isEqualTo(250d - 2 * abonos.get(0).getMonto());
+
+        CarteraTotalesResponse totalesCreditos = carteraService.totalizarCreditos(cliente.getId(), null, null);
+        assertThat(totalesCreditos.getCantidad()).isEqualTo(3);
+        assertThat(totalesCreditos.getTotal()).isEqualTo(400d);
+        assertThat(carteraService.listarCreditosPaginados(cliente.getId(), null, null, null, 10).getItems())
+                .hasSize(3);
+
+        assertThatThrownBy(() -> carteraService.listarAbonosPaginados(cliente.getId(), null, null, "no-es-cursor", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void completarMotivosPendientes_clasificaMovimientosAnterioresALaColumna() {
+        Cliente cliente = crearCliente("Cliente Motivos");
+        Producto producto = crearProducto("Aceite Motivos", 50d, 20);
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 100d));
+        VentaResponse anulada = ventaService.crearVenta(
+                construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100d));
+        ventaService.anularVenta(anulada.getId(), "Cliente rechazo");
+
+        CarteraAbonoRequest abonoRequest = new CarteraAbonoRequest();
+        abonoRequest.setMonto(80d);
+        CarteraAbonoDetalleResponse abono = carteraService.registrarAbono(cliente.getId(), abonoRequest).get(0);
+        carteraService.registrarAbono(cliente.getId(), abonoRequest);
+        CarteraAbonoRequest eliminarRequest = new CarteraAbonoRequest();
+        eliminarRequest.setMonto(abono.getMonto());
+        carteraService.eliminarAbono(cliente.getId(), abono.getMovimientoId(), eliminarRequest);
+        entityManager.flush();
+
+        entityManager.createNativeQuery("update cartera_movimientos set motivo = null").executeUpdate();
+        entityManager.clear();
+        assertThat(carteraService.listarAbonos(cliente.getId(), null, null)).isEmpty();
+
+        assertThat(carteraService.completarMotivosPendientes()).isPositive();
+        entityManager.clear();
+
+        List<CarteraMovimiento> movimientos = carteraMovimientoRepository.findAll().stream()
+                .filter(m -> m.getCartera().getCliente().getId().equals(cliente.getId()))
+                .toList();
+        assertThat(movimientos).extracting(CarteraMovimiento::getMotivo).containsExactlyInAnyOrder(
+                CarteraMovimientoMotivo.VENTA_CREDITO,
+                CarteraMovimientoMotivo.VENTA_CREDITO,
+                CarteraMovimientoMotivo.PAGO,
+                CarteraMovimientoMotivo.ELIMINACION_ABONO,
+                CarteraMovimientoMotivo.ANULACION_VENTA);
+        assertThat(movimientos).allSatisfy(m -> assertThat(m.getTipo()).isEqualTo(m.getMotivo().getTipo()));
+        assertThat(carteraService.listarAbonos(cliente.getId(), null, null))
+                .extracting(CarteraAbonoDetalleResponse::getMonto)
+                .containsExactlyInAnyOrder(80d, -abono.getMonto());
+        assertThat(carteraService.completarMotivosPendientes()).isZero();
+    }
+
+    @Test
+    void movimientosCartera_guardanSuClienteYSeCompletanLosAnterioresALaColumna() {
+        Cliente cliente = crearCliente("Cliente Movimientos Propios");
+        Producto producto = crearProducto("Aceite Movimientos Propios", 50d, 20);
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 100d));
+        CarteraAbonoRequest abonoRequest = new CarteraAbonoRequest();
+        abonoRequest.setMonto(30d);
+        carteraService.registrarAbono(cliente.getId(), abonoRequest);
+        entityManager.flush();
+
+        String contarSinCliente = "select count(*) from cartera_movimientos m join cartera c on c.id = m.cartera_id "
+                + "where c.cliente_id = ? and (m.cliente_id is null or m.cliente_id <> c.cliente_id)";
+        assertThat(jdbcTemplate.queryForObject(contarSinCliente, Long.class, cliente.getId())).isZero();
+
+        entityManager.createNativeQuery("update cartera_movimientos set cliente_id = null").executeUpdate();
+        entityManager.clear();
+        assertThat(carteraService.listarCreditosPaginados(cliente.getId(), null, null, null, 10).getItems()).isEmpty();
+
+        assertThat(carteraService.completarClientesPendientes()).isPositive();
+        entityManager.clear();
+
+        assertThat(jdbcTemplate.queryForObject(contarSinCliente, Long.class, cliente.getId())).isZero();
+        assertThat(carteraService.listarCreditosPaginados(cliente.getId(), null, null, null, 10).getItems()).hasSize(1);
+        assertThat(carteraService.listarAbonosPaginados(cliente.getId(), null, null, null, 10).getItems())
+                .extracting(CarteraAbonoDetalleResponse::getMonto)
+                .containsExactly(30d);
+        assertThat(carteraService.completarClientesPendientes()).isZero();
+    }
+
+    @Test
+    void registrarAbono_conMontosFraccionariosSaldaLasCarterasSinResiduos() throws Exception {
+        Cliente cliente = crearCliente("Cliente Centavos");
+        Producto producto = crearProducto("Aceite Centavos", 1d, 20);
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 0.1d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 0.2d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 3, 33.33d));
+
+        CarteraAbonoRequest abono = new CarteraAbonoRequest();
+        abono.setMonto(100.29d);
+        carteraService.registrarAbono(cliente.getId(), abono);
+        entityManager.flush();
+        entityManager.clear();
+
+        ClienteSaldoResponse saldo = clienteSaldoService.obtener(cliente.getId());
+        assertThat(saldo.getSaldoPendiente()).isZero();
+        assertThat(saldo.getCreditosAbiertos()).isZero();
+        assertThat(carteraRepository.findAll()).filteredOn(c -> c.getCliente().getId().equals(cliente.getId()))
+                .hasSize(3)
+                .allSatisfy(c -> assertThat(c.getSaldo()).isEqualTo(Dinero.CERO));
+
+        assertThat(Dinero.de(0.1d).sumar(Dinero.de(0.2d))).isEqualTo(Dinero.de(0.3d));
+        assertThat(objectMapper.writeValueAsString(Dinero.de(0.1d + 0.2d))).isEqualTo("0.30");
+        assertThat(objectMapper.readValue("12.345", Dinero.class).centavos()).isEqualTo(1235L);
+        assertThat(Dinero.de(-0.125d).centavos()).isEqualTo(-13L);
+        assertThat(new Dinero.Acumulador().agregar(0.1d).agregar(0.2d).total()).isEqualTo(Dinero.de(0.3d));
+        assertThatThrownBy(() -> new Dinero.Acumulador().agregar((Double) null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
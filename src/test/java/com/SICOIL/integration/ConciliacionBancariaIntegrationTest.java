@@ -0,0 +1,81 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.SICOIL.dtos.cartera.ConciliacionBancariaResponse;
+import com.SICOIL.dtos.cartera.ConciliacionLineaResponse;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.services.cartera.ConciliacionBancariaService;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class ConciliacionBancariaIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private ConciliacionBancariaService conciliacionBancariaService;
+
+    @Test
+    void conciliarExtracto_aplicaAbonosAsociadosYSeparaAmbiguosYRechazados() throws Exception {
+        Cliente jose = crearCliente("José Pérez");
+        jose.setTelefono("300 123 4567");
+        clienteRepository.save(jose);
+        Cliente norte = crearCliente("Comercial Norte");
+        crearCliente("COMERCIAL  NORTE");
+        Producto producto = crearProducto("Aceite Extracto", 50d, 20);
+        ventaService.crearVenta(construirVentaRequest(jose.getId(), producto.getId(), TipoVenta.CREDITO, 1, 200000d));
+        ventaService.crearVenta(construirVentaRequest(norte.getId(), producto.getId(), TipoVenta.CREDITO, 1, 80000d));
+
+        String extracto = String.join("\n",
+                "fecha;referencia;nombre;valor",
+                "2026-10-01;3001234567;JOSE PEREZ;\"$ 150.000\"",
+                "2026-10-02;;comercial norte;50.000",
+                "2026-10-03;;Desconocido;1000",
+                "2026-10-04;CLI-" + jose.getId() + ";;60000,00",
+                "2026-10-05;;Jose Perez;-2000");
+
+        ConciliacionBancariaResponse resultado = conciliacionBancariaService.procesarExtracto(
+                new ByteArrayInputStream(extracto.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(resultado.getTotalLineas()).isEqualTo(5);
+        assertThat(resultado.getAplicadas()).extracting(ConciliacionLineaResponse::getLinea).containsExactly(2);
+        assertThat(resultado.getAplicadas().get(0).getClienteId()).isEqualTo(jose.getId());
+        assertThat(resultado.getTotalAplicado()).isEqualTo(150000d);
+        assertThat(resultado.getAmbiguas()).extracting(ConciliacionLineaResponse::getLinea).containsExactly(3);
+        assertThat(resultado.getAmbiguas().get(0).getCandidatos()).hasSize(2);
+        assertThat(resultado.getRechazadas()).extracting(ConciliacionLineaResponse::getLinea).containsExactly(4, 5, 6);
+
+        assertThat(clienteSaldoService.obtener(jose.getId()).getSaldoPendiente()).isEqualTo(50000d);
+        assertThat(clienteSaldoService.obtener(norte.getId()).getSaldoPendiente()).isEqualTo(80000d);
+    }
+
+    @Test
+    void conciliarExtracto_rechazaLineasYaAplicadasORepetidas() throws Exception {
+        Cliente cliente = crearCliente("Cliente Duplicado");
+        Producto producto = crearProducto("Aceite Duplicado", 50d, 20);
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 1, 100000d));
+
+        String extracto = String.join("\n",
+                "fecha;referencia;nombre;valor",
+                "2026-10-01;CLI-" + cliente.getId() + ";;30.000",
+                "2026-10-01;CLI-" + cliente.getId() + ";;30.000",
+                "2026-10-02;CLI-" + cliente.getId() + ";;20.000");
+
+        ConciliacionBancariaResponse primera = conciliacionBancariaService.procesarExtracto(
+                new ByteArrayInputStream(extracto.getBytes(StandardCharsets.UTF_8)));
+        ConciliacionBancariaResponse segunda = conciliacionBancariaService.procesarExtracto(
+                new ByteArrayInputStream(extracto.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(primera.getAplicadas()).extracting(ConciliacionLineaResponse::getLinea).containsExactly(2, 4);
+        assertThat(primera.getRechazadas()).extracting(ConciliacionLineaResponse::getMotivo)
+                .containsExactly("La línea está repetida en el extracto.");
+        assertThat(segunda.getAplicadas()).isEmpty();
+        assertThat(segunda.getRechazadas()).extracting(ConciliacionLineaResponse::getLinea).containsExactly(2, 3, 4);
+        assertThat(segunda.getRechazadas()).extracting(ConciliacionLineaResponse::getMotivo)
+                .containsOnly("La línea ya se aplicó en un extracto anterior.");
+        assertThat(clienteSaldoService.obtener(cliente.getId()).getSaldoPendiente()).isEqualTo(50000d);
+    }
+}
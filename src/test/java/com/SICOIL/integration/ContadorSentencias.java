@@ -0,0 +1,155 @@
+package com.SICOIL.integration;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Envuelve el {@link DataSource} de las pruebas y cuenta las sentencias que llegan a la base de datos,
+ * agrupadas por tipo. Un lote enviado con {@code executeBatch} cuenta como una sola sentencia, porque
+ * es un solo viaje al servidor.
+ *
+ * <p>Los contadores son globales y no por hilo, para incluir las consultas que un servicio lanza en sus
+ * ejecutores; las pruebas se ejecutan en serie, así que cada medición solo ve su propia operación.
+ */
+public class ContadorSentencias implements BeanPostProcessor {
+
+    public enum TipoSentencia {
+        SELECT,
+        INSERT,
+        UPDATE,
+        DELETE,
+        OTRA
+    }
+
+    private final Map<TipoSentencia, AtomicLong> contadores = new EnumMap<>(TipoSentencia.class);
+
+    public ContadorSentencias() {
+        for (TipoSentencia tipo : TipoSentencia.values()) {
+            contadores.put(tipo, new AtomicLong());
+        }
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return envolver(DataSource.class, dataSource, this::interceptarDataSource);
+        }
+        return bean;
+    }
+
+    /**
+     * Ejecuta la operación y devuelve las sentencias que emitió.
+     */
+    public Medicion medir(Runnable operacion) {
+        return medirConResultado(() -> {
+            operacion.run();
+            return null;
+        }).medicion();
+    }
+
+    public <T> Resultado<T> medirConResultado(Supplier<T> operacion) {
+        Map<TipoSentencia, Long> antes = instantanea();
+        T valor = operacion.get();
+        Map<TipoSentencia, Long> despues = instantanea();
+        Map<TipoSentencia, Long> diferencia = new EnumMap<>(TipoSentencia.class);
+        for (TipoSentencia tipo : TipoSentencia.values()) {
+            diferencia.put(tipo, despues.get(tipo) - antes.get(tipo));
+        }
+        return new Resultado<>(valor, new Medicion(diferencia));
+    }
+
+    private Map<TipoSentencia, Long> instantanea() {
+        Map<TipoSentencia, Long> valores = new EnumMap<>(TipoSentencia.class);
+        contadores.forEach((tipo, contador) -> valores.put(tipo, contador.get()));
+        return valores;
+    }
+
+    private Object interceptarDataSource(Object destino, Method metodo, Object[] args) throws Throwable {
+        Object resultado = invocar(destino, metodo, args);
+        if (resultado instanceof Connection conexion) {
+            return envolver(Connection.class, conexion, this::interceptarConexion);
+        }
+        return resultado;
+    }
+
+    private Object interceptarConexion(Object destino, Method metodo, Object[] args) throws Throwable {
+        Object resultado = invocar(destino, metodo, args);
+        if (resultado instanceof Statement sentencia) {
+            String sqlPreparado = args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+            return envolver(metodo.getReturnType(), sentencia, (objetivo, llamado, argumentos) -> {
+                String nombre = llamado.getName();
+                if (nombre.startsWith("execute")) {
+                    String sql = argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto
+                            ? texto
+                            : sqlPreparado;
+                    contadores.get(clasificar(sql)).incrementAndGet();
+                }
+                return invocar(objetivo, llamado, argumentos);
+            });
+        }
+        return resultado;
+    }
+
+    private static TipoSentencia clasificar(String sql) {
+        if (sql == null) {
+            return TipoSentencia.OTRA;
+        }
+        String inicio = sql.stripLeading().toUpperCase(Locale.ROOT);
+        for (TipoSentencia tipo : TipoSentencia.values()) {
+            if (inicio.startsWith(tipo.name())) {
+                return tipo;
+            }
+        }
+        return inicio.startsWith("WITH") ? TipoSentencia.SELECT : TipoSentencia.OTRA;
+    }
+
+    private static Object envolver(Class<?> interfaz, Object destino, Interceptor interceptor) {
+        return Proxy.newProxyInstance(
+                ContadorSentencias.class.getClassLoader(),
+                new Class<?>[]{interfaz},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("unwrap") || metodo.getName().equals("isWrapperFor")) {
+                        return invocar(destino, metodo, args);
+                    }
+                    return interceptor.interceptar(destino, metodo, args);
+                });
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Interceptor {
+        Object interceptar(Object destino, Method metodo, Object[] args) throws Throwable;
+    }
+
+    public record Medicion(Map<TipoSentencia, Long> porTipo) {
+
+        public long total() {
+            return porTipo.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long de(TipoSentencia tipo) {
+            return porTipo.get(tipo);
+        }
+    }
+
+    public record Resultado<T>(T valor, Medicion medicion) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.services.cartera.ClienteSaldoService;
+import com.SICOIL.services.generador.GeneradorDatosService;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class GeneradorDatosIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private GeneradorDatosService generadorDatosService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void generadorDatos_respetaInvariantesYEsDeterministaPorSemilla() {
+        GeneradorDatosService.Parametros parametros = generadorDatosService.parametrosConfigurados().toBuilder()
+                .semilla(7)
+                .hasta(LocalDate.of(2024, 3, 31))
+                .dias(60)
+                .productos(12)
+                .clientes(25)
+                .usuarios(2)
+                .ventas(400)
+                .loteJdbc(64)
+                .contrasena("generada-1")
+                .build();
+
+        GeneradorDatosService.Resultado resultado = generadorDatosService.generar(parametros);
+
+        assertThat(resultado.ventas()).isEqualTo(400);
+        assertThat(resultado.lotes()).isGreaterThan(24);
+        assertThat(resultado.carteras()).isPositive();
+        assertThat(resultado.abonos()).isPositive();
+        assertThat(contarFilas("ventas")).isEqualTo(400);
+        assertThat(jdbcTemplate.queryForObject("""
+                select count(*) from productos p
+                where p.stock <> (select coalesce(sum(case when k.tipo_movimiento = 'ENTRADA' then k.cantidad
+                                                          else -k.cantidad end), 0)
+                                  from kardex k where k.producto_id = p.id)
+                """, Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("""
+                select count(*) from ventas v
+                where v.total <> (select sum(d.subtotal) from venta_detalle d where d.venta_id = v.id)
+                """, Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("""
+                select count(*) from cartera c
+                where c.saldo <> (select sum(case when m.tipo = 'CREDITO' then m.monto else -m.monto end)
+                                  from cartera_movimientos m where m.cartera_id = c.id)
+                """, Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select coalesce(sum(saldo_pendiente), 0) from cliente_saldo", Double.class))
+                .isEqualTo(jdbcTemplate.queryForObject("select coalesce(sum(saldo), 0) from cartera", Double.class));
+        assertThatThrownBy(() -> generadorDatosService.generar(parametros))
+                .isInstanceOf(IllegalStateException.class);
+
+        List<Object> huella = huellaGenerada();
+        for (String tabla : List.of("cliente_saldo", "cartera_movimientos", "cartera", "capital_movimientos",
+                "kardex", "venta_detalle", "ventas", "productos", "clientes")) {
+            jdbcTemplate.update("delete from " + tabla);
+        }
+        generadorDatosService.generar(parametros);
+
+        assertThat(huellaGenerada()).isEqualTo(huella);
+    }
+
+    @Test
+    void generadorDatos_exigeContrasenaYBorraLoGeneradoSiFalla() {
+        assertThatThrownBy(() -> generadorDatosService.generar(generadorDatosService.parametrosConfigurados()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("contraseña");
+
+        ClienteSaldoService saldoQueFalla = Mockito.mock(ClienteSaldoService.class);
+        Mockito.doThrow(new IllegalStateException("fallo al reconstruir")).when(saldoQueFalla).reconstruir();
+        GeneradorDatosService generador = new GeneradorDatosService(jdbcTemplate, transactionManager,
+                new BCryptPasswordEncoder(), saldoQueFalla, 7, "2024-03-31", 20, 5, 2, 8, 1, "generada-1", 80, 3, 50, 70, 64);
+        long clientesAntes = contarFilas("clientes");
+        long usuariosAntes = contarFilas("usuarios");
+
+        assertThatThrownBy(generador::generar).hasMessage("fallo al reconstruir");
+
+        for (String tabla : List.of("cartera_movimientos", "cartera", "capital_movimientos", "kardex",
+                "venta_detalle", "ventas", "productos", "cliente_saldo")) {
+            assertThat(contarFilas(tabla)).as(tabla).isZero();
+        }
+        assertThat(contarFilas("clientes")).isEqualTo(clientesAntes);
+        assertThat(contarFilas("usuarios")).isEqualTo(usuariosAntes);
+    }
+
+    private long contarFilas(String tabla) {
+        return jdbcTemplate.queryForObject("select count(*) from " + tabla, Long.class);
+    }
+
+    private List<Object> huellaGenerada() {
+        return List.of(
+                jdbcTemplate.queryForObject("select sum(total) from ventas", Double.class),
+                jdbcTemplate.queryForObject("select count(*) from ventas where tipo_venta = ?", Long.class,
+                        TipoVenta.CREDITO.ordinal()),
+                jdbcTemplate.queryForObject("select sum(cantidad) from venta_detalle", Long.class),
+                contarFilas("productos"),
+                jdbcTemplate.queryForObject("select sum(saldo) from cartera", Double.class),
+                jdbcTemplate.queryForObject("select sum(monto_total) from capital_movimientos", Double.class),
+                jdbcTemplate.queryForObject("select max(fecha_registro) from ventas", LocalDateTime.class)
+        );
+    }
+}
@@ -0,0 +1,150 @@
+package com.SICOIL.integration;
+
+import com.SICOIL.dtos.venta.DetalleVentaRequest;
+import com.SICOIL.dtos.venta.VentaRequest;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.models.Usuario;
+import com.SICOIL.repositories.CapitalMovimientoRepository;
+import com.SICOIL.repositories.CarteraRepository;
+import com.SICOIL.repositories.ClienteRepository;
+import com.SICOIL.repositories.ProductoRepository;
+import com.SICOIL.repositories.UsuarioRepository;
+import com.SICOIL.services.InventarioService;
+import com.SICOIL.services.cartera.CarteraService;
+import com.SICOIL.services.cartera.ClienteSaldoService;
+import com.SICOIL.services.security.UsuarioDetails;
+import com.SICOIL.services.venta.VentaService;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Contexto compartido por las pruebas de integración: arranca la aplicación con el perfil de
+ * pruebas, ejecuta cada prueba en una transacción que se revierte, autentica un usuario nuevo antes
+ * de cada una y ofrece los datos de prueba comunes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@Import(ContadorSentencias.class)
+@RecordApplicationEvents
+abstract class IntegracionBase {
+
+    @Autowired
+    protected VentaService ventaService;
+
+    @Autowired
+    protected CarteraService carteraService;
+
+    @Autowired
+    protected ProductoRepository productoRepository;
+
+    @Autowired
+    protected ClienteRepository clienteRepository;
+
+    @Autowired
+    protected UsuarioRepository usuarioRepository;
+
+    @Autowired
+    protected CapitalMovimientoRepository capitalMovimientoRepository;
+
+    @Autowired
+    protected CarteraRepository carteraRepository;
+
+    @Autowired
+    protected InventarioService inventarioService;
+
+    @Autowired
+    protected ClienteSaldoService clienteSaldoService;
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUpSecurityContext() {
+        SecurityContextHolder.clearContext();
+        Usuario usuario = usuarioRepository.save(
+                Usuario.builder()
+                        .usuario("tester-" + UUID.randomUUID())
+                        .contrasena("secret")
+                        .build()
+        );
+        UsuarioDetails details = new UsuarioDetails(usuario);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                details,
+                usuario.getContrasena(),
+                details.getAuthorities()
+        );
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    protected Producto crearProducto(String nombre, double precioCompra, int stock) {
+        Producto producto = Producto.builder()
+                .nombre(nombre)
+                .precioCompra(Dinero.de(precioCompra))
+                .cantidadPorCajas(1)
+                .stock(stock)
+                .build();
+        return productoRepository.save(producto);
+    }
+
+    protected Cliente crearCliente(String nombre) {
+        Cliente cliente = Cliente.builder()
+                .nombre(nombre)
+                .telefono("5551234")
+                .direccion("Calle 1")
+                .build();
+        return clienteRepository.save(cliente);
+    }
+
+    protected VentaRequest construirVentaRequest(Long clienteId,
+                                               Long productoId,
+                                               TipoVenta tipoVenta,
+                                               int cantidad,
+                                               double precioUnitario) {
+        DetalleVentaRequest item = construirDetalleVentaRequest(productoId, cantidad, precioUnitario);
+        return construirVentaRequest(clienteId, tipoVenta, List.of(item));
+    }
+
+    protected VentaRequest construirVentaRequest(Long clienteId,
+                                               TipoVenta tipoVenta,
+                                               List<DetalleVentaRequest> items) {
+        VentaRequest request = new VentaRequest();
+        request.setClienteId(clienteId);
+        request.setTipoVenta(tipoVenta);
+        request.setItems(items);
+        return request;
+    }
+
+    protected DetalleVentaRequest construirDetalleVentaRequest(Long productoId,
+                                                             int cantidad,
+                                                             double precioUnitario) {
+        DetalleVentaRequest item = new DetalleVentaRequest();
+        item.setNombreProducto(productoRepository.findById(productoId).orElseThrow().getNombre());
+        item.setCantidad(cantidad);
+        item.setSubtotal(precioUnitario);
+        return item;
+    }
+}
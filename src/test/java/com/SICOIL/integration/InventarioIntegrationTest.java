@@ -0,0 +1,116 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.SICOIL.dtos.producto.IngresoProductoRequest;
+import com.SICOIL.dtos.producto.ProductoActualizarRequest;
+import com.SICOIL.models.CapitalMovimiento;
+import com.SICOIL.models.CapitalOrigen;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.Producto;
+import com.SICOIL.services.capital.CapitalModificadoEvent;
+import com.SICOIL.services.producto.ProductoService;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.event.ApplicationEvents;
+
+class InventarioIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Test
+    void registrarIngresoProducto_incrementaStockYRegistraCompra() {
+        Producto producto = crearProducto("Aceite Compra", 70d, 12);
+        int stockInicial = producto.getStock();
+        int cantidad = 6;
+
+        IngresoProductoRequest request = new IngresoProductoRequest();
+        request.setNombreProducto(producto.getNombre());
+        request.setPrecioCompra(producto.getPrecioCompra().aDouble());
+        request.setCantidad(cantidad);
+
+        inventarioService.registrarIngresoProducto(request);
+
+        Producto actualizado = productoRepository.findById(producto.getId()).orElseThrow();
+        assertThat(actualizado.getStock()).isEqualTo(stockInicial + cantidad);
+
+        List<CapitalMovimiento> movimientos = capitalMovimientoRepository.findByOrigenAndReferenciaId(
+                CapitalOrigen.COMPRA,
+                producto.getId()
+        );
+        assertThat(movimientos).hasSize(1);
+        CapitalMovimiento compra = movimientos.get(0);
+        assertThat(compra.getMonto()).isEqualTo(producto.getPrecioCompra().multiplicar(cantidad).negar());
+    }
+
+    @Test
+    void registrarDevolucion_noGeneraMovimientosDeCapital() {
+        Producto producto = crearProducto("Aceite Devuelto", 35d, 10);
+        int stockInicial = producto.getStock();
+        int cantidadDevuelta = 4;
+        long movimientosAntes = capitalMovimientoRepository.count();
+
+        inventarioService.registrarDevolucion(producto.getId(), cantidadDevuelta, "Devolución simple");
+
+        Producto actualizado = productoRepository.findById(producto.getId()).orElseThrow();
+        assertThat(actualizado.getStock()).isEqualTo(stockInicial + cantidadDevuelta);
+        assertThat(capitalMovimientoRepository.count()).isEqualTo(movimientosAntes);
+    }
+
+    @Test
+    void registrarIngresoProducto_conNuevoPrecioCreaVariante() {
+        Producto base = crearProducto("Aceite Variantes", 55d, 8);
+        int stockBase = base.getStock();
+
+        IngresoProductoRequest request = new IngresoProductoRequest();
+        request.setNombreProducto(base.getNombre());
+        request.setPrecioCompra(base.getPrecioCompra().aDouble() + 10);
+        request.setCantidad(5);
+
+        Producto variante = inventarioService.registrarIngresoProducto(request);
+
+        assertThat(variante.getId()).isNotEqualTo(base.getId());
+        assertThat(variante.getNombre()).isEqualTo(base.getNombre());
+        assertThat(variante.getPrecioCompra()).isEqualTo(Dinero.de(request.getPrecioCompra()));
+        assertThat(variante.getStock()).isEqualTo(request.getCantidad());
+
+        Producto baseActualizado = productoRepository.findById(base.getId()).orElseThrow();
+        assertThat(baseActualizado.getStock()).isEqualTo(stockBase);
+
+        List<Producto> variantes = productoRepository.findAll().stream()
+                .filter(p -> p.getNombre().equals(base.getNombre()))
+                .toList();
+        assertThat(variantes).hasSize(2);
+
+        List<CapitalMovimiento> movimientos = capitalMovimientoRepository.findByOrigenAndReferenciaId(
+                CapitalOrigen.COMPRA,
+                variante.getId()
+        );
+        assertThat(movimientos).hasSize(1);
+        assertThat(movimientos.get(0).getMonto())
+                .isEqualTo(Dinero.de(-(request.getPrecioCompra() * request.getCantidad())));
+    }
+
+    @Test
+    void cambiosDeInventarioSinCapital_invalidanElResumenDeCapital() {
+        Producto producto = crearProducto("Aceite Resumen Inventario", 30d, 10);
+
+        long antes = eventos.stream(CapitalModificadoEvent.class).count();
+        productoService.eliminarCantidad(producto.getId(), 3, "Merma");
+        assertThat(eventos.stream(CapitalModificadoEvent.class).count()).isEqualTo(antes + 1);
+
+        inventarioService.registrarDevolucion(producto.getId(), 1, "Devolución");
+        assertThat(eventos.stream(CapitalModificadoEvent.class).count()).isEqualTo(antes + 2);
+
+        ProductoActualizarRequest actualizar = new ProductoActualizarRequest();
+        actualizar.setNombre("Aceite Resumen Inventario 2");
+        actualizar.setCantidadPorCajas(6);
+        productoService.actualizarProducto(producto.getNombre(), actualizar);
+        assertThat(eventos.stream(CapitalModificadoEvent.class).count()).isEqualTo(antes + 3);
+    }
+}
@@ -0,0 +1,114 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.SICOIL.dtos.kardex.KardexResponse;
+import com.SICOIL.models.Producto;
+import com.SICOIL.repositories.KardexHistoricoRepository;
+import com.SICOIL.repositories.KardexRepository;
+import com.SICOIL.services.kardex.KardexArchivoService;
+import com.SICOIL.services.kardex.KardexService;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+class KardexIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private KardexService kardexService;
+
+    @Autowired
+    private KardexArchivoService kardexArchivoService;
+
+    @Autowired
+    private KardexRepository kardexRepository;
+
+    @Autowired
+    private KardexHistoricoRepository kardexHistoricoRepository;
+
+    @Test
+    void archivarMesCerrado_trasladaKardexAlHistoricoYMantieneConsultas() {
+        Producto producto = crearProducto("Aceite Archivo", 30d, 0);
+        inventarioService.registrarDevolucion(producto.getId(), 5, "Movimiento antiguo");
+        inventarioService.registrarDevolucion(producto.getId(), 2, "Movimiento reciente");
+
+        YearMonth mesCerrado = kardexArchivoService.ultimoMesArchivable();
+        Long idAntiguo = kardexRepository.findAll().stream()
+                .filter(k -> "Movimiento antiguo".equals(k.getComentario()))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+        entityManager.flush();
+        entityManager.createNativeQuery("update kardex set fecha_registro = :fecha where id = :id")
+                .setParameter("fecha", mesCerrado.atDay(10).atStartOfDay())
+                .setParameter("id", idAntiguo)
+                .executeUpdate();
+        entityManager.clear();
+
+        int trasladados = kardexArchivoService.archivarMes(mesCerrado);
+
+        assertThat(trasladados).isEqualTo(1);
+        assertThat(kardexRepository.findById(idAntiguo)).isEmpty();
+        assertThat(kardexHistoricoRepository.findById(idAntiguo)).isPresent();
+        assertThat(kardexArchivoService.obtenerCorteArchivo()).isEqualTo(mesCerrado.plusMonths(1).atDay(1));
+
+        PageRequest pagina = PageRequest.of(0, 10);
+        Page<KardexResponse> soloHistorico = kardexService.buscar(pagina, producto.getId(), null, null, null,
+                mesCerrado.atDay(1), mesCerrado.atEndOfMonth());
+        assertThat(soloHistorico.getContent()).extracting(KardexResponse::getId).containsExactly(idAntiguo);
+
+        Page<KardexResponse> soloActivo = kardexService.buscar(pagina, producto.getId(), null, null, null,
+                LocalDate.now(), null);
+        assertThat(soloActivo.getContent()).extracting(KardexResponse::getComentario).containsExactly("Movimiento reciente");
+
+        Page<KardexResponse> sinRango = kardexService.buscar(pagina, producto.getId(), null, null, null, null, null);
+        assertThat(sinRango.getContent()).extracting(KardexResponse::getComentario).containsExactly("Movimiento reciente");
+
+        Page<KardexResponse> consolidado = kardexService.buscar(pagina, producto.getId(), null, null, null,
+                mesCerrado.atDay(1), null);
+        assertThat(consolidado.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void exportarKardexCsv_escribeEncabezadoYMovimientosFiltrados() throws Exception {
+        Producto producto = crearProducto("Aceite Exportar", 30d, 0);
+        inventarioService.registrarDevolucion(producto.getId(), 4, "Devolución, con coma");
+        entityManager.flush();
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long filas = kardexService.exportarCsv(salida, producto.getId(), null, null, null, null, null);
+
+        List<String> lineas = salida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(filas).isEqualTo(1);
+        assertThat(lineas).hasSize(2);
+        assertThat(lineas.get(0)).isEqualTo("id,fecha_registro,tipo,producto_id,producto,cantidad,usuario,comentario");
+        assertThat(lineas.get(1)).contains(",Aceite Exportar,4,").endsWith(",\"Devolución, con coma\"");
+    }
+
+    @Test
+    void buscarKardexSinTotal_devuelvePorcionConIndicadorDeSiguiente() {
+        Producto producto = crearProducto("Aceite Porcion", 30d, 0);
+        inventarioService.registrarDevolucion(producto.getId(), 1, "Primero");
+        inventarioService.registrarDevolucion(producto.getId(), 2, "Segundo");
+        inventarioService.registrarDevolucion(producto.getId(), 3, "Tercero");
+
+        Slice<KardexResponse> primera = kardexService.buscarSlice(PageRequest.of(0, 2, Sort.by("id")),
+                producto.getId(), null, null, null, null, null);
+        Slice<KardexResponse> segunda = kardexService.buscarSlice(PageRequest.of(1, 2, Sort.by("id")),
+                producto.getId(), null, null, null, null, null);
+
+        assertThat(primera).isNotInstanceOf(Page.class);
+        assertThat(primera.getContent()).extracting(KardexResponse::getComentario).containsExactly("Primero", "Segundo");
+        assertThat(primera.hasNext()).isTrue();
+        assertThat(segunda.getContent()).extracting(KardexResponse::getComentario).containsExactly("Tercero");
+        assertThat(segunda.hasNext()).isFalse();
+    }
+}
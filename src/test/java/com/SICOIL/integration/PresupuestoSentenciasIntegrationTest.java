@@ -0,0 +1,211 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.SICOIL.controllers.CapitalController;
+import com.SICOIL.controllers.CarteraController;
+import com.SICOIL.controllers.FiltroController;
+import com.SICOIL.controllers.KardexController;
+import com.SICOIL.controllers.ProductoController;
+import com.SICOIL.dtos.cartera.CarteraAbonoRequest;
+import com.SICOIL.dtos.venta.DetalleVentaRequest;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.services.capital.CapitalModificadoEvent;
+import com.SICOIL.services.capital.CapitalResumenService;
+import com.SICOIL.services.kardex.KardexArchivoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+class PresupuestoSentenciasIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private KardexArchivoService kardexArchivoService;
+
+    @Autowired
+    private CapitalResumenService capitalResumenService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ContadorSentencias contadorSentencias;
+
+    @Autowired
+    private CarteraController carteraController;
+
+    @Autowired
+    private CapitalController capitalController;
+
+    @Autowired
+    private KardexController kardexController;
+
+    @Autowired
+    private ProductoController productoController;
+
+    @Autowired
+    private FiltroController filtroController;
+
+    @Test
+    void metricas_midenVentaFifoYCuentanLotesYCarterasTocadas() {
+        Cliente cliente = crearCliente("Cliente Metricas");
+        Producto primerLote = crearProducto("Aceite Metricas", 10d, 2);
+        crearProducto("Aceite Metricas", 10d, 3);
+        long ventasAntes = contarMediciones("sicoil.venta.crear");
+        long fifoAntes = meterRegistry.timer("sicoil.venta.asignacion.fifo").count();
+        long kardexAntes = contarMediciones("sicoil.kardex.movimiento.registrar");
+        double lotesAntes = meterRegistry.counter("sicoil.venta.lotes.tocados").count();
+        double carterasAntes = meterRegistry.counter("sicoil.cartera.abono.carteras.tocadas").count();
+
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), primerLote.getId(), TipoVenta.CREDITO, 4, 10d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), primerLote.getId(), TipoVenta.CREDITO, 1, 10d));
+        CarteraAbonoRequest abono = new CarteraAbonoRequest();
+        abono.setMonto(50d);
+        carteraService.registrarAbono(cliente.getId(), abono);
+
+        assertThat(contarMediciones("sicoil.venta.crear")).isEqualTo(ventasAntes + 2);
+        assertThat(meterRegistry.timer("sicoil.venta.asignacion.fifo").count()).isEqualTo(fifoAntes + 2);
+        assertThat(contarMediciones("sicoil.kardex.movimiento.registrar")).isEqualTo(kardexAntes + 3);
+        assertThat(meterRegistry.counter("sicoil.venta.lotes.tocados").count()).isEqualTo(lotesAntes + 3);
+        assertThat(meterRegistry.counter("sicoil.cartera.abono.carteras.tocadas").count()).isEqualTo(carterasAntes + 2);
+        assertThat(contarMediciones("sicoil.cartera.abono.registrar")).isPositive();
+    }
+
+    @Test
+    void presupuestoSentencias_ventaListadoYAbonoNoCrecenConLosRegistros() {
+        Cliente cliente = crearCliente("Cliente Presupuesto");
+        List<DetalleVentaRequest> lineas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Producto producto = crearProducto("Aceite Presupuesto " + i, 10d, 50);
+            lineas.add(construirDetalleVentaRequest(producto.getId(), 1, 15d));
+        }
+        for (int i = 0; i < 4; i++) {
+            ventaService.crearVenta(construirVentaRequest(cliente.getId(), TipoVenta.CREDITO, lineas.subList(i, i + 1)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ContadorSentencias.Medicion ventaUnaLinea = medirConVaciado(() ->
+                ventaService.crearVenta(construirVentaRequest(cliente.getId(), TipoVenta.CONTADO, lineas.subList(0, 1))));
+        ContadorSentencias.Medicion venta = medirConVaciado(() ->
+                ventaService.crearVenta(construirVentaRequest(cliente.getId(), TipoVenta.CONTADO, lineas)));
+        ContadorSentencias.Medicion listado = medirConVaciado(() ->
+                ventaService.traerTodos(PageRequest.of(0, 20), null, null, null, null, null, null));
+        CarteraAbonoRequest abono = new CarteraAbonoRequest();
+        abono.setMonto(45d);
+        ContadorSentencias.Medicion abonoCarteras = medirConVaciado(() ->
+                carteraService.registrarAbono(cliente.getId(), abono));
+        // Las consultas de lotes y las actualizaciones no crecen con las líneas; cada línea inserta su
+        // detalle y su movimiento de kardex
+        assertThat(venta.de(ContadorSentencias.TipoSentencia.SELECT))
+                .isEqualTo(ventaUnaLinea.de(ContadorSentencias.TipoSentencia.SELECT));
+        assertThat(venta.de(ContadorSentencias.TipoSentencia.UPDATE))
+                .isEqualTo(ventaUnaLinea.de(ContadorSentencias.TipoSentencia.UPDATE));
+        assertThat(venta.de(ContadorSentencias.TipoSentencia.INSERT))
+                .isEqualTo(ventaUnaLinea.de(ContadorSentencias.TipoSentencia.INSERT) + 2L * (lineas.size() - 1));
+        assertThat(venta.total()).isLessThanOrEqualTo(26);
+        assertThat(venta.de(ContadorSentencias.TipoSentencia.DELETE)).isZero();
+        assertThat(listado.total()).isLessThanOrEqualTo(6);
+        assertThat(abonoCarteras.total()).isLessThanOrEqualTo(10);
+
+        for (int i = 0; i < 6; i++) {
+            ventaService.crearVenta(construirVentaRequest(
+                    crearCliente("Cliente Presupuesto " + i).getId(), TipoVenta.CREDITO, lineas.subList(i, i + 2)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        ContadorSentencias.Medicion listadoMayor = medirConVaciado(() ->
+                ventaService.traerTodos(PageRequest.of(0, 20), null, null, null, null, null, null));
+        assertThat(listadoMayor.total()).isEqualTo(listado.total());
+    }
+
+    @Test
+    void presupuestoSentencias_endpointsDeConsultaNoCrecenConLosRegistros() {
+        Cliente cliente = crearCliente("Cliente Endpoints");
+        Producto producto = crearProducto("Aceite Endpoints", 10d, 500);
+        registrarVentasYAbonos(cliente, producto, 2);
+
+        MedicionEndpoints antes = medirEndpointsDeConsulta(cliente.getId());
+
+        registrarVentasYAbonos(cliente, producto, 6);
+        for (int i = 0; i < 5; i++) {
+            crearProducto("Aceite Endpoints " + i, 12d, 40);
+            registrarVentasYAbonos(crearCliente("Cliente Endpoints " + i), producto, 1);
+        }
+        MedicionEndpoints despues = medirEndpointsDeConsulta(cliente.getId());
+
+        assertThat(despues.carteraPendientes().porTipo()).as("cartera pendientes")
+                .isEqualTo(antes.carteraPendientes().porTipo());
+        assertThat(despues.carteraPendientes().total()).as("cartera pendientes").isLessThanOrEqualTo(1);
+        assertThat(despues.abonosCliente().porTipo()).as("abonos del cliente")
+                .isEqualTo(antes.abonosCliente().porTipo());
+        assertThat(despues.abonosCliente().total()).as("abonos del cliente").isLessThanOrEqualTo(2);
+        assertThat(despues.resumenCapital().porTipo()).as("resumen de capital")
+                .isEqualTo(antes.resumenCapital().porTipo());
+        assertThat(despues.resumenCapital().total()).as("resumen de capital").isLessThanOrEqualTo(12);
+        assertThat(despues.kardex().porTipo()).as("kardex").isEqualTo(antes.kardex().porTipo());
+        assertThat(despues.kardex().total()).as("kardex").isLessThanOrEqualTo(3);
+        assertThat(despues.productos().porTipo()).as("productos").isEqualTo(antes.productos().porTipo());
+        assertThat(despues.productos().total()).as("productos").isLessThanOrEqualTo(1);
+        assertThat(despues.filtros().porTipo()).as("filtros").isEqualTo(antes.filtros().porTipo());
+        assertThat(despues.filtros().total()).as("filtros").isLessThanOrEqualTo(2);
+    }
+
+    private ContadorSentencias.Medicion medirConVaciado(Runnable operacion) {
+        ContadorSentencias.Medicion medicion = contadorSentencias.medir(() -> {
+            operacion.run();
+            entityManager.flush();
+        });
+        entityManager.clear();
+        return medicion;
+    }
+
+    /**
+     * Mide cartera pendientes, abonos del cliente, resumen de capital, kardex, productos y filtros,
+     * llamando a sus controladores. El resumen de capital se mide sin caché, como tras confirmarse
+     * una escritura, y el corte de archivo del kardex ya cargado.
+     */
+    private MedicionEndpoints medirEndpointsDeConsulta(Long clienteId) {
+        entityManager.flush();
+        entityManager.clear();
+        kardexArchivoService.obtenerCorteArchivo();
+        capitalResumenService.invalidar(new CapitalModificadoEvent());
+        return new MedicionEndpoints(
+                medirConVaciado(() -> carteraController.listarPendientes(null, null, null)),
+                medirConVaciado(() -> carteraController.listarAbonos(clienteId, null, null)),
+                medirConVaciado(() -> capitalController.obtenerResumen(null, null)),
+                medirConVaciado(() -> kardexController.listarKardex(
+                        PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "fechaRegistro")),
+                        null, null, null, null, null, null, true)),
+                medirConVaciado(() -> productoController.traerTodos(0, 20, null)),
+                medirConVaciado(() -> filtroController.obtenerFiltros()));
+    }
+
+    private record MedicionEndpoints(ContadorSentencias.Medicion carteraPendientes,
+                                     ContadorSentencias.Medicion abonosCliente,
+                                     ContadorSentencias.Medicion resumenCapital,
+                                     ContadorSentencias.Medicion kardex,
+                                     ContadorSentencias.Medicion productos,
+                                     ContadorSentencias.Medicion filtros) {
+    }
+
+    private void registrarVentasYAbonos(Cliente cliente, Producto producto, int ventas) {
+        for (int i = 0; i < ventas; i++) {
+            ventaService.crearVenta(construirVentaRequest(cliente.getId(), producto.getId(), TipoVenta.CREDITO, 2, 50d));
+            CarteraAbonoRequest abono = new CarteraAbonoRequest();
+            abono.setMonto(30d);
+            carteraService.registrarAbono(cliente.getId(), abono);
+        }
+    }
+
+    private long contarMediciones(String nombreTimer) {
+        return meterRegistry.find(nombreTimer).timers().stream().mapToLong(Timer::count).sum();
+    }
+}
@@ -0,0 +1,176 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.SICOIL.dtos.capital.CapitalClienteResumen;
+import com.SICOIL.dtos.capital.CapitalProductoResumen;
+import com.SICOIL.dtos.tablero.TableroEventoResponse;
+import com.SICOIL.dtos.venta.VentaResponse;
+import com.SICOIL.dtos.venta.VentaSeriePunto;
+import com.SICOIL.dtos.venta.VentaSerieResponse;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.GranularidadSerie;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.TipoVenta;
+import com.SICOIL.services.capital.ResumenDiarioService;
+import com.SICOIL.services.tablero.MovimientoTableroEvent;
+import com.SICOIL.services.tablero.TableroEventosService;
+import com.SICOIL.services.tablero.TipoMovimientoTablero;
+import com.SICOIL.services.usuario.UsuarioService;
+import com.SICOIL.services.venta.VentaRankingService;
+import com.SICOIL.services.venta.VentaSerieService;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class ReportesVentasIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private ResumenDiarioService resumenDiarioService;
+
+    @Autowired
+    private VentaSerieService ventaSerieService;
+
+    @Autowired
+    private VentaRankingService ventaRankingService;
+
+    @Autowired
+    private TableroEventosService tableroEventosService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Test
+    void obtenerSerieVentas_combinaDiasCerradosYAbiertosYRellenaPeriodosSinVentas() {
+        Cliente cliente = crearCliente("Cliente Serie");
+        Cliente otroCliente = crearCliente("Cliente Serie Dos");
+        Producto aceite = crearProducto("Aceite Serie", 50d, 20);
+        Producto filtro = crearProducto("Filtro Serie", 10d, 20);
+        VentaResponse cerrada = ventaService.crearVenta(construirVentaRequest(cliente.getId(), aceite.getId(), TipoVenta.CONTADO, 2, 100d));
+        VentaResponse otroProducto = ventaService.crearVenta(construirVentaRequest(otroCliente.getId(), filtro.getId(), TipoVenta.CONTADO, 1, 30d));
+        ventaService.crearVenta(construirVentaRequest(cliente.getId(), aceite.getId(), TipoVenta.CONTADO, 1, 100d));
+        entityManager.flush();
+
+        LocalDate hoy = LocalDate.now();
+        LocalDate haceTres = hoy.minusDays(3);
+        entityManager.createNativeQuery("update ventas set fecha_registro = :fecha where id in (:ids)")
+                .setParameter("fecha", haceTres.atTime(10, 0))
+                .setParameter("ids", List.of(cerrada.getId(), otroProducto.getId()))
+                .executeUpdate();
+        entityManager.clear();
+        resumenDiarioService.recalcular(haceTres, hoy.minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        VentaSerieResponse diaria = ventaSerieService.obtenerSerie(GranularidadSerie.DIA, haceTres, hoy, "aceite serie", null, null);
+        assertThat(diaria.getPuntos()).extracting(VentaSeriePunto::getInicio)
+                .containsExactly(haceTres, haceTres.plusDays(1), haceTres.plusDays(2), hoy);
+        assertThat(diaria.getPuntos()).extracting(VentaSeriePunto::getTotal).containsExactly(200d, 0d, 0d, 100d);
+        assertThat(diaria.getPuntos()).extracting(VentaSeriePunto::getUnidades).containsExactly(2L, 0L, 0L, 1L);
+
+        VentaSerieResponse porCliente = ventaSerieService.obtenerSerie(GranularidadSerie.DIA, haceTres, haceTres, null, otroCliente.getId(), null);
+        assertThat(porCliente.getPuntos()).singleElement().extracting(VentaSeriePunto::getTotal).isEqualTo(30d);
+
+        Long usuarioId = usuarioService.obtenerUsuarioActual().getId();
+        VentaSerieResponse todas = ventaSerieService.obtenerSerie(GranularidadSerie.DIA, haceTres, hoy, null, null, null);
+        VentaSerieResponse porUsuario = ventaSerieService.obtenerSerie(GranularidadSerie.DIA, haceTres, hoy, null, null, usuarioId);
+        assertThat(todas.getPuntos()).extracting(VentaSeriePunto::getTotal).containsExactly(230d, 0d, 0d, 100d);
+        assertThat(todas.getPuntos()).extracting(VentaSeriePunto::getUnidades).containsExactly(3L, 0L, 0L, 1L);
+        assertThat(porUsuario.getPuntos()).extracting(VentaSeriePunto::getTotal).containsExactly(230d, 0d, 0d, 100d);
+        assertThat(porUsuario.getPuntos()).extracting(VentaSeriePunto::getUnidades).containsExactly(3L, 0L, 0L, 1L);
+
+        // Ningún agregado guarda combinaciones de dimensiones: esas series se leen del detalle
+        VentaSerieResponse combinada = ventaSerieService.obtenerSerie(
+                GranularidadSerie.DIA, haceTres, hoy, "Aceite Serie", cliente.getId(), usuarioId);
+        assertThat(combinada.getPuntos()).extracting(VentaSeriePunto::getTotal).containsExactly(200d, 0d, 0d, 100d);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from ventas_ranking where periodo = 'DIA' and inicio = ? and dimension = 'USUARIO'",
+                Long.class, haceTres)).isEqualTo(1L);
+
+        VentaSerieResponse semanal = ventaSerieService.obtenerSerie(GranularidadSerie.SEMANA, haceTres, hoy, "Aceite Serie", null, null);
+        assertThat(semanal.getPuntos().get(0).getInicio()).isEqualTo(haceTres);
+        assertThat(semanal.getPuntos().stream().mapToDouble(VentaSeriePunto::getTotal).sum()).isEqualTo(300d);
+
+        assertThatThrownBy(() -> ventaSerieService.obtenerSerie(GranularidadSerie.DIA, hoy, haceTres, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void topProductosYClientes_combinaMesesDiasYVentasAbiertasConEmpates() {
+        Cliente primero = crearCliente("Cliente Ranking Uno");
+        Cliente segundo = crearCliente("Cliente Ranking Dos");
+        Cliente tercero = crearCliente("Cliente Ranking Tres");
+        Producto a = crearProducto("Ranking A", 5d, 20);
+        Producto b = crearProducto("Ranking B", 5d, 20);
+        Producto c = crearProducto("Ranking C", 5d, 20);
+        Producto d = crearProducto("Ranking D", 5d, 20);
+
+        LocalDate hoy = LocalDate.now();
+        LocalDate mesCerrado = hoy.minusMonths(2).withDayOfMonth(1);
+        LocalDate desde = mesCerrado.minusDays(5);
+        moverVenta(ventaService.crearVenta(construirVentaRequest(primero.getId(), a.getId(), TipoVenta.CONTADO, 3, 10d)),
+                mesCerrado.plusDays(4));
+        moverVenta(ventaService.crearVenta(construirVentaRequest(segundo.getId(), b.getId(), TipoVenta.CONTADO, 3, 50d)),
+                hoy.minusDays(1));
+        moverVenta(ventaService.crearVenta(construirVentaRequest(tercero.getId(), c.getId(), TipoVenta.CONTADO, 1, 20d)),
+                mesCerrado.minusDays(2));
+        moverVenta(ventaService.crearVenta(construirVentaRequest(tercero.getId(), d.getId(), TipoVenta.CONTADO, 9, 20d)),
+                mesCerrado.minusDays(10));
+        ventaService.crearVenta(construirVentaRequest(primero.getId(), c.getId(), TipoVenta.CONTADO, 2, 20d));
+        ventaService.crearVenta(construirVentaRequest(segundo.getId(), a.getId(), TipoVenta.CONTADO, 1, 10d));
+        entityManager.flush();
+        entityManager.clear();
+        resumenDiarioService.recalcular(mesCerrado.minusMonths(1), hoy.minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CapitalProductoResumen> productos = ventaRankingService.topProductos(desde, hoy, 2, false);
+        assertThat(productos).extracting(CapitalProductoResumen::getProductoNombre).containsExactly("Ranking A", "Ranking B");
+        assertThat(productos).extracting(CapitalProductoResumen::getCantidadVendida).containsExactly(4L, 3L);
+        assertThat(productos.get(0).getParticipacionPorcentaje()).isEqualTo(40d);
+
+        assertThat(ventaRankingService.topProductos(desde, hoy, 2, true))
+                .extracting(CapitalProductoResumen::getProductoNombre)
+                .containsExactly("Ranking A", "Ranking B", "Ranking C");
+
+        List<CapitalClienteResumen> clientes = ventaRankingService.topClientes(desde, hoy, 50, false);
+        assertThat(clientes).extracting(CapitalClienteResumen::getClienteId)
+                .containsExactly(segundo.getId(), primero.getId(), tercero.getId());
+        assertThat(clientes).extracting(CapitalClienteResumen::getMontoComprado).containsExactly(160d, 70d, 20d);
+        assertThat(clientes).extracting(CapitalClienteResumen::getTotalVentas).containsExactly(2L, 2L, 1L);
+
+        assertThatThrownBy(() -> ventaRankingService.topClientes(desde, hoy, 0, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void eventosTablero_seReanudanDesdeElUltimoRecibidoOIndicanReinicio() {
+        String antes = tableroEventosService.ultimoEventoId();
+        tableroEventosService.publicar(new MovimientoTableroEvent(TipoMovimientoTablero.VENTA, 1L, 2L, 100d, "Venta"));
+        tableroEventosService.publicar(new MovimientoTableroEvent(TipoMovimientoTablero.ABONO, null, 2L, 40d, "Abono"));
+        tableroEventosService.publicar(new MovimientoTableroEvent(TipoMovimientoTablero.RETIRO_CAPITAL, 3L, null, -10d, "Retiro"));
+
+        List<TableroEventoResponse> todos = tableroEventosService.eventosDesde(antes).orElseThrow();
+        assertThat(todos).extracting(TableroEventoResponse::getTipo).containsExactly(
+                TipoMovimientoTablero.VENTA, TipoMovimientoTablero.ABONO, TipoMovimientoTablero.RETIRO_CAPITAL);
+        assertThat(todos.get(2).getId()).isEqualTo(tableroEventosService.ultimoEventoId());
+
+        assertThat(tableroEventosService.eventosDesde(todos.get(0).getId()).orElseThrow())
+                .extracting(TableroEventoResponse::getMonto)
+                .containsExactly(40d, -10d);
+        assertThat(tableroEventosService.eventosDesde(tableroEventosService.ultimoEventoId()).orElseThrow()).isEmpty();
+        assertThat(tableroEventosService.eventosDesde(null).orElseThrow()).isEmpty();
+        assertThat(tableroEventosService.eventosDesde("otra-1")).isEmpty();
+        assertThat(tableroEventosService.eventosDesde("invalido")).isEmpty();
+    }
+
+    private void moverVenta(VentaResponse venta, LocalDate fecha) {
+        entityManager.flush();
+        entityManager.createNativeQuery("update ventas set fecha_registro = :fecha where id = :id")
+                .setParameter("fecha", fecha.atTime(10, 0))
+                .setParameter("id", venta.getId())
+                .executeUpdate();
+    }
+}
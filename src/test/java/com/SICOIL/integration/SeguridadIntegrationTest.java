@@ -0,0 +1,120 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.SICOIL.config.LimiteConsumoInterceptor;
+import com.SICOIL.models.Usuario;
+import com.SICOIL.services.security.AutenticacionCache;
+import com.SICOIL.services.security.TipoToken;
+import com.SICOIL.services.security.TokenAutenticacionService;
+import com.SICOIL.services.security.UsuarioDetails;
+import com.SICOIL.services.security.UsuarioToken;
+import com.SICOIL.services.usuario.UsuarioService;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+class SeguridadIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private AutenticacionCache autenticacionCache;
+
+    @Autowired
+    private TokenAutenticacionService tokenAutenticacionService;
+
+    @Autowired
+    private LimiteConsumoInterceptor limiteConsumoInterceptor;
+
+    @Test
+    void autenticar_reutilizaUsuarioYCredencialVerificadaHastaInvalidar() {
+        String nombre = "cajero-" + UUID.randomUUID();
+        Usuario usuario = usuarioService.crear(Usuario.builder().usuario(nombre).contrasena("clave-1").build());
+
+        Authentication primera = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(nombre, "clave-1"));
+        Authentication segunda = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(nombre, "clave-1"));
+        assertThat(((UsuarioDetails) segunda.getPrincipal()).getUsuario())
+                .isSameAs(((UsuarioDetails) primera.getPrincipal()).getUsuario());
+        assertThat(autenticacionCache.credencialVerificada(nombre, "clave-1", usuario.getContrasena())).isTrue();
+        assertThat(autenticacionCache.credencialVerificada(nombre, "otra", usuario.getContrasena())).isFalse();
+        assertThatThrownBy(() -> authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(nombre, "otra")))
+                .isInstanceOf(BadCredentialsException.class);
+
+        usuario.setContrasena(new BCryptPasswordEncoder().encode("clave-2"));
+        usuarioRepository.saveAndFlush(usuario);
+        autenticacionCache.invalidar(nombre);
+        assertThat(autenticacionCache.credencialVerificada(nombre, "clave-1", usuario.getContrasena())).isFalse();
+        assertThatThrownBy(() -> authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(nombre, "clave-1")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(nombre, "clave-2")).isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void tokenFirmado_identificaAlUsuarioSinSesionYSeRefresca() {
+        Usuario usuario = usuarioService.crear(Usuario.builder()
+                .usuario("movil-" + UUID.randomUUID())
+                .contrasena("clave")
+                .build());
+
+        TokenAutenticacionService.TokensEmitidos tokens = tokenAutenticacionService.emitir(usuario);
+        UsuarioToken usuarioToken = tokenAutenticacionService.validar(tokens.acceso(), TipoToken.ACCESO).orElseThrow();
+        assertThat(usuarioToken.id()).isEqualTo(usuario.getId());
+        assertThat(usuarioToken.usuario()).isEqualTo(usuario.getUsuario());
+        assertThat(tokenAutenticacionService.validar(tokens.acceso(), TipoToken.REFRESCO)).isEmpty();
+        assertThat(tokenAutenticacionService.validar(tokens.acceso() + "x", TipoToken.ACCESO)).isEmpty();
+        assertThat(tokenAutenticacionService.validar("sin-firma", TipoToken.ACCESO)).isEmpty();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(usuarioToken, null, List.of()));
+        assertThat(usuarioService.obtenerUsuarioActual().getId()).isEqualTo(usuario.getId());
+
+        TokenAutenticacionService.TokensEmitidos refrescados = tokenAutenticacionService.refrescar(tokens.refresco());
+        assertThat(tokenAutenticacionService.validar(refrescados.acceso(), TipoToken.ACCESO))
+                .contains(usuarioToken);
+        assertThatThrownBy(() -> tokenAutenticacionService.refrescar(tokens.acceso()))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void limiteConsumo_rechazaReportesExcedidosCon429SinBloquearVentas() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest reporte = new MockHttpServletRequest("GET", "/api/capital/resumen");
+            MockHttpServletResponse respuesta = new MockHttpServletResponse();
+            assertThat(limiteConsumoInterceptor.preHandle(reporte, respuesta, null)).isTrue();
+            limiteConsumoInterceptor.afterCompletion(reporte, respuesta, null, null);
+        }
+
+        MockHttpServletResponse rechazada = new MockHttpServletResponse();
+        assertThat(limiteConsumoInterceptor.preHandle(
+                new MockHttpServletRequest("GET", "/api/ventas/15/comprobante"), rechazada, null)).isFalse();
+        assertThat(rechazada.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rechazada.getHeader("Retry-After"))).isPositive();
+        assertThat(rechazada.getContentAsString()).contains("Demasiadas solicitudes");
+
+        MockHttpServletResponse venta = new MockHttpServletResponse();
+        assertThat(limiteConsumoInterceptor.preHandle(
+                new MockHttpServletRequest("POST", "/api/ventas"), venta, null)).isTrue();
+        assertThat(venta.getStatus()).isEqualTo(200);
+    }
+}
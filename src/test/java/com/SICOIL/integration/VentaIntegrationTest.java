@@ -0,0 +1,241 @@
+package com.SICOIL.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.SICOIL.dtos.cartera.CarteraAbonoRequest;
+import com.SICOIL.dtos.venta.DetalleVentaRequest;
+import com.SICOIL.dtos.venta.VentaRequest;
+import com.SICOIL.dtos.venta.VentaResponse;
+import com.SICOIL.models.CapitalMovimiento;
+import com.SICOIL.models.CapitalOrigen;
+import com.SICOIL.models.Cartera;
+import com.SICOIL.models.Cliente;
+import com.SICOIL.models.DetalleVenta;
+import com.SICOIL.models.Dinero;
+import com.SICOIL.models.Producto;
+import com.SICOIL.models.TipoVenta;
+import jakarta.validation.Validator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class VentaIntegrationTest extends IntegracionBase {
+
+    @Autowired
+    private Validator validator;
+
+    @Test
+    void crearVentaContado_actualizaInventarioYCapitalSinCartera() {
+        Producto producto = crearProducto("Aceite Premium", 50d, 20);
+        int stockInicial = producto.getStock();
+        Cliente cliente = crearCliente("Cliente Contado");
+        int cantidadVendida = 2;
+        double precioUnitario = 150d;
+
+        VentaRequest request = construirVentaRequest(
+                cliente.getId(),
+                producto.getId(),
+                TipoVenta.CONTADO,
+                cantidadVendida,
+                precioUnitario
+        );
+
+        VentaResponse response = ventaService.crearVenta(request);
+
+        assertThat(response.getTotal()).isEqualTo(precioUnitario * cantidadVendida);
+
+        Producto actualizado = productoRepository.findById(producto.getId()).orElseThrow();
+        assertThat(actualizado.getStock()).isEqualTo(stockInicial - cantidadVendida);
+
+        List<CapitalMovimiento> movimientos = capitalMovimientoRepository.findAll();
+        assertThat(movimientos).hasSize(1);
+        CapitalMovimiento movimiento = movimientos.get(0);
+        assertThat(movimiento.getOrigen()).isEqualTo(CapitalOrigen.VENTA);
+        assertThat(movimiento.getEsCredito()).isFalse();
+        assertThat(movimiento.getMonto()).isEqualTo(Dinero.de(precioUnitario * cantidadVendida));
+
+        assertThat(carteraRepository.count()).isZero();
+    }
+
+    @Test
+    void ventaCreditoYAbono_actualizaCarteraYCapital() {
+        Producto producto = crearProducto("Aceite Credito", 80d, 15);
+        Cliente cliente = crearCliente("Cliente Credito");
+        int cantidad = 3;
+        double precioUnitario = 200d;
+
+        VentaRequest request = construirVentaRequest(
+                cliente.getId(),
+                producto.getId(),
+                TipoVenta.CREDITO,
+                cantidad,
+                precioUnitario
+        );
+
+        VentaResponse response = ventaService.crearVenta(request);
+        double totalVenta = precioUnitario * cantidad;
+
+        Cartera cartera = carteraRepository.findByVentaId(response.getId()).orElseThrow();
+        assertThat(cartera.getSaldo()).isEqualTo(Dinero.de(totalVenta));
+
+        List<CapitalMovimiento> despuesVenta = capitalMovimientoRepository.findAll();
+        assertThat(despuesVenta).hasSize(1);
+        CapitalMovimiento credito = despuesVenta.get(0);
+        assertThat(credito.getEsCredito()).isTrue();
+        assertThat(credito.getMonto()).isEqualTo(Dinero.de(totalVenta));
+
+        double abonoParcial = totalVenta / 2;
+        String observacionAbono = "Pago parcial";
+        CarteraAbonoRequest abonoRequest = new CarteraAbonoRequest();
+        abonoRequest.setMonto(abonoParcial);
+        abonoRequest.setObservacion(observacionAbono);
+
+        carteraService.registrarAbono(cliente.getId(), abonoRequest);
+
+        Cartera carteraActualizada = carteraRepository.findById(cartera.getId()).orElseThrow();
+        assertThat(carteraActualizada.getSaldo()).isEqualTo(Dinero.de(totalVenta - abonoParcial));
+
+        List<CapitalMovimiento> movimientosFinales = capitalMovimientoRepository.findAll();
+        assertThat(movimientosFinales).hasSize(2);
+        CapitalMovimiento abonoMovimiento = movimientosFinales.stream()
+                .filter(m -> !m.getEsCredito())
+                .findFirst()
+                .orElseThrow();
+        assertThat(abonoMovimiento.getMonto()).isEqualTo(Dinero.de(abonoParcial));
+        assertThat(abonoMovimiento.getDescripcion()).contains(observacionAbono);
+    }
+
+    @Test
+    void anularVentaContado_revierteStockYCapital() {
+        Producto producto = crearProducto("Aceite Contado", 40d, 18);
+        int stockInicial = producto.getStock();
+        Cliente cliente = crearCliente("Cliente Anulacion Contado");
+
+        VentaResponse venta = ventaService.crearVenta(construirVentaRequest(
+                cliente.getId(),
+                producto.getId(),
+                TipoVenta.CONTADO,
+                4,
+                120d
+        ));
+
+        VentaResponse anulada = ventaService.anularVenta(venta.getId(), "Error en factura");
+        assertThat(anulada.isActiva()).isFalse();
+
+        Producto actualizado = productoRepository.findById(producto.getId()).orElseThrow();
+        assertThat(actualizado.getStock()).isEqualTo(stockInicial);
+
+        List<CapitalMovimiento> movimientos = capitalMovimientoRepository.findByOrigenAndReferenciaId(
+                CapitalOrigen.VENTA,
+                venta.getId()
+        );
+        assertThat(movimientos).hasSize(2);
+        assertThat(movimientos).allMatch(m -> !m.getEsCredito());
+        assertThat(movimientos.stream().mapToDouble(m -> m.getMonto().aDouble()).sum()).isEqualTo(0d);
+    }
+
+    @Test
+    void anularVentaCredito_eliminaCreditoYPendientes() {
+        Producto producto = crearProducto("Aceite Credito Anulacion", 60d, 25);
+        Cliente cliente = crearCliente("Cliente Anulacion Credito");
+        int cantidad = 5;
+        double precio = 180d;
+
+        VentaResponse venta = ventaService.crearVenta(construirVentaRequest(
+                cliente.getId(),
+                producto.getId(),
+                TipoVenta.CREDITO,
+                cantidad,
+                precio
+        ));
+
+        ventaService.anularVenta(venta.getId(), "Cliente rechazo");
+
+        Cartera cartera = carteraRepository.findByVentaId(venta.getId()).orElseThrow();
+        assertThat(cartera.getSaldo()).isEqualTo(Dinero.CERO);
+
+        List<CapitalMovimiento> movimientos = capitalMovimientoRepository.findByOrigenAndReferenciaId(
+                CapitalOrigen.VENTA,
+                venta.getId()
+        );
+        assertThat(movimientos).hasSize(2);
+        assertThat(movimientos).allMatch(CapitalMovimiento::getEsCredito);
+        assertThat(movimientos.stream().mapToDouble(m -> m.getMonto().aDouble()).sum()).isEqualTo(0d);
+    }
+
+    @Test
+    void crearVentaConMultiplesProductos_descuentaStocksYRegistraCapital() {
+        Producto productoA = crearProducto("Aceite Familiar", 60d, 30);
+        Producto productoB = crearProducto("Aceite Individual", 45d, 25);
+        int stockInicialA = productoA.getStock();
+        int stockInicialB = productoB.getStock();
+        Cliente cliente = crearCliente("Cliente Multiproducto");
+
+        DetalleVentaRequest itemA = construirDetalleVentaRequest(productoA.getId(), 3, 120d);
+        DetalleVentaRequest itemB = construirDetalleVentaRequest(productoB.getId(), 4, 90d);
+        VentaRequest request = construirVentaRequest(
+                cliente.getId(),
+                TipoVenta.CONTADO,
+                List.of(itemA, itemB)
+        );
+
+        VentaResponse response = ventaService.crearVenta(request);
+        assertThat(response.getDetalles()).hasSize(2);
+        double totalEsperado = (120d * 3) + (90d * 4);
+        assertThat(response.getTotal()).isEqualTo(totalEsperado);
+
+        Producto actualizadoA = productoRepository.findById(productoA.getId()).orElseThrow();
+        Producto actualizadoB = productoRepository.findById(productoB.getId()).orElseThrow();
+        assertThat(actualizadoA.getStock()).isEqualTo(stockInicialA - 3);
+        assertThat(actualizadoB.getStock()).isEqualTo(stockInicialB - 4);
+
+        List<CapitalMovimiento> movimientos = capitalMovimientoRepository.findByOrigenAndReferenciaId(
+                CapitalOrigen.VENTA,
+                response.getId()
+        );
+        assertThat(movimientos).hasSize(1);
+        CapitalMovimiento movimiento = movimientos.get(0);
+        assertThat(movimiento.getMonto()).isEqualTo(Dinero.de(totalEsperado));
+        assertThat(movimiento.getEsCredito()).isFalse();
+    }
+
+    @Test
+    void crearVentaConStockInsuficiente_fallaSinAfectarInventarioNiCapital() {
+        Producto producto = crearProducto("Aceite Limitado", 65d, 2);
+        Cliente cliente = crearCliente("Cliente Sin Stock");
+        int cantidadSolicitada = producto.getStock() + 3;
+        VentaRequest request = construirVentaRequest(
+                cliente.getId(),
+                producto.getId(),
+                TipoVenta.CONTADO,
+                cantidadSolicitada,
+                140d
+        );
+        long movimientosAntes = capitalMovimientoRepository.count();
+
+        assertThatThrownBy(() -> ventaService.crearVenta(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("stock disponible");
+
+        Producto actualizado = productoRepository.findById(producto.getId()).orElseThrow();
+        assertThat(actualizado.getStock()).isEqualTo(producto.getStock());
+        assertThat(capitalMovimientoRepository.count()).isEqualTo(movimientosAntes);
+    }
+
+    @Test
+    void dinero_validaMontosPositivosYRechazaLosAusentes() {
+        DetalleVenta detalle = DetalleVenta.builder().cantidad(1).subtotal(Dinero.CERO).build();
+        assertThat(validator.validateProperty(detalle, "subtotal")).hasSize(1);
+
+        detalle.setSubtotal(Dinero.de(10d));
+        assertThat(validator.validateProperty(detalle, "subtotal")).isEmpty();
+
+        Producto producto = Producto.builder().precioCompra(Dinero.de(-1d)).build();
+        assertThat(validator.validateProperty(producto, "precioCompra")).hasSize(1);
+
+        assertThatThrownBy(() -> Dinero.de((Double) null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("El monto es obligatorio.");
+    }
+}